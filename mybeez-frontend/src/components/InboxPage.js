@@ -19,6 +19,7 @@ const InboxPage = ({ onConversationAction }) => {
     const [activeConversationId, setActiveConversationId] = useState(null);
     const [newMessage, setNewMessage] = useState('');
     const [isLoadingMessages, setIsLoadingMessages] = useState(false);
+    const [isLoadingOlder, setIsLoadingOlder] = useState(false);
     const [isSending, setIsSending] = useState(false);
     const [filter, setFilter] = useState('All');
     const [validationRules, setValidationRules] = useState(null);
@@ -26,9 +27,14 @@ const InboxPage = ({ onConversationAction }) => {
 
     const currentUser = AuthService.getCurrentUser();
     const messagesEndRef = useRef(null);
+    const skipNextScrollRef = useRef(false);
 
-    // This effect handles the auto-scrolling
+    // This effect handles the auto-scrolling; prepending older messages keeps the view where it is
     useEffect(() => {
+        if (skipNextScrollRef.current) {
+            skipNextScrollRef.current = false;
+            return;
+        }
         messagesEndRef.current?.scrollIntoView({ behavior: "smooth" });
     }, [selectedConversation?.messages]);
 
@@ -64,7 +70,7 @@ const InboxPage = ({ onConversationAction }) => {
 
         setActiveConversationId(convoId);
         setNewMessage('');
-        setSelectedConversation({ ...convoDetails, messages: [] });
+        setSelectedConversation({ ...convoDetails, messages: [], hasOlderMessages: false });
         setIsLoadingMessages(true);
 
         const headers = { 'Authorization': `Bearer ${currentUser.accessToken}` };
@@ -73,6 +79,7 @@ const InboxPage = ({ onConversationAction }) => {
                 setSelectedConversation(prev => ({
                     ...prev,
                     messages: response.data.messages || [],
+                    hasOlderMessages: response.data.hasOlderMessages === true,
                 }));
                 setConversations(prevConversations =>
                     prevConversations.map(c =>
@@ -89,6 +96,34 @@ const InboxPage = ({ onConversationAction }) => {
             });
     };
 
+    // Loads the page of messages just before the oldest one shown
+    const handleLoadOlderMessages = () => {
+        const oldestMessage = selectedConversation?.messages?.[0];
+        if (!oldestMessage || isLoadingOlder) return;
+
+        const convoId = activeConversationId;
+        setIsLoadingOlder(true);
+        const headers = { 'Authorization': `Bearer ${currentUser.accessToken}` };
+        axios.get(`/api/messages/conversations/${convoId}`, { headers, params: { before: oldestMessage.id } })
+            .then(response => {
+                skipNextScrollRef.current = true;
+                setSelectedConversation(prev => {
+                    if (!prev || prev.id !== convoId) return prev;
+                    return {
+                        ...prev,
+                        messages: [...(response.data.messages || []), ...prev.messages],
+                        hasOlderMessages: response.data.hasOlderMessages === true,
+                    };
+                });
+            })
+            .catch(err => {
+                toast.error("Could not load older messages.");
+            })
+            .finally(() => {
+                setIsLoadingOlder(false);
+            });
+    };
+
     // This function handles sending the message
     const handleSendMessage = (e) => {
         e.preventDefault();
@@ -242,6 +277,13 @@ const InboxPage = ({ onConversationAction }) => {
                                 </div>
                             ) : (
                                 <div className="space-y-1">
+                                    {selectedConversation.hasOlderMessages && (
+                                        <div className="text-center mb-4">
+                                            <button onClick={handleLoadOlderMessages} disabled={isLoadingOlder} className="px-4 py-1.5 text-sm font-semibold text-gray-600 bg-white border border-gray-300 rounded-full hover:bg-gray-100 disabled:text-gray-400">
+                                                {isLoadingOlder ? 'Loading...' : 'Load older messages'}
+                                            </button>
+                                        </div>
+                                    )}
                                     {selectedConversation.messages && selectedConversation.messages.map((msg, index) => {
                                         const prevMsg = selectedConversation.messages[index - 1];
                                         const showDateSeparator = msg.timestamp && (!prevMsg || !isSameDay(parseISO(msg.timestamp), parseISO(prevMsg.timestamp)));
@@ -9,6 +9,7 @@ import com.Mybeez.TeamB.TeamB.model.User;
 import com.Mybeez.TeamB.TeamB.model.UserRole;
 import com.Mybeez.TeamB.TeamB.repository.UserRepository;
 import com.Mybeez.TeamB.TeamB.service.AdminService;
+import com.Mybeez.TeamB.TeamB.service.ExperienceDTOAssembler;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,7 +17,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -28,6 +28,9 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private ExperienceDTOAssembler experienceDTOAssembler;
+
     @PostMapping("/approve-host/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> approveHostApplication(@PathVariable Long userId) {
@@ -50,7 +53,7 @@ public class AdminController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ExperienceDTO>> getPendingExperiences() {
         List<Experience> experiences = adminService.getPendingExperiences();
-        List<ExperienceDTO> dtos = experiences.stream().map(ExperienceDTO::new).collect(Collectors.toList());
+        List<ExperienceDTO> dtos = experienceDTOAssembler.toDtos(experiences);
         return ResponseEntity.ok(dtos);
     }
 
@@ -1,7 +1,9 @@
 package com.Mybeez.TeamB.TeamB.controller;
 
 import com.Mybeez.TeamB.TeamB.payload.GroupAvailabilityResponse;
+import com.Mybeez.TeamB.TeamB.payload.PriceQuote;
 import com.Mybeez.TeamB.TeamB.service.AvailabilityService;
+import com.Mybeez.TeamB.TeamB.service.PriceQuoteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,6 +15,9 @@ public class AvailabilityController {
     @Autowired
     private AvailabilityService availabilityService;
 
+    @Autowired
+    private PriceQuoteService priceQuoteService;
+
     @GetMapping("/{experienceId}/group")
     public ResponseEntity<GroupAvailabilityResponse> getGroupAvailability(@PathVariable Long experienceId) {
         return ResponseEntity.ok(availabilityService.getGroupAvailability(experienceId));
@@ -22,4 +27,15 @@ public class AvailabilityController {
     public ResponseEntity<GroupAvailabilityResponse> getPrivateAvailability(@PathVariable Long experienceId) {
         return ResponseEntity.ok(availabilityService.getPrivateAvailability(experienceId));
     }
-}
\ No newline at end of file
+
+    /**
+     * Prices a slot for a party, with an optional coupon. Pass the quoteId on to checkout to pay this price.
+     */
+    @GetMapping("/slots/{availabilityId}/quote")
+    public ResponseEntity<PriceQuote> getQuote(
+            @PathVariable Long availabilityId,
+            @RequestParam int guests,
+            @RequestParam(required = false) String couponCode) {
+        return ResponseEntity.ok(priceQuoteService.quote(availabilityId, guests, couponCode));
+    }
+}
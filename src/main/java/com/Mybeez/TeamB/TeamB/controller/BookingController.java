@@ -2,9 +2,13 @@ package com.Mybeez.TeamB.TeamB.controller;
 
 import com.Mybeez.TeamB.TeamB.model.Booking;
 import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.BookingFilter;
+import com.Mybeez.TeamB.TeamB.payload.BookingPageResponse;
 import com.Mybeez.TeamB.TeamB.payload.BookingRequest;
 import com.Mybeez.TeamB.TeamB.payload.MyBookingDTO;
+import com.Mybeez.TeamB.TeamB.payload.WaitlistEntryDTO;
 import com.Mybeez.TeamB.TeamB.service.BookingService;
+import com.Mybeez.TeamB.TeamB.service.WaitlistService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +25,9 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private WaitlistService waitlistService;
+
     @PostMapping
     public ResponseEntity<Booking> createBooking(
             @Valid @RequestBody BookingRequest bookingRequest,
@@ -36,4 +43,49 @@ public class BookingController {
         List<MyBookingDTO> bookings = bookingService.getBookingsForUser(currentUser.getId());
         return ResponseEntity.ok(bookings);
     }
-}
\ No newline at end of file
+
+    /**
+     * Paginated variant of my-bookings.
+     * filter is one of upcoming (the default), past or cancelled; pass the returned nextCursor back as cursor
+     * to fetch the following page.
+     */
+    @GetMapping("/my-bookings/page")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BookingPageResponse> getMyBookingsPage(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(defaultValue = "upcoming") String filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + BookingService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(bookingService.getBookingsPage(
+                currentUser.getId(), BookingFilter.fromParam(filter), cursor, size));
+    }
+
+    /**
+     * Queues the user for a full slot; they are booked automatically, in the order they joined, when spots
+     * come free.
+     */
+    @PostMapping("/waitlist")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<WaitlistEntryDTO> joinWaitlist(
+            @Valid @RequestBody BookingRequest bookingRequest,
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(waitlistService.join(bookingRequest, currentUser.getId()));
+    }
+
+    @GetMapping("/waitlist/{entryId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<WaitlistEntryDTO> getWaitlistEntry(
+            @PathVariable Long entryId,
+            @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(waitlistService.getEntry(entryId, currentUser.getId()));
+    }
+
+    @DeleteMapping("/waitlist/{entryId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> leaveWaitlist(
+            @PathVariable Long entryId,
+            @AuthenticationPrincipal User currentUser) {
+        waitlistService.leave(entryId, currentUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+}
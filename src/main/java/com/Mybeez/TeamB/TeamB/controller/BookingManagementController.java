@@ -2,8 +2,11 @@ package com.Mybeez.TeamB.TeamB.controller;
 
 import com.Mybeez.TeamB.TeamB.model.Booking;
 import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.BookingBatchRequest;
+import com.Mybeez.TeamB.TeamB.payload.BookingDecisionResult;
 import com.Mybeez.TeamB.TeamB.payload.PendingBookingDTO;
 import com.Mybeez.TeamB.TeamB.service.BookingManagementService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -37,4 +40,19 @@ public class BookingManagementController {
         Booking rejectedBooking = bookingManagementService.rejectBooking(bookingId, currentUser);
         return ResponseEntity.ok(rejectedBooking);
     }
+
+    /**
+     * Approves a batch of pending bookings; see BookingManagementService.approveBookings for the per-id outcomes.
+     */
+    @PutMapping("/approve")
+    public ResponseEntity<List<BookingDecisionResult>> approveBookings(
+            @Valid @RequestBody BookingBatchRequest request, @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(bookingManagementService.approveBookings(request.getBookingIds(), currentUser));
+    }
+
+    @PutMapping("/reject")
+    public ResponseEntity<List<BookingDecisionResult>> rejectBookings(
+            @Valid @RequestBody BookingBatchRequest request, @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(bookingManagementService.rejectBookings(request.getBookingIds(), currentUser));
+    }
 }
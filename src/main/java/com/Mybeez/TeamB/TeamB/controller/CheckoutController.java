@@ -1,12 +1,16 @@
 package com.Mybeez.TeamB.TeamB.controller;
 
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.exception.InvalidCouponException;
+import com.Mybeez.TeamB.TeamB.model.SeatHold;
 import com.Mybeez.TeamB.TeamB.model.User;
 import com.Mybeez.TeamB.TeamB.payload.CheckoutItemDTO;
-import com.Mybeez.TeamB.TeamB.payload.CouponDTO;
-import com.Mybeez.TeamB.TeamB.service.CouponService;
+import com.Mybeez.TeamB.TeamB.payload.PriceQuote;
+import com.Mybeez.TeamB.TeamB.service.CheckoutSessionService;
+import com.Mybeez.TeamB.TeamB.service.PriceQuoteService;
+import com.Mybeez.TeamB.TeamB.service.SeatHoldService;
 import com.stripe.exception.StripeException;
 import com.stripe.model.checkout.Session;
-import com.stripe.param.checkout.SessionCreateParams;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -16,73 +20,73 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/checkout")
 public class CheckoutController {
 
     @Autowired
-    private CouponService couponService;
+    private PriceQuoteService priceQuoteService;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private CheckoutSessionService checkoutSessionService;
 
     @PostMapping
     public ResponseEntity<?> createCheckoutSession(
             @RequestBody CheckoutItemDTO checkoutItemDTO,
             @AuthenticationPrincipal User currentUser
     ) {
-        String successUrl = "http://localhost:3000/profile";
-        String cancelUrl = "http://localhost:3000/cart";
-
-        BigDecimal finalPrice = checkoutItemDTO.getPrice();
-
-        // CALCULATE FINAL PRICE IF COUPON IS PRESENT
-        if (checkoutItemDTO.getCouponCode() != null && !checkoutItemDTO.getCouponCode().isEmpty()) {
-            try {
-                CouponDTO coupon = couponService.validateCoupon(checkoutItemDTO.getCouponCode());
-                BigDecimal discountMultiplier = BigDecimal.ONE.subtract(coupon.getDiscountPercentage().divide(new BigDecimal("100")));
-                finalPrice = finalPrice.multiply(discountMultiplier).setScale(2, RoundingMode.HALF_UP);
-            } catch (Exception e) {
-                return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
-            }
+        // The price comes from a server-side quote; the price sent by the client is not trusted
+        PriceQuote quote;
+        try {
+            quote = quoteFor(checkoutItemDTO);
+        } catch (InvalidCouponException | BookingException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
+        BigDecimal finalPrice = quote.total();
 
+        // Hold the seats while the user pays; the webhook turns the hold into the booking
+        SeatHold hold;
         try {
-            SessionCreateParams params = SessionCreateParams.builder()
-                    .setMode(SessionCreateParams.Mode.PAYMENT)
-                    .setSuccessUrl(successUrl)
-                    .setCancelUrl(cancelUrl)
-                    .putMetadata("userId", currentUser.getId().toString())
-                    .putMetadata("availabilityId", checkoutItemDTO.getAvailabilityId().toString())
-                    .putMetadata("guestCount", checkoutItemDTO.getGuestCount().toString())
-                    .addAllLineItem(
-                            Collections.singletonList(
-                                    SessionCreateParams.LineItem.builder()
-                                            .setQuantity(1L)
-                                            .setPriceData(
-                                                    SessionCreateParams.LineItem.PriceData.builder()
-                                                            .setCurrency("gbp")
-                                                            // Use the calculated final price
-                                                            .setUnitAmount(finalPrice.multiply(new BigDecimal("100")).longValue())
-                                                            .setProductData(
-                                                                    SessionCreateParams.LineItem.PriceData.ProductData.builder()
-                                                                            .setName(checkoutItemDTO.getName())
-                                                                            .build()
-                                                            ).build()
-                                            ).build()
-                            )
-                    ).build();
+            hold = seatHoldService.hold(currentUser.getId(),
+                    checkoutItemDTO.getAvailabilityId().longValue(), checkoutItemDTO.getGuestCount(), finalPrice);
+        } catch (BookingException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
 
-            Session session = Session.create(params);
+        try {
+            Session session = checkoutSessionService.create(hold, checkoutItemDTO.getName(), quote.quoteId());
             Map<String, String> response = new HashMap<>();
             response.put("url", session.getUrl());
             return ResponseEntity.ok(response);
 
         } catch (StripeException e) {
             e.printStackTrace();
+            seatHoldService.release(hold.getId());
             return ResponseEntity.status(500).body("Error creating Stripe checkout session.");
         }
     }
-}
\ No newline at end of file
+
+    // The quote the user was shown if it is still valid for this checkout, otherwise a fresh one
+    private PriceQuote quoteFor(CheckoutItemDTO item) {
+        Long availabilityId = item.getAvailabilityId().longValue();
+        String couponCode = item.getCouponCode() == null || item.getCouponCode().isBlank() ? null : item.getCouponCode().trim();
+        if (item.getQuoteId() != null) {
+            Optional<PriceQuote> shown = priceQuoteService.find(item.getQuoteId())
+                    .filter(q -> q.availabilityId().equals(availabilityId)
+                            && q.guests() == item.getGuestCount()
+                            && Objects.equals(q.couponCode(), couponCode));
+            if (shown.isPresent()) {
+                return shown.get();
+            }
+        }
+        return priceQuoteService.quote(availabilityId, item.getGuestCount(), couponCode);
+    }
+}
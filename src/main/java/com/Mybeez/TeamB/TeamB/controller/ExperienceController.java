@@ -8,14 +8,20 @@ import com.Mybeez.TeamB.TeamB.payload.ExperienceEditResponse;
 import com.Mybeez.TeamB.TeamB.payload.ExperienceRequest;
 
 import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import com.Mybeez.TeamB.TeamB.payload.ExperiencePageResponse;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceSort;
+import com.Mybeez.TeamB.TeamB.payload.GeoRadius;
 import com.Mybeez.TeamB.TeamB.service.ExperienceService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -72,8 +78,15 @@ public class ExperienceController {
     }
 
 
+    /**
+     * Paginated, sortable variant of the listing.
+     * sort is one of newest, price_asc, price_desc, rating, duration, distance or relevance; pass the returned
+     * nextCursor back as cursor to fetch the following page.
+     * lat/lon (and optionally radiusKm) restrict the listing to a radius around a point; distance needs them.
+     * dateFrom/dateTo (yyyy-MM-dd) and guests keep experiences with a slot that has room for the party in that range.
+     */
     @GetMapping("/filter-experiences")
-    public ResponseEntity<List<ExperienceDTO>> filterExperiences(
+    public ResponseEntity<ExperiencePageResponse> filterExperiences(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String location,
@@ -81,12 +94,24 @@ public class ExperienceController {
             @RequestParam(required = false) Integer minDuration,
             @RequestParam(required = false) Integer maxDuration,
             @RequestParam(required = false) Integer minGroupPrice,
-            @RequestParam(required = false) Integer maxGroupPrice) {
-
-        List<ExperienceDTO> dtos = experienceService.filterExperiences(
-                keyword, categoryId, location, sessionType, minDuration, maxDuration, minGroupPrice, maxGroupPrice);
-
-        return ResponseEntity.ok(dtos);
+            @RequestParam(required = false) Integer maxGroupPrice,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) Integer guests,
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + ExperienceService.DEFAULT_PAGE_SIZE) int size) {
+
+        ExperienceFilter filter = new ExperienceFilter(
+                keyword, categoryId, location, sessionType, minDuration, maxDuration, minGroupPrice, maxGroupPrice,
+                dateFrom, dateTo, guests);
+        ExperiencePageResponse page = experienceService.filterExperiences(
+                filter, GeoRadius.of(lat, lon, radiusKm), ExperienceSort.fromParam(sort), cursor, size);
+
+        return ResponseEntity.ok(page);
     }
 
     // --- HOST-SPECIFIC, PROTECTED ENDPOINTS ---
@@ -3,7 +3,9 @@ package com.Mybeez.TeamB.TeamB.controller;
 import com.Mybeez.TeamB.TeamB.model.Message;
 import com.Mybeez.TeamB.TeamB.model.User;
 import com.Mybeez.TeamB.TeamB.payload.ConversationDTO;
+import com.Mybeez.TeamB.TeamB.payload.InboxPageResponse;
 import com.Mybeez.TeamB.TeamB.payload.MessageRequest;
+import com.Mybeez.TeamB.TeamB.service.InboxService;
 import com.Mybeez.TeamB.TeamB.service.MessageService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,9 +39,30 @@ public class MessageController {
         return ResponseEntity.ok(conversations);
     }
 
+    /**
+     * Paginated variant of conversations, most recent first.
+     * Pass the returned nextCursor back as cursor to fetch the following page.
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<InboxPageResponse> getInbox(
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + InboxService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(messageService.getInboxPage(currentUser.getId(), cursor, size));
+    }
+
+    /**
+     * A window of the conversation's messages, oldest first: the latest ones by default, the ones before
+     * a message id with ?before=, or the ones after it with ?after=.
+     */
     @GetMapping("/conversations/{id}")
-    public ResponseEntity<ConversationDTO> getConversationMessages(@PathVariable Long id, @AuthenticationPrincipal User currentUser) {
-        ConversationDTO conversation = messageService.getConversationById(id, currentUser.getId());
+    public ResponseEntity<ConversationDTO> getConversationMessages(
+            @PathVariable Long id,
+            @AuthenticationPrincipal User currentUser,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + MessageService.DEFAULT_PAGE_SIZE) int size) {
+        ConversationDTO conversation = messageService.getConversationById(id, currentUser.getId(), before, after, size);
         return ResponseEntity.ok(conversation);
     }
 
@@ -0,0 +1,40 @@
+package com.Mybeez.TeamB.TeamB.controller;
+
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.service.MessagePushService;
+import com.Mybeez.TeamB.TeamB.service.SsePushChannel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/messages")
+public class MessageStreamController {
+
+    @Autowired
+    private MessagePushService messagePushService;
+
+    // The stream is ended after this long; the client reconnects, which also re-checks its token
+    @Value("${messages.push.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    /**
+     * Server-Sent Events stream of "message", "unread-count" and "heartbeat" events for the current user.
+     * The first event is the current unread count.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessages(@AuthenticationPrincipal User currentUser) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        MessagePushService.Connection connection =
+                messagePushService.register(currentUser.getId(), new SsePushChannel(emitter));
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(error -> connection.close());
+        return emitter;
+    }
+}
@@ -1,12 +1,15 @@
 package com.Mybeez.TeamB.TeamB.controller;
 
+import com.Mybeez.TeamB.TeamB.event.ReviewChangedEvent;
 import com.Mybeez.TeamB.TeamB.model.Experience;
 import com.Mybeez.TeamB.TeamB.model.Review;
 import com.Mybeez.TeamB.TeamB.model.ReviewStatus;
+import com.Mybeez.TeamB.TeamB.payload.RatingSummary;
 import com.Mybeez.TeamB.TeamB.payload.ReviewCreateDTO;
 import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
 import com.Mybeez.TeamB.TeamB.repository.ReviewRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +27,9 @@ public class ReviewController {
     @Autowired
     private ExperienceRepository experienceRepo;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @PostMapping
     public ResponseEntity<Review> addReview(@RequestBody ReviewCreateDTO dto) {
         if (dto.getExperienceId() == null) {
@@ -44,19 +50,21 @@ public class ReviewController {
         review.setStatus(ReviewStatus.PENDING);
 
         Review saved = reviewRepo.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(saved.getId(), exp.getId(), null, saved.getStatus()));
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
     @GetMapping("/stats/{experienceId}")
     public ResponseEntity<Map<String, Object>> getStats(@PathVariable Long experienceId) {
-        Double avg = reviewRepo.findAvgRatingByExperienceId(experienceId);
-        Long count = reviewRepo.countApprovedByExperienceId(experienceId);
+        // Single-row read of the aggregates maintained on the experience
+        RatingSummary summary = experienceRepo.findRatingSummaryById(experienceId).orElse(RatingSummary.EMPTY);
 
-        double rounded = Math.round(((avg != null ? avg : 0d) * 10.0)) / 10.0;
+        double rounded = Math.round(summary.average() * 10.0) / 10.0;
 
         return ResponseEntity.ok(Map.of(
                 "experienceId", experienceId,
                 "avgRating", rounded,
-                "count", count != null ? count : 0L
+                "count", (long) summary.count(),
+                "histogram", summary.histogram()
         ));
     }
 }
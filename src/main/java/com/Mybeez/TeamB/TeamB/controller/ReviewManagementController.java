@@ -4,6 +4,7 @@ import com.Mybeez.TeamB.TeamB.model.Review;
 import com.Mybeez.TeamB.TeamB.model.ReviewStatus;
 import com.Mybeez.TeamB.TeamB.payload.ReviewManagementDTO;
 import com.Mybeez.TeamB.TeamB.repository.ReviewRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceRatingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +17,9 @@ public class ReviewManagementController {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private ExperienceRatingService ratingService;
+
     @GetMapping
     public Page<ReviewManagementDTO> getAllReviews(
             @RequestParam(defaultValue = "0") int page,
@@ -75,23 +79,15 @@ public class ReviewManagementController {
 
     @PutMapping("/{id}/approve")
     public ResponseEntity<String> approveReview(@PathVariable Long id) {
-        return reviewRepository.findById(id)
-                .map(review -> {
-                    review.setStatus(ReviewStatus.APPROVED);
-                    reviewRepository.save(review);
-                    return ResponseEntity.ok("Review approved");
-                })
+        return ratingService.moderate(id, ReviewStatus.APPROVED)
+                .map(review -> ResponseEntity.ok("Review approved"))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}/reject")
     public ResponseEntity<String> rejectReview(@PathVariable Long id) {
-        return reviewRepository.findById(id)
-                .map(review -> {
-                    review.setStatus(ReviewStatus.REJECTED);
-                    reviewRepository.save(review);
-                    return ResponseEntity.ok("Review rejected");
-                })
+        return ratingService.moderate(id, ReviewStatus.REJECTED)
+                .map(review -> ResponseEntity.ok("Review rejected"))
                 .orElse(ResponseEntity.notFound().build());
     }
     @GetMapping("/rejected")
@@ -1,6 +1,9 @@
 package com.Mybeez.TeamB.TeamB.controller;
 
+import com.Mybeez.TeamB.TeamB.payload.Suggestion;
+import com.Mybeez.TeamB.TeamB.service.ExperienceSuggestionIndex;
 import com.Mybeez.TeamB.TeamB.service.SearchService;
+import com.Mybeez.TeamB.TeamB.service.SuggestionTrie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
@@ -13,9 +16,11 @@ import java.util.List;
 public class SearchController {
 
     private final SearchService searchService;
+    private final ExperienceSuggestionIndex suggestionIndex;
 
-    public SearchController(SearchService searchService) {
+    public SearchController(SearchService searchService, ExperienceSuggestionIndex suggestionIndex) {
         this.searchService = searchService;
+        this.suggestionIndex = suggestionIndex;
     }
 
     @GetMapping
@@ -23,4 +28,15 @@ public class SearchController {
         List<ExperienceDTO> results = searchService.searchExperiences(keyword);
         return ResponseEntity.ok(results);
     }
+
+    /**
+     * Typeahead for the search box: titles, tags, categories and cities with a word starting with q,
+     * most popular first. Served from memory, so it is safe to call on every keystroke.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + SuggestionTrie.MAX_RESULTS) int limit) {
+        return ResponseEntity.ok(suggestionIndex.suggest(q, limit));
+    }
 }
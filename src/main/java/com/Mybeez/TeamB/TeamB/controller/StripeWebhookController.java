@@ -1,10 +1,8 @@
 package com.Mybeez.TeamB.TeamB.controller;
 
-import com.Mybeez.TeamB.TeamB.payload.BookingRequest;
-import com.Mybeez.TeamB.TeamB.service.BookingService;
+import com.Mybeez.TeamB.TeamB.service.StripeWebhookProcessor;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
-import com.stripe.model.checkout.Session;
 import com.stripe.net.Webhook;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +15,7 @@ import org.springframework.web.bind.annotation.*;
 public class StripeWebhookController {
 
     @Autowired
-    private BookingService bookingService;
+    private StripeWebhookProcessor webhookProcessor;
 
     private final String webhookSecret;
 
@@ -42,34 +40,10 @@ public class StripeWebhookController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Signature verification failed.");
         }
 
-        // Handle the checkout.session.completed event
-        if ("checkout.session.completed".equals(event.getType())) {
-            Session session = (Session) event.getDataObjectDeserializer().getObject().orElse(null);
-            if (session != null) {
-                System.out.println("✅ Payment Succeeded! Fulfilling order...");
-                fulfillOrder(session);
-            }
+        // Store the event and acknowledge it straight away; it is processed in the background
+        if (!webhookProcessor.receive(event.getId(), event.getType(), payload)) {
+            return ResponseEntity.ok("Already received");
         }
-
         return ResponseEntity.ok("Received");
     }
-
-    private void fulfillOrder(Session session) {
-        // Retrieve metadata we stored earlier
-        String userIdStr = session.getMetadata().get("userId");
-        String availabilityIdStr = session.getMetadata().get("availabilityId");
-        String guestCountStr = session.getMetadata().get("guestCount");
-
-        Long userId = Long.parseLong(userIdStr);
-        Integer availabilityId = Integer.parseInt(availabilityIdStr);
-        Integer guestCount = Integer.parseInt(guestCountStr);
-
-        // Create a BookingRequest and call the existing service
-        BookingRequest bookingRequest = new BookingRequest();
-        bookingRequest.setAvailabilityId(availabilityId);
-        bookingRequest.setNumberOfGuests(guestCount);
-
-        bookingService.createBooking(bookingRequest, userId);
-        System.out.println("Booking created for user: " + userId + " for availability: " + availabilityId);
-    }
-}
\ No newline at end of file
+}
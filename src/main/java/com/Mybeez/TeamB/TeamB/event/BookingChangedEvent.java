@@ -0,0 +1,15 @@
+package com.Mybeez.TeamB.TeamB.event;
+
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+
+/**
+ * Published when a booking is created or its status changes.
+ * @param previousStatus The status before the change; null for a new booking.
+ */
+public record BookingChangedEvent(
+        Long bookingId,
+        Long availabilityId,
+        Long experienceId,
+        BookingStatus previousStatus,
+        BookingStatus status) {
+}
@@ -0,0 +1,8 @@
+package com.Mybeez.TeamB.TeamB.event;
+
+/**
+ * Published whenever an experience is created, edited or moderated.
+ * Listeners reload the experience by id, so the event only needs to carry the id.
+ */
+public record ExperienceChangedEvent(Long experienceId) {
+}
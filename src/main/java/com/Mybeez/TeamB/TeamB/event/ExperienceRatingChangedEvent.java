@@ -0,0 +1,7 @@
+package com.Mybeez.TeamB.TeamB.event;
+
+/**
+ * Published when a review moderation changed the rating aggregates of an experience.
+ */
+public record ExperienceRatingChangedEvent(Long experienceId) {
+}
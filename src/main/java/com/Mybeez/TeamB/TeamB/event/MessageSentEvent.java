@@ -0,0 +1,11 @@
+package com.Mybeez.TeamB.TeamB.event;
+
+/**
+ * Published when a message is sent. The message starts unread for the recipient.
+ */
+public record MessageSentEvent(
+        Long messageId,
+        Long conversationId,
+        Long senderId,
+        Long recipientId) {
+}
@@ -0,0 +1,11 @@
+package com.Mybeez.TeamB.TeamB.event;
+
+/**
+ * Published when a user opens a conversation and the messages others sent them there become read.
+ * @param count How many messages were unread before.
+ */
+public record MessagesReadEvent(
+        Long conversationId,
+        Long readerId,
+        int count) {
+}
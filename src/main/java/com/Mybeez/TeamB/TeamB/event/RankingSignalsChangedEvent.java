@@ -0,0 +1,8 @@
+package com.Mybeez.TeamB.TeamB.event;
+
+/**
+ * Published when ExperienceRankingSignals changed what it holds.
+ * @param experienceId The experience whose recent bookings changed; null when every signal was reloaded.
+ */
+public record RankingSignalsChangedEvent(Long experienceId) {
+}
@@ -0,0 +1,14 @@
+package com.Mybeez.TeamB.TeamB.event;
+
+import com.Mybeez.TeamB.TeamB.model.ReviewStatus;
+
+/**
+ * Published when a review is submitted or moderated.
+ * @param previousStatus The status before the change; null for a new review.
+ */
+public record ReviewChangedEvent(
+        Long reviewId,
+        Long experienceId,
+        ReviewStatus previousStatus,
+        ReviewStatus status) {
+}
@@ -0,0 +1,10 @@
+package com.Mybeez.TeamB.TeamB.event;
+
+/**
+ * Published when a seat hold takes seats from a slot for a checkout.
+ */
+public record SeatHoldCreatedEvent(
+        Long holdId,
+        Long availabilityId,
+        Long experienceId) {
+}
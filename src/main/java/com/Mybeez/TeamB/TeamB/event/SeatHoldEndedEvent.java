@@ -0,0 +1,14 @@
+package com.Mybeez.TeamB.TeamB.event;
+
+import com.Mybeez.TeamB.TeamB.model.SeatHoldStatus;
+
+/**
+ * Published when a seat hold gives its seats back to the slot.
+ * @param status EXPIRED or RELEASED.
+ */
+public record SeatHoldEndedEvent(
+        Long holdId,
+        Long availabilityId,
+        Long experienceId,
+        SeatHoldStatus status) {
+}
@@ -0,0 +1,9 @@
+package com.Mybeez.TeamB.TeamB.event;
+
+/**
+ * Published when a waitlist entry reaches the front of the queue and seats are held for it to pay for.
+ */
+public record WaitlistPromotedEvent(
+        Long entryId,
+        Long holdId) {
+}
@@ -0,0 +1,12 @@
+package com.Mybeez.TeamB.TeamB.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when a client sends an unknown sort key or a cursor that cannot be decoded
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPaginationException extends RuntimeException {
+    public InvalidPaginationException(String message) {
+        super(message);
+    }
+}
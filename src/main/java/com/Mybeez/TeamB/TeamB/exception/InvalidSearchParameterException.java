@@ -0,0 +1,12 @@
+package com.Mybeez.TeamB.TeamB.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when a listing search has parameters that cannot be combined or are out of range, e.g. a radius without a point
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSearchParameterException extends RuntimeException {
+    public InvalidSearchParameterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.Mybeez.TeamB.TeamB.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a user asks to wait for a slot that still has room for them; they can book it instead.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SlotNotFullException extends BookingException {
+    public SlotNotFullException(String message) {
+        super(message);
+    }
+}
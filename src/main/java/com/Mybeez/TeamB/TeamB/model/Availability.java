@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @AllArgsConstructor
@@ -29,6 +30,18 @@ public class Availability {
     @Column(nullable = false)
     private Integer capacity;
 
+    // Guests of the CONFIRMED bookings of this slot, maintained by SlotCapacityService
+    @Column(name = "booked_guests", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int bookedGuests = 0;
+
+    // Guests of the ACTIVE seat holds of this slot, maintained by SeatHoldService
+    @Column(name = "held_guests", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int heldGuests = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "experience_id", nullable = false)
     private Experience experience;
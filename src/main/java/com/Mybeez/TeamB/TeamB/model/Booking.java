@@ -39,6 +39,10 @@ public class Booking {
     @Column(nullable = false)
     private BookingStatus status;
 
+    // The paid Stripe checkout session this booking was made for, so the same payment never books twice
+    @Column(name = "checkout_session_id", unique = true)
+    private String checkoutSessionId;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
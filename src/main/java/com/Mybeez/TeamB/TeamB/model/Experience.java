@@ -3,6 +3,7 @@ package com.Mybeez.TeamB.TeamB.model;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -32,9 +33,46 @@ public class Experience {
     @Column(name = "duration_in_minutes")
     private Integer durationInMinutes;
 
+    // Average of the APPROVED reviews whenever ratingCount > 0 (seed data may hold a placeholder otherwise)
     @Column(name = "rating")
     private Double rating;
 
+    // --- Rating aggregates over APPROVED reviews, maintained by ExperienceRatingService ---
+    @Column(name = "rating_sum", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private long ratingSum = 0;
+
+    @Column(name = "rating_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int ratingCount = 0;
+
+    @Column(name = "one_star_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int oneStarCount = 0;
+
+    @Column(name = "two_star_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int twoStarCount = 0;
+
+    @Column(name = "three_star_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int threeStarCount = 0;
+
+    @Column(name = "four_star_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int fourStarCount = 0;
+
+    @Column(name = "five_star_count", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int fiveStarCount = 0;
+
     @Enumerated(EnumType.STRING)
     private ExperienceStatus status;
 
@@ -131,4 +169,11 @@ public class Experience {
         this.reviews.add(review);
         review.setExperience(this);
     }
+
+    /**
+     * @return The average of the approved reviews, or null if there are none yet.
+     */
+    public Double getAverageRating() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : null;
+    }
 }
\ No newline at end of file
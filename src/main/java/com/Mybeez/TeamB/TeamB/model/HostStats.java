@@ -0,0 +1,75 @@
+package com.Mybeez.TeamB.TeamB.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The figures on a host's dashboard, one row per host, kept up to date by HostStatsService as bookings,
+ * reviews and messages change, so the dashboard is a single primary-key read.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Table(name = "host_stats")
+public class HostStats {
+
+    // The host's user id
+    @Id
+    @Column(name = "host_id")
+    private Long hostId;
+
+    // Bookings that are not cancelled, on slots from today on
+    @Column(name = "upcoming_bookings", nullable = false)
+    private long upcomingBookings;
+
+    @Column(name = "pending_requests", nullable = false)
+    private long pendingRequests;
+
+    // First day of the month that monthEarnings covers
+    @Column(name = "earnings_month", nullable = false)
+    private LocalDate earningsMonth;
+
+    // Total price of the CONFIRMED bookings made in earningsMonth
+    @Column(name = "month_earnings", nullable = false)
+    private BigDecimal monthEarnings;
+
+    // Over the APPROVED reviews of all the host's experiences
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    // The experience with the most bookings, of any status
+    @Column(name = "most_popular_experience_id")
+    private Long mostPopularExperienceId;
+
+    @Column(name = "most_popular_title")
+    private String mostPopularTitle;
+
+    @Column(name = "most_popular_bookings", nullable = false)
+    private long mostPopularBookings;
+
+    @Column(name = "unread_messages", nullable = false)
+    private long unreadMessages;
+
+    // JSON array of the three newest reviews, as ReviewDTOs
+    @Column(name = "recent_reviews", columnDefinition = "TEXT")
+    private String recentReviews;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,63 @@
+package com.Mybeez.TeamB.TeamB.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per user per conversation: what the user's inbox shows for that conversation, kept up to date by
+ * InboxService as messages are sent and read, so the inbox is listed without touching the messages table.
+ * Message ids only grow, so ordering by lastMessageId is ordering by most recent activity, and everything the
+ * other participant sent up to lastReadMessageId had been read when the watermark was set.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Table(name = "inbox_entries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inbox_user_conversation", columnNames = {"user_id", "conversation_id"}),
+        indexes = @Index(name = "idx_inbox_user_last_message", columnList = "user_id, last_message_id"))
+public class InboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The user whose inbox this row belongs to
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id", nullable = false)
+    private Conversation conversation;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "other_participant_id", nullable = false)
+    private User otherParticipant;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    // The last message as stored in the messages table, still encrypted
+    @Column(name = "last_message_content", columnDefinition = "TEXT", nullable = false)
+    private String lastMessageContent;
+
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    // The user has read the conversation up to and including this message; 0 if never opened
+    @Column(name = "last_read_message_id", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private long lastReadMessageId = 0;
+
+    // Messages from the other participant not read yet: those after lastReadMessageId, and any that committed
+    // after a newer one had been read
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+}
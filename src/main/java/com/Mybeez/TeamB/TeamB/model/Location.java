@@ -19,8 +19,10 @@ public class Location {
     private String address;
     private String city;
     private String postcode;
-//    private Double latitude;
-//    private Double longitude;
+
+    // Centroid of the postcode, filled in by PostcodeGeocoder; null when the postcode is not in the table
+    private Double latitude;
+    private Double longitude;
 
     // Consider adding equals() and hashCode() for proper entity comparison
 }
\ No newline at end of file
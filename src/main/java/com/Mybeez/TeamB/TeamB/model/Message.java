@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Builder
-@Table(name = "messages")
+@Table(name = "messages", indexes = @Index(name = "idx_messages_conversation_id", columnList = "conversation_id, id"))
 public class Message {
 
     @Id
@@ -32,10 +32,6 @@ public class Message {
     @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
 
-    // Defaults to false, meaning all new messages are initially unread
-    @Column(name = "is_read", nullable = false)
-    private boolean isRead = false;
-
     @PrePersist
     protected void onTimestamp() {
         this.timestamp = LocalDateTime.now();
@@ -0,0 +1,61 @@
+package com.Mybeez.TeamB.TeamB.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Seats set aside on a slot while the user pays at Stripe checkout.
+ * While ACTIVE its guests count towards the slot's held_guests; it ends CONVERTED into a booking when the
+ * payment succeeds, EXPIRED when its TTL runs out first, or RELEASED when the checkout is abandoned.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Table(name = "seat_holds")
+public class SeatHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "availability_id", nullable = false)
+    private Availability availability;
+
+    @Column(nullable = false)
+    private Integer numberOfGuests;
+
+    // The quoted total the user pays at checkout; the booking is recorded at this price
+    @Column(name = "total_price")
+    private BigDecimal totalPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SeatHoldStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // The booking the payment produced; set once, so a repeated webhook finds it instead of booking again
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id")
+    private Booking booking;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,8 @@
+package com.Mybeez.TeamB.TeamB.model;
+
+public enum SeatHoldStatus {
+    ACTIVE,
+    CONVERTED,
+    EXPIRED,
+    RELEASED
+}
@@ -0,0 +1,47 @@
+package com.Mybeez.TeamB.TeamB.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A webhook event that could not be processed, kept with its payload and last error for someone to look at
+ * and replay by hand.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Table(name = "stripe_webhook_dead_letters")
+public class StripeWebhookDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, unique = true)
+    private String eventId;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(columnDefinition = "MEDIUMTEXT", nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "failed_at", updatable = false)
+    private LocalDateTime failedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.failedAt = LocalDateTime.now();
+    }
+}
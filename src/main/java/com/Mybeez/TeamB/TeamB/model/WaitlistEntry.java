@@ -0,0 +1,62 @@
+package com.Mybeez.TeamB.TeamB.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user queued for a full slot. Entries of a slot are served in id order: while WAITING, the oldest one gets
+ * a seat hold as soon as the slot has room for its guests, and it ends PROMOTED with that hold, which the
+ * user pays for through checkoutUrl, or CANCELLED when the user leaves the waitlist.
+ */
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_slot_status", columnList = "availability_id, status, id")
+})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "availability_id", nullable = false)
+    private Availability availability;
+
+    @Column(nullable = false)
+    private Integer numberOfGuests;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status;
+
+    // The seats held for the user when the entry was promoted; paying for them turns the hold into the booking
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "seat_hold_id")
+    private SeatHold seatHold;
+
+    // The Stripe checkout for the seat hold, once it has been opened
+    @Column(name = "checkout_url", length = 1024)
+    private String checkoutUrl;
+
+    @Column(name = "promoted_at")
+    private LocalDateTime promotedAt;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
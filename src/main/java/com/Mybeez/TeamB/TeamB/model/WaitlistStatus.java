@@ -0,0 +1,7 @@
+package com.Mybeez.TeamB.TeamB.model;
+
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTED,
+    CANCELLED
+}
@@ -0,0 +1,15 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import com.Mybeez.TeamB.TeamB.service.BookingManagementService;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookingBatchRequest {
+    @NotEmpty
+    @Size(max = BookingManagementService.MAX_BATCH_SIZE)
+    private List<Long> bookingIds;
+}
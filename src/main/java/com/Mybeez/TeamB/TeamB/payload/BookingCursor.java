@@ -0,0 +1,64 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import com.Mybeez.TeamB.TeamB.exception.InvalidPaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last booking on a page of the bookings feed: its slot's date and start time plus its id.
+ * It is handed to the client as an opaque URL-safe token and sent back to fetch the next page.
+ */
+public record BookingCursor(BookingFilter filter, LocalDate date, LocalTime startTime, long id) {
+
+    // Outside any real slot, so the first page needs no separate query
+    private static final LocalDate FIRST_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LAST_DATE = LocalDate.of(9999, 12, 31);
+
+    /**
+     * The cursor before the first booking of the feed.
+     */
+    public static BookingCursor start(BookingFilter filter) {
+        return filter.isDescending()
+                ? new BookingCursor(filter, LAST_DATE, LocalTime.MAX, Long.MAX_VALUE)
+                : new BookingCursor(filter, FIRST_DATE, LocalTime.MIN, 0);
+    }
+
+    /**
+     * Builds the cursor pointing just after the given booking.
+     */
+    public static BookingCursor after(BookingFilter filter, BookingSummary last) {
+        return new BookingCursor(filter, last.date(), last.startTime(), last.bookingId());
+    }
+
+    public String encode() {
+        String raw = filter.name() + "|" + date + "|" + startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     * @param token The cursor sent by the client.
+     * @param expectedFilter The filter of the current request; a cursor from another filter is rejected.
+     */
+    public static BookingCursor decode(String token, BookingFilter expectedFilter) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new InvalidPaginationException("Malformed cursor.");
+            }
+            BookingCursor cursor = new BookingCursor(BookingFilter.valueOf(parts[0]), LocalDate.parse(parts[1]),
+                    LocalTime.parse(parts[2]), Long.parseLong(parts[3]));
+            if (cursor.filter() != expectedFilter) {
+                throw new InvalidPaginationException("Cursor was issued for a different filter.");
+            }
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPaginationException("Malformed cursor.");
+        }
+    }
+}
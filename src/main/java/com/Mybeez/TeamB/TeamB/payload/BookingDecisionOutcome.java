@@ -0,0 +1,16 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+/**
+ * What happened to one booking of a bulk approve or reject.
+ */
+public enum BookingDecisionOutcome {
+    APPROVED,
+    REJECTED,
+    NOT_FOUND,
+    // The booking is for another host's experience
+    NOT_YOUR_BOOKING,
+    // The booking was already approved or rejected
+    NOT_PENDING,
+    // Approving it would take its slot past capacity
+    NO_CAPACITY
+}
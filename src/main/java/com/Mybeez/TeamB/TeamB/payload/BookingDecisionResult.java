@@ -0,0 +1,7 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+/**
+ * The result for one booking id of a bulk approve or reject, returned in the order the ids were sent.
+ */
+public record BookingDecisionResult(Long bookingId, BookingDecisionOutcome outcome) {
+}
@@ -0,0 +1,41 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import com.Mybeez.TeamB.TeamB.exception.InvalidPaginationException;
+
+import java.util.Locale;
+
+/**
+ * The views of a user's bookings feed. Upcoming bookings run soonest first; past and cancelled ones
+ * most recent first. Each order ends with the booking id, so the feed can be paged with a keyset cursor.
+ */
+public enum BookingFilter {
+    // Not cancelled, on a slot from today on
+    UPCOMING(false),
+    // Not cancelled, on a slot before today
+    PAST(true),
+    CANCELLED(true);
+
+    private final boolean descending;
+
+    BookingFilter(boolean descending) {
+        this.descending = descending;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Parses the ?filter= request parameter, case-insensitively.
+     */
+    public static BookingFilter fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return UPCOMING;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPaginationException("Unknown bookings filter: " + value);
+        }
+    }
+}
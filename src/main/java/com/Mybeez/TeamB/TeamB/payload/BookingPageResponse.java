@@ -0,0 +1,12 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import java.util.List;
+
+/**
+ * One page of a user's bookings feed.
+ * nextCursor is null on the last page; otherwise pass it back as ?cursor= to fetch the next page.
+ */
+public record BookingPageResponse(
+        List<BookingSummary> items,
+        String nextCursor
+) {}
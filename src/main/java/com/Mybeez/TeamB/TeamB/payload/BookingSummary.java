@@ -0,0 +1,26 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One row of a user's bookings feed, read with a single constructor-expression query
+ * (see BookingRepository) instead of walking booking → slot → experience → images.
+ * @param imageUrl The experience's first image, or null if it has none.
+ */
+public record BookingSummary(
+        Long bookingId,
+        BookingStatus status,
+        Integer numberOfGuests,
+        BigDecimal totalPrice,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime,
+        Long experienceId,
+        String experienceTitle,
+        String hostFirstName,
+        String imageUrl
+) {}
@@ -6,10 +6,12 @@ import java.math.BigDecimal;
 @Data
 public class CheckoutItemDTO {
     private String name;
-    private BigDecimal price; // Price in pounds/dollars
+    private BigDecimal price; // Ignored: the price is quoted by the server
     private int quantity;
 
     private Integer availabilityId;
     private Integer guestCount;
     private String couponCode;
+    // Optional: the quote the user was shown, from GET /api/availability/slots/{id}/quote
+    private String quoteId;
 }
\ No newline at end of file
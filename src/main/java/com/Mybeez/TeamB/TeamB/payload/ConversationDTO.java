@@ -1,12 +1,14 @@
 package com.Mybeez.TeamB.TeamB.payload;
 
 import com.Mybeez.TeamB.TeamB.model.Conversation;
+import com.Mybeez.TeamB.TeamB.model.InboxEntry;
 import com.Mybeez.TeamB.TeamB.model.Message;
 import com.Mybeez.TeamB.TeamB.service.EncryptionService;
 import com.Mybeez.TeamB.TeamB.model.User;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,7 +21,11 @@ public class ConversationDTO {
     private String lastMessage;
     private LocalDateTime updatedAt;
     private boolean hasUnreadMessages;
+    private Integer unreadCount; // Only set when built from the inbox
     private List<MessageDTO> messages; // This will be null for the summary view
+    // Set on a window of messages: whether there are messages before its first and after its last one
+    private Boolean hasOlderMessages;
+    private Boolean hasNewerMessages;
 
     // Constructor for the conversation list (summary view)
     public ConversationDTO(Conversation conversation, Long currentUserId, boolean hasUnreadMessages, EncryptionService encryptionService) {
@@ -39,6 +45,35 @@ public class ConversationDTO {
             this.lastMessage = encryptionService.decrypt(lastMessageEntity.getContent());
         }
     }
+    // Constructor for the conversation list, built from the user's inbox row
+    public ConversationDTO(InboxEntry entry, EncryptionService encryptionService) {
+        this(entry, encryptionService.decrypt(entry.getLastMessageContent()));
+    }
+
+    // Same, with the last message already decrypted, e.g. as part of a page
+    public ConversationDTO(InboxEntry entry, String lastMessage) {
+        this.id = entry.getConversation().getId();
+        this.otherParticipant = new UserSummaryDTO(entry.getOtherParticipant());
+        this.lastMessage = lastMessage;
+        this.updatedAt = entry.getLastMessageAt();
+        this.hasUnreadMessages = entry.getUnreadCount() > 0;
+        this.unreadCount = entry.getUnreadCount();
+    }
+
+    // Constructor for a window of the chat view; messages are oldest first
+    public ConversationDTO(Long conversationId, List<Message> messages, boolean hasOlderMessages,
+                           boolean hasNewerMessages, EncryptionService encryptionService) {
+        this.id = conversationId;
+        // Only the messages in the window are decrypted, as one batch
+        List<String> contents = encryptionService.decrypt(messages.stream().map(Message::getContent).toList());
+        this.messages = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            this.messages.add(new MessageDTO(messages.get(i), contents.get(i)));
+        }
+        this.hasOlderMessages = hasOlderMessages;
+        this.hasNewerMessages = hasNewerMessages;
+    }
+
     // Modify this constructor to accept and use the EncryptionService
     public ConversationDTO(Conversation conversation, EncryptionService encryptionService) {
         this.id = conversation.getId();
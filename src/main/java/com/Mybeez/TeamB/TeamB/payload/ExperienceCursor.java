@@ -0,0 +1,87 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import com.Mybeez.TeamB.TeamB.exception.InvalidPaginationException;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last experience on a page: the value of its sort key plus its id.
+ * It is handed to the client as an opaque URL-safe token and sent back to fetch the next page.
+ */
+public record ExperienceCursor(ExperienceSort sort, String key, long id) {
+
+    /** Stand-in creation time for rows that have none, so they still sort (last, under NEWEST). */
+    public static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Builds the cursor pointing just after the given experience.
+     */
+    public static ExperienceCursor after(ExperienceSort sort, Experience last) {
+        String key = switch (sort) {
+            case NEWEST -> (last.getCreatedAt() != null ? last.getCreatedAt() : EPOCH).toString();
+            case PRICE_ASC, PRICE_DESC -> orZero(last.getGroupPricePerPerson()).toPlainString();
+            case RATING -> String.valueOf(last.getRating() != null ? last.getRating() : 0.0);
+            case DURATION -> String.valueOf(last.getDurationInMinutes() != null ? last.getDurationInMinutes() : 0);
+            case DISTANCE, RELEVANCE -> throw new IllegalArgumentException(sort + " is not a column; use ExperienceCursor.at");
+        };
+        return new ExperienceCursor(sort, key, last.getId());
+    }
+
+    /**
+     * Builds the cursor of an order computed in memory (DISTANCE or RELEVANCE), pointing just after
+     * the experience with the given distance or score.
+     */
+    public static ExperienceCursor at(ExperienceSort sort, double key, long id) {
+        return new ExperienceCursor(sort, Double.toString(key), id);
+    }
+
+    public String encode() {
+        String raw = sort.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     * @param token The cursor sent by the client.
+     * @param expectedSort The sort order of the current request; a cursor from another order is rejected.
+     */
+    public static ExperienceCursor decode(String token, ExperienceSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3) {
+                throw new InvalidPaginationException("Malformed cursor.");
+            }
+            ExperienceCursor cursor = new ExperienceCursor(ExperienceSort.valueOf(parts[0]), parts[1], Long.parseLong(parts[2]));
+            if (cursor.sort() != expectedSort) {
+                throw new InvalidPaginationException("Cursor was issued for a different sort order.");
+            }
+            cursor.typedKey(); // validate the key now rather than inside the query
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPaginationException("Malformed cursor.");
+        }
+    }
+
+    /**
+     * The sort key converted back to the type of the column it was read from.
+     */
+    public Comparable<?> typedKey() {
+        return switch (sort) {
+            case NEWEST -> LocalDateTime.parse(key);
+            case PRICE_ASC, PRICE_DESC -> new BigDecimal(key);
+            case RATING -> Double.valueOf(key);
+            case DURATION -> Integer.valueOf(key);
+            case DISTANCE, RELEVANCE -> Double.valueOf(key);
+        };
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
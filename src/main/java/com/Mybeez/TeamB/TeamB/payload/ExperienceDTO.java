@@ -10,9 +10,9 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.OptionalDouble;
 import java.util.stream.Collectors;
 
 @Data
@@ -27,39 +27,44 @@ public class ExperienceDTO {
     private String location;
     private Integer durationInMinutes;
     private Double rating;
+    private Integer ratingCount;
     private BigDecimal groupPricePerPerson;
     private BigDecimal privatePrice;
     private List<String> images;
     private List<String> sessionTypes;
     private List<String> tags;
     private List<ReviewDTO> reviews;
+    // Only set on listings searched around a point
+    private Double distanceKm;
 
 
     public ExperienceDTO(Experience e) {
+        this(e, new HostDTO(e.getHost()), e.getSessionTypes(), e.getTags(), imageUrls(e.getImages()), e.getReviews());
+    }
+
+    /**
+     * Builds the DTO from collections that were loaded separately, so a page of experiences can be mapped
+     * without touching their lazy associations one by one (see ExperienceDTOAssembler).
+     * The category and location of the experience must already be initialised.
+     */
+    public ExperienceDTO(Experience e,
+                         HostDTO host,
+                         Collection<SessionType> sessionTypes,
+                         Collection<String> tags,
+                         List<String> imageUrls,
+                         List<Review> reviews) {
         this.id = e.getId();
         this.title = e.getTitle();
         this.description = e.getDescription();
-        this.host = new HostDTO(e.getHost());
+        this.host = host;
         this.category = e.getCategory() != null ? e.getCategory().getName() : "Uncategorized";
         this.durationInMinutes = e.getDurationInMinutes();
         this.groupPricePerPerson = e.getGroupPricePerPerson();
         this.privatePrice = e.getPrivatePrice();
 
-        // 1. Calculate the live average rating from the 'reviews' list on the Experience object
-        if (e.getReviews() != null) {
-            OptionalDouble average = e.getReviews().stream()
-                    // Filter to include only APPROVED reviews
-                    .filter(review -> review.getStatus() == ReviewStatus.APPROVED)
-                    // Map each review object to its integer rating
-                    .mapToInt(Review::getRating)
-                    // Calculate the average
-                    .average();
-
-            // Set the rating if an average was calculated, otherwise leave it null
-            this.rating = average.isPresent() ? average.getAsDouble() : null;
-        } else {
-            this.rating = null;
-        }
+        // 1. Rating comes from the aggregates maintained on the experience (null until a review is approved)
+        this.rating = e.getAverageRating();
+        this.ratingCount = e.getRatingCount();
 
 
         // 2. Map the Location object to a simple string (e.g., the city).
@@ -68,30 +73,24 @@ public class ExperienceDTO {
         }
 
         // 3. Map the collections, handling potential nulls.
-        if (e.getSessionTypes() != null) {
-            this.sessionTypes = e.getSessionTypes().stream()
+        if (sessionTypes != null) {
+            this.sessionTypes = sessionTypes.stream()
                     .map(SessionType::name)
                     .collect(Collectors.toList());
         } else {
             this.sessionTypes = new ArrayList<>();
         }
 
-        if (e.getTags() != null) {
-            this.tags = new ArrayList<>(e.getTags());
+        if (tags != null) {
+            this.tags = new ArrayList<>(tags);
         } else {
             this.tags = new ArrayList<>();
         }
 
-        if (e.getImages() != null) {
-            this.images = e.getImages().stream()
-                    .map(Image::getUrl)
-                    .collect(Collectors.toList());
-        } else {
-            this.images = new ArrayList<>();
-        }
+        this.images = imageUrls != null ? new ArrayList<>(imageUrls) : new ArrayList<>();
 
-        if (e.getReviews() != null) {
-            this.reviews = e.getReviews().stream()
+        if (reviews != null) {
+            this.reviews = reviews.stream()
                     .filter(review -> review.getStatus() == ReviewStatus.APPROVED)
 
                     .sorted(Comparator.comparing(Review::getCreatedAt).reversed())
@@ -101,4 +100,13 @@ public class ExperienceDTO {
             this.reviews = new ArrayList<>();
         }
     }
-}
\ No newline at end of file
+
+    private static List<String> imageUrls(List<Image> images) {
+        if (images == null) {
+            return null;
+        }
+        return images.stream()
+                .map(Image::getUrl)
+                .collect(Collectors.toList());
+    }
+}
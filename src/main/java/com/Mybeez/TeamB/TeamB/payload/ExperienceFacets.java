@@ -0,0 +1,17 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import java.util.List;
+
+/**
+ * Facet counts for the explore page.
+ * Each facet is counted with every active filter applied except its own, so the counts tell the user
+ * how many results they would get by switching that facet to another value.
+ */
+public record ExperienceFacets(
+        int total,
+        List<FacetValue> categories,
+        List<FacetValue> cities,
+        List<FacetValue> sessionTypes,
+        List<FacetValue> priceRanges,
+        List<FacetValue> durations
+) {}
@@ -0,0 +1,83 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * The filters of the public experience listing, as sent on the query string.
+ * Every field is optional; null means "do not filter on this".
+ * dateFrom, dateTo and guests together ask for experiences with a slot that still has room for the
+ * party on some day of the range (see ExperienceAvailabilityIndex).
+ */
+public record ExperienceFilter(
+        String keyword,
+        Long categoryId,
+        String location,
+        String sessionType,
+        Integer minDuration,
+        Integer maxDuration,
+        Integer minGroupPrice,
+        Integer maxGroupPrice,
+        LocalDate dateFrom,
+        LocalDate dateTo,
+        Integer guests
+) {
+    /**
+     * A filter without an availability window.
+     */
+    public ExperienceFilter(
+            String keyword,
+            Long categoryId,
+            String location,
+            String sessionType,
+            Integer minDuration,
+            Integer maxDuration,
+            Integer minGroupPrice,
+            Integer maxGroupPrice) {
+        this(keyword, categoryId, location, sessionType, minDuration, maxDuration, minGroupPrice, maxGroupPrice,
+                null, null, null);
+    }
+
+    /**
+     * The same filter with its text normalised the way the query treats it anyway: keyword and location
+     * trimmed and lower-cased (the keyword also with single spaces), session type upper-cased, blanks as null.
+     * Equal canonical filters always return the same experiences, which makes them usable as cache keys.
+     */
+    public ExperienceFilter canonical() {
+        String cleanKeyword = clean(keyword);
+        String cleanLocation = clean(location);
+        String cleanSessionType = clean(sessionType);
+        return new ExperienceFilter(
+                cleanKeyword != null ? cleanKeyword.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ") : null,
+                categoryId,
+                cleanLocation != null ? cleanLocation.toLowerCase(Locale.ROOT) : null,
+                cleanSessionType != null ? cleanSessionType.toUpperCase(Locale.ROOT) : null,
+                minDuration,
+                maxDuration,
+                minGroupPrice,
+                maxGroupPrice,
+                dateFrom,
+                dateTo,
+                guests);
+    }
+
+    public boolean hasKeyword() {
+        return keyword != null && !keyword.isBlank();
+    }
+
+    public boolean hasLocation() {
+        return location != null && !location.isEmpty();
+    }
+
+    public boolean hasSessionType() {
+        return sessionType != null && !sessionType.isEmpty();
+    }
+
+    public boolean hasAvailabilityWindow() {
+        return dateFrom != null || dateTo != null || guests != null;
+    }
+
+    private static String clean(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,14 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import java.util.List;
+
+/**
+ * One page of the experience listing.
+ * nextCursor is null on the last page; otherwise pass it back as ?cursor= to fetch the next page.
+ * facets holds the counts for the whole filtered result, not just this page.
+ */
+public record ExperiencePageResponse(
+        List<ExperienceDTO> items,
+        String nextCursor,
+        ExperienceFacets facets
+) {}
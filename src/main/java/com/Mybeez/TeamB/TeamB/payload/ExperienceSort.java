@@ -0,0 +1,46 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import com.Mybeez.TeamB.TeamB.exception.InvalidPaginationException;
+
+import java.util.Locale;
+
+/**
+ * Stable sort orders for the paginated experience listing.
+ * Every order is made unique by using the experience id as a tie-breaker, which is what lets
+ * the listing be paged with a keyset cursor instead of an OFFSET.
+ */
+public enum ExperienceSort {
+    NEWEST(true),
+    PRICE_ASC(false),
+    PRICE_DESC(true),
+    RATING(true),
+    DURATION(false),
+    // Nearest first; needs a point (?lat=&lon=) and is ordered in memory by ExperienceGeoIndex, not by the database
+    DISTANCE(false),
+    // Best match first, scored by ExperienceRanker after filtering; also ordered in memory
+    RELEVANCE(true);
+
+    private final boolean descending;
+
+    ExperienceSort(boolean descending) {
+        this.descending = descending;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Parses the ?sort= request parameter, accepting e.g. "newest", "price_asc" or "PRICE-ASC".
+     */
+    public static ExperienceSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPaginationException("Unknown sort order: " + value);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+/**
+ * One selectable value of a facet and how many results choosing it would give.
+ * value is what the client sends back as the filter parameter (e.g. a category id, or "20-50" for a
+ * price bucket, meaning min inclusive and max exclusive); label is what it shows.
+ */
+public record FacetValue(
+        String value,
+        String label,
+        int count
+) {}
@@ -0,0 +1,32 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import com.Mybeez.TeamB.TeamB.exception.InvalidSearchParameterException;
+
+/**
+ * "Within radiusKm of centre", as sent on the listing query string (?lat=&lon=&radiusKm=).
+ */
+public record GeoRadius(GeoPoint centre, double radiusKm) {
+
+    public static final double MAX_RADIUS_KM = 500;
+
+    /**
+     * Validates the query parameters.
+     * @return null when none of them is set; a missing radius defaults to MAX_RADIUS_KM.
+     */
+    public static GeoRadius of(Double latitude, Double longitude, Double radiusKm) {
+        if (latitude == null && longitude == null && radiusKm == null) {
+            return null;
+        }
+        if (latitude == null || longitude == null) {
+            throw new InvalidSearchParameterException("lat and lon must be given together.");
+        }
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new InvalidSearchParameterException("lat must be within -90..90 and lon within -180..180.");
+        }
+        double radius = radiusKm != null ? radiusKm : MAX_RADIUS_KM;
+        if (!(radius > 0) || radius > MAX_RADIUS_KM) {
+            throw new InvalidSearchParameterException("radiusKm must be greater than 0 and at most " + (int) MAX_RADIUS_KM + ".");
+        }
+        return new GeoRadius(new GeoPoint(latitude, longitude), radius);
+    }
+}
@@ -0,0 +1,40 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import com.Mybeez.TeamB.TeamB.exception.InvalidPaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last conversation on a page of the inbox: the id of its last message.
+ * It is handed to the client as an opaque URL-safe token and sent back to fetch the next page.
+ */
+public record InboxCursor(long lastMessageId) {
+
+    /**
+     * The cursor before the most recent conversation.
+     */
+    public static InboxCursor start() {
+        return new InboxCursor(Long.MAX_VALUE);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("inbox|" + lastMessageId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     */
+    public static InboxCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith("inbox|")) {
+                throw new InvalidPaginationException("Malformed cursor.");
+            }
+            return new InboxCursor(Long.parseLong(raw.substring("inbox|".length())));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPaginationException("Malformed cursor.");
+        }
+    }
+}
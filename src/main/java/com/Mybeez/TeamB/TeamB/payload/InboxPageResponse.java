@@ -0,0 +1,12 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import java.util.List;
+
+/**
+ * One page of a user's inbox, most recent conversation first.
+ * nextCursor is null on the last page; otherwise pass it back as ?cursor= to fetch the next page.
+ */
+public record InboxPageResponse(
+        List<ConversationDTO> items,
+        String nextCursor
+) {}
@@ -20,6 +20,13 @@ public class MessageDTO {
         this.content = encryptionService.decrypt(message.getContent()); // Decrypt here
         this.timestamp = message.getTimestamp();
     }
+    // Constructor for a message whose content was already decrypted, e.g. as part of a batch
+    public MessageDTO(Message message, String content) {
+        this.id = message.getId();
+        this.senderId = message.getSender().getId();
+        this.content = content;
+        this.timestamp = message.getTimestamp();
+    }
     public MessageDTO(Message message) {
         this.id = message.getId();
         this.senderId = message.getSender().getId();
@@ -0,0 +1,9 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+/**
+ * Pushed to both participants when a message is sent, so open chat views and other tabs can show it.
+ */
+public record MessagePushEvent(
+        Long conversationId,
+        MessageDTO message) {
+}
@@ -0,0 +1,23 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A server-computed price for booking a slot, valid until expiresAt.
+ * The signature is an HMAC over every other field, so a quote handed back by a client can be checked
+ * with PriceQuoteService.verify.
+ */
+public record PriceQuote(
+        String quoteId,
+        Long availabilityId,
+        Long experienceId,
+        int guests,
+        String couponCode,
+        BigDecimal subtotal,
+        BigDecimal discountPercentage,
+        BigDecimal total,
+        String currency,
+        Instant expiresAt,
+        String signature
+) {}
@@ -0,0 +1,37 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The rating aggregates stored on an experience: sum and count of the approved review ratings
+ * plus how many approved reviews gave each number of stars.
+ */
+public record RatingSummary(
+        long sum,
+        int count,
+        int oneStar,
+        int twoStars,
+        int threeStars,
+        int fourStars,
+        int fiveStars
+) {
+    public static final RatingSummary EMPTY = new RatingSummary(0, 0, 0, 0, 0, 0, 0);
+
+    public double average() {
+        return count > 0 ? (double) sum / count : 0.0;
+    }
+
+    /**
+     * @return Star value (1-5) to number of approved reviews, in ascending star order.
+     */
+    public Map<Integer, Integer> histogram() {
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        histogram.put(1, oneStar);
+        histogram.put(2, twoStars);
+        histogram.put(3, threeStars);
+        histogram.put(4, fourStars);
+        histogram.put(5, fiveStars);
+        return histogram;
+    }
+}
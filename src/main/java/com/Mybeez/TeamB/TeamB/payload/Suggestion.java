@@ -0,0 +1,15 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+/**
+ * One typeahead suggestion for the search box.
+ * experienceId is only set for TITLE suggestions, so the frontend can link straight to the experience.
+ */
+public record Suggestion(String text, Type type, Long experienceId) {
+
+    public enum Type {
+        TITLE,
+        TAG,
+        CATEGORY,
+        CITY
+    }
+}
@@ -0,0 +1,7 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+/**
+ * Pushed when a user's total of unread messages changes; the same figure as GET /api/messages/unread-count.
+ */
+public record UnreadCountEvent(long unreadCount) {
+}
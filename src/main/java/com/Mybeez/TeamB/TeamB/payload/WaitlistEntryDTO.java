@@ -0,0 +1,19 @@
+package com.Mybeez.TeamB.TeamB.payload;
+
+import com.Mybeez.TeamB.TeamB.model.WaitlistStatus;
+
+/**
+ * A user's place on a slot's waitlist.
+ * @param position 1 for the next entry to be promoted; 0 once the entry is no longer WAITING.
+ * @param seatHoldId The seats held for the user when the entry was promoted, otherwise null.
+ * @param checkoutUrl Where the user pays for the held seats, once the checkout has been opened; otherwise null.
+ */
+public record WaitlistEntryDTO(
+        Long id,
+        Long availabilityId,
+        int numberOfGuests,
+        WaitlistStatus status,
+        long position,
+        Long seatHoldId,
+        String checkoutUrl) {
+}
@@ -1,13 +1,18 @@
 package com.Mybeez.TeamB.TeamB.repository;
 
 import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List; // <-- Make sure to import List
 
 @Repository
@@ -84,4 +89,116 @@ public interface AvailabilityRepository extends JpaRepository<Availability, Inte
      */
     @Query("SELECT COUNT(a) FROM Availability a WHERE a.experience.host.id = :hostId AND a.date = :date")
     long countByExperienceHostIdAndDate(@Param("hostId") Long hostId, @Param("date") LocalDate date);
-}
\ No newline at end of file
+
+    /**
+     * Free spots of every slot between the two dates, for experiences with the given status: what is neither
+     * booked nor held for a checkout, the same room reserveSpots checks against.
+     * @return A list of [experienceId, date, freeSpots] rows.
+     */
+    @Query("SELECT a.experience.id, a.date, a.capacity - a.bookedGuests - a.heldGuests " +
+            "FROM Availability a WHERE a.experience.status = :status AND a.date BETWEEN :from AND :to")
+    List<Object[]> findFreeSpotsByExperienceStatus(
+            @Param("status") ExperienceStatus status,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /**
+     * Same as findFreeSpotsByExperienceStatus, for a single experience.
+     */
+    @Query("SELECT a.experience.id, a.date, a.capacity - a.bookedGuests - a.heldGuests " +
+            "FROM Availability a WHERE a.experience.id = :experienceId AND a.experience.status = :status " +
+            "AND a.date BETWEEN :from AND :to")
+    List<Object[]> findFreeSpotsForExperience(
+            @Param("experienceId") Long experienceId,
+            @Param("status") ExperienceStatus status,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /**
+     * Loads slots and locks their rows until the transaction ends, in id order so that two callers
+     * locking overlapping sets cannot deadlock each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Availability a WHERE a.id IN :ids ORDER BY a.id")
+    List<Availability> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Adds (positive delta) or removes (negative delta) booked guests on a slot.
+     * Done as a single UPDATE so concurrent bookings of the same slot cannot lose increments.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.bookedGuests = a.bookedGuests + :delta WHERE a.id = :availabilityId")
+    int adjustBookedGuests(@Param("availabilityId") Long availabilityId, @Param("delta") int delta);
+
+    /**
+     * Takes guests from a slot only if they still fit next to its booked and held guests. The check and the
+     * increment are one statement, so concurrent bookings of the same slot can never take it past its capacity.
+     * @return 1 if the spots were taken, 0 if the slot does not have enough of them left.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.bookedGuests = a.bookedGuests + :guests " +
+            "WHERE a.id = :availabilityId AND a.bookedGuests + a.heldGuests + :guests <= a.capacity")
+    int reserveSpots(@Param("availabilityId") Long availabilityId, @Param("guests") int guests);
+
+    /**
+     * Holds guests on a slot during checkout, under the same guard as reserveSpots.
+     * @return 1 if the spots were held, 0 if the slot does not have enough of them left.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.heldGuests = a.heldGuests + :guests " +
+            "WHERE a.id = :availabilityId AND a.bookedGuests + a.heldGuests + :guests <= a.capacity")
+    int holdSpots(@Param("availabilityId") Long availabilityId, @Param("guests") int guests);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.heldGuests = a.heldGuests - :guests WHERE a.id = :availabilityId")
+    int releaseHeldSpots(@Param("availabilityId") Long availabilityId, @Param("guests") int guests);
+
+    /**
+     * Turns held guests into booked guests. Needs no guard: the spots were already set aside.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.heldGuests = a.heldGuests - :guests, a.bookedGuests = a.bookedGuests + :guests " +
+            "WHERE a.id = :availabilityId")
+    int convertHeldSpots(@Param("availabilityId") Long availabilityId, @Param("guests") int guests);
+
+    /**
+     * Slots whose booked_guests counter disagrees with their CONFIRMED bookings.
+     * @return A list of [availabilityId, bookedGuests, confirmedGuests] rows.
+     */
+    @Query("SELECT a.id, a.bookedGuests, COALESCE(" +
+            "(SELECT SUM(b.numberOfGuests) FROM Booking b WHERE b.availability = a AND b.status = 'CONFIRMED'), 0) " +
+            "FROM Availability a WHERE a.bookedGuests <> COALESCE(" +
+            "(SELECT SUM(b.numberOfGuests) FROM Booking b WHERE b.availability = a AND b.status = 'CONFIRMED'), 0)")
+    List<Object[]> findBookedGuestsMismatches();
+
+    /**
+     * Recomputes a slot's booked_guests from its CONFIRMED bookings. The count is taken inside the UPDATE, under
+     * the slot's row lock that every booking also takes, so a booking committing meanwhile cannot be lost.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.bookedGuests = COALESCE(" +
+            "(SELECT SUM(b.numberOfGuests) FROM Booking b WHERE b.availability.id = a.id AND b.status = 'CONFIRMED'), 0) " +
+            "WHERE a.id = :availabilityId")
+    int recountBookedGuests(@Param("availabilityId") Long availabilityId);
+
+    /**
+     * Slots whose held_guests counter disagrees with their ACTIVE seat holds.
+     * @return A list of [availabilityId, heldGuests, activeHeldGuests] rows.
+     */
+    @Query("SELECT a.id, a.heldGuests, COALESCE(" +
+            "(SELECT SUM(h.numberOfGuests) FROM SeatHold h WHERE h.availability = a AND h.status = 'ACTIVE'), 0) " +
+            "FROM Availability a WHERE a.heldGuests <> COALESCE(" +
+            "(SELECT SUM(h.numberOfGuests) FROM SeatHold h WHERE h.availability = a AND h.status = 'ACTIVE'), 0)")
+    List<Object[]> findHeldGuestsMismatches();
+
+    /**
+     * Recomputes a slot's held_guests from its ACTIVE seat holds, the same way as recountBookedGuests.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.heldGuests = COALESCE(" +
+            "(SELECT SUM(h.numberOfGuests) FROM SeatHold h WHERE h.availability.id = a.id AND h.status = 'ACTIVE'), 0) " +
+            "WHERE a.id = :availabilityId")
+    int recountHeldGuests(@Param("availabilityId") Long availabilityId);
+}
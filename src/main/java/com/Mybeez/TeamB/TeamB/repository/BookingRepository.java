@@ -2,20 +2,35 @@ package com.Mybeez.TeamB.TeamB.repository;
 
 import com.Mybeez.TeamB.TeamB.model.Booking;
 import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.payload.BookingSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // Shared by the bookings feed queries: the columns of a BookingSummary and the user's bookings they come from
+    String BOOKING_SUMMARY_SELECT = "SELECT new com.Mybeez.TeamB.TeamB.payload.BookingSummary(" +
+            "b.id, b.status, b.numberOfGuests, b.totalPrice, a.date, a.startTime, a.endTime, e.id, e.title, h.firstName, " +
+            "(SELECT i.url FROM Image i WHERE i.id = (SELECT MIN(i2.id) FROM Image i2 WHERE i2.experience = e))) " +
+            "FROM Booking b JOIN b.availability a JOIN a.experience e JOIN e.host h " +
+            "WHERE b.user.id = :userId ";
+    String AFTER_CURSOR = "AND (a.date > :date OR (a.date = :date AND (a.startTime > :startTime " +
+            "OR (a.startTime = :startTime AND b.id > :id)))) ";
+    String BEFORE_CURSOR = "AND (a.date < :date OR (a.date = :date AND (a.startTime < :startTime " +
+            "OR (a.startTime = :startTime AND b.id < :id)))) ";
+
     /**
      * Calculates the sum of all confirmed guests for a list of availability IDs.
      * It performs the calculation in the database.
@@ -31,17 +46,107 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    /**
+     * The user's bookings that are not cancelled, on slots from today on, soonest first, after the cursor.
+     * Pass PageRequest.of(0, n) to fetch at most n rows.
+     */
+    @Query(BOOKING_SUMMARY_SELECT + "AND b.status <> 'CANCELLED' AND a.date >= CURRENT_DATE " + AFTER_CURSOR +
+            "ORDER BY a.date ASC, a.startTime ASC, b.id ASC")
+    List<BookingSummary> findUpcomingBookingSummaries(@Param("userId") Long userId, @Param("date") LocalDate date,
+                                                      @Param("startTime") LocalTime startTime, @Param("id") long id,
+                                                      Pageable pageable);
+
+    /**
+     * The user's bookings that are not cancelled, on slots before today, most recent first, after the cursor.
+     */
+    @Query(BOOKING_SUMMARY_SELECT + "AND b.status <> 'CANCELLED' AND a.date < CURRENT_DATE " + BEFORE_CURSOR +
+            "ORDER BY a.date DESC, a.startTime DESC, b.id DESC")
+    List<BookingSummary> findPastBookingSummaries(@Param("userId") Long userId, @Param("date") LocalDate date,
+                                                  @Param("startTime") LocalTime startTime, @Param("id") long id,
+                                                  Pageable pageable);
+
+    /**
+     * The user's cancelled bookings, latest slot first, after the cursor.
+     */
+    @Query(BOOKING_SUMMARY_SELECT + "AND b.status = 'CANCELLED' " + BEFORE_CURSOR +
+            "ORDER BY a.date DESC, a.startTime DESC, b.id DESC")
+    List<BookingSummary> findCancelledBookingSummaries(@Param("userId") Long userId, @Param("date") LocalDate date,
+                                                       @Param("startTime") LocalTime startTime, @Param("id") long id,
+                                                       Pageable pageable);
+
 
 
     List<Booking> findByAvailability_Experience_Host_IdAndStatus(Long hostId, BookingStatus status);
 
 
-    @Query("SELECT COUNT(b) FROM Booking b WHERE b.availability.experience.host.id = :hostId AND b.availability.date >= CURRENT_DATE")
+    /**
+     * Bookings that are not cancelled, on the host's slots from today on.
+     */
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.availability.experience.host.id = :hostId " +
+            "AND b.availability.date >= CURRENT_DATE AND b.status <> 'CANCELLED'")
     long countUpcomingBookingsForHost(@Param("hostId") Long hostId);
 
-    @Query("SELECT SUM(b.totalPrice) FROM Booking b WHERE b.availability.experience.host.id = :hostId AND b.createdAt >= :startOfMonth")
+    /**
+     * Total price of the host's CONFIRMED bookings made since the start of the month.
+     */
+    @Query("SELECT SUM(b.totalPrice) FROM Booking b WHERE b.availability.experience.host.id = :hostId " +
+            "AND b.status = 'CONFIRMED' AND b.createdAt >= :startOfMonth")
     BigDecimal findTotalEarningsForMonth(@Param("hostId") Long hostId, @Param("startOfMonth") LocalDateTime startOfMonth);
 
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.availability.experience.host.id = :hostId AND b.status = 'PENDING'")
     long countPendingRequestsForHost(@Param("hostId") Long hostId);
-}
\ No newline at end of file
+
+    /**
+     * @return A list of [experienceId, confirmedBookingCount] rows, one per experience with confirmed bookings.
+     */
+    @Query("SELECT b.availability.experience.id, COUNT(b) FROM Booking b WHERE b.status = 'CONFIRMED' " +
+            "GROUP BY b.availability.experience.id")
+    List<Object[]> countConfirmedBookingsPerExperience();
+
+    /**
+     * @return A list of [experienceId, confirmedBookingCount] rows counting only bookings made since the given time.
+     */
+    @Query("SELECT b.availability.experience.id, COUNT(b) FROM Booking b " +
+            "WHERE b.status = 'CONFIRMED' AND b.createdAt >= :since " +
+            "GROUP BY b.availability.experience.id")
+    List<Object[]> countConfirmedBookingsPerExperienceSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT COUNT(b) FROM Booking b " +
+            "WHERE b.availability.experience.id = :experienceId AND b.status = 'CONFIRMED' AND b.createdAt >= :since")
+    long countConfirmedBookingsForExperienceSince(@Param("experienceId") Long experienceId, @Param("since") LocalDateTime since);
+
+    long countByAvailability_Experience_Id(Long experienceId);
+
+    /**
+     * @return A list of [experienceId, title, bookingCount] rows for the host's experiences with bookings of any
+     * status, most booked first.
+     */
+    @Query("SELECT e.id, e.title, COUNT(b) FROM Booking b JOIN b.availability a JOIN a.experience e " +
+            "WHERE e.host.id = :hostId GROUP BY e.id, e.title ORDER BY COUNT(b) DESC, e.id ASC")
+    List<Object[]> countBookingsPerExperienceForHost(@Param("hostId") Long hostId);
+
+    /**
+     * What a bulk approve or reject needs to know about each booking, read in one query.
+     * @return A list of [bookingId, status, numberOfGuests, availabilityId, experienceId, hostId] rows,
+     * one per booking that exists.
+     */
+    @Query("SELECT b.id, b.status, b.numberOfGuests, a.id, e.id, e.host.id " +
+            "FROM Booking b JOIN b.availability a JOIN a.experience e WHERE b.id IN :ids")
+    List<Object[]> findDecisionRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sets the status of the given bookings in one statement, skipping any that are no longer PENDING.
+     * @return The number of bookings changed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status WHERE b.id IN :ids AND b.status = 'PENDING'")
+    int updateStatusOfPending(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
+
+    /**
+     * Loads a booking with its slot and experience, for listeners that need the host and the slot date.
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.availability a JOIN FETCH a.experience WHERE b.id = :id")
+    Optional<Booking> findWithExperienceById(@Param("id") Long id);
+
+    Optional<Booking> findByCheckoutSessionId(String checkoutSessionId);
+}
@@ -4,13 +4,17 @@ import com.Mybeez.TeamB.TeamB.model.Experience;
 import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
 
 import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
+import com.Mybeez.TeamB.TeamB.payload.RatingSummary;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,9 +22,81 @@ import java.util.Optional;
 public interface ExperienceRepository extends JpaRepository<Experience, Long>, JpaSpecificationExecutor<Experience> {
 
 
-    @Query("SELECT e FROM Experience e WHERE LOWER(e.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(e.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Experience> searchByKeyword(@Param("keyword") String keyword);
+    /**
+     * Loads experiences together with the fields the search index needs (category and tags) in one query.
+     */
+    @Query("SELECT DISTINCT e FROM Experience e LEFT JOIN FETCH e.category LEFT JOIN FETCH e.tags WHERE e.status = :status")
+    List<Experience> findForIndexingByStatus(@Param("status") ExperienceStatus status);
+
+    /**
+     * Loads experiences together with the fields the facet index needs (category, location and session types).
+     */
+    @Query("SELECT DISTINCT e FROM Experience e LEFT JOIN FETCH e.category LEFT JOIN FETCH e.location " +
+            "LEFT JOIN FETCH e.sessionTypes LEFT JOIN FETCH e.rejection WHERE e.status = :status")
+    List<Experience> findForFacetingByStatus(@Param("status") ExperienceStatus status);
+
+    /**
+     * [experienceId, latitude, longitude] of every experience with the given status whose location has coordinates.
+     */
+    @Query("SELECT e.id, l.latitude, l.longitude FROM Experience e JOIN e.location l " +
+            "WHERE e.status = :status AND l.latitude IS NOT NULL AND l.longitude IS NOT NULL")
+    List<Object[]> findCoordinatesByStatus(@Param("status") ExperienceStatus status);
+
+    /**
+     * Reads the columns the typeahead suggestions are built from, without loading entities.
+     * @return A list of [experienceId, title, ratingCount, categoryName, city] rows.
+     */
+    @Query("SELECT e.id, e.title, e.ratingCount, c.name, l.city FROM Experience e " +
+            "LEFT JOIN e.category c LEFT JOIN e.location l WHERE e.status = :status")
+    List<Object[]> findSuggestionSourcesByStatus(@Param("status") ExperienceStatus status);
+
+    /**
+     * @return A list of [experienceId, tag] pairs for every experience with the given status.
+     */
+    @Query("SELECT e.id, t FROM Experience e JOIN e.tags t WHERE e.status = :status")
+    List<Object[]> findTagsByStatus(@Param("status") ExperienceStatus status);
+
+    // Listing queries fetch the rejection up front: it is the inverse side of a one-to-one, so Hibernate
+    // would otherwise load it with a separate select for every row.
+    @Override
+    @EntityGraph(attributePaths = "rejection")
+    List<Experience> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "rejection")
+    List<Experience> findAllById(Iterable<Long> ids);
+
+    /**
+     * Loads the category and location of a batch of experiences in one query.
+     * Used by ExperienceDTOAssembler; experiences already in the persistence context are initialised in place.
+     */
+    @Query("SELECT e FROM Experience e LEFT JOIN FETCH e.category LEFT JOIN FETCH e.location LEFT JOIN FETCH e.rejection WHERE e.id IN :ids")
+    List<Experience> findWithCategoryAndLocationByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reads only the host columns shown in listings, so no User entities (and their profiles) are loaded.
+     * @return A list of [experienceId, hostId, firstName, lastName, email, summary, profilePictureUrl] rows.
+     */
+    @Query("SELECT e.id, h.id, h.firstName, h.lastName, h.email, h.summary, h.profilePictureUrl FROM Experience e JOIN e.host h WHERE e.id IN :ids")
+    List<Object[]> findHostsByExperienceIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return A list of [experienceId, SessionType] pairs for the given experiences.
+     */
+    @Query("SELECT e.id, s FROM Experience e JOIN e.sessionTypes s WHERE e.id IN :ids")
+    List<Object[]> findSessionTypesByExperienceIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return A list of [experienceId, tag] pairs for the given experiences.
+     */
+    @Query("SELECT e.id, t FROM Experience e JOIN e.tags t WHERE e.id IN :ids")
+    List<Object[]> findTagsByExperienceIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return A list of [experienceId, imageUrl] pairs for the given experiences, in upload order.
+     */
+    @Query("SELECT i.experience.id, i.url FROM Image i WHERE i.experience.id IN :ids ORDER BY i.id")
+    List<Object[]> findImageUrlsByExperienceIds(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT e FROM Experience e JOIN FETCH e.host h WHERE e.id = :id")
     Optional<Experience> findByIdWithHost(@Param("id") Long id);
@@ -32,10 +108,67 @@ public interface ExperienceRepository extends JpaRepository<Experience, Long>, J
     @Query("SELECT e FROM Experience e LEFT JOIN FETCH e.availability WHERE e.id = :id")
     Optional<Experience> findByIdWithAvailability(@Param("id") Long id);
 
+    @EntityGraph(attributePaths = "rejection")
     List<Experience> findByStatus(ExperienceStatus status);
 
-    @Query("SELECT b.availability.experience FROM Booking b WHERE b.availability.experience.host.id = :hostId GROUP BY b.availability.experience ORDER BY COUNT(b) DESC LIMIT 1")
-    Optional<Experience> findMostPopularExperienceForHost(@Param("hostId") Long hostId);
-
+    @EntityGraph(attributePaths = "rejection")
     List<Experience> findByOrderByRatingDesc(Pageable pageable);
+
+    /**
+     * Experiences with at least one approved review, best average first.
+     * Reads the maintained rating column, which equals ratingSum / ratingCount for these rows.
+     */
+    @EntityGraph(attributePaths = "rejection")
+    @Query("SELECT e FROM Experience e WHERE e.ratingCount > 0 ORDER BY e.rating DESC, e.ratingCount DESC, e.id")
+    List<Experience> findTopRatedByReviews(Pageable pageable);
+
+    /**
+     * @return A list of [experienceId, ratingSum, ratingCount] rows for experiences with the given status.
+     */
+    @Query("SELECT e.id, e.ratingSum, e.ratingCount FROM Experience e WHERE e.status = :status")
+    List<Object[]> findRatingAggregatesByStatus(@Param("status") ExperienceStatus status);
+
+    @Query("""
+        SELECT new com.Mybeez.TeamB.TeamB.payload.RatingSummary(
+            e.ratingSum, e.ratingCount, e.oneStarCount, e.twoStarCount, e.threeStarCount, e.fourStarCount, e.fiveStarCount)
+        FROM Experience e
+        WHERE e.id = :experienceId
+    """)
+    Optional<RatingSummary> findRatingSummaryById(@Param("experienceId") Long experienceId);
+
+    /**
+     * @return A single [ratingSum, ratingCount] row summed over all of the host's experiences.
+     */
+    @Query("SELECT COALESCE(SUM(e.ratingSum), 0), COALESCE(SUM(e.ratingCount), 0) FROM Experience e WHERE e.host.id = :hostId")
+    List<Object[]> sumRatingAggregatesForHost(@Param("hostId") Long hostId);
+
+    /**
+     * Adds (delta = 1) or removes (delta = -1) one review with the given star rating from the aggregates.
+     * Done as a single UPDATE so concurrent moderations of the same experience cannot lose increments.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Experience e SET
+            e.ratingSum = e.ratingSum + :stars * :delta,
+            e.ratingCount = e.ratingCount + :delta,
+            e.oneStarCount = e.oneStarCount + CASE WHEN :stars = 1 THEN :delta ELSE 0 END,
+            e.twoStarCount = e.twoStarCount + CASE WHEN :stars = 2 THEN :delta ELSE 0 END,
+            e.threeStarCount = e.threeStarCount + CASE WHEN :stars = 3 THEN :delta ELSE 0 END,
+            e.fourStarCount = e.fourStarCount + CASE WHEN :stars = 4 THEN :delta ELSE 0 END,
+            e.fiveStarCount = e.fiveStarCount + CASE WHEN :stars = 5 THEN :delta ELSE 0 END
+        WHERE e.id = :experienceId
+    """)
+    int adjustRatingAggregates(@Param("experienceId") Long experienceId, @Param("stars") int stars, @Param("delta") int delta);
+
+    /**
+     * Recomputes the rating column from the aggregates. Kept as a separate statement because MariaDB
+     * evaluates multi-column SET clauses left to right against already-updated values.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Experience e
+        SET e.rating = CASE WHEN e.ratingCount > 0 THEN CAST(e.ratingSum AS double) / e.ratingCount ELSE NULL END
+        WHERE e.id = :experienceId
+    """)
+    int refreshAverageRating(@Param("experienceId") Long experienceId);
 }
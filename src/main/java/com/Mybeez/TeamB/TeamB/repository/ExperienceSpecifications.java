@@ -3,8 +3,20 @@ package com.Mybeez.TeamB.TeamB.repository;
 import com.Mybeez.TeamB.TeamB.model.Experience;
 import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
 import com.Mybeez.TeamB.TeamB.model.SessionType;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceCursor;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceSort;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 public class ExperienceSpecifications {
     /**
      * Creates a specification to filter experiences by their status.
@@ -70,14 +82,77 @@ public class ExperienceSpecifications {
         };
     }
 
-    public static Specification<Experience> hasKeyword(String keyword) {
+    /**
+     * Restricts the query to the given experience ids, e.g. the matches of a keyword search
+     * resolved by the search index.
+     * @param ids The experience ids to keep.
+     * @return A Specification for the query.
+     */
+    public static Specification<Experience> hasIdIn(Collection<Long> ids) {
         return (root, query, cb) -> {
-            if (keyword == null || keyword.trim().isEmpty()) return cb.conjunction();
-            String likePattern = "%" + keyword.toLowerCase() + "%";
+            if (ids == null) return cb.conjunction();
+            if (ids.isEmpty()) return cb.disjunction();
+            return root.get("id").in(ids);
+        };
+    }
+
+    /**
+     * Fetches the rejection together with each experience. It is the inverse side of a one-to-one, so
+     * without this Hibernate loads it with one extra select per row of a listing.
+     * @return A Specification for the query.
+     */
+    public static Specification<Experience> fetchRejection() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class) { // fetches are not allowed in count queries
+                root.fetch("rejection", JoinType.LEFT);
+            }
+            return cb.conjunction();
+        };
+    }
+
+    /**
+     * Orders the query by the given sort key (with the id as tie-breaker) and, when a cursor is given,
+     * keeps only the rows that come after it. Combined with a row limit this pages through the listing
+     * without OFFSET, so a page never skips or repeats rows when experiences are added in between.
+     * The key is coalesced and none of the sort columns is indexed, so the database still sorts the
+     * filtered rows for each page rather than seeking to the cursor.
+     * @param sort The sort order of the listing.
+     * @param after The last row of the previous page, or null for the first page.
+     * @return A Specification for the query.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Experience> orderedAfter(ExperienceSort sort, ExperienceCursor after) {
+        return (root, query, cb) -> {
+            Expression key = sortKey(sort, root, cb);
+            Path<Long> id = root.get("id");
+            if (query.getResultType() != Long.class) { // leave count queries unordered
+                query.orderBy(sort.isDescending()
+                        ? List.of(cb.desc(key), cb.desc(id))
+                        : List.of(cb.asc(key), cb.asc(id)));
+            }
+            if (after == null) return cb.conjunction();
+
+            Comparable value = after.typedKey();
+            if (sort.isDescending()) {
+                return cb.or(
+                        cb.lessThan(key, value),
+                        cb.and(cb.equal(key, value), cb.lessThan(id, after.id())));
+            }
             return cb.or(
-                    cb.like(cb.lower(root.get("title")), likePattern),
-                    cb.like(cb.lower(root.get("description")), likePattern)
-            );
+                    cb.greaterThan(key, value),
+                    cb.and(cb.equal(key, value), cb.greaterThan(id, after.id())));
+        };
+    }
+
+    // Nullable columns are coalesced so every row has a comparable key; ExperienceCursor.after uses the same defaults
+    private static Expression<?> sortKey(ExperienceSort sort, Root<Experience> root, CriteriaBuilder cb) {
+        return switch (sort) {
+            case NEWEST -> cb.coalesce(root.<LocalDateTime>get("createdAt"), ExperienceCursor.EPOCH);
+            case PRICE_ASC, PRICE_DESC -> cb.coalesce(root.<BigDecimal>get("groupPricePerPerson"), BigDecimal.ZERO);
+            case RATING -> cb.coalesce(root.<Double>get("rating"), 0.0);
+            case DURATION -> cb.coalesce(root.<Integer>get("durationInMinutes"), 0);
+            case DISTANCE -> throw new IllegalArgumentException("DISTANCE is ordered in memory by ExperienceGeoIndex");
+            case RELEVANCE -> throw new IllegalArgumentException("RELEVANCE is ordered in memory by ExperienceRanker");
         };
     }
 }
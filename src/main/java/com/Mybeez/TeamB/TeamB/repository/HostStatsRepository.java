@@ -0,0 +1,82 @@
+package com.Mybeez.TeamB.TeamB.repository;
+
+import com.Mybeez.TeamB.TeamB.model.HostStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The counter updates below are single UPDATEs, so concurrent events for the same host cannot lose
+ * increments. They change nothing for a host without a row yet; that row is built from the source
+ * tables on first read and so already includes the change.
+ */
+@Repository
+public interface HostStatsRepository extends JpaRepository<HostStats, Long> {
+
+    /**
+     * Loads a host's row and locks it until the transaction ends, for read-modify-write updates.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM HostStats s WHERE s.hostId = :hostId")
+    Optional<HostStats> findByIdForUpdate(@Param("hostId") Long hostId);
+
+    @Query("SELECT s.hostId FROM HostStats s")
+    List<Long> findAllHostIds();
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE HostStats s SET s.pendingRequests = s.pendingRequests + :pending, " +
+            "s.upcomingBookings = s.upcomingBookings + :upcoming WHERE s.hostId = :hostId")
+    int adjustBookingCounts(@Param("hostId") Long hostId, @Param("pending") long pending, @Param("upcoming") long upcoming);
+
+    /**
+     * Starts a new earnings month for the host if the row still holds an earlier one.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE HostStats s SET s.earningsMonth = :month, s.monthEarnings = 0 " +
+            "WHERE s.hostId = :hostId AND s.earningsMonth < :month")
+    int startEarningsMonth(@Param("hostId") Long hostId, @Param("month") LocalDate month);
+
+    /**
+     * Adds to the month's earnings, only if the row is on that month.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE HostStats s SET s.monthEarnings = s.monthEarnings + :amount " +
+            "WHERE s.hostId = :hostId AND s.earningsMonth = :month")
+    int adjustMonthEarnings(@Param("hostId") Long hostId, @Param("month") LocalDate month, @Param("amount") BigDecimal amount);
+
+    /**
+     * Makes the experience the host's most popular if it now has more bookings than the current one.
+     * Booking rows are never deleted, so an experience's booking count only grows and this keeps the maximum.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE HostStats s SET s.mostPopularExperienceId = :experienceId, s.mostPopularTitle = :title, " +
+            "s.mostPopularBookings = :bookings WHERE s.hostId = :hostId " +
+            "AND (s.mostPopularBookings < :bookings OR s.mostPopularExperienceId = :experienceId)")
+    int offerMostPopular(@Param("hostId") Long hostId, @Param("experienceId") Long experienceId,
+                         @Param("title") String title, @Param("bookings") long bookings);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE HostStats s SET s.mostPopularTitle = :title WHERE s.mostPopularExperienceId = :experienceId")
+    int renameMostPopular(@Param("experienceId") Long experienceId, @Param("title") String title);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE HostStats s SET s.ratingSum = s.ratingSum + :sum, s.ratingCount = s.ratingCount + :count " +
+            "WHERE s.hostId = :hostId")
+    int adjustRatings(@Param("hostId") Long hostId, @Param("sum") long sum, @Param("count") long count);
+
+    /**
+     * Does nothing for users who are not hosts, since they have no row.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE HostStats s SET s.unreadMessages = s.unreadMessages + :delta WHERE s.hostId = :hostId")
+    int adjustUnreadMessages(@Param("hostId") Long hostId, @Param("delta") long delta);
+}
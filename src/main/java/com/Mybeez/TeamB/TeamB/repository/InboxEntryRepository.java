@@ -0,0 +1,96 @@
+package com.Mybeez.TeamB.TeamB.repository;
+
+import com.Mybeez.TeamB.TeamB.model.InboxEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InboxEntryRepository extends JpaRepository<InboxEntry, Long> {
+
+    /**
+     * A page of the user's inbox, most recent conversation first, starting below the given message id.
+     * Served from the (user_id, last_message_id) index.
+     */
+    @Query("SELECT e FROM InboxEntry e JOIN FETCH e.otherParticipant " +
+            "WHERE e.user.id = :userId AND e.lastMessageId < :beforeMessageId ORDER BY e.lastMessageId DESC")
+    List<InboxEntry> findPage(@Param("userId") Long userId,
+                              @Param("beforeMessageId") long beforeMessageId,
+                              Pageable limit);
+
+    /**
+     * Moves a conversation's row on to a new message and adds to its unread count, as one UPDATE so
+     * concurrent sends cannot lose increments. A message that commits after a newer one does not take
+     * the newer one's place, but still counts as unread even below the read watermark, since nobody can
+     * have read it before it committed. lastMessageId is assigned last because MariaDB evaluates the
+     * assignments in order.
+     * @return 0 if the user has no row for the conversation yet.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE InboxEntry e SET " +
+            "e.lastMessageContent = CASE WHEN e.lastMessageId < :messageId THEN :content ELSE e.lastMessageContent END, " +
+            "e.lastMessageAt = CASE WHEN e.lastMessageId < :messageId THEN :sentAt ELSE e.lastMessageAt END, " +
+            "e.unreadCount = e.unreadCount + :unread, " +
+            "e.lastMessageId = CASE WHEN e.lastMessageId < :messageId THEN :messageId ELSE e.lastMessageId END " +
+            "WHERE e.conversation.id = :conversationId AND e.user.id = :userId")
+    int recordMessage(@Param("conversationId") Long conversationId,
+                      @Param("userId") Long userId,
+                      @Param("messageId") Long messageId,
+                      @Param("content") String content,
+                      @Param("sentAt") LocalDateTime sentAt,
+                      @Param("unread") int unread);
+
+    /**
+     * Creates the user's row for a conversation, or, if another first message created it since recordMessage
+     * found none, records the message on that row the way recordMessage does. One statement, so the two
+     * cannot clash on uk_inbox_user_conversation.
+     * @param unreadCount The unread count of a new row.
+     * @param unread What to add to the unread count of an existing row.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO inbox_entries (user_id, conversation_id, other_participant_id, last_message_id, " +
+            "last_message_content, last_message_at, last_read_message_id, unread_count) " +
+            "VALUES (:userId, :conversationId, :otherUserId, :messageId, :content, :sentAt, 0, :unreadCount) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "last_message_content = CASE WHEN last_message_id < :messageId THEN :content ELSE last_message_content END, " +
+            "last_message_at = CASE WHEN last_message_id < :messageId THEN :sentAt ELSE last_message_at END, " +
+            "unread_count = unread_count + :unread, " +
+            "last_message_id = CASE WHEN last_message_id < :messageId THEN :messageId ELSE last_message_id END",
+            nativeQuery = true)
+    int insertOrRecordMessage(@Param("conversationId") Long conversationId,
+                              @Param("userId") Long userId,
+                              @Param("otherUserId") Long otherUserId,
+                              @Param("messageId") Long messageId,
+                              @Param("content") String content,
+                              @Param("sentAt") LocalDateTime sentAt,
+                              @Param("unreadCount") int unreadCount,
+                              @Param("unread") int unread);
+
+    /**
+     * The user's row for a conversation, locked so that marking it read cannot interleave with recordMessage.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM InboxEntry e WHERE e.conversation.id = :conversationId AND e.user.id = :userId")
+    Optional<InboxEntry> findForUpdate(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(SUM(e.unreadCount), 0) FROM InboxEntry e WHERE e.user.id = :userId")
+    long sumUnreadCounts(@Param("userId") Long userId);
+
+    /**
+     * Conversation participants that have no inbox row, e.g. for conversations from before the inbox existed.
+     * @return A list of [conversationId, userId, otherParticipantId] rows.
+     */
+    @Query("SELECT c.id, p.id, o.id FROM Conversation c JOIN c.participants p JOIN c.participants o " +
+            "WHERE o.id <> p.id AND NOT EXISTS " +
+            "(SELECT e FROM InboxEntry e WHERE e.conversation.id = c.id AND e.user.id = p.id)")
+    List<Object[]> findParticipantsWithoutEntry();
+}
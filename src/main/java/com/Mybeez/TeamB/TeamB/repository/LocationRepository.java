@@ -4,9 +4,12 @@ import com.Mybeez.TeamB.TeamB.model.Location;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Long> {
     Optional<Location> findByAddressAndCityAndPostcode(String address, String city, String postcode);
+
+    List<Location> findByLatitudeIsNullAndPostcodeIsNotNull();
 }
@@ -1,20 +1,23 @@
 package com.Mybeez.TeamB.TeamB.repository;
 
 import com.Mybeez.TeamB.TeamB.model.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
-import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
     /**
      * Counts all unread messages for a given user
-     * A message is considered unread for a user if they are the recipient, not the sender,
-     * and the isRead flag is false.
+     * A message is unread for a user if someone else sent it after the user's read watermark for the
+     * conversation (InboxEntry.lastReadMessageId), so this is an id comparison per conversation on the
+     * (conversation_id, id) index. Used when the counts are rebuilt; InboxEntry keeps them up to date otherwise.
      *
      * @param userId The ID of the user (recipient)
      * @return The total count of unread messages
@@ -22,21 +25,28 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT count(m) FROM Message m " +
             "JOIN m.conversation c " +
             "JOIN c.participants p " +
-            "WHERE p.id = :userId AND m.sender.id <> :userId AND m.isRead = false")
+            "WHERE p.id = :userId AND m.sender.id <> :userId AND m.id > COALESCE(" +
+            "(SELECT e.lastReadMessageId FROM InboxEntry e WHERE e.conversation.id = c.id AND e.user.id = :userId), 0)")
     long countUnreadMessagesForUser(@Param("userId") Long userId);
 
+    // Messages the others sent in a conversation after the given read watermark
+    long countByConversationIdAndSenderIdNotAndIdGreaterThan(Long conversationId, Long userId, Long lastReadMessageId);
+
+    Optional<Message> findFirstByConversationIdOrderByIdDesc(Long conversationId);
+
     /**
-     * Directly updates the isRead flag for all relevant messages in a conversation.
-     * This is more efficient than fetching, modifying, and saving entities one by one
-     *
-     * @param conversationId The ID of the conversation being viewed
-     * @param userId The ID of the user who is viewing the conversation (to avoid marking their own messages as read)
+     * The messages of a conversation older than the given id, newest first; pass Long.MAX_VALUE for the latest.
+     * Served from the (conversation_id, id) index, so a page costs the same however long the conversation is.
+     */
+    List<Message> findByConversationIdAndIdLessThanOrderByIdDesc(Long conversationId, Long beforeId, Pageable limit);
+
+    /**
+     * The messages of a conversation newer than the given id, oldest first.
      */
-    @Modifying
-    @Query("UPDATE Message m SET m.isRead = true WHERE m.conversation.id = :conversationId AND m.sender.id <> :userId AND m.isRead = false")
-    void markMessagesAsReadInConversation(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
+    List<Message> findByConversationIdAndIdGreaterThanOrderByIdAsc(Long conversationId, Long afterId, Pageable limit);
 
+    // Whether a conversation has messages on either side of a window, for its hasOlder/hasNewer flags
+    boolean existsByConversationIdAndIdLessThanEqual(Long conversationId, Long id);
 
-     //Efficiently checks if unread messages exist for a user in a specific conversation.
-    boolean existsByConversationIdAndSenderIdNotAndIsReadFalse(Long conversationId, Long userId);
-}
\ No newline at end of file
+    boolean existsByConversationIdAndIdGreaterThanEqual(Long conversationId, Long id);
+}
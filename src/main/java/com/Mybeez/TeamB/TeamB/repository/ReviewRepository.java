@@ -3,53 +3,52 @@ package com.Mybeez.TeamB.TeamB.repository;
 import com.Mybeez.TeamB.TeamB.model.Review;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 import com.Mybeez.TeamB.TeamB.model.ReviewStatus;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     List<Review> findByExperienceId(Long experienceId);
 
-    List<Review> findFirst3ByExperience_Host_IdOrderByCreatedAtDesc(Long hostId);
-
-
-
-    Page<Review> findByStatus(ReviewStatus status, Pageable pageable);
+    /**
+     * Loads the approved reviews of a batch of experiences in one query, newest first.
+     */
     @Query("""
-        SELECT COALESCE(AVG(r.rating), 0)
+        SELECT r
         FROM Review r
-        WHERE r.experience.id = :experienceId AND r.status = com.Mybeez.TeamB.TeamB.model.ReviewStatus.APPROVED
+        WHERE r.experience.id IN :experienceIds AND r.status = com.Mybeez.TeamB.TeamB.model.ReviewStatus.APPROVED
+        ORDER BY r.createdAt DESC
     """)
-    Double findAvgRatingByExperienceId(@Param("experienceId") Long experienceId);
+    List<Review> findApprovedByExperienceIdIn(@Param("experienceIds") Collection<Long> experienceIds);
 
-    @Query("""
-        SELECT COUNT(r)
-        FROM Review r
-        WHERE r.experience.id = :experienceId AND r.status = com.Mybeez.TeamB.TeamB.model.ReviewStatus.APPROVED
-    """)
-    Long countApprovedByExperienceId(@Param("experienceId") Long experienceId);
+    List<Review> findFirst3ByExperience_Host_IdOrderByCreatedAtDesc(Long hostId);
+
+    @EntityGraph(attributePaths = "experience")
+    Optional<Review> findWithExperienceById(Long id);
 
     /**
-     * Finds the IDs of experiences ordered by their average approved rating in descending order
-     * This query is used to determine the "featured" experiences for the homepage
-     *
-     * @param pageable Used to limit the number of results (e.g., top 3)
-     * @return A list of Experience IDs (Long)
+     * Moves a review to a new status only if it still has the expected one.
+     * @return 1 if this call made the change, 0 if the review had already left oldStatus.
      */
-    @Query("""
-        SELECT r.experience.id
-        FROM Review r
-        WHERE r.status = com.Mybeez.TeamB.TeamB.model.ReviewStatus.APPROVED
-        GROUP BY r.experience.id
-        ORDER BY AVG(r.rating) DESC
-    """)
-    List<Long> findTopRatedExperienceIds(Pageable pageable);
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Review r SET r.status = :newStatus WHERE r.id = :id AND r.status = :oldStatus")
+    int updateStatus(@Param("id") Long id,
+                     @Param("oldStatus") ReviewStatus oldStatus,
+                     @Param("newStatus") ReviewStatus newStatus);
+
+
+
+    Page<Review> findByStatus(ReviewStatus status, Pageable pageable);
 
 }
 
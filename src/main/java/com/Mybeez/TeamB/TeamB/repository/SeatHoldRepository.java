@@ -0,0 +1,30 @@
+package com.Mybeez.TeamB.TeamB.repository;
+
+import com.Mybeez.TeamB.TeamB.model.SeatHold;
+import com.Mybeez.TeamB.TeamB.model.SeatHoldStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
+
+    /**
+     * Loads a hold and locks its row until the transaction ends, so converting and expiring it cannot overlap.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM SeatHold h WHERE h.id = :id")
+    Optional<SeatHold> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * @return A list of [holdId, expiresAt] rows.
+     */
+    @Query("SELECT h.id, h.expiresAt FROM SeatHold h WHERE h.status = :status")
+    List<Object[]> findExpiriesByStatus(@Param("status") SeatHoldStatus status);
+}
@@ -0,0 +1,9 @@
+package com.Mybeez.TeamB.TeamB.repository;
+
+import com.Mybeez.TeamB.TeamB.model.StripeWebhookDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StripeWebhookDeadLetterRepository extends JpaRepository<StripeWebhookDeadLetter, Long> {
+}
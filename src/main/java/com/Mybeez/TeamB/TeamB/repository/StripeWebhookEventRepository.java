@@ -0,0 +1,23 @@
+package com.Mybeez.TeamB.TeamB.repository;
+
+import com.Mybeez.TeamB.TeamB.model.StripeWebhookEvent;
+import com.Mybeez.TeamB.TeamB.model.WebhookEventStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, Long> {
+
+    boolean existsByEventId(String eventId);
+
+    /**
+     * Events still waiting to be processed whose next attempt is due, oldest first.
+     */
+    @Query("SELECT e.id FROM StripeWebhookEvent e WHERE e.status = :status AND e.nextAttemptAt <= :dueBy ORDER BY e.id")
+    List<Long> findIdsDueBy(@Param("status") WebhookEventStatus status, @Param("dueBy") LocalDateTime dueBy);
+}
@@ -0,0 +1,40 @@
+package com.Mybeez.TeamB.TeamB.repository;
+
+import com.Mybeez.TeamB.TeamB.model.WaitlistEntry;
+import com.Mybeez.TeamB.TeamB.model.WaitlistStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    /**
+     * The oldest entries of a slot in the given status, locked until the transaction ends so that two
+     * promoters (e.g. on different instances) cannot book the same entry. Pass a limit of one to get the head.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.availability a JOIN FETCH a.experience " +
+            "WHERE a.id = :availabilityId AND w.status = :status ORDER BY w.id")
+    List<WaitlistEntry> findHeadForUpdate(@Param("availabilityId") Long availabilityId,
+                                          @Param("status") WaitlistStatus status,
+                                          Pageable limit);
+
+    boolean existsByUser_IdAndAvailability_IdAndStatus(Long userId, Long availabilityId, WaitlistStatus status);
+
+    /**
+     * How many entries are ahead of the given one in its slot's queue.
+     */
+    @Query("SELECT COUNT(w) FROM WaitlistEntry w WHERE w.availability.id = :availabilityId " +
+            "AND w.status = 'WAITING' AND w.id < :entryId")
+    long countWaitingAhead(@Param("availabilityId") Long availabilityId, @Param("entryId") Long entryId);
+
+    @Query("SELECT DISTINCT w.availability.id FROM WaitlistEntry w WHERE w.status = :status")
+    List<Long> findAvailabilityIdsByStatus(@Param("status") WaitlistStatus status);
+}
@@ -1,5 +1,6 @@
 package com.Mybeez.TeamB.TeamB.security;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -55,6 +56,9 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
+                        // 0. Let async dispatches of an already authorized request through (the message stream)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // 1. Allow all OPTIONS requests for CORS pre-flight
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
@@ -1,11 +1,13 @@
 package com.Mybeez.TeamB.TeamB.service;
 
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
 import com.Mybeez.TeamB.TeamB.exception.ResourceNotFoundException;
 import com.Mybeez.TeamB.TeamB.model.Experience;
 import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
 import com.Mybeez.TeamB.TeamB.model.Rejection;
 import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +18,7 @@ import java.util.List;
 public class AdminService {
 
     private final ExperienceRepository experienceRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Retrieves all experiences with a 'PENDING' status.
@@ -38,7 +41,9 @@ public class AdminService {
 
         experience.setStatus(ExperienceStatus.APPROVED);
         // In a real app, you would also send an email notification to the host here.
-        return experienceRepository.save(experience);
+        Experience saved = experienceRepository.save(experience);
+        eventPublisher.publishEvent(new ExperienceChangedEvent(saved.getId()));
+        return saved;
     }
 
     /**
@@ -62,7 +67,9 @@ public class AdminService {
         // In a real app, you would also send an email notification to the host here.
         // Because of the CascadeType.ALL setting on the Experience entity,
         // saving the experience will automatically save the new Rejection record as well.
-        return experienceRepository.save(experience);
+        Experience saved = experienceRepository.save(experience);
+        eventPublisher.publishEvent(new ExperienceChangedEvent(saved.getId()));
+        return saved;
     }
     /**
      * Retrieves all experiences with an 'APPROVED' status.
@@ -6,7 +6,6 @@ import com.Mybeez.TeamB.TeamB.payload.SlotDTO;
 import com.Mybeez.TeamB.TeamB.model.Availability;
 import com.Mybeez.TeamB.TeamB.model.Experience;
 import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
-import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
 import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
@@ -28,8 +27,6 @@ public class AvailabilityService {
     @Autowired
     private ExperienceRepository experienceRepository;
     @Autowired
-    private BookingRepository bookingRepository;
-    @Autowired
     private AvailabilityRepository availabilityRepository;
 
     @Transactional(readOnly = true)
@@ -40,7 +37,8 @@ public class AvailabilityService {
                 .stream()
                 .filter(slot -> !slot.getDate().isBefore(LocalDate.now()))
                 .toList();
-        return createAvailabilityResponse(experience.getGroupPricePerPerson(), futureSlots);
+        // Listed at the price checkout charges
+        return createAvailabilityResponse(PriceQuoteService.listPrice(experience, false), futureSlots);
     }
 
     @Transactional(readOnly = true)
@@ -51,7 +49,7 @@ public class AvailabilityService {
                 .stream()
                 .filter(slot -> !slot.getDate().isBefore(LocalDate.now()))
                 .toList();
-        return createAvailabilityResponse(experience.getPrivatePrice(), privateSlots);
+        return createAvailabilityResponse(PriceQuoteService.listPrice(experience, true), privateSlots);
     }
 
     private GroupAvailabilityResponse createAvailabilityResponse(BigDecimal price, List<Availability> slots) {
@@ -59,16 +57,10 @@ public class AvailabilityService {
             return new GroupAvailabilityResponse(price, List.of());
         }
 
-        List<Long> availabilityIds = slots.stream().map(Availability::getId).toList();
-        Map<Long, Long> bookedGuestsMap = bookingRepository.findTotalBookedGuestsForAvailabilityIds(availabilityIds)
-                .stream()
-                .collect(Collectors.toMap(obj -> (Long) obj[0], obj -> (Long) obj[1]));
-
-
+        // Spots left come from the booked_guests and held_guests counters, so seats in someone's checkout are not offered
         List<SlotDTO> slotDTOs = slots.stream()
                 .map(slot -> {
-                    int bookedGuests = bookedGuestsMap.getOrDefault(slot.getId(), 0L).intValue();
-                    int spotsLeft = slot.getCapacity() - bookedGuests;
+                    int spotsLeft = slot.getCapacity() - slot.getBookedGuests() - slot.getHeldGuests();
                     return new SlotDTO(slot.getId(), slot.getStartTime(), slot.getEndTime(), spotsLeft);
                 })
                 .collect(Collectors.toList());
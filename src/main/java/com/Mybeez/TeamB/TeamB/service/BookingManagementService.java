@@ -1,25 +1,65 @@
 package com.Mybeez.TeamB.TeamB.service;
 
+import com.Mybeez.TeamB.TeamB.event.BookingChangedEvent;
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
 import com.Mybeez.TeamB.TeamB.exception.ResourceNotFoundException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
 import com.Mybeez.TeamB.TeamB.model.Booking;
 import com.Mybeez.TeamB.TeamB.model.BookingStatus;
 import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.BookingDecisionOutcome;
+import com.Mybeez.TeamB.TeamB.payload.BookingDecisionResult;
 import com.Mybeez.TeamB.TeamB.payload.PendingBookingDTO;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
 import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
 public class BookingManagementService {
 
+    public static final int MAX_BATCH_SIZE = 100;
+
+    // One row of BookingRepository.findDecisionRowsByIdIn
+    private record DecisionRow(Long bookingId, BookingStatus status, int guests, Long availabilityId,
+                               Long experienceId, Long hostId) {
+        static DecisionRow of(Object[] row) {
+            return new DecisionRow((Long) row[0], (BookingStatus) row[1], ((Number) row[2]).intValue(),
+                    (Long) row[3], (Long) row[4], (Long) row[5]);
+        }
+    }
+
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SlotCapacityService slotCapacityService;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private ReservationRetryPolicy reservationRetryPolicy;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Transactional(readOnly = true)
     public List<PendingBookingDTO> getPendingBookings(User host) {
         List<Booking> bookings = bookingRepository.findByAvailability_Experience_Host_IdAndStatus(host.getId(), BookingStatus.PENDING);
@@ -47,8 +87,7 @@ public class BookingManagementService {
             throw new AccessDeniedException("You are not authorized to manage this booking.");
         }
 
-        booking.setStatus(BookingStatus.CONFIRMED);
-        return bookingRepository.save(booking);
+        return changeStatus(booking, BookingStatus.CONFIRMED);
     }
 
     @Transactional
@@ -60,7 +99,117 @@ public class BookingManagementService {
             throw new AccessDeniedException("You are not authorized to manage this booking.");
         }
 
-        booking.setStatus(BookingStatus.CANCELLED);
-        return bookingRepository.save(booking);
+        return changeStatus(booking, BookingStatus.CANCELLED);
+    }
+
+    private Booking changeStatus(Booking booking, BookingStatus status) {
+        BookingStatus previousStatus = booking.getStatus();
+        booking.setStatus(status);
+        Booking saved = bookingRepository.save(booking);
+        slotCapacityService.onBookingStatusChanged(saved, previousStatus);
+        eventPublisher.publishEvent(new BookingChangedEvent(saved.getId(), saved.getAvailability().getId(),
+                saved.getAvailability().getExperience().getId(), previousStatus, status));
+        return saved;
+    }
+
+    /**
+     * Approves many pending bookings at once. Bookings are approved in the order given while their slot
+     * has room; the rest of that slot's bookings are reported as NO_CAPACITY and stay pending.
+     * @return One result per distinct id, in the order the ids were given.
+     */
+    public List<BookingDecisionResult> approveBookings(List<Long> bookingIds, User host) {
+        return decide(bookingIds, host, BookingStatus.CONFIRMED);
+    }
+
+    /**
+     * Rejects many pending bookings at once.
+     * @return One result per distinct id, in the order the ids were given.
+     */
+    public List<BookingDecisionResult> rejectBookings(List<Long> bookingIds, User host) {
+        return decide(bookingIds, host, BookingStatus.CANCELLED);
+    }
+
+    private List<BookingDecisionResult> decide(List<Long> bookingIds, User host, BookingStatus status) {
+        List<Long> ids = bookingIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BookingException("At most " + MAX_BATCH_SIZE + " bookings can be handled at once.");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Each attempt in its own transaction, as a lost lock race or a concurrent decision is retried from scratch
+        return reservationRetryPolicy.execute(() -> transactionTemplate.execute(tx -> applyDecision(ids, host.getId(), status)));
+    }
+
+    private List<BookingDecisionResult> applyDecision(List<Long> ids, Long hostId, BookingStatus status) {
+        // Ownership and status of the whole batch in one query
+        Map<Long, DecisionRow> rows = bookingRepository.findDecisionRowsByIdIn(ids).stream()
+                .map(DecisionRow::of)
+                .collect(Collectors.toMap(DecisionRow::bookingId, row -> row));
+
+        Map<Long, BookingDecisionOutcome> outcomes = new HashMap<>();
+        List<DecisionRow> pending = new ArrayList<>();
+        for (Long id : ids) {
+            DecisionRow row = rows.get(id);
+            if (row == null) {
+                outcomes.put(id, BookingDecisionOutcome.NOT_FOUND);
+            } else if (!row.hostId().equals(hostId)) {
+                outcomes.put(id, BookingDecisionOutcome.NOT_YOUR_BOOKING);
+            } else if (row.status() != BookingStatus.PENDING) {
+                outcomes.put(id, BookingDecisionOutcome.NOT_PENDING);
+            } else {
+                pending.add(row);
+            }
+        }
+
+        List<DecisionRow> decided = status == BookingStatus.CONFIRMED ? takeSpots(pending, outcomes) : pending;
+        if (!decided.isEmpty()) {
+            List<Long> decidedIds = decided.stream().map(DecisionRow::bookingId).toList();
+            if (bookingRepository.updateStatusOfPending(decidedIds, status) != decided.size()) {
+                // Some were approved or rejected by another request since they were read; roll back and retry
+                throw new ConcurrencyFailureException("Bookings changed while being approved or rejected");
+            }
+        }
+
+        BookingDecisionOutcome done = status == BookingStatus.CONFIRMED
+                ? BookingDecisionOutcome.APPROVED
+                : BookingDecisionOutcome.REJECTED;
+        for (DecisionRow row : decided) {
+            outcomes.put(row.bookingId(), done);
+            eventPublisher.publishEvent(new BookingChangedEvent(
+                    row.bookingId(), row.availabilityId(), row.experienceId(), BookingStatus.PENDING, status));
+        }
+        return ids.stream().map(id -> new BookingDecisionResult(id, outcomes.get(id))).toList();
+    }
+
+    /**
+     * Locks the slots of the bookings, picks the bookings that fit in the order given and takes their spots
+     * with one guarded UPDATE per slot. Bookings that do not fit are marked NO_CAPACITY.
+     * @return The bookings that fit.
+     */
+    private List<DecisionRow> takeSpots(List<DecisionRow> pending, Map<Long, BookingDecisionOutcome> outcomes) {
+        if (pending.isEmpty()) {
+            return pending;
+        }
+        TreeSet<Long> slotIds = pending.stream().map(DecisionRow::availabilityId).collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Integer> spotsLeft = new HashMap<>();
+        for (Availability slot : availabilityRepository.findAllByIdInForUpdate(slotIds)) {
+            spotsLeft.put(slot.getId(), slot.getCapacity() - slot.getBookedGuests() - slot.getHeldGuests());
+        }
+
+        List<DecisionRow> fitting = new ArrayList<>();
+        Map<Long, Integer> guestsPerSlot = new HashMap<>();
+        for (DecisionRow row : pending) {
+            int left = spotsLeft.getOrDefault(row.availabilityId(), 0);
+            if (row.guests() > left) {
+                outcomes.put(row.bookingId(), BookingDecisionOutcome.NO_CAPACITY);
+                continue;
+            }
+            spotsLeft.put(row.availabilityId(), left - row.guests());
+            guestsPerSlot.merge(row.availabilityId(), row.guests(), Integer::sum);
+            fitting.add(row);
+        }
+        guestsPerSlot.forEach(slotCapacityService::reserve);
+        return fitting;
     }
 }
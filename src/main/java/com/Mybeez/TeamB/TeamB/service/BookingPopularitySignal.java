@@ -0,0 +1,47 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Confirmed bookings in the last few weeks, on a log scale so the most booked experience scores 1
+ * without drowning out everything else.
+ */
+@Component
+public class BookingPopularitySignal implements RankingSignal {
+
+    private final ExperienceRankingSignals signals;
+    private final double weight;
+
+    public BookingPopularitySignal(ExperienceRankingSignals signals, @Value("${ranking.weight.bookings:0.15}") double weight) {
+        this.signals = signals;
+        this.weight = weight;
+    }
+
+    @Override
+    public double weight() {
+        return weight;
+    }
+
+    @Override
+    public Map<Long, Double> score(ExperienceFilter filter, Collection<Long> experienceIds) {
+        Map<Long, Double> scores = new HashMap<>();
+        double best = 0;
+        for (Long id : experienceIds) {
+            long bookings = signals.recentBookings(id);
+            if (bookings > 0) {
+                double score = Math.log1p(bookings);
+                scores.put(id, score);
+                best = Math.max(best, score);
+            }
+        }
+        double max = best;
+        scores.replaceAll((id, score) -> score / max);
+        return scores;
+    }
+}
@@ -1,16 +1,25 @@
 package com.Mybeez.TeamB.TeamB.service;
 
+import com.Mybeez.TeamB.TeamB.event.BookingChangedEvent;
 import com.Mybeez.TeamB.TeamB.exception.BookingException;
 import com.Mybeez.TeamB.TeamB.model.*;
+import com.Mybeez.TeamB.TeamB.payload.BookingCursor;
+import com.Mybeez.TeamB.TeamB.payload.BookingFilter;
+import com.Mybeez.TeamB.TeamB.payload.BookingPageResponse;
 import com.Mybeez.TeamB.TeamB.payload.BookingRequest;
+import com.Mybeez.TeamB.TeamB.payload.BookingSummary;
 import com.Mybeez.TeamB.TeamB.payload.MyBookingDTO;
 import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
 import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
 import com.Mybeez.TeamB.TeamB.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -19,50 +28,111 @@ import java.util.stream.Collectors;
 @Service
 public class BookingService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     @Autowired private BookingRepository bookingRepository;
     @Autowired private AvailabilityRepository availabilityRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private SlotCapacityService slotCapacityService;
+    @Autowired private ReservationRetryPolicy reservationRetryPolicy;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private SeatHoldService seatHoldService;
 
-    @Transactional
+    /**
+     * Books spots on a slot. Each attempt runs in its own transaction, so an attempt that loses a lock race
+     * on a busy slot is retried by the ReservationRetryPolicy from a clean state.
+     * @throws BookingException When the slot does not have enough spots left.
+     */
     public Booking createBooking(BookingRequest request, Long userId) {
+        return reservationRetryPolicy.execute(() -> transactionTemplate.execute(status -> bookSpots(request, userId, null, null)));
+    }
+
+    /**
+     * Books spots for a paid checkout session that did not hold its seats. Safe to call again for the same
+     * session: the booking made the first time is returned.
+     * @throws BookingException When the slot does not have enough spots left.
+     */
+    public Booking createBookingForCheckout(BookingRequest request, Long userId, String checkoutSessionId) {
+        return reservationRetryPolicy.execute(() -> transactionTemplate.execute(status ->
+                bookingRepository.findByCheckoutSessionId(checkoutSessionId)
+                        .orElseGet(() -> bookSpots(request, userId, checkoutSessionId, null))));
+    }
+
+    // totalPrice is what the user was charged, or null to book at the slot's list price
+    private Booking bookSpots(BookingRequest request, Long userId, String checkoutSessionId, BigDecimal totalPrice) {
         // Find the entities needed
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
         Availability availability = availabilityRepository.findById(request.getAvailabilityId())
                 .orElseThrow(() -> new EntityNotFoundException("Availability slot not found"));
 
-        // Check for booking conflicts (core validation)
+        // Cheap early rejection; the guarded reserve below is what actually prevents overbooking
         int requestedGuests = request.getNumberOfGuests();
-        List<Object[]> bookedResult = bookingRepository.findTotalBookedGuestsForAvailabilityIds(List.of(availability.getId()));
-
-        long alreadyBooked = 0;
-        if (!bookedResult.isEmpty()) {
-            alreadyBooked = (long) bookedResult.get(0)[1];
-        }
-
-        if (availability.getCapacity() < alreadyBooked + requestedGuests) {
+        if (availability.getCapacity() < availability.getBookedGuests() + availability.getHeldGuests() + requestedGuests) {
             throw new BookingException("Not enough spots available for this time slot.");
         }
 
-        // Calculate total price
-        BigDecimal totalPrice;
-        if (availability.getCapacity() == 1) {
-            totalPrice = availability.getExperience().getPrivatePrice();
-        } else { //group session
-            BigDecimal pricePerPerson = availability.getExperience().getGroupPricePerPerson();
-            totalPrice = pricePerPerson.multiply(new BigDecimal(requestedGuests));
-        }
-
         // Create and save the booking
         Booking newBooking = Booking.builder()
                 .user(user)
                 .availability(availability)
                 .numberOfGuests(requestedGuests)
-                .totalPrice(totalPrice)
+                .totalPrice(totalPrice != null ? totalPrice : PriceQuoteService.basePrice(availability, requestedGuests))
                 .status(BookingStatus.CONFIRMED)
+                .checkoutSessionId(checkoutSessionId)
                 .build();
 
-        return bookingRepository.save(newBooking);
+        // Take the spots before inserting, so a full slot fails without writing anything
+        slotCapacityService.onBookingStatusChanged(newBooking, null);
+        Booking saved = bookingRepository.save(newBooking);
+        eventPublisher.publishEvent(new BookingChangedEvent(
+                saved.getId(), availability.getId(), availability.getExperience().getId(), null, saved.getStatus()));
+        return saved;
+    }
+
+    /**
+     * Turns a paid-for seat hold into a CONFIRMED booking. Safe to call again for the same hold: the booking
+     * made the first time is returned. If the hold ran out before the payment arrived, the spots are booked
+     * afresh when the slot still has them.
+     * @throws BookingException When the hold has expired and the slot has filled up since.
+     */
+    public Booking createBookingFromHold(Long holdId) {
+        return reservationRetryPolicy.execute(() -> transactionTemplate.execute(status -> bookHeldSpots(holdId)));
+    }
+
+    private Booking bookHeldSpots(Long holdId) {
+        SeatHold hold = seatHoldService.lock(holdId);
+        if (hold.getBooking() != null) {
+            return hold.getBooking();
+        }
+        if (hold.getStatus() != SeatHoldStatus.ACTIVE) {
+            BookingRequest request = new BookingRequest();
+            request.setAvailabilityId(hold.getAvailability().getId().intValue());
+            request.setNumberOfGuests(hold.getNumberOfGuests());
+            // Booked at the price the payment was for, which includes any coupon
+            Booking booking = bookSpots(request, hold.getUser().getId(), null, hold.getTotalPrice());
+            hold.setBooking(booking);
+            return booking;
+        }
+
+        Availability availability = hold.getAvailability();
+        Booking saved = bookingRepository.save(Booking.builder()
+                .user(hold.getUser())
+                .availability(availability)
+                .numberOfGuests(hold.getNumberOfGuests())
+                // The price quoted at checkout, which includes any coupon
+                .totalPrice(hold.getTotalPrice() != null
+                        ? hold.getTotalPrice()
+                        : PriceQuoteService.basePrice(availability, hold.getNumberOfGuests()))
+                .status(BookingStatus.CONFIRMED)
+                .build());
+        // The held spots become booked ones, so the slot counter is not reserved a second time
+        seatHoldService.convert(hold, saved);
+        eventPublisher.publishEvent(new BookingChangedEvent(
+                saved.getId(), availability.getId(), availability.getExperience().getId(), null, saved.getStatus()));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -72,4 +142,36 @@ public class BookingService {
                 .map(MyBookingDTO::new)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    /**
+     * One page of the user's bookings feed, read with a single projection query and no entity loading.
+     * Pages are addressed with a keyset cursor (the slot date, start time and id of the last booking seen),
+     * so a page costs the same however far into the feed it is.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param size The requested page size; clamped to 1..MAX_PAGE_SIZE.
+     */
+    @Transactional(readOnly = true)
+    public BookingPageResponse getBookingsPage(Long userId, BookingFilter filter, String cursor, int size) {
+        BookingCursor after = cursor == null || cursor.isBlank()
+                ? BookingCursor.start(filter)
+                : BookingCursor.decode(cursor, filter);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells whether there is a next page
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<BookingSummary> rows = switch (filter) {
+            case UPCOMING -> bookingRepository.findUpcomingBookingSummaries(
+                    userId, after.date(), after.startTime(), after.id(), limit);
+            case PAST -> bookingRepository.findPastBookingSummaries(
+                    userId, after.date(), after.startTime(), after.id(), limit);
+            case CANCELLED -> bookingRepository.findCancelledBookingSummaries(
+                    userId, after.date(), after.startTime(), after.id(), limit);
+        };
+
+        if (rows.size() <= pageSize) {
+            return new BookingPageResponse(rows, null);
+        }
+        List<BookingSummary> page = rows.subList(0, pageSize);
+        return new BookingPageResponse(List.copyOf(page), BookingCursor.after(filter, page.get(pageSize - 1)).encode());
+    }
+}
@@ -0,0 +1,56 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.model.SeatHold;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import com.stripe.param.checkout.SessionCreateParams;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * Opens the Stripe checkout that pays for a seat hold. The session carries the hold in its metadata, and the
+ * checkout.session.completed webhook turns that hold into the booking.
+ */
+@Service
+public class CheckoutSessionService {
+
+    // The checkout closes this long before its seat hold runs out, so a payment made in time still finds them held
+    static final Duration PAYMENT_GRACE = Duration.ofMinutes(5);
+
+    private static final String SUCCESS_URL = "http://localhost:3000/profile";
+    private static final String CANCEL_URL = "http://localhost:3000/cart";
+
+    /**
+     * @param hold An ACTIVE hold with its price set.
+     * @param productName What the user is shown they are paying for.
+     * @param quoteId The price quote the hold was priced from, or null.
+     */
+    public Session create(SeatHold hold, String productName, String quoteId) throws StripeException {
+        SessionCreateParams.Builder params = SessionCreateParams.builder()
+                .setMode(SessionCreateParams.Mode.PAYMENT)
+                .setSuccessUrl(SUCCESS_URL)
+                .setCancelUrl(CANCEL_URL)
+                .setExpiresAt(hold.getExpiresAt().minus(PAYMENT_GRACE).atZone(ZoneId.systemDefault()).toEpochSecond())
+                .putMetadata("userId", hold.getUser().getId().toString())
+                .putMetadata("availabilityId", hold.getAvailability().getId().toString())
+                .putMetadata("guestCount", hold.getNumberOfGuests().toString())
+                .putMetadata("holdId", hold.getId().toString())
+                .addLineItem(SessionCreateParams.LineItem.builder()
+                        .setQuantity(1L)
+                        .setPriceData(SessionCreateParams.LineItem.PriceData.builder()
+                                .setCurrency("gbp")
+                                .setUnitAmount(hold.getTotalPrice().multiply(new BigDecimal("100")).longValue())
+                                .setProductData(SessionCreateParams.LineItem.PriceData.ProductData.builder()
+                                        .setName(productName)
+                                        .build())
+                                .build())
+                        .build());
+        if (quoteId != null) {
+            params.putMetadata("quoteId", quoteId);
+        }
+        return Session.create(params.build());
+    }
+}
@@ -11,13 +11,20 @@ import javax.crypto.Cipher;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * AES-256-GCM Encryption service with versioned ciphertexts
  * Format: v1:BASE64(IV):BASE64(CIPHERTEXT_WITH_TAG)
+ * Each thread keeps its own Cipher, re-initialised with a fresh IV per call, so the provider lookup
+ * happens once per thread instead of once per message.
  */
 @Service
 public class EncryptionService {
@@ -27,11 +34,19 @@ public class EncryptionService {
     private static final int IV_LENGTH_BYTES = 12;      // GCM-recommended IV length
     private static final int TAG_LENGTH_BITS = 128;     // Auth tag size
     private static final String VERSION_PREFIX = "v1";
+    private static final String ENVELOPE_PREFIX = VERSION_PREFIX + ":";
+
+    // A Cipher is not thread-safe, but can be re-initialised for every message
+    private static final ThreadLocal<Cipher> CIPHERS = new ThreadLocal<>();
 
     // Base64-encoded 32-byte (256-bit) key. Generated with: `openssl rand -base64 32`
     @Value("${message.encryption.key}")
     private String secretKeyBase64;
 
+    // Batches at least this large are decrypted in parallel; 0 or less turns that off
+    @Value("${message.encryption.parallel-threshold:256}")
+    private int parallelThreshold = 256;
+
     private SecretKey secretKey;
     private final SecureRandom secureRandom = new SecureRandom();
 
@@ -63,13 +78,12 @@ public class EncryptionService {
             byte[] iv = new byte[IV_LENGTH_BYTES];
             secureRandom.nextBytes(iv);
 
-            Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            Cipher cipher = cipher();
             cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
             byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
 
-            String ivB64 = Base64.getEncoder().encodeToString(iv);
-            String ctB64 = Base64.getEncoder().encodeToString(cipherText);
-            return VERSION_PREFIX + ":" + ivB64 + ":" + ctB64;
+            Base64.Encoder encoder = Base64.getEncoder();
+            return ENVELOPE_PREFIX + encoder.encodeToString(iv) + ":" + encoder.encodeToString(cipherText);
         } catch (Exception e) {
             throw new EncryptionException("Error encrypting data.", e);
         }
@@ -83,20 +97,23 @@ public class EncryptionService {
     public String decrypt(String encrypted) {
         if (encrypted == null) return null;
         try {
-            String[] parts = encrypted.split(":", 3);
-            if (parts.length != 3 || !VERSION_PREFIX.equals(parts[0])) {
+            // Base64 and the prefix are ASCII, so the envelope is parsed as bytes without splitting it up
+            int ivEnd = encrypted.indexOf(':', ENVELOPE_PREFIX.length());
+            if (!encrypted.startsWith(ENVELOPE_PREFIX) || ivEnd < 0) {
                 throw new EncryptionException("Unsupported or malformed ciphertext format.");
             }
-            byte[] iv = Base64.getDecoder().decode(parts[1]);
-            byte[] cipherText = Base64.getDecoder().decode(parts[2]);
+            byte[] envelope = encrypted.getBytes(StandardCharsets.ISO_8859_1);
+            Base64.Decoder decoder = Base64.getDecoder();
+            ByteBuffer iv = decoder.decode(ByteBuffer.wrap(envelope, ENVELOPE_PREFIX.length(), ivEnd - ENVELOPE_PREFIX.length()));
+            ByteBuffer cipherText = decoder.decode(ByteBuffer.wrap(envelope, ivEnd + 1, envelope.length - ivEnd - 1));
 
-            if (iv.length != IV_LENGTH_BYTES) {
+            if (iv.remaining() != IV_LENGTH_BYTES) {
                 throw new EncryptionException("Invalid IV length for AES-GCM.");
             }
 
-            Cipher cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
-            byte[] plain = cipher.doFinal(cipherText);
+            Cipher cipher = cipher();
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv.array(), 0, IV_LENGTH_BYTES));
+            byte[] plain = cipher.doFinal(cipherText.array(), 0, cipherText.remaining());
 
             return new String(plain, StandardCharsets.UTF_8);
         } catch (EncryptionException e) {
@@ -107,6 +124,31 @@ public class EncryptionService {
         }
     }
 
+    /**
+     * Decrypts a batch of ciphertexts, e.g. a page of messages, in parallel across cores when there are at
+     * least message.encryption.parallel-threshold of them.
+     * @param encrypted versioned ciphertexts produced by {@link #encrypt(String)}; null elements stay null
+     * @return the UTF-8 plaintexts, in the same order
+     */
+    public List<String> decrypt(List<String> encrypted) {
+        String[] plain = new String[encrypted.size()];
+        IntStream indexes = IntStream.range(0, plain.length);
+        if (parallelThreshold > 0 && plain.length >= parallelThreshold) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> plain[i] = decrypt(encrypted.get(i)));
+        return Arrays.asList(plain);
+    }
+
+    private static Cipher cipher() throws GeneralSecurityException {
+        Cipher cipher = CIPHERS.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(CIPHER_TRANSFORMATION);
+            CIPHERS.set(cipher);
+        }
+        return cipher;
+    }
+
     // Expose for tests
     SecretKey getSecretKey() {
         return secretKey;
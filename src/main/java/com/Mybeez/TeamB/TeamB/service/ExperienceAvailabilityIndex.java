@@ -0,0 +1,229 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.BookingChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.SeatHoldCreatedEvent;
+import com.Mybeez.TeamB.TeamB.event.SeatHoldEndedEvent;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory calendar of the APPROVED experiences: for each one, a bitmap of the days (from today up to
+ * HORIZON_DAYS ahead) that have a slot with free spots, plus the most free spots any single slot has that day.
+ * "Available between two dates for N guests" is then a bitmap scan, with no join over availability and bookings.
+ * Seats held for a checkout count as taken. An experience's calendar is reloaded when it changes (its slots
+ * are saved with it), when one of its bookings enters or leaves CONFIRMED and when a seat hold on it starts
+ * or ends; a nightly rebuild drops the days that have passed.
+ */
+@Service
+@Slf4j
+public class ExperienceAvailabilityIndex {
+
+    // Slots further ahead are not indexed; a window reaching past the horizon is cut off there
+    static final int HORIZON_DAYS = 366;
+
+    // Day i of the calendar is firstDay + i (as an epoch day)
+    private record Calendar(long firstDay, BitSet freeDays, int[] maxFreeSpots) {
+    }
+
+    private final AvailabilityRepository availabilityRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Calendar> calendars = new HashMap<>();
+
+    public ExperienceAvailabilityIndex(AvailabilityRepository availabilityRepository) {
+        this.availabilityRepository = availabilityRepository;
+    }
+
+    /**
+     * @param from The first day of the window.
+     * @param to The last day of the window, inclusive.
+     * @param guests The party size.
+     * @return The experiences with a slot that has room for the party on at least one day of the window.
+     */
+    public Set<Long> availableBetween(LocalDate from, LocalDate to, int guests) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        Set<Long> available = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, Calendar> entry : calendars.entrySet()) {
+                if (hasRoom(entry.getValue(), fromDay, toDay, guests)) {
+                    available.add(entry.getKey());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return available;
+    }
+
+    /**
+     * @return The most free spots a single slot of the experience has on that day; 0 when none.
+     */
+    public int maxFreeSpots(Long experienceId, LocalDate date) {
+        lock.readLock().lock();
+        try {
+            Calendar calendar = calendars.get(experienceId);
+            long day = date.toEpochDay();
+            if (calendar == null || day < calendar.firstDay() || day >= calendar.firstDay() + calendar.maxFreeSpots().length) {
+                return 0;
+            }
+            return calendar.maxFreeSpots()[(int) (day - calendar.firstDay())];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads every calendar from the database. Runs at startup and every night.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 5 0 * * *")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = availabilityRepository.findFreeSpotsByExperienceStatus(
+                ExperienceStatus.APPROVED, today, today.plusDays(HORIZON_DAYS));
+
+        Map<Long, List<Object[]>> rowsByExperience = new HashMap<>();
+        for (Object[] row : rows) {
+            rowsByExperience.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(row);
+        }
+        Map<Long, Calendar> built = new HashMap<>();
+        rowsByExperience.forEach((id, experienceRows) -> {
+            Calendar calendar = build(experienceRows);
+            if (calendar != null) {
+                built.put(id, calendar);
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            calendars.clear();
+            calendars.putAll(built);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Availability index built: {} experiences with free spots from {} slots", built.size(), rows.size());
+    }
+
+    /**
+     * Reloads one experience's calendar; it is dropped when the experience is gone, not approved or fully booked.
+     */
+    public void refresh(Long experienceId) {
+        LocalDate today = LocalDate.now();
+        Calendar calendar = build(availabilityRepository.findFreeSpotsForExperience(
+                experienceId, ExperienceStatus.APPROVED, today, today.plusDays(HORIZON_DAYS)));
+
+        lock.writeLock().lock();
+        try {
+            if (calendar != null) {
+                calendars.put(experienceId, calendar);
+            } else {
+                calendars.remove(experienceId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Slots are created and edited together with their experience, so this covers slot changes too.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    // Before ExperienceQueryCache invalidates, so no result is cached from the old calendar
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onExperienceChanged(ExperienceChangedEvent event) {
+        refresh(event.experienceId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.previousStatus() == BookingStatus.CONFIRMED || event.status() == BookingStatus.CONFIRMED) {
+            refresh(event.experienceId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onSeatHoldCreated(SeatHoldCreatedEvent event) {
+        refresh(event.experienceId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onSeatHoldEnded(SeatHoldEndedEvent event) {
+        refresh(event.experienceId());
+    }
+
+    // rows are [experienceId, date, freeSpots]; null when no slot has a free spot
+    private static Calendar build(List<Object[]> rows) {
+        long firstDay = Long.MAX_VALUE;
+        long lastDay = Long.MIN_VALUE;
+        for (Object[] row : rows) {
+            if (((Number) row[2]).intValue() > 0) {
+                long day = ((LocalDate) row[1]).toEpochDay();
+                firstDay = Math.min(firstDay, day);
+                lastDay = Math.max(lastDay, day);
+            }
+        }
+        if (firstDay > lastDay) {
+            return null;
+        }
+
+        BitSet freeDays = new BitSet((int) (lastDay - firstDay + 1));
+        int[] maxFreeSpots = new int[(int) (lastDay - firstDay + 1)];
+        for (Object[] row : rows) {
+            int free = ((Number) row[2]).intValue();
+            if (free > 0) {
+                int i = (int) (((LocalDate) row[1]).toEpochDay() - firstDay);
+                freeDays.set(i);
+                maxFreeSpots[i] = Math.max(maxFreeSpots[i], free);
+            }
+        }
+        return new Calendar(firstDay, freeDays, maxFreeSpots);
+    }
+
+    private static boolean hasRoom(Calendar calendar, long fromDay, long toDay, int guests) {
+        long lastDay = calendar.firstDay() + calendar.maxFreeSpots().length - 1;
+        if (toDay < calendar.firstDay() || fromDay > lastDay) {
+            return false;
+        }
+        int end = (int) (Math.min(toDay, lastDay) - calendar.firstDay());
+        for (int i = calendar.freeDays().nextSetBit((int) Math.max(0, fromDay - calendar.firstDay()));
+             i >= 0 && i <= end;
+             i = calendar.freeDays().nextSetBit(i + 1)) {
+            if (calendar.maxFreeSpots()[i] >= guests) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
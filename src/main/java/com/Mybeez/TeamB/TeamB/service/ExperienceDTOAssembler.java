@@ -0,0 +1,101 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.Review;
+import com.Mybeez.TeamB.TeamB.model.SessionType;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
+import com.Mybeez.TeamB.TeamB.payload.HostDTO;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.repository.ReviewRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a page of experiences to ExperienceDTOs with a fixed number of queries.
+ * Mapping entities one by one with {@code new ExperienceDTO(e)} lazily loads host, category, location,
+ * session types, tags, images and reviews separately for every row; here each of them is loaded once
+ * for the whole page with an IN-list query, so the cost no longer grows with the page size.
+ * The host is read as plain columns: loading the User entity would also pull in both of its profiles.
+ */
+@Service
+public class ExperienceDTOAssembler {
+
+    private final ExperienceRepository experienceRepository;
+    private final ReviewRepository reviewRepository;
+
+    public ExperienceDTOAssembler(ExperienceRepository experienceRepository, ReviewRepository reviewRepository) {
+        this.experienceRepository = experienceRepository;
+        this.reviewRepository = reviewRepository;
+    }
+
+    /**
+     * @param experiences The experiences to map, in the order they should be returned.
+     * @return One DTO per experience, in the same order.
+     */
+    @Transactional(readOnly = true)
+    public List<ExperienceDTO> toDtos(List<Experience> experiences) {
+        if (experiences.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> ids = experiences.stream()
+                .map(Experience::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        // Initialises category and location of the (managed) experiences in place
+        Map<Long, Experience> loaded = experienceRepository.findWithCategoryAndLocationByIdIn(ids).stream()
+                .collect(Collectors.toMap(Experience::getId, e -> e, (a, b) -> a));
+
+        Map<Long, HostDTO> hosts = new HashMap<>();
+        for (Object[] row : experienceRepository.findHostsByExperienceIds(ids)) {
+            HostDTO host = new HostDTO();
+            host.setId((Long) row[1]);
+            host.setFirstName((String) row[2]);
+            host.setLastName((String) row[3]);
+            host.setEmail((String) row[4]);
+            host.setSummary((String) row[5]);
+            host.setProfilePictureUrl((String) row[6]);
+            hosts.put((Long) row[0], host);
+        }
+
+        Map<Long, List<SessionType>> sessionTypes = groupPairs(experienceRepository.findSessionTypesByExperienceIds(ids));
+        Map<Long, List<String>> tags = groupPairs(experienceRepository.findTagsByExperienceIds(ids));
+        Map<Long, List<String>> images = groupPairs(experienceRepository.findImageUrlsByExperienceIds(ids));
+
+        Map<Long, List<Review>> reviews = new HashMap<>();
+        for (Review review : reviewRepository.findApprovedByExperienceIdIn(ids)) {
+            // getId() on the lazy experience proxy does not hit the database
+            reviews.computeIfAbsent(review.getExperience().getId(), id -> new ArrayList<>()).add(review);
+        }
+
+        List<ExperienceDTO> dtos = new ArrayList<>(experiences.size());
+        for (Experience experience : experiences) {
+            Long id = experience.getId();
+            dtos.add(new ExperienceDTO(
+                    loaded.getOrDefault(id, experience),
+                    hosts.getOrDefault(id, new HostDTO()),
+                    sessionTypes.getOrDefault(id, List.of()),
+                    tags.getOrDefault(id, List.of()),
+                    images.getOrDefault(id, List.of()),
+                    reviews.getOrDefault(id, List.of())));
+        }
+        return dtos;
+    }
+
+    // Groups [experienceId, value] rows by experience id, keeping the row order within each group
+    @SuppressWarnings("unchecked")
+    private static <T> Map<Long, List<T>> groupPairs(List<Object[]> rows) {
+        Map<Long, List<T>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            grouped.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((T) row[1]);
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,399 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.SessionType;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFacets;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import com.Mybeez.TeamB.TeamB.payload.FacetValue;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Facet counts for the explore page, computed in memory instead of with one COUNT query per facet value.
+ * Every facet value (category, city, session type, price and duration bucket) owns a BitSet over the ids
+ * of the APPROVED experiences. A request turns each active filter into a BitSet, ANDs them together and
+ * intersects the result with every facet value's BitSet to get its count.
+ * The index is built at startup and kept up to date from {@link ExperienceChangedEvent}s.
+ */
+@Service
+@Slf4j
+public class ExperienceFacetIndex {
+
+    // Buckets are [min, max); a null max is open-ended
+    private static final List<Bucket> PRICE_BUCKETS = List.of(
+            new Bucket("0-20", "Under £20", 0, 20),
+            new Bucket("20-50", "£20 - £50", 20, 50),
+            new Bucket("50-100", "£50 - £100", 50, 100),
+            new Bucket("100-", "£100+", 100, null));
+
+    private static final List<Bucket> DURATION_BUCKETS = List.of(
+            new Bucket("0-60", "Under 1 hour", 0, 60),
+            new Bucket("60-120", "1 - 2 hours", 60, 120),
+            new Bucket("120-240", "2 - 4 hours", 120, 240),
+            new Bucket("240-", "4+ hours", 240, null));
+
+    private record Bucket(String value, String label, int min, Integer max) {
+        boolean contains(BigDecimal amount) {
+            return amount != null
+                    && amount.compareTo(BigDecimal.valueOf(min)) >= 0
+                    && (max == null || amount.compareTo(BigDecimal.valueOf(max)) < 0);
+        }
+    }
+
+    // What the index keeps per experience: enough to evaluate range filters and to unindex it later
+    private record Doc(int bit, Long categoryId, String cityKey, Set<SessionType> sessionTypes,
+                       BigDecimal price, Integer duration) {
+    }
+
+    private final ExperienceRepository experienceRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final BitSet live = new BitSet();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+    private final Map<Long, String> categoryLabels = new HashMap<>();
+    private final Map<String, BitSet> byCity = new HashMap<>(); // keyed by lower-cased city
+    private final Map<String, String> cityLabels = new HashMap<>();
+    private final Map<SessionType, BitSet> bySessionType = new EnumMap<>(SessionType.class);
+    private final BitSet[] byPriceBucket = newBitSets(PRICE_BUCKETS.size());
+    private final BitSet[] byDurationBucket = newBitSets(DURATION_BUCKETS.size());
+
+    public ExperienceFacetIndex(ExperienceRepository experienceRepository) {
+        this.experienceRepository = experienceRepository;
+        for (SessionType type : SessionType.values()) {
+            bySessionType.put(type, new BitSet());
+        }
+    }
+
+    // The active filters as BitSets; null means "not filtered on"
+    private record Selection(BitSet candidates, BitSet category, BitSet city, BitSet sessionType,
+                             BitSet duration, BitSet price) {
+    }
+
+    /**
+     * Counts, for every facet value, how many approved experiences match the filter with that value selected.
+     * @param filter The active filters.
+     * @param candidates The ids already resolved by the other in-memory indexes (keyword, radius),
+     *                   or null when the search is not restricted by them.
+     */
+    public ExperienceFacets count(ExperienceFilter filter, Collection<Long> candidates) {
+        lock.readLock().lock();
+        try {
+            Selection s = select(filter, candidates);
+
+            // Each facet ignores its own filter, otherwise only the selected value would ever have a count
+            int total = and(s.candidates(), s.category(), s.city(), s.sessionType(), s.duration(), s.price()).cardinality();
+            BitSet forCategories = and(s.candidates(), s.city(), s.sessionType(), s.duration(), s.price());
+            BitSet forCities = and(s.candidates(), s.category(), s.sessionType(), s.duration(), s.price());
+            BitSet forSessionTypes = and(s.candidates(), s.category(), s.city(), s.duration(), s.price());
+            BitSet forDurations = and(s.candidates(), s.category(), s.city(), s.sessionType(), s.price());
+            BitSet forPrices = and(s.candidates(), s.category(), s.city(), s.sessionType(), s.duration());
+
+            List<FacetValue> categories = new ArrayList<>();
+            byCategory.forEach((id, bits) -> categories.add(
+                    new FacetValue(String.valueOf(id), categoryLabels.get(id), intersectionCount(forCategories, bits))));
+            List<FacetValue> cities = new ArrayList<>();
+            byCity.forEach((key, bits) -> cities.add(
+                    new FacetValue(cityLabels.get(key), cityLabels.get(key), intersectionCount(forCities, bits))));
+            List<FacetValue> sessionTypes = new ArrayList<>();
+            bySessionType.forEach((type, bits) -> sessionTypes.add(
+                    new FacetValue(type.name(), type.name(), intersectionCount(forSessionTypes, bits))));
+
+            return new ExperienceFacets(
+                    total,
+                    nonEmptyByCount(categories),
+                    nonEmptyByCount(cities),
+                    sessionTypes,
+                    bucketCounts(PRICE_BUCKETS, byPriceBucket, forPrices),
+                    bucketCounts(DURATION_BUCKETS, byDurationBucket, forDurations));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates the whole filter in memory.
+     * @return The ids (as bit indexes) of the approved experiences matching the filter and the candidates.
+     */
+    public BitSet matching(ExperienceFilter filter, Collection<Long> candidates) {
+        lock.readLock().lock();
+        try {
+            Selection s = select(filter, candidates);
+            return and(s.candidates(), s.category(), s.city(), s.sessionType(), s.duration(), s.price());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or refreshes a single experience. Experiences that are not APPROVED are removed instead.
+     * Must be called while the experience's category, location and session types can still be loaded.
+     */
+    public void index(Experience experience) {
+        if (experience.getStatus() != ExperienceStatus.APPROVED) {
+            remove(experience.getId());
+            return;
+        }
+        String categoryLabel = experience.getCategory() != null ? experience.getCategory().getName() : null;
+        String cityLabel = experience.getLocation() != null ? normalizeCity(experience.getLocation().getCity()) : null;
+        Doc doc = docOf(experience);
+
+        lock.writeLock().lock();
+        try {
+            unindex(experience.getId());
+            add(experience.getId(), doc, categoryLabel, cityLabel);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an experience from the index, e.g. after it was rejected.
+     */
+    public void remove(Long experienceId) {
+        lock.writeLock().lock();
+        try {
+            unindex(experienceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the whole index from the database. Runs once the application (and data.sql) is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Experience> approved = experienceRepository.findForFacetingByStatus(ExperienceStatus.APPROVED);
+
+        lock.writeLock().lock();
+        try {
+            live.clear();
+            docs.clear();
+            byCategory.clear();
+            categoryLabels.clear();
+            byCity.clear();
+            cityLabels.clear();
+            bySessionType.values().forEach(BitSet::clear);
+            for (BitSet bits : byPriceBucket) bits.clear();
+            for (BitSet bits : byDurationBucket) bits.clear();
+            for (Experience experience : approved) {
+                String categoryLabel = experience.getCategory() != null ? experience.getCategory().getName() : null;
+                String cityLabel = experience.getLocation() != null ? normalizeCity(experience.getLocation().getCity()) : null;
+                add(experience.getId(), docOf(experience), categoryLabel, cityLabel);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Facet index built: {} experiences, {} categories, {} cities", approved.size(), byCategory.size(), byCity.size());
+    }
+
+    /**
+     * Re-indexes an experience after the transaction that changed it has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onExperienceChanged(ExperienceChangedEvent event) {
+        experienceRepository.findById(event.experienceId())
+                .ifPresentOrElse(this::index, () -> remove(event.experienceId()));
+    }
+
+    private static Doc docOf(Experience experience) {
+        Set<SessionType> sessionTypes = experience.getSessionTypes() == null || experience.getSessionTypes().isEmpty()
+                ? EnumSet.noneOf(SessionType.class)
+                : EnumSet.copyOf(experience.getSessionTypes());
+        String city = experience.getLocation() != null ? normalizeCity(experience.getLocation().getCity()) : null;
+        return new Doc(
+                Math.toIntExact(experience.getId()),
+                experience.getCategory() != null ? experience.getCategory().getId() : null,
+                city != null ? city.toLowerCase(Locale.ROOT) : null,
+                sessionTypes,
+                experience.getGroupPricePerPerson(),
+                experience.getDurationInMinutes());
+    }
+
+    // Caller must hold the write lock
+    private void add(Long id, Doc doc, String categoryLabel, String cityLabel) {
+        int bit = doc.bit();
+        live.set(bit);
+        docs.put(id, doc);
+        if (doc.categoryId() != null) {
+            byCategory.computeIfAbsent(doc.categoryId(), c -> new BitSet()).set(bit);
+            categoryLabels.put(doc.categoryId(), categoryLabel);
+        }
+        if (doc.cityKey() != null) {
+            byCity.computeIfAbsent(doc.cityKey(), c -> new BitSet()).set(bit);
+            cityLabels.putIfAbsent(doc.cityKey(), cityLabel);
+        }
+        doc.sessionTypes().forEach(type -> bySessionType.get(type).set(bit));
+        for (int i = 0; i < PRICE_BUCKETS.size(); i++) {
+            if (PRICE_BUCKETS.get(i).contains(doc.price())) byPriceBucket[i].set(bit);
+        }
+        BigDecimal duration = doc.duration() != null ? BigDecimal.valueOf(doc.duration()) : null;
+        for (int i = 0; i < DURATION_BUCKETS.size(); i++) {
+            if (DURATION_BUCKETS.get(i).contains(duration)) byDurationBucket[i].set(bit);
+        }
+    }
+
+    // Caller must hold the write lock
+    private void unindex(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        int bit = doc.bit();
+        live.clear(bit);
+        clearAndPrune(byCategory, doc.categoryId(), bit, categoryLabels);
+        clearAndPrune(byCity, doc.cityKey(), bit, cityLabels);
+        doc.sessionTypes().forEach(type -> bySessionType.get(type).clear(bit));
+        for (BitSet bits : byPriceBucket) bits.clear(bit);
+        for (BitSet bits : byDurationBucket) bits.clear(bit);
+    }
+
+    private static <K> void clearAndPrune(Map<K, BitSet> facet, K key, int bit, Map<K, String> labels) {
+        if (key == null) {
+            return;
+        }
+        BitSet bits = facet.get(key);
+        if (bits == null) {
+            return;
+        }
+        bits.clear(bit);
+        if (bits.isEmpty()) {
+            facet.remove(key);
+            labels.remove(key);
+        }
+    }
+
+    // --- Query helpers; callers hold the read lock ---
+
+    private Selection select(ExperienceFilter filter, Collection<Long> candidates) {
+        return new Selection(
+                candidates == null ? null : bitsOf(candidates),
+                filter.categoryId() == null ? null : copyOf(byCategory.get(filter.categoryId())),
+                filter.hasLocation() ? citiesContaining(filter.location()) : null,
+                filter.hasSessionType() ? sessionTypeBits(filter.sessionType()) : null,
+                filter.minDuration() == null && filter.maxDuration() == null ? null
+                        : docsWhere(d -> d.duration() != null
+                        && (filter.minDuration() == null || d.duration() >= filter.minDuration())
+                        && (filter.maxDuration() == null || d.duration() <= filter.maxDuration())),
+                filter.minGroupPrice() == null && filter.maxGroupPrice() == null ? null
+                        : docsWhere(d -> d.price() != null
+                        && (filter.minGroupPrice() == null || d.price().compareTo(BigDecimal.valueOf(filter.minGroupPrice())) >= 0)
+                        && (filter.maxGroupPrice() == null || d.price().compareTo(BigDecimal.valueOf(filter.maxGroupPrice())) <= 0)));
+    }
+
+    private BitSet bitsOf(Collection<Long> ids) {
+        BitSet bits = new BitSet();
+        for (Long id : ids) {
+            if (docs.containsKey(id)) {
+                bits.set(Math.toIntExact(id));
+            }
+        }
+        return bits;
+    }
+
+    // Same semantics as ExperienceSpecifications.hasLocation: case-insensitive "contains"
+    private BitSet citiesContaining(String location) {
+        String needle = location.toLowerCase(Locale.ROOT);
+        BitSet bits = new BitSet();
+        byCity.forEach((key, cityBits) -> {
+            if (key.contains(needle)) {
+                bits.or(cityBits);
+            }
+        });
+        return bits;
+    }
+
+    private BitSet sessionTypeBits(String sessionType) {
+        try {
+            return copyOf(bySessionType.get(SessionType.valueOf(sessionType.toUpperCase(Locale.ROOT))));
+        } catch (IllegalArgumentException e) {
+            return new BitSet(); // invalid enum value matches nothing, like the database filter
+        }
+    }
+
+    private BitSet docsWhere(Predicate<Doc> predicate) {
+        BitSet bits = new BitSet();
+        for (Doc doc : docs.values()) {
+            if (predicate.test(doc)) {
+                bits.set(doc.bit());
+            }
+        }
+        return bits;
+    }
+
+    private BitSet and(BitSet... filters) {
+        BitSet result = (BitSet) live.clone();
+        for (BitSet filter : filters) {
+            if (filter != null) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static int intersectionCount(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+
+    private static List<FacetValue> bucketCounts(List<Bucket> buckets, BitSet[] bucketBits, BitSet matches) {
+        List<FacetValue> values = new ArrayList<>(buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket bucket = buckets.get(i);
+            values.add(new FacetValue(bucket.value(), bucket.label(), intersectionCount(matches, bucketBits[i])));
+        }
+        return values;
+    }
+
+    private static List<FacetValue> nonEmptyByCount(List<FacetValue> values) {
+        return values.stream()
+                .filter(v -> v.count() > 0)
+                .sorted(Comparator.comparingInt(FacetValue::count).reversed()
+                        .thenComparing(v -> v.label() != null ? v.label() : ""))
+                .toList();
+    }
+
+    private static BitSet copyOf(BitSet bits) {
+        return bits != null ? (BitSet) bits.clone() : new BitSet();
+    }
+
+    private static BitSet[] newBitSets(int count) {
+        BitSet[] sets = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            sets[i] = new BitSet();
+        }
+        return sets;
+    }
+
+    private static String normalizeCity(String city) {
+        return city == null || city.isBlank() ? null : city.trim();
+    }
+}
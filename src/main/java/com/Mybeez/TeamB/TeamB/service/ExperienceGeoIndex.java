@@ -0,0 +1,204 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.Location;
+import com.Mybeez.TeamB.TeamB.payload.GeoPoint;
+import com.Mybeez.TeamB.TeamB.payload.GeoRadius;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index of the APPROVED experiences that have coordinates.
+ * Points are bucketed into a fixed grid of CELL_DEGREES x CELL_DEGREES cells, so a radius query only
+ * looks at the cells overlapping the circle's bounding box and computes exact distances for those points.
+ * The index is built at startup and kept up to date from {@link ExperienceChangedEvent}s.
+ */
+@Service
+@Slf4j
+public class ExperienceGeoIndex {
+
+    // About 11 km north-south; small enough that a typical "near me" search touches a handful of cells
+    static final double CELL_DEGREES = 0.1;
+
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+    private static final int LONGITUDE_CELLS = (int) Math.round(360 / CELL_DEGREES);
+
+    /**
+     * An experience found by a radius query.
+     */
+    public record Hit(long experienceId, double distanceKm) {
+    }
+
+    private record Point(long id, double latitude, double longitude, long cell) {
+    }
+
+    private final ExperienceRepository experienceRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<Long, Point> points = new HashMap<>();
+
+    public ExperienceGeoIndex(ExperienceRepository experienceRepository) {
+        this.experienceRepository = experienceRepository;
+    }
+
+    /**
+     * @return Every indexed experience within the radius, nearest first (ties broken by id).
+     */
+    public List<Hit> within(GeoRadius radius) {
+        GeoPoint centre = radius.centre();
+        double latitudeSpan = radius.radiusKm() / KM_PER_DEGREE_LATITUDE;
+        double minLatitude = Math.max(-90, centre.latitude() - latitudeSpan);
+        double maxLatitude = Math.min(90, centre.latitude() + latitudeSpan);
+        // Longitude degrees shrink towards the poles; take the widest point of the box
+        double cosine = Math.cos(Math.toRadians(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude))));
+        double longitudeSpan = cosine < 1e-6 ? 180 : Math.min(180, radius.radiusKm() / (KM_PER_DEGREE_LATITUDE * cosine));
+
+        int fromRow = row(minLatitude);
+        int toRow = row(maxLatitude);
+        int fromColumn = column(centre.longitude() - longitudeSpan);
+        int columns = Math.min(LONGITUDE_CELLS, column(centre.longitude() + longitudeSpan) - fromColumn + 1);
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long cellsInBox = (long) (toRow - fromRow + 1) * columns;
+            if (cellsInBox > cells.size()) {
+                // Huge radius over a sparse index: cheaper to scan the occupied cells than the box
+                for (List<Point> cell : cells.values()) {
+                    collect(cell, centre, radius.radiusKm(), hits);
+                }
+            } else {
+                for (int row = fromRow; row <= toRow; row++) {
+                    for (int i = 0; i < columns; i++) {
+                        List<Point> cell = cells.get(cellKey(row, Math.floorMod(fromColumn + i, LONGITUDE_CELLS)));
+                        if (cell != null) {
+                            collect(cell, centre, radius.radiusKm(), hits);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::experienceId));
+        return hits;
+    }
+
+    /**
+     * Adds or moves a single experience. Experiences that are not APPROVED or have no coordinates are removed instead.
+     */
+    public void index(Experience experience) {
+        Location location = experience.getLocation();
+        if (experience.getStatus() != ExperienceStatus.APPROVED || location == null
+                || location.getLatitude() == null || location.getLongitude() == null) {
+            remove(experience.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            put(experience.getId(), location.getLatitude(), location.getLongitude());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long experienceId) {
+        lock.writeLock().lock();
+        try {
+            unindex(experienceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the whole index from the database. Runs once the application is ready and
+     * after PostcodeGeocoder has filled in missing coordinates.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Object[]> rows = experienceRepository.findCoordinatesByStatus(ExperienceStatus.APPROVED);
+
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            points.clear();
+            for (Object[] row : rows) {
+                put((Long) row[0], (Double) row[1], (Double) row[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Geo index built: {} experiences in {} cells", points.size(), cells.size());
+    }
+
+    /**
+     * Re-indexes an experience after the transaction that changed it has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onExperienceChanged(ExperienceChangedEvent event) {
+        experienceRepository.findById(event.experienceId())
+                .ifPresentOrElse(this::index, () -> remove(event.experienceId()));
+    }
+
+    // Caller must hold the write lock
+    private void put(long id, double latitude, double longitude) {
+        unindex(id);
+        Point point = new Point(id, latitude, longitude, cellKey(row(latitude), Math.floorMod(column(longitude), LONGITUDE_CELLS)));
+        points.put(id, point);
+        cells.computeIfAbsent(point.cell(), c -> new ArrayList<>()).add(point);
+    }
+
+    // Caller must hold the write lock
+    private void unindex(long id) {
+        Point point = points.remove(id);
+        if (point == null) {
+            return;
+        }
+        List<Point> cell = cells.get(point.cell());
+        cell.remove(point);
+        if (cell.isEmpty()) {
+            cells.remove(point.cell());
+        }
+    }
+
+    private static void collect(List<Point> cell, GeoPoint centre, double radiusKm, List<Hit> hits) {
+        for (Point point : cell) {
+            double distance = centre.distanceKmTo(point.latitude(), point.longitude());
+            if (distance <= radiusKm) {
+                hits.add(new Hit(point.id(), distance));
+            }
+        }
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    // Not wrapped, so a box crossing the antimeridian stays contiguous; wrap with floorMod when looking up
+    private static int column(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | column;
+    }
+}
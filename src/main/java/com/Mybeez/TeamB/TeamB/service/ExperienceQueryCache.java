@@ -0,0 +1,131 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.ExperienceRatingChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.RankingSignalsChangedEvent;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of public filter results, keyed by the canonical ExperienceFilter.
+ * Every entry remembers the catalogue version it was computed at. Any committed change that can alter
+ * public results (an experience or its slots, a review moderation, a rebuild of the ranking signals)
+ * bumps the version, which retires every entry at once; a result computed while a change was
+ * committing carries the old version and is never served. The version is bumped after the indexes the
+ * query reads (search index, ranking signals) have caught up with the change.
+ * A change in an experience's recent bookings only nudges the ranking, so it does not bump the version:
+ * results computed before it are still served until they are bookingStaleness old. A steady stream of
+ * bookings therefore reloads each entry at most once per bookingStaleness.
+ */
+@Service
+public class ExperienceQueryCache {
+
+    private record Entry(long version, long loadedAt, List<ExperienceDTO> results) {
+    }
+
+    private final AtomicLong catalogueVersion = new AtomicLong();
+    private final Map<ExperienceFilter, Entry> entries;
+    private final long bookingStalenessNanos;
+
+    // System.nanoTime() of the last recent-bookings change
+    private volatile long bookingsChangedAt = System.nanoTime();
+
+    public ExperienceQueryCache(
+            @Value("${experience.query-cache.max-entries:256}") int maxEntries,
+            @Value("${experience.query-cache.booking-staleness:60s}") Duration bookingStaleness) {
+        this.bookingStalenessNanos = bookingStaleness.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ExperienceFilter, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param filter A canonical filter (see ExperienceFilter.canonical()).
+     * @param loader Runs the query on a miss.
+     * @return The cached or freshly loaded results, as an unmodifiable list.
+     */
+    public List<ExperienceDTO> get(ExperienceFilter filter, Supplier<List<ExperienceDTO>> loader) {
+        // Read before loading, so a change committed during the load leaves the result tagged as stale
+        long version = catalogueVersion.get();
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(filter);
+            if (entry != null && entry.version() == version && !missesBookings(entry, now)) {
+                return entry.results();
+            }
+        }
+        List<ExperienceDTO> results = List.copyOf(loader.get());
+        synchronized (entries) {
+            if (catalogueVersion.get() == version) {
+                entries.put(filter, new Entry(version, now, results));
+            }
+        }
+        return results;
+    }
+
+    public long version() {
+        return catalogueVersion.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Bumps the catalogue version and drops every cached result.
+     */
+    public void invalidate() {
+        catalogueVersion.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onExperienceChanged(ExperienceChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onExperienceRatingChanged(ExperienceRatingChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * A rebuild retires every entry; a change in one experience's recent bookings only starts the
+     * bookingStaleness clock on the entries computed before it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onRankingSignalsChanged(RankingSignalsChangedEvent event) {
+        if (event.experienceId() == null) {
+            invalidate();
+        } else {
+            bookingsChangedAt = System.nanoTime();
+        }
+    }
+
+    // Loaded before the last recent-bookings change and older than bookingStaleness
+    private boolean missesBookings(Entry entry, long now) {
+        return entry.loadedAt() - bookingsChangedAt < 0 && now - entry.loadedAt() >= bookingStalenessNanos;
+    }
+}
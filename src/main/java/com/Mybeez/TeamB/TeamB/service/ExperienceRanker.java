@@ -0,0 +1,51 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranking stage of the experience listing, run after the filters have picked the candidates.
+ * The score of an experience is the weighted sum of every RankingSignal.
+ */
+@Service
+public class ExperienceRanker {
+
+    /**
+     * An experience with its relevance score.
+     */
+    public record Ranked(long experienceId, double score) {
+    }
+
+    private final List<RankingSignal> signals;
+
+    public ExperienceRanker(List<RankingSignal> signals) {
+        this.signals = signals;
+    }
+
+    /**
+     * @return The experiences, best score first (ties broken by id).
+     */
+    public List<Ranked> rank(ExperienceFilter filter, Collection<Long> experienceIds) {
+        Map<Long, Double> scores = new HashMap<>();
+        experienceIds.forEach(id -> scores.put(id, 0.0));
+        for (RankingSignal signal : signals) {
+            double weight = signal.weight();
+            if (weight <= 0 || scores.isEmpty()) {
+                continue;
+            }
+            signal.score(filter, experienceIds).forEach((id, score) -> scores.computeIfPresent(id, (k, total) -> total + weight * score));
+        }
+
+        List<Ranked> ranked = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> ranked.add(new Ranked(id, score)));
+        ranked.sort(Comparator.comparingDouble(Ranked::score).reversed().thenComparingLong(Ranked::experienceId));
+        return ranked;
+    }
+}
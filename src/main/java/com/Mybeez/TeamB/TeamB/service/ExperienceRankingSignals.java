@@ -0,0 +1,199 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.BookingChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.ExperienceRatingChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.RankingSignalsChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-experience inputs of the rating and booking popularity ranking signals, kept in memory so
+ * ranking a listing never queries the database.
+ * Loaded at startup and updated one experience at a time from review and booking events. Recent
+ * bookings are those made in the last BOOKING_WINDOW_DAYS; a nightly rebuild drops the ones that aged out.
+ * A RankingSignalsChangedEvent is published whenever a rebuild or a booking changed the held values.
+ */
+@Service
+@Slf4j
+public class ExperienceRankingSignals {
+
+    static final int BOOKING_WINDOW_DAYS = 30;
+
+    private record Rating(long sum, int count) {
+    }
+
+    private final ExperienceRepository experienceRepository;
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Rating> ratings = new HashMap<>();
+    private final Map<Long, Long> recentBookings = new HashMap<>();
+    private long totalRatingSum;
+    private long totalRatingCount;
+
+    public ExperienceRankingSignals(
+            ExperienceRepository experienceRepository,
+            BookingRepository bookingRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.experienceRepository = experienceRepository;
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * @return The average approved review rating across all experiences, or 0 when there are no reviews.
+     */
+    public double meanRating() {
+        lock.readLock().lock();
+        try {
+            return totalRatingCount > 0 ? (double) totalRatingSum / totalRatingCount : 0.0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long ratingSum(Long experienceId) {
+        lock.readLock().lock();
+        try {
+            Rating rating = ratings.get(experienceId);
+            return rating != null ? rating.sum() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int ratingCount(Long experienceId) {
+        lock.readLock().lock();
+        try {
+            Rating rating = ratings.get(experienceId);
+            return rating != null ? rating.count() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of confirmed bookings made in the last BOOKING_WINDOW_DAYS.
+     */
+    public long recentBookings(Long experienceId) {
+        lock.readLock().lock();
+        try {
+            return recentBookings.getOrDefault(experienceId, 0L);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads every signal from the database. Runs at startup and every night.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Object[]> ratingRows = experienceRepository.findRatingAggregatesByStatus(ExperienceStatus.APPROVED);
+        List<Object[]> bookingRows = bookingRepository.countConfirmedBookingsPerExperienceSince(windowStart());
+
+        lock.writeLock().lock();
+        try {
+            ratings.clear();
+            totalRatingSum = 0;
+            totalRatingCount = 0;
+            for (Object[] row : ratingRows) {
+                putRating((Long) row[0], (Long) row[1], (Integer) row[2]);
+            }
+            recentBookings.clear();
+            for (Object[] row : bookingRows) {
+                recentBookings.put((Long) row[0], (Long) row[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Ranking signals built: {} rated experiences, {} with recent bookings", ratings.size(), recentBookings.size());
+        eventPublisher.publishEvent(new RankingSignalsChangedEvent(null));
+    }
+
+    /**
+     * Re-reads the rating aggregates of one experience after a review moderation has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    // Before ExperienceQueryCache invalidates, so no result is cached from the old signals
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onExperienceRatingChanged(ExperienceRatingChangedEvent event) {
+        experienceRepository.findRatingSummaryById(event.experienceId()).ifPresent(summary -> {
+            lock.writeLock().lock();
+            try {
+                putRating(event.experienceId(), summary.sum(), summary.count());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Recounts the recent bookings of one experience when a booking entered or left CONFIRMED.
+     * Only a recount that differs from the held value is published, so e.g. cancelling a booking made before
+     * the window changes nothing downstream.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    // Before ExperienceQueryCache invalidates, so no result is cached from the old signals
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.previousStatus() != BookingStatus.CONFIRMED && event.status() != BookingStatus.CONFIRMED) {
+            return;
+        }
+        long count = bookingRepository.countConfirmedBookingsForExperienceSince(event.experienceId(), windowStart());
+        Long previous;
+        lock.writeLock().lock();
+        try {
+            previous = count > 0
+                    ? recentBookings.put(event.experienceId(), count)
+                    : recentBookings.remove(event.experienceId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if ((previous != null ? previous : 0L) != count) {
+            eventPublisher.publishEvent(new RankingSignalsChangedEvent(event.experienceId()));
+        }
+    }
+
+    // Caller must hold the write lock
+    private void putRating(Long experienceId, long sum, int count) {
+        Rating previous = ratings.remove(experienceId);
+        if (previous != null) {
+            totalRatingSum -= previous.sum();
+            totalRatingCount -= previous.count();
+        }
+        if (count > 0) {
+            ratings.put(experienceId, new Rating(sum, count));
+            totalRatingSum += sum;
+            totalRatingCount += count;
+        }
+    }
+
+    private static LocalDateTime windowStart() {
+        return LocalDateTime.now().minusDays(BOOKING_WINDOW_DAYS);
+    }
+}
@@ -0,0 +1,84 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceRatingChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.ReviewChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Review;
+import com.Mybeez.TeamB.TeamB.model.ReviewStatus;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.repository.ReviewRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Keeps the rating aggregates on Experience (sum, count, star histogram and average) in step with
+ * review moderation, so readers never have to scan the reviews table.
+ * Only APPROVED reviews are counted.
+ * Every status change is also published as a ReviewChangedEvent.
+ */
+@Service
+public class ExperienceRatingService {
+
+    private final ExperienceRepository experienceRepository;
+    private final ReviewRepository reviewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ExperienceRatingService(
+            ExperienceRepository experienceRepository,
+            ReviewRepository reviewRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.experienceRepository = experienceRepository;
+        this.reviewRepository = reviewRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Moderates a review. The status is moved with a conditional UPDATE, so when two moderators act on
+     * the same review at once only the one whose UPDATE changed the row adjusts the aggregates.
+     * @param reviewId The review to moderate.
+     * @param newStatus The status to move it to.
+     * @return The review, or empty if it does not exist.
+     */
+    @Transactional
+    public Optional<Review> moderate(Long reviewId, ReviewStatus newStatus) {
+        Optional<Review> found = reviewRepository.findWithExperienceById(reviewId);
+        found.ifPresent(review -> {
+            ReviewStatus previousStatus = review.getStatus();
+            if (previousStatus == newStatus || reviewRepository.updateStatus(reviewId, previousStatus, newStatus) == 0) {
+                return;
+            }
+            review.setStatus(newStatus);
+            onReviewStatusChanged(review, previousStatus);
+        });
+        return found;
+    }
+
+    /**
+     * Applies a review status change to its experience's aggregates.
+     * Runs in the caller's transaction so the review and the aggregates are committed together.
+     * @param review The review, already carrying its new status.
+     * @param previousStatus The status the review had before the change.
+     */
+    @Transactional
+    public void onReviewStatusChanged(Review review, ReviewStatus previousStatus) {
+        if (previousStatus != review.getStatus() && review.getExperience() != null) {
+            eventPublisher.publishEvent(new ReviewChangedEvent(
+                    review.getId(), review.getExperience().getId(), previousStatus, review.getStatus()));
+        }
+        boolean wasCounted = previousStatus == ReviewStatus.APPROVED;
+        boolean isCounted = review.getStatus() == ReviewStatus.APPROVED;
+        if (wasCounted == isCounted || review.getExperience() == null) {
+            return;
+        }
+        if (review.getRating() < 1 || review.getRating() > 5) {
+            throw new IllegalArgumentException("Review rating must be between 1 and 5: " + review.getRating());
+        }
+
+        Long experienceId = review.getExperience().getId();
+        experienceRepository.adjustRatingAggregates(experienceId, review.getRating(), isCounted ? 1 : -1);
+        experienceRepository.refreshAverageRating(experienceId);
+        eventPublisher.publishEvent(new ExperienceRatingChangedEvent(experienceId));
+    }
+}
@@ -0,0 +1,339 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the title, description, tags and category name of APPROVED experiences.
+ * Keyword searches are answered from the index instead of a LIKE scan over the experiences table.
+ * Term frequencies and document lengths are kept as well, so results can be scored with BM25.
+ * The index is built once at startup and then kept up to date from {@link ExperienceChangedEvent}s.
+ */
+@Service
+@Slf4j
+public class ExperienceSearchIndex {
+
+    private static final long[] NO_MATCHES = new long[0];
+
+    // Standard BM25 parameters: term frequency saturation and document length normalisation
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Title words count this many times, so a match in the title beats one in a long description
+    private static final int TITLE_BOOST = 2;
+
+    private final ExperienceRepository experienceRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> sorted ids of the experiences containing it. Sorted keys let the last query word act as a prefix.
+    private final TreeMap<String, long[]> postings = new TreeMap<>();
+
+    // experience id -> term frequencies, so a re-index can remove stale postings and BM25 can read tf
+    private final Map<Long, Map<String, Integer>> documentTerms = new HashMap<>();
+    private long totalLength;
+
+    public ExperienceSearchIndex(ExperienceRepository experienceRepository) {
+        this.experienceRepository = experienceRepository;
+    }
+
+    /**
+     * Finds the approved experiences matching every word of the query.
+     * The last word is matched as a prefix so partially typed words still hit.
+     * @param query The raw keyword string typed by the user.
+     * @return The matching experience ids in ascending order (empty if nothing matches), or null if the
+     *         query has no searchable words (only stop words or punctuation) and so places no constraint.
+     */
+    public Set<Long> search(String query) {
+        List<String> terms = TextAnalyzer.analyze(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] result = null;
+            for (int i = 0; i < terms.size(); i++) {
+                boolean lastTerm = i == terms.size() - 1;
+                long[] matches = lastTerm ? prefixPostings(terms.get(i)) : postings.getOrDefault(terms.get(i), NO_MATCHES);
+                result = result == null ? matches : intersect(result, matches);
+                if (result.length == 0) {
+                    return Set.of();
+                }
+            }
+            Set<Long> ids = new LinkedHashSet<>(result.length * 2);
+            for (long id : result) {
+                ids.add(id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores experiences against the query with BM25. The last word is treated as a prefix, as in
+     * {@link #search(String)}; it scores as the best of the terms it expands to.
+     * @param query The raw keyword string typed by the user.
+     * @param experienceIds The experiences to score, usually the result of {@link #search(String)}.
+     * @return The BM25 score of each indexed experience (0 when no query word matches).
+     */
+    public Map<Long, Double> bm25(String query, Collection<Long> experienceIds) {
+        List<String> terms = TextAnalyzer.analyze(query);
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            if (documentTerms.isEmpty()) {
+                return scores;
+            }
+            int documents = documentTerms.size();
+            double averageLength = (double) totalLength / documents;
+
+            // Each query word expands to one term, or to every indexed term it prefixes if it is the last word
+            List<Map<String, Double>> idfs = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                Map<String, Double> expansion = new HashMap<>();
+                Map<String, long[]> matching = i == terms.size() - 1
+                        ? postings.subMap(terms.get(i), terms.get(i) + Character.MAX_VALUE)
+                        : postings.containsKey(terms.get(i)) ? Map.of(terms.get(i), postings.get(terms.get(i))) : Map.of();
+                matching.forEach((term, ids) ->
+                        expansion.put(term, Math.log(1 + (documents - ids.length + 0.5) / (ids.length + 0.5))));
+                idfs.add(expansion);
+            }
+
+            for (Long id : experienceIds) {
+                Map<String, Integer> frequencies = documentTerms.get(id);
+                if (frequencies == null) {
+                    continue;
+                }
+                int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+                double norm = K1 * (1 - B + B * length / averageLength);
+                double score = 0;
+                for (Map<String, Double> expansion : idfs) {
+                    double best = 0;
+                    for (Map.Entry<String, Double> term : expansion.entrySet()) {
+                        int tf = frequencies.getOrDefault(term.getKey(), 0);
+                        if (tf > 0) {
+                            best = Math.max(best, term.getValue() * tf * (K1 + 1) / (tf + norm));
+                        }
+                    }
+                    score += best;
+                }
+                scores.put(id, score);
+            }
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or refreshes a single experience. Experiences that are not APPROVED are removed instead.
+     * Must be called while the experience's category and tags can still be loaded.
+     */
+    public void index(Experience experience) {
+        if (experience.getStatus() != ExperienceStatus.APPROVED) {
+            remove(experience.getId());
+            return;
+        }
+        Map<String, Integer> terms = termsOf(experience);
+
+        lock.writeLock().lock();
+        try {
+            removePostings(experience.getId());
+            for (String term : terms.keySet()) {
+                postings.put(term, insert(postings.getOrDefault(term, NO_MATCHES), experience.getId()));
+            }
+            documentTerms.put(experience.getId(), terms);
+            totalLength += length(terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an experience from the index, e.g. after it was rejected.
+     */
+    public void remove(Long experienceId) {
+        lock.writeLock().lock();
+        try {
+            removePostings(experienceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the whole index from the database. Runs once the application (and data.sql) is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Experience> approved = experienceRepository.findForIndexingByStatus(ExperienceStatus.APPROVED);
+
+        Map<String, List<Long>> built = new HashMap<>();
+        Map<Long, Map<String, Integer>> builtTerms = new HashMap<>();
+        long builtLength = 0;
+        for (Experience experience : approved) {
+            Map<String, Integer> terms = termsOf(experience);
+            builtTerms.put(experience.getId(), terms);
+            builtLength += length(terms);
+            for (String term : terms.keySet()) {
+                built.computeIfAbsent(term, t -> new ArrayList<>()).add(experience.getId());
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            built.forEach((term, ids) -> {
+                long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+                postings.put(term, sorted);
+            });
+            documentTerms.clear();
+            documentTerms.putAll(builtTerms);
+            totalLength = builtLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index built: {} experiences, {} terms", builtTerms.size(), built.size());
+    }
+
+    /**
+     * Re-indexes an experience after the transaction that changed it has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    // Before ExperienceQueryCache invalidates, so no result is cached from the old index
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onExperienceChanged(ExperienceChangedEvent event) {
+        experienceRepository.findById(event.experienceId())
+                .ifPresentOrElse(this::index, () -> remove(event.experienceId()));
+    }
+
+    // term -> frequency in the experience's title, description, tags and category name
+    private Map<String, Integer> termsOf(Experience experience) {
+        Map<String, Integer> terms = new HashMap<>();
+        TextAnalyzer.analyze(experience.getTitle()).forEach(t -> terms.merge(t, TITLE_BOOST, Integer::sum));
+        TextAnalyzer.analyze(experience.getDescription()).forEach(t -> terms.merge(t, 1, Integer::sum));
+        if (experience.getTags() != null) {
+            experience.getTags().forEach(tag -> TextAnalyzer.analyze(tag).forEach(t -> terms.merge(t, 1, Integer::sum)));
+        }
+        if (experience.getCategory() != null) {
+            TextAnalyzer.analyze(experience.getCategory().getName()).forEach(t -> terms.merge(t, 1, Integer::sum));
+        }
+        return terms;
+    }
+
+    private static int length(Map<String, Integer> terms) {
+        return terms.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // Caller must hold the write lock
+    private void removePostings(Long experienceId) {
+        Map<String, Integer> oldTerms = documentTerms.remove(experienceId);
+        if (oldTerms == null) {
+            return;
+        }
+        totalLength -= length(oldTerms);
+        for (String term : oldTerms.keySet()) {
+            long[] ids = postings.get(term);
+            if (ids == null) {
+                continue;
+            }
+            long[] remaining = delete(ids, experienceId);
+            if (remaining.length == 0) {
+                postings.remove(term);
+            } else {
+                postings.put(term, remaining);
+            }
+        }
+    }
+
+    // Caller must hold the read lock
+    private long[] prefixPostings(String prefix) {
+        SortedMap<String, long[]> range = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (range.isEmpty()) {
+            return NO_MATCHES;
+        }
+        if (range.size() == 1) {
+            return range.values().iterator().next();
+        }
+        int total = 0;
+        for (long[] ids : range.values()) {
+            total += ids.length;
+        }
+        long[] merged = new long[total];
+        int pos = 0;
+        for (long[] ids : range.values()) {
+            System.arraycopy(ids, 0, merged, pos, ids.length);
+            pos += ids.length;
+        }
+        Arrays.sort(merged);
+        return Arrays.stream(merged).distinct().toArray();
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) {
+            return ids;
+        }
+        int insertAt = -pos - 1;
+        long[] out = new long[ids.length + 1];
+        System.arraycopy(ids, 0, out, 0, insertAt);
+        out[insertAt] = id;
+        System.arraycopy(ids, insertAt, out, insertAt + 1, ids.length - insertAt);
+        return out;
+    }
+
+    private static long[] delete(long[] ids, long id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) {
+            return ids;
+        }
+        long[] out = new long[ids.length - 1];
+        System.arraycopy(ids, 0, out, 0, pos);
+        System.arraycopy(ids, pos + 1, out, pos, ids.length - pos - 1);
+        return out;
+    }
+}
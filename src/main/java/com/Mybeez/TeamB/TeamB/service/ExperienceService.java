@@ -3,20 +3,27 @@ package com.Mybeez.TeamB.TeamB.service;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
 import com.Mybeez.TeamB.TeamB.payload.ExperienceEditResponse;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.Mybeez.TeamB.TeamB.repository.ReviewRepository;
+import com.Mybeez.TeamB.TeamB.exception.InvalidSearchParameterException;
 import com.Mybeez.TeamB.TeamB.exception.ResourceNotFoundException;
 import com.Mybeez.TeamB.TeamB.model.Availability;
 import com.Mybeez.TeamB.TeamB.model.Experience;
@@ -25,7 +32,13 @@ import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
 import com.Mybeez.TeamB.TeamB.model.Image;
 import com.Mybeez.TeamB.TeamB.model.Location;
 import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceCursor;
 import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFacets;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import com.Mybeez.TeamB.TeamB.payload.GeoRadius;
+import com.Mybeez.TeamB.TeamB.payload.ExperiencePageResponse;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceSort;
 import com.Mybeez.TeamB.TeamB.payload.ExperienceRequest;
 import com.Mybeez.TeamB.TeamB.payload.LocationRequest;
 import com.Mybeez.TeamB.TeamB.repository.ExperienceCategoryRepository;
@@ -37,23 +50,53 @@ import com.Mybeez.TeamB.TeamB.repository.UserRepository;
 @Service
 public class ExperienceService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final ExperienceRepository experienceRepository;
     private final UserRepository userRepository;
     private final ExperienceCategoryRepository experienceCategoryRepository;
     private final LocationRepository locationRepository;
-    private final ReviewRepository reviewRepository;
+    private final ExperienceSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExperienceDTOAssembler dtoAssembler;
+    private final FeaturedExperiencesCache featuredExperiencesCache;
+    private final ExperienceFacetIndex facetIndex;
+    private final ExperienceGeoIndex geoIndex;
+    private final PostcodeGeocoder postcodeGeocoder;
+    private final ExperienceRanker ranker;
+    private final ExperienceQueryCache queryCache;
+    private final ExperienceAvailabilityIndex availabilityIndex;
 
     public ExperienceService(
             ExperienceRepository experienceRepository,
             UserRepository userRepository,
             ExperienceCategoryRepository experienceCategoryRepository,
             LocationRepository locationRepository,
-            ReviewRepository reviewRepository) {
+            ExperienceSearchIndex searchIndex,
+            ApplicationEventPublisher eventPublisher,
+            ExperienceDTOAssembler dtoAssembler,
+            FeaturedExperiencesCache featuredExperiencesCache,
+            ExperienceFacetIndex facetIndex,
+            ExperienceGeoIndex geoIndex,
+            PostcodeGeocoder postcodeGeocoder,
+            ExperienceRanker ranker,
+            ExperienceQueryCache queryCache,
+            ExperienceAvailabilityIndex availabilityIndex) {
         this.experienceRepository = experienceRepository;
         this.userRepository = userRepository;
         this.experienceCategoryRepository = experienceCategoryRepository;
         this.locationRepository = locationRepository;
-        this.reviewRepository = reviewRepository;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.dtoAssembler = dtoAssembler;
+        this.featuredExperiencesCache = featuredExperiencesCache;
+        this.facetIndex = facetIndex;
+        this.geoIndex = geoIndex;
+        this.postcodeGeocoder = postcodeGeocoder;
+        this.ranker = ranker;
+        this.queryCache = queryCache;
+        this.availabilityIndex = availabilityIndex;
     }
 
     // --- Write (Command) Method ---
@@ -75,6 +118,7 @@ public class ExperienceService {
                     newLoc.setAddress(locReq.getAddress());
                     newLoc.setCity(locReq.getCity());
                     newLoc.setPostcode(locReq.getPostcode());
+                    postcodeGeocoder.geocode(newLoc);
                     return locationRepository.save(newLoc);
                 });
 
@@ -110,7 +154,9 @@ public class ExperienceService {
             experience.addImage(image);
         });
 
-        return experienceRepository.save(experience);
+        Experience savedExperience = experienceRepository.save(experience);
+        eventPublisher.publishEvent(new ExperienceChangedEvent(savedExperience.getId()));
+        return savedExperience;
     }
 
     @Transactional
@@ -167,6 +213,7 @@ public class ExperienceService {
             location.setAddress(request.getLocationRequest().getAddress());
             location.setCity(request.getLocationRequest().getCity());
             location.setPostcode(request.getLocationRequest().getPostcode());
+            postcodeGeocoder.geocode(location);
 
             // Save location (both new and existing)
             location = locationRepository.save(location);
@@ -212,6 +259,7 @@ public class ExperienceService {
 
         // Save and return
         Experience savedExperience = experienceRepository.save(experience);
+        eventPublisher.publishEvent(new ExperienceChangedEvent(savedExperience.getId()));
 
         System.out.println("Experience saved successfully!");
 
@@ -243,9 +291,7 @@ public class ExperienceService {
     // --- Read (Query) Methods ---
 
     public List<ExperienceDTO> getAllExperiences() {
-        return experienceRepository.findAll().stream()
-                .map(ExperienceDTO::new)
-                .collect(Collectors.toList());
+        return dtoAssembler.toDtos(experienceRepository.findAll());
     }
 
     public ExperienceDTO getExperienceById(Long id) {
@@ -264,6 +310,10 @@ public class ExperienceService {
         return experienceCategoryRepository.findAll();
     }
 
+    /**
+     * The unpaged public listing, best ranked first. Results are served from ExperienceQueryCache,
+     * keyed by the canonical form of the filters, until the catalogue changes.
+     */
     public List<ExperienceDTO> filterExperiences(
             String keyword,
             Long categoryId,
@@ -273,75 +323,248 @@ public class ExperienceService {
             Integer maxDuration,
             Integer minGroupPrice,
             Integer maxGroupPrice) {
-        // This is the modern replacement for the deprecated `where(null)`
-        Specification<Experience> spec =
-                (root, query, cb) -> cb.equal(root.get("status"), ExperienceStatus.APPROVED);
+        ExperienceFilter filter = new ExperienceFilter(
+                keyword, categoryId, location, sessionType, minDuration, maxDuration, minGroupPrice, maxGroupPrice)
+                .canonical();
+        return queryCache.get(filter, () -> rankedResults(filter));
+    }
 
-        // Conditionally add filters to the specification chain
-        if (keyword != null && !keyword.isEmpty()) {
-            spec = spec.and(ExperienceSpecifications.hasKeyword(keyword));
-        }
-        if (categoryId != null) {
-            spec = spec.and(ExperienceSpecifications.hasCategory(categoryId));
+    private List<ExperienceDTO> rankedResults(ExperienceFilter filter) {
+        Optional<Specification<Experience>> spec = buildFilterSpecification(filter, matchIndexes(filter));
+        if (spec.isEmpty()) {
+            return List.of();
         }
-        if (location != null && !location.isEmpty()) {
-            spec = spec.and(ExperienceSpecifications.hasLocation(location));
+
+        List<Experience> filteredExperiences = experienceRepository.findAll(spec.get());
+
+        // Ranking runs on the filtered rows only; anything the ranker did not score goes last
+        Map<Long, Integer> positions = new HashMap<>();
+        List<ExperienceRanker.Ranked> ranked = ranker.rank(
+                filter, filteredExperiences.stream().map(Experience::getId).toList());
+        for (int i = 0; i < ranked.size(); i++) {
+            positions.put(ranked.get(i).experienceId(), i);
         }
-        if (sessionType != null && !sessionType.isEmpty()) {
-            spec = spec.and(ExperienceSpecifications.hasSessionType(sessionType));
+        List<Experience> ordered = new ArrayList<>(filteredExperiences);
+        ordered.sort(Comparator.comparingInt(e -> positions.getOrDefault(e.getId(), Integer.MAX_VALUE)));
+
+        return dtoAssembler.toDtos(ordered);
+    }
+
+    /**
+     * Returns one page of the filtered listing in a stable sort order.
+     * Pages are addressed with a keyset cursor (the sort key and id of the last row seen), so each page
+     * is a single keyset + LIMIT query and no COUNT(*) is issued.
+     * The facet counts come from the in-memory ExperienceFacetIndex and do not query the database either.
+     * DISTANCE and RELEVANCE are not columns; they are ordered in memory and only the page is loaded.
+     * @param near Restricts the listing to a radius around a point; null for no restriction.
+     * @param sort The sort order of the listing. DISTANCE requires near; RELEVANCE ranks with ExperienceRanker.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param size The requested page size; clamped to 1..MAX_PAGE_SIZE.
+     * @return The page items, the cursor of the next page (null on the last page) and the facet counts.
+     */
+    @Transactional(readOnly = true)
+    public ExperiencePageResponse filterExperiences(
+            ExperienceFilter filter,
+            GeoRadius near,
+            ExperienceSort sort,
+            String cursor,
+            int size) {
+        ExperienceCursor after = cursor == null || cursor.isBlank() ? null : ExperienceCursor.decode(cursor, sort);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        if (sort == ExperienceSort.DISTANCE && near == null) {
+            throw new InvalidSearchParameterException("Sorting by distance needs lat and lon.");
         }
-        if (minDuration != null) {
-            spec = spec.and(ExperienceSpecifications.hasMinDuration(minDuration));
+
+        List<ExperienceGeoIndex.Hit> hits = near != null ? geoIndex.within(near) : null;
+        Set<Long> candidates = matchIndexes(filter);
+        if (hits != null) {
+            Set<Long> nearby = hits.stream().map(ExperienceGeoIndex.Hit::experienceId).collect(Collectors.toSet());
+            if (candidates == null) {
+                candidates = nearby;
+            } else {
+                candidates.retainAll(nearby);
+            }
         }
-        if (maxDuration != null) {
-            spec = spec.and(ExperienceSpecifications.hasMaxDuration(maxDuration));
+        ExperienceFacets facets = facetIndex.count(filter, candidates);
+
+        Map<Long, Double> distances = hits == null ? null : hits.stream()
+                .collect(Collectors.toMap(ExperienceGeoIndex.Hit::experienceId, ExperienceGeoIndex.Hit::distanceKm));
+        if (sort == ExperienceSort.DISTANCE) {
+            List<Positioned> ordered = hits.stream().map(h -> new Positioned(h.experienceId(), h.distanceKm())).toList();
+            return inMemoryPage(sort, ordered, facetIndex.matching(filter, candidates), after, pageSize, facets, distances);
         }
-        if (minGroupPrice != null) {
-            spec = spec.and(ExperienceSpecifications.hasMinGroupPrice(minGroupPrice));
+        if (sort == ExperienceSort.RELEVANCE) {
+            BitSet matching = facetIndex.matching(filter, candidates);
+            List<Long> ids = matching.stream().mapToObj(Long::valueOf).toList();
+            List<Positioned> ordered = ranker.rank(filter, ids).stream()
+                    .map(r -> new Positioned(r.experienceId(), r.score()))
+                    .toList();
+            return inMemoryPage(sort, ordered, matching, after, pageSize, facets, distances);
         }
-        if (maxGroupPrice != null) {
-            spec = spec.and(ExperienceSpecifications.hasMaxGroupPrice(maxGroupPrice));
+
+        Optional<Specification<Experience>> spec = buildFilterSpecification(filter, candidates);
+        if (spec.isEmpty()) {
+            return new ExperiencePageResponse(List.of(), null, facets);
         }
 
-        List<Experience> filteredExperiences = experienceRepository.findAll(spec);
+        // Fetch one extra row to find out whether another page exists
+        List<Experience> rows = experienceRepository.findBy(
+                spec.get().and(ExperienceSpecifications.orderedAfter(sort, after)),
+                q -> q.limit(pageSize + 1).all());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Experience> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? ExperienceCursor.after(sort, page.get(page.size() - 1)).encode() : null;
 
-        return filteredExperiences.stream()
-                .map(ExperienceDTO::new)
-                .collect(Collectors.toList());
+        List<ExperienceDTO> items = dtoAssembler.toDtos(page);
+        if (distances != null) {
+            items.forEach(dto -> dto.setDistanceKm(distances.get(dto.getId())));
+        }
+        return new ExperiencePageResponse(items, nextCursor, facets);
     }
 
-    public List<ExperienceDTO> getExperiencesByHostAndStatus(Long hostId, ExperienceStatus status) {
-        return experienceRepository.findByHostIdAndStatus(hostId, status);
+    // An experience and its key in an order computed in memory: its distance or its relevance score
+    private record Positioned(long experienceId, double key) {
     }
-    @Transactional(readOnly = true)
-    public List<ExperienceDTO> getFeaturedExperiences() {
-        PageRequest pageRequest = PageRequest.of(0, 3);
-        List<Long> topExperienceIds = reviewRepository.findTopRatedExperienceIds(pageRequest);
 
-        List<Experience> featuredExperiences;
+    // Distance and relevance are not columns, so those orders are walked in memory: the geo index or the
+    // ranker supplies the experiences in order, the facet index evaluates the other filters, and only the
+    // page itself is read from the database
+    private ExperiencePageResponse inMemoryPage(
+            ExperienceSort sort,
+            List<Positioned> ordered,
+            BitSet matching,
+            ExperienceCursor after,
+            int pageSize,
+            ExperienceFacets facets,
+            Map<Long, Double> distances) {
+        double afterKey = after != null ? (Double) after.typedKey() : 0;
+
+        List<Positioned> pagePositions = new ArrayList<>(pageSize + 1);
+        for (Positioned position : ordered) {
+            if (after != null) {
+                boolean before = sort.isDescending() ? position.key() > afterKey : position.key() < afterKey;
+                if (before || (position.key() == afterKey && position.experienceId() <= after.id())) {
+                    continue;
+                }
+            }
+            if (matching.get(Math.toIntExact(position.experienceId()))) {
+                pagePositions.add(position);
+                if (pagePositions.size() > pageSize) {
+                    break;
+                }
+            }
+        }
 
-        if (!topExperienceIds.isEmpty()) {
-            // If we found experiences with reviews, fetch them
-            List<Experience> unorderedExperiences = experienceRepository.findAllById(topExperienceIds);
+        boolean hasMore = pagePositions.size() > pageSize;
+        List<Positioned> page = hasMore ? pagePositions.subList(0, pageSize) : pagePositions;
+        if (page.isEmpty()) {
+            return new ExperiencePageResponse(List.of(), null, facets);
+        }
+        Positioned last = page.get(page.size() - 1);
+        String nextCursor = hasMore ? ExperienceCursor.at(sort, last.key(), last.experienceId()).encode() : null;
+
+        // The status is checked again in case the indexes have not caught up with a rejection yet
+        List<Long> ids = page.stream().map(Positioned::experienceId).toList();
+        Map<Long, Experience> loaded = experienceRepository.findAll(
+                        ExperienceSpecifications.hasStatus(ExperienceStatus.APPROVED)
+                                .and(ExperienceSpecifications.fetchRejection())
+                                .and(ExperienceSpecifications.hasIdIn(ids)))
+                .stream()
+                .collect(Collectors.toMap(Experience::getId, e -> e));
+        List<Experience> pageExperiences = new ArrayList<>(page.size());
+        for (Long id : ids) {
+            Experience experience = loaded.get(id);
+            if (experience != null) {
+                pageExperiences.add(experience);
+            }
+        }
 
-            // Create a map for quick lookups to preserve the order from the review query
-            Map<Long, Experience> experienceMap = unorderedExperiences.stream()
-                    .collect(Collectors.toMap(Experience::getId, Function.identity()));
+        List<ExperienceDTO> items = dtoAssembler.toDtos(pageExperiences);
+        if (distances != null) {
+            items.forEach(dto -> dto.setDistanceKm(distances.get(dto.getId())));
+        }
+        return new ExperiencePageResponse(items, nextCursor, facets);
+    }
 
-            // Re-order the experiences based on the sorted IDs from the review query
-            featuredExperiences = topExperienceIds.stream()
-                    .map(experienceMap::get)
-                    .collect(Collectors.toList());
+    // Keyword and availability are resolved by in-memory indexes; null when the filter uses neither.
+    // A keyword of only stop words or punctuation is treated as no keyword.
+    private Set<Long> matchIndexes(ExperienceFilter filter) {
+        Set<Long> matches = filter.hasKeyword() ? searchIndex.search(filter.keyword()) : null;
+        Set<Long> candidates = matches != null ? new HashSet<>(matches) : null;
+        if (filter.hasAvailabilityWindow()) {
+            Set<Long> available = matchAvailability(filter);
+            if (candidates == null) {
+                candidates = available;
+            } else {
+                candidates.retainAll(available);
+            }
+        }
+        return candidates;
+    }
 
-        } else {
-            // FALLBACK: If there are no reviews in the system yet, fall back
-            // to the original logic of using the persisted `rating` field
-            // To ensure the homepage is not empty on launch
-            featuredExperiences = experienceRepository.findByOrderByRatingDesc(pageRequest);
+    // dateFrom alone means that one day, dateTo alone means from today; guests defaults to 1
+    private Set<Long> matchAvailability(ExperienceFilter filter) {
+        int guests = filter.guests() != null ? filter.guests() : 1;
+        if (guests < 1) {
+            throw new InvalidSearchParameterException("guests must be at least 1.");
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate from = filter.dateFrom() != null ? filter.dateFrom() : today;
+        LocalDate to = filter.dateTo() != null ? filter.dateTo()
+                : filter.dateFrom() != null ? filter.dateFrom() : today.plusYears(1);
+        if (to.isBefore(from)) {
+            throw new InvalidSearchParameterException("dateTo must not be before dateFrom.");
         }
+        return availabilityIndex.availableBetween(from.isBefore(today) ? today : from, to, guests);
+    }
 
-        return featuredExperiences.stream()
-                .map(ExperienceDTO::new)
-                .collect(Collectors.toList());
+    // Builds the public listing filter; empty when no candidate matched, so callers can skip the query
+    private Optional<Specification<Experience>> buildFilterSpecification(ExperienceFilter filter, Set<Long> candidates) {
+        // This is the modern replacement for the deprecated `where(null)`
+        Specification<Experience> spec =
+                (root, query, cb) -> cb.equal(root.get("status"), ExperienceStatus.APPROVED);
+        spec = spec.and(ExperienceSpecifications.fetchRejection());
+
+        // Conditionally add filters to the specification chain
+        if (candidates != null) {
+            // Keyword, radius and availability are resolved in memory, the database only sees an id IN (...) filter
+            if (candidates.isEmpty()) {
+                return Optional.empty();
+            }
+            spec = spec.and(ExperienceSpecifications.hasIdIn(candidates));
+        }
+        if (filter.categoryId() != null) {
+            spec = spec.and(ExperienceSpecifications.hasCategory(filter.categoryId()));
+        }
+        if (filter.hasLocation()) {
+            spec = spec.and(ExperienceSpecifications.hasLocation(filter.location()));
+        }
+        if (filter.hasSessionType()) {
+            spec = spec.and(ExperienceSpecifications.hasSessionType(filter.sessionType()));
+        }
+        if (filter.minDuration() != null) {
+            spec = spec.and(ExperienceSpecifications.hasMinDuration(filter.minDuration()));
+        }
+        if (filter.maxDuration() != null) {
+            spec = spec.and(ExperienceSpecifications.hasMaxDuration(filter.maxDuration()));
+        }
+        if (filter.minGroupPrice() != null) {
+            spec = spec.and(ExperienceSpecifications.hasMinGroupPrice(filter.minGroupPrice()));
+        }
+        if (filter.maxGroupPrice() != null) {
+            spec = spec.and(ExperienceSpecifications.hasMaxGroupPrice(filter.maxGroupPrice()));
+        }
+        return Optional.of(spec);
+    }
+
+    public List<ExperienceDTO> getExperiencesByHostAndStatus(Long hostId, ExperienceStatus status) {
+        return experienceRepository.findByHostIdAndStatus(hostId, status);
+    }
+    /**
+     * Served from the prebuilt snapshot in FeaturedExperiencesCache.
+     */
+    public List<ExperienceDTO> getFeaturedExperiences() {
+        return featuredExperiencesCache.getFeatured();
     }
-}
\ No newline at end of file
+}
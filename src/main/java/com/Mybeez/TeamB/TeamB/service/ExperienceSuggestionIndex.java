@@ -0,0 +1,174 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.ExperienceRatingChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.payload.Suggestion;
+import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves /api/search/suggest from an in-memory SuggestionTrie over approved experience titles, tags,
+ * category names and cities, so a keystroke never reaches the database.
+ * Suggestions are weighted by popularity: 1 + approved reviews + confirmed bookings of the experience,
+ * summed over all experiences for tags, categories and cities.
+ * The trie is immutable. Catalogue changes schedule a rebuild on a background thread, which swaps the
+ * new trie in when it is complete; changes arriving during a rebuild are coalesced into one more rebuild.
+ */
+@Service
+@Slf4j
+public class ExperienceSuggestionIndex {
+
+    private final ExperienceRepository experienceRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicReference<SuggestionTrie> trie = new AtomicReference<>(SuggestionTrie.EMPTY);
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggestion-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ExperienceSuggestionIndex(
+            ExperienceRepository experienceRepository,
+            BookingRepository bookingRepository,
+            PlatformTransactionManager transactionManager) {
+        this.experienceRepository = experienceRepository;
+        this.bookingRepository = bookingRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @param prefix What the user has typed so far.
+     * @param limit The maximum number of suggestions, capped at SuggestionTrie.MAX_RESULTS.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return trie.get().lookup(prefix, limit).stream()
+                .map(e -> new Suggestion(e.text(), e.type(), e.experienceId()))
+                .toList();
+    }
+
+    /**
+     * Rebuilds the trie on the background thread. Does nothing if a rebuild is already queued.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                // Cleared before reading, so a change committed during the rebuild queues another one
+                rebuildScheduled.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    // Keep serving the previous trie; the next change triggers another attempt
+                    log.error("Failed to rebuild the suggestion index", e);
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExperienceChanged(ExperienceChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExperienceRatingChanged(ExperienceRatingChangedEvent event) {
+        scheduleRebuild();
+    }
+
+    /**
+     * Builds a new trie from the database and swaps it in. Runs on the calling thread.
+     */
+    public void rebuild() {
+        List<SuggestionTrie.Entry> entries = readOnlyTransaction.execute(status -> loadEntries());
+        SuggestionTrie rebuilt = SuggestionTrie.build(entries != null ? entries : List.of());
+        trie.set(rebuilt);
+        log.info("Suggestion index built: {} suggestions", rebuilt.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private List<SuggestionTrie.Entry> loadEntries() {
+        Map<Long, Long> bookings = new HashMap<>();
+        for (Object[] row : bookingRepository.countConfirmedBookingsPerExperience()) {
+            bookings.put((Long) row[0], (Long) row[1]);
+        }
+
+        List<SuggestionTrie.Entry> entries = new ArrayList<>();
+        Map<Long, Long> popularity = new HashMap<>();
+        // Keyed by normalised text so "Cardiff" and "cardiff " add up; the first spelling seen is shown
+        Map<String, Weighted> categories = new LinkedHashMap<>();
+        Map<String, Weighted> cities = new LinkedHashMap<>();
+        Map<String, Weighted> tags = new LinkedHashMap<>();
+
+        for (Object[] row : experienceRepository.findSuggestionSourcesByStatus(ExperienceStatus.APPROVED)) {
+            Long id = (Long) row[0];
+            String title = (String) row[1];
+            int ratingCount = row[2] != null ? (Integer) row[2] : 0;
+            long weight = 1 + ratingCount + bookings.getOrDefault(id, 0L);
+            popularity.put(id, weight);
+
+            if (title != null) {
+                entries.add(new SuggestionTrie.Entry(title.trim(), Suggestion.Type.TITLE, id, weight));
+            }
+            add(categories, (String) row[3], weight);
+            add(cities, (String) row[4], weight);
+        }
+        for (Object[] row : experienceRepository.findTagsByStatus(ExperienceStatus.APPROVED)) {
+            add(tags, (String) row[1], popularity.getOrDefault((Long) row[0], 1L));
+        }
+
+        addAll(entries, categories, Suggestion.Type.CATEGORY);
+        addAll(entries, cities, Suggestion.Type.CITY);
+        addAll(entries, tags, Suggestion.Type.TAG);
+        return entries;
+    }
+
+    private static final class Weighted {
+        private final String text;
+        private long weight;
+
+        Weighted(String text) {
+            this.text = text;
+        }
+    }
+
+    private static void add(Map<String, Weighted> values, String text, long weight) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String key = SuggestionTrie.normalize(text);
+        if (!key.isEmpty()) {
+            values.computeIfAbsent(key, k -> new Weighted(text.trim())).weight += weight;
+        }
+    }
+
+    private static void addAll(List<SuggestionTrie.Entry> entries, Map<String, Weighted> values, Suggestion.Type type) {
+        values.values().forEach(v -> entries.add(new SuggestionTrie.Entry(v.text, type, null, v.weight)));
+    }
+}
@@ -0,0 +1,115 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.ExperienceRatingChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the homepage's featured experiences as a prebuilt, immutable list of DTOs.
+ * Requests only read the current snapshot; the list is rebuilt when a review is moderated or an
+ * experience changes, not on every hit.
+ * Rebuilds are single-flight: a change that arrives while a rebuild is running marks the snapshot
+ * stale and the running rebuild goes round once more, instead of starting a second one in parallel.
+ */
+@Service
+@Slf4j
+public class FeaturedExperiencesCache {
+
+    static final int FEATURED_COUNT = 3;
+
+    private final ExperienceRepository experienceRepository;
+    private final ExperienceDTOAssembler dtoAssembler;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicReference<List<ExperienceDTO>> snapshot = new AtomicReference<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean stale = new AtomicBoolean();
+
+    public FeaturedExperiencesCache(
+            ExperienceRepository experienceRepository,
+            ExperienceDTOAssembler dtoAssembler,
+            PlatformTransactionManager transactionManager) {
+        this.experienceRepository = experienceRepository;
+        this.dtoAssembler = dtoAssembler;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Rebuilds also run from after-commit listeners, where the finished transaction must not be joined
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @return The current featured experiences, best rated first.
+     */
+    public List<ExperienceDTO> getFeatured() {
+        List<ExperienceDTO> current = snapshot.get();
+        if (current == null) {
+            // Only before the first build has finished
+            refresh();
+            current = snapshot.get();
+        }
+        return current != null ? current : List.of();
+    }
+
+    /**
+     * Rebuilds the snapshot, or, if another thread is already rebuilding, asks it to rebuild once more.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        stale.set(true);
+        // Re-check after releasing the flag so a request that arrived just before the release is not lost
+        while (stale.get() && rebuilding.compareAndSet(false, true)) {
+            try {
+                while (stale.getAndSet(false)) {
+                    List<ExperienceDTO> featured = readOnlyTransaction.execute(status -> loadFeatured());
+                    snapshot.set(featured != null ? List.copyOf(featured) : List.of());
+                }
+            } catch (RuntimeException e) {
+                // Keep serving the previous snapshot; the next change triggers another attempt
+                log.error("Failed to rebuild featured experiences", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExperienceChanged(ExperienceChangedEvent event) {
+        refresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExperienceRatingChanged(ExperienceRatingChangedEvent event) {
+        refresh();
+    }
+
+    private List<ExperienceDTO> loadFeatured() {
+        PageRequest pageRequest = PageRequest.of(0, FEATURED_COUNT);
+
+        // Ranked by the rating aggregates kept on each experience
+        List<Experience> featuredExperiences = experienceRepository.findTopRatedByReviews(pageRequest);
+
+        if (featuredExperiences.isEmpty()) {
+            // FALLBACK: If there are no reviews in the system yet, fall back
+            // to the original logic of using the persisted `rating` field
+            // To ensure the homepage is not empty on launch
+            featuredExperiences = experienceRepository.findByOrderByRatingDesc(pageRequest);
+        }
+
+        return dtoAssembler.toDtos(featuredExperiences);
+    }
+}
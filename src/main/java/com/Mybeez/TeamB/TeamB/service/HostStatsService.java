@@ -0,0 +1,284 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.BookingChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.MessageSentEvent;
+import com.Mybeez.TeamB.TeamB.event.MessagesReadEvent;
+import com.Mybeez.TeamB.TeamB.event.ReviewChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Booking;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.HostStats;
+import com.Mybeez.TeamB.TeamB.model.Review;
+import com.Mybeez.TeamB.TeamB.model.ReviewStatus;
+import com.Mybeez.TeamB.TeamB.payload.ReviewDTO;
+import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.repository.HostStatsRepository;
+import com.Mybeez.TeamB.TeamB.repository.MessageRepository;
+import com.Mybeez.TeamB.TeamB.repository.ReviewRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the host_stats read model behind the host dashboard.
+ * A host's row is built from the source tables the first time it is read; after that each committed
+ * booking, review and message event applies its change to the row with a single UPDATE, so the dashboard
+ * never has to count or sum bookings, reviews or messages.
+ * Every row is rebuilt at startup and just after midnight. That drops slots that are no longer upcoming,
+ * starts the new earnings month and corrects drift from events that were lost, e.g. in a restart.
+ */
+@Service
+@Slf4j
+public class HostStatsService {
+
+    static final int RECENT_REVIEWS = 3;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final TypeReference<List<ReviewDTO>> REVIEW_LIST = new TypeReference<>() {
+    };
+
+    private final HostStatsRepository hostStatsRepository;
+    private final BookingRepository bookingRepository;
+    private final ExperienceRepository experienceRepository;
+    private final ReviewRepository reviewRepository;
+    private final MessageRepository messageRepository;
+    private final TransactionTemplate transaction;
+
+    public HostStatsService(
+            HostStatsRepository hostStatsRepository,
+            BookingRepository bookingRepository,
+            ExperienceRepository experienceRepository,
+            ReviewRepository reviewRepository,
+            MessageRepository messageRepository,
+            PlatformTransactionManager transactionManager) {
+        this.hostStatsRepository = hostStatsRepository;
+        this.bookingRepository = bookingRepository;
+        this.experienceRepository = experienceRepository;
+        this.reviewRepository = reviewRepository;
+        this.messageRepository = messageRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @return The host's stats row, built first if the host has none yet.
+     */
+    public HostStats get(Long hostId) {
+        return hostStatsRepository.findById(hostId).orElseGet(() -> {
+            try {
+                return transaction.execute(status -> rebuild(hostId));
+            } catch (DataIntegrityViolationException e) {
+                // Another request built the row at the same time
+                return hostStatsRepository.findById(hostId).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    /**
+     * @return The reviews stored on the row, newest first.
+     */
+    public List<ReviewDTO> recentReviews(HostStats stats) {
+        if (stats.getRecentReviews() == null || stats.getRecentReviews().isBlank()) {
+            return List.of();
+        }
+        try {
+            return JSON.readValue(stats.getRecentReviews(), REVIEW_LIST);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable recent reviews on host_stats {}", stats.getHostId(), e);
+            return List.of();
+        }
+    }
+
+    /**
+     * @return The month-to-date earnings, or zero if the row was last updated in an earlier month.
+     */
+    public BigDecimal monthEarnings(HostStats stats) {
+        return stats.getEarningsMonth().equals(currentMonth()) ? stats.getMonthEarnings() : BigDecimal.ZERO;
+    }
+
+    /**
+     * Recomputes a host's row from the bookings, experiences, reviews and messages tables.
+     */
+    @Transactional
+    public HostStats rebuild(Long hostId) {
+        LocalDate month = currentMonth();
+        BigDecimal earnings = bookingRepository.findTotalEarningsForMonth(hostId, month.atStartOfDay());
+        Object[] ratings = experienceRepository.sumRatingAggregatesForHost(hostId).get(0);
+        List<Object[]> popularity = bookingRepository.countBookingsPerExperienceForHost(hostId);
+        Object[] mostPopular = popularity.isEmpty() ? null : popularity.get(0);
+        List<ReviewDTO> reviews = reviewRepository.findFirst3ByExperience_Host_IdOrderByCreatedAtDesc(hostId).stream()
+                .map(HostStatsService::toDto)
+                .toList();
+
+        return hostStatsRepository.save(HostStats.builder()
+                .hostId(hostId)
+                .upcomingBookings(bookingRepository.countUpcomingBookingsForHost(hostId))
+                .pendingRequests(bookingRepository.countPendingRequestsForHost(hostId))
+                .earningsMonth(month)
+                .monthEarnings(earnings != null ? earnings : BigDecimal.ZERO)
+                .ratingSum(((Number) ratings[0]).longValue())
+                .ratingCount(((Number) ratings[1]).longValue())
+                .mostPopularExperienceId(mostPopular != null ? (Long) mostPopular[0] : null)
+                .mostPopularTitle(mostPopular != null ? (String) mostPopular[1] : null)
+                .mostPopularBookings(mostPopular != null ? ((Number) mostPopular[2]).longValue() : 0)
+                .unreadMessages(messageRepository.countUnreadMessagesForUser(hostId))
+                .recentReviews(toJson(reviews))
+                .build());
+    }
+
+    /**
+     * Rebuilds every existing row, each in its own transaction.
+     * @return The number of rows rebuilt.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 5 0 * * *")
+    public int rebuildAll() {
+        int rebuilt = 0;
+        for (Long hostId : hostStatsRepository.findAllHostIds()) {
+            try {
+                transaction.executeWithoutResult(status -> rebuild(hostId));
+                rebuilt++;
+            } catch (RuntimeException e) {
+                log.error("Failed to rebuild host_stats for host {}", hostId, e);
+            }
+        }
+        log.info("Host stats rebuilt for {} hosts", rebuilt);
+        return rebuilt;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Booking booking = bookingRepository.findWithExperienceById(event.bookingId()).orElse(null);
+        if (booking == null) {
+            return;
+        }
+        Experience experience = booking.getAvailability().getExperience();
+        Long hostId = experience.getHost().getId();
+        BookingStatus previous = event.previousStatus();
+        BookingStatus current = event.status();
+
+        long pending = is(current, BookingStatus.PENDING) - is(previous, BookingStatus.PENDING);
+        long upcoming = booking.getAvailability().getDate().isBefore(LocalDate.now())
+                ? 0
+                : isActive(current) - isActive(previous);
+        if (pending != 0 || upcoming != 0) {
+            hostStatsRepository.adjustBookingCounts(hostId, pending, upcoming);
+        }
+
+        long confirmed = is(current, BookingStatus.CONFIRMED) - is(previous, BookingStatus.CONFIRMED);
+        LocalDate bookingMonth = booking.getCreatedAt().toLocalDate().withDayOfMonth(1);
+        // Earnings are by booking date, so a change to a booking from an earlier month leaves this month alone
+        if (confirmed != 0 && bookingMonth.equals(currentMonth())) {
+            hostStatsRepository.startEarningsMonth(hostId, bookingMonth);
+            hostStatsRepository.adjustMonthEarnings(hostId, bookingMonth,
+                    booking.getTotalPrice().multiply(BigDecimal.valueOf(confirmed)));
+        }
+
+        if (previous == null) {
+            long bookings = bookingRepository.countByAvailability_Experience_Id(experience.getId());
+            hostStatsRepository.offerMostPopular(hostId, experience.getId(), experience.getTitle(), bookings);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        Review review = reviewRepository.findWithExperienceById(event.reviewId()).orElse(null);
+        if (review == null) {
+            return;
+        }
+        Long hostId = review.getExperience().getHost().getId();
+
+        long counted = is(event.status(), ReviewStatus.APPROVED) - is(event.previousStatus(), ReviewStatus.APPROVED);
+        if (counted != 0) {
+            hostStatsRepository.adjustRatings(hostId, counted * review.getRating(), counted);
+        }
+
+        if (event.previousStatus() == null) {
+            hostStatsRepository.findByIdForUpdate(hostId).ifPresent(stats -> {
+                List<ReviewDTO> reviews = new ArrayList<>(recentReviews(stats));
+                reviews.add(0, toDto(review));
+                stats.setRecentReviews(toJson(reviews.subList(0, Math.min(RECENT_REVIEWS, reviews.size()))));
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMessageSent(MessageSentEvent event) {
+        hostStatsRepository.adjustUnreadMessages(event.recipientId(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMessagesRead(MessagesReadEvent event) {
+        if (event.count() > 0) {
+            hostStatsRepository.adjustUnreadMessages(event.readerId(), -event.count());
+        }
+    }
+
+    /**
+     * Keeps the most popular experience's title current when the experience is renamed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onExperienceChanged(ExperienceChangedEvent event) {
+        experienceRepository.findById(event.experienceId())
+                .ifPresent(experience -> hostStatsRepository.renameMostPopular(experience.getId(), experience.getTitle()));
+    }
+
+    private static LocalDate currentMonth() {
+        return LocalDate.now().withDayOfMonth(1);
+    }
+
+    private static long is(Enum<?> status, Enum<?> expected) {
+        return status == expected ? 1 : 0;
+    }
+
+    private static long isActive(BookingStatus status) {
+        return status != null && status != BookingStatus.CANCELLED ? 1 : 0;
+    }
+
+    private static ReviewDTO toDto(Review review) {
+        ReviewDTO dto = new ReviewDTO();
+        dto.setId(review.getId());
+        dto.setReviewerName(review.getReviewerName());
+        dto.setExperienceTitle(review.getExperience().getTitle());
+        dto.setReviewText(review.getReviewText());
+        dto.setRating(review.getRating());
+        return dto;
+    }
+
+    private static String toJson(List<ReviewDTO> reviews) {
+        try {
+            return JSON.writeValueAsString(reviews);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise recent reviews", e);
+        }
+    }
+}
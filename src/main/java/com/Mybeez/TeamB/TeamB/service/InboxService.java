@@ -0,0 +1,170 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.model.Conversation;
+import com.Mybeez.TeamB.TeamB.model.InboxEntry;
+import com.Mybeez.TeamB.TeamB.model.Message;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.ConversationDTO;
+import com.Mybeez.TeamB.TeamB.payload.InboxCursor;
+import com.Mybeez.TeamB.TeamB.payload.InboxPageResponse;
+import com.Mybeez.TeamB.TeamB.repository.InboxEntryRepository;
+import com.Mybeez.TeamB.TeamB.repository.MessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps each user's inbox (one InboxEntry per conversation they are in) in step with the messages table.
+ * Sending a message moves both participants' rows on to it and adds one to the recipient's unread count,
+ * in the transaction that saves the message, so the inbox never shows a message that was rolled back.
+ * Opening a conversation raises the reader's read watermark to the newest message they received in the
+ * page they were shown. If that is the conversation's last message the unread count is cleared, otherwise
+ * it is recounted as the messages from the other participant above the watermark.
+ * Message ids are handed out before the messages commit, so a message can commit below a watermark that
+ * has already passed it. Its unread increment still applies: the reader cannot have seen it.
+ * Listing the inbox is then one indexed query per page, with one decryption per conversation shown.
+ */
+@Service
+@Slf4j
+public class InboxService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final InboxEntryRepository inboxRepository;
+    private final MessageRepository messageRepository;
+    private final EncryptionService encryptionService;
+
+    public InboxService(
+            InboxEntryRepository inboxRepository,
+            MessageRepository messageRepository,
+            EncryptionService encryptionService) {
+        this.inboxRepository = inboxRepository;
+        this.messageRepository = messageRepository;
+        this.encryptionService = encryptionService;
+    }
+
+    /**
+     * Records a newly saved message in the sender's and the recipient's inbox.
+     */
+    @Transactional
+    public void onMessageSent(Conversation conversation, Message message, User sender, User recipient) {
+        record(conversation, message, sender, recipient, 0);
+        record(conversation, message, recipient, sender, 1);
+    }
+
+    /**
+     * Marks a conversation the user has opened as read up to the newest message they received. The watermark
+     * never moves back, so reading older history changes nothing.
+     * @param receivedMessageId The highest message id returned to the user.
+     * @return How many messages stopped being unread.
+     */
+    @Transactional
+    public int onConversationRead(Long conversationId, Long userId, Long receivedMessageId) {
+        InboxEntry entry = inboxRepository.findForUpdate(conversationId, userId).orElse(null);
+        if (entry == null || entry.getUnreadCount() == 0 && entry.getLastReadMessageId() >= receivedMessageId) {
+            return 0;
+        }
+        int unreadBefore = entry.getUnreadCount();
+        long watermark = Math.max(entry.getLastReadMessageId(), receivedMessageId);
+        // Only a reader who did not get as far as the last message has anything left to count
+        int unread = receivedMessageId >= entry.getLastMessageId() ? 0
+                : (int) messageRepository.countByConversationIdAndSenderIdNotAndIdGreaterThan(conversationId, userId, watermark);
+        entry.setLastReadMessageId(watermark);
+        entry.setUnreadCount(unread);
+        return Math.max(0, unreadBefore - unread);
+    }
+
+    /**
+     * @return The user's unread messages across all their conversations.
+     */
+    @Transactional(readOnly = true)
+    public long getUnreadCount(Long userId) {
+        return inboxRepository.sumUnreadCounts(userId);
+    }
+
+    /**
+     * The whole inbox, most recent conversation first.
+     */
+    @Transactional(readOnly = true)
+    public List<ConversationDTO> getConversations(Long userId) {
+        return toDTOs(inboxRepository.findPage(userId, Long.MAX_VALUE, Pageable.unpaged()));
+    }
+
+    /**
+     * One page of the inbox, most recent conversation first.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param size The requested page size; clamped to 1..MAX_PAGE_SIZE.
+     */
+    @Transactional(readOnly = true)
+    public InboxPageResponse getPage(Long userId, String cursor, int size) {
+        InboxCursor after = cursor == null || cursor.isBlank() ? InboxCursor.start() : InboxCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells whether there is a next page
+        List<InboxEntry> rows = inboxRepository.findPage(userId, after.lastMessageId(), PageRequest.of(0, pageSize + 1));
+
+        List<InboxEntry> page = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        List<ConversationDTO> items = toDTOs(page);
+        String nextCursor = rows.size() > pageSize
+                ? new InboxCursor(page.get(pageSize - 1).getLastMessageId()).encode()
+                : null;
+        return new InboxPageResponse(items, nextCursor);
+    }
+
+    /**
+     * Creates the inbox rows missing for existing conversations, e.g. those from before the inbox existed.
+     * @return The number of rows created.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public int backfill() {
+        int created = 0;
+        for (Object[] row : inboxRepository.findParticipantsWithoutEntry()) {
+            Long conversationId = (Long) row[0];
+            Long userId = (Long) row[1];
+            Message last = messageRepository.findFirstByConversationIdOrderByIdDesc(conversationId).orElse(null);
+            if (last == null) {
+                continue;
+            }
+            // A row a send created meanwhile already has the last message and its unread count
+            insertEntry(conversationId, userId, (Long) row[2], last, 0);
+            created++;
+        }
+        if (created > 0) {
+            log.info("Created {} missing inbox entries", created);
+        }
+        return created;
+    }
+
+    private List<ConversationDTO> toDTOs(List<InboxEntry> entries) {
+        // The snippets are decrypted as one batch
+        List<String> snippets = encryptionService.decrypt(entries.stream().map(InboxEntry::getLastMessageContent).toList());
+        List<ConversationDTO> dtos = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            dtos.add(new ConversationDTO(entries.get(i), snippets.get(i)));
+        }
+        return dtos;
+    }
+
+    private void record(Conversation conversation, Message message, User owner, User other, int unread) {
+        int updated = inboxRepository.recordMessage(conversation.getId(), owner.getId(), message.getId(),
+                message.getContent(), message.getTimestamp(), unread);
+        if (updated == 0) {
+            insertEntry(conversation.getId(), owner.getId(), other.getId(), message, unread);
+        }
+    }
+
+    private void insertEntry(Long conversationId, Long ownerId, Long otherId, Message last, int unread) {
+        // Counted from the messages table, so it includes the message just sent
+        int unreadCount = (int) messageRepository.countByConversationIdAndSenderIdNotAndIdGreaterThan(conversationId, ownerId, 0L);
+        inboxRepository.insertOrRecordMessage(conversationId, ownerId, otherId, last.getId(),
+                last.getContent(), last.getTimestamp(), unreadCount, unread);
+    }
+}
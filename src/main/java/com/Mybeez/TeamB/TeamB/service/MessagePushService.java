@@ -0,0 +1,251 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.MessageSentEvent;
+import com.Mybeez.TeamB.TeamB.event.MessagesReadEvent;
+import com.Mybeez.TeamB.TeamB.model.Message;
+import com.Mybeez.TeamB.TeamB.payload.MessageDTO;
+import com.Mybeez.TeamB.TeamB.payload.MessagePushEvent;
+import com.Mybeez.TeamB.TeamB.payload.UnreadCountEvent;
+import com.Mybeez.TeamB.TeamB.repository.InboxEntryRepository;
+import com.Mybeez.TeamB.TeamB.repository.MessageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes new messages and unread counts to connected users, so clients do not have to poll for them.
+ * Connections are kept in an in-memory registry per user, up to max-connections-per-user (the oldest is
+ * closed to make room). After a message is committed, both participants get a "message" event and the
+ * recipient an "unread-count" event; reading a conversation pushes the reader's new unread count.
+ * Nothing is read from the database for users who are not connected.
+ * Every connection has its own bounded queue, drained by a small pool of sender threads, so a slow client
+ * never holds up the thread that sent the message or the other clients. Unread counts waiting in a queue
+ * are replaced by the newer one. A client whose queue fills up anyway is disconnected and catches up over
+ * the REST endpoints when it reconnects. A heartbeat keeps idle connections open through proxies and
+ * finds the ones whose client has gone.
+ */
+@Service
+@Slf4j
+public class MessagePushService {
+
+    public static final String MESSAGE_EVENT = "message";
+    public static final String UNREAD_COUNT_EVENT = "unread-count";
+    public static final String HEARTBEAT_EVENT = "heartbeat";
+
+    private record PushEvent(String name, Object data) {
+    }
+
+    /**
+     * A registered client connection and the events waiting to be written to it.
+     */
+    public final class Connection {
+
+        private final Long userId;
+        private final PushChannel channel;
+        private final BlockingQueue<PushEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(Long userId, PushChannel channel, int queueCapacity) {
+            this.userId = userId;
+            this.channel = channel;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        public boolean isOpen() {
+            return !closed.get();
+        }
+
+        /**
+         * Closes the connection and takes it out of the registry. Safe to call more than once.
+         */
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                connections.computeIfPresent(userId, (id, list) -> {
+                    list.remove(this);
+                    return list.isEmpty() ? null : list;
+                });
+                queue.clear();
+                try {
+                    channel.close();
+                } catch (RuntimeException e) {
+                    log.debug("Closing push connection of user {} failed", userId, e);
+                }
+            }
+        }
+
+        private void offer(PushEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (UNREAD_COUNT_EVENT.equals(event.name())) {
+                // Only the latest count matters
+                queue.removeIf(waiting -> UNREAD_COUNT_EVENT.equals(waiting.name()));
+            }
+            if (!queue.offer(event)) {
+                log.info("Push queue of user {} is full; disconnecting the client", userId);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                PushEvent event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        channel.send(event.name(), event.data());
+                    } catch (Exception e) {
+                        log.debug("Push to user {} failed; closing the connection", userId, e);
+                        close();
+                        return;
+                    }
+                }
+                draining.set(false);
+                // An event offered after the last poll but before the flag was cleared is sent by this pass
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+
+    private final MessageRepository messageRepository;
+    private final InboxEntryRepository inboxRepository;
+    private final EncryptionService encryptionService;
+    private final int queueCapacity;
+    private final int maxConnectionsPerUser;
+
+    private final Map<Long, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+
+    public MessagePushService(
+            MessageRepository messageRepository,
+            InboxEntryRepository inboxRepository,
+            EncryptionService encryptionService,
+            @Value("${messages.push.senders:4}") int senderThreads,
+            @Value("${messages.push.queue-capacity:100}") int queueCapacity,
+            @Value("${messages.push.max-connections-per-user:5}") int maxConnectionsPerUser) {
+        this.messageRepository = messageRepository;
+        this.inboxRepository = inboxRepository;
+        this.encryptionService = encryptionService;
+        this.queueCapacity = queueCapacity;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "message-push-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds a client connection for the user and sends it the user's current unread count.
+     */
+    @Transactional(readOnly = true)
+    public Connection register(Long userId, PushChannel channel) {
+        Connection connection = new Connection(userId, channel, queueCapacity);
+        Connection[] evicted = new Connection[1];
+        connections.compute(userId, (id, list) -> {
+            List<Connection> userConnections = list != null ? list : new CopyOnWriteArrayList<>();
+            if (userConnections.size() >= maxConnectionsPerUser) {
+                evicted[0] = userConnections.get(0);
+            }
+            userConnections.add(connection);
+            return userConnections;
+        });
+        if (evicted[0] != null) {
+            evicted[0].close();
+        }
+        connection.offer(new PushEvent(UNREAD_COUNT_EVENT, new UnreadCountEvent(inboxRepository.sumUnreadCounts(userId))));
+        return connection;
+    }
+
+    public boolean isConnected(Long userId) {
+        return connections.containsKey(userId);
+    }
+
+    /**
+     * @return The number of open connections of the user.
+     */
+    public int connectionCount(Long userId) {
+        List<Connection> userConnections = connections.get(userId);
+        return userConnections != null ? userConnections.size() : 0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onMessageSent(MessageSentEvent event) {
+        boolean recipientConnected = isConnected(event.recipientId());
+        if (!recipientConnected && !isConnected(event.senderId())) {
+            return;
+        }
+        Message message = messageRepository.findById(event.messageId()).orElse(null);
+        if (message == null) {
+            return;
+        }
+        // Decrypted once for every connection of both participants
+        PushEvent pushed = new PushEvent(MESSAGE_EVENT,
+                new MessagePushEvent(event.conversationId(), new MessageDTO(message, encryptionService)));
+        push(event.recipientId(), pushed);
+        push(event.senderId(), pushed);
+        if (recipientConnected) {
+            pushUnreadCount(event.recipientId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onMessagesRead(MessagesReadEvent event) {
+        if (isConnected(event.readerId())) {
+            pushUnreadCount(event.readerId());
+        }
+    }
+
+    /**
+     * Sends a heartbeat to every connection. Connections whose client has gone fail the write and are closed.
+     */
+    @Scheduled(fixedRateString = "${messages.push.heartbeat-ms:25000}", initialDelayString = "${messages.push.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        PushEvent heartbeat = new PushEvent(HEARTBEAT_EVENT, LocalDateTime.now().toString());
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> connection.offer(heartbeat)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections -> userConnections.forEach(Connection::close));
+        senders.shutdownNow();
+    }
+
+    private void pushUnreadCount(Long userId) {
+        push(userId, new PushEvent(UNREAD_COUNT_EVENT, new UnreadCountEvent(inboxRepository.sumUnreadCounts(userId))));
+    }
+
+    private void push(Long userId, PushEvent event) {
+        List<Connection> userConnections = connections.get(userId);
+        if (userConnections != null) {
+            userConnections.forEach(connection -> connection.offer(event));
+        }
+    }
+}
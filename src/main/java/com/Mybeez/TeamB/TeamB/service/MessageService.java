@@ -1,16 +1,23 @@
 package com.Mybeez.TeamB.TeamB.service;
 
+import com.Mybeez.TeamB.TeamB.event.MessageSentEvent;
+import com.Mybeez.TeamB.TeamB.event.MessagesReadEvent;
+import com.Mybeez.TeamB.TeamB.exception.InvalidPaginationException;
 import com.Mybeez.TeamB.TeamB.exception.UnauthorizedException;
 import com.Mybeez.TeamB.TeamB.model.Conversation;
 import com.Mybeez.TeamB.TeamB.model.Message;
 import com.Mybeez.TeamB.TeamB.model.User;
 import com.Mybeez.TeamB.TeamB.payload.ConversationDTO;
+import com.Mybeez.TeamB.TeamB.payload.InboxPageResponse;
 import com.Mybeez.TeamB.TeamB.payload.MessageRequest;
 import com.Mybeez.TeamB.TeamB.repository.ConversationRepository;
 import com.Mybeez.TeamB.TeamB.repository.MessageRepository;
 import com.Mybeez.TeamB.TeamB.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.Mybeez.TeamB.TeamB.exception.InvalidMessageContentException;
@@ -19,14 +26,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class MessageService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private MessageRepository messageRepository;
     @Autowired
@@ -37,6 +48,10 @@ public class MessageService {
     private ContentValidationService contentValidationService;
     @Autowired
     private EncryptionService encryptionService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private InboxService inboxService;
 
     @Transactional
     public Message sendMessage(MessageRequest messageRequest, Long senderId) {
@@ -66,26 +81,49 @@ public class MessageService {
                 .conversation(conversation)
                 .sender(sender)
                 .content(encryptedContent)
-                .isRead(false) // Set new messages as unread
                 .build();
 
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        inboxService.onMessageSent(conversation, saved, sender, recipient);
+        eventPublisher.publishEvent(new MessageSentEvent(saved.getId(), conversation.getId(), senderId, recipient.getId()));
+        return saved;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Lists the user's conversations from their inbox rows, without loading any messages.
+     */
     public List<ConversationDTO> getConversationsForUser(Long userId) {
-        List<Conversation> conversations = conversationRepository.findByParticipantIdOrderByUpdatedAtDesc(userId);
-        return conversations.stream()
-                .map(conversation -> {
-                    // For each conversation, check if it has unread messages
-                    boolean hasUnread = messageRepository.existsByConversationIdAndSenderIdNotAndIsReadFalse(conversation.getId(), userId);
-                    return new ConversationDTO(conversation, userId, hasUnread, encryptionService);
-                })
-                .collect(Collectors.toList());
+        return inboxService.getConversations(userId);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Paginated variant of getConversationsForUser.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     */
+    public InboxPageResponse getInboxPage(Long userId, String cursor, int size) {
+        return inboxService.getPage(userId, cursor, size);
+    }
+
+    /**
+     * The latest page of a conversation's messages.
+     */
+    @Transactional
     public ConversationDTO getConversationById(Long conversationId, Long userId) {
+        return getConversationById(conversationId, userId, null, null, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * A window of a conversation's messages, oldest first, and marks the conversation read for the user.
+     * Only the messages in the window are loaded and decrypted.
+     * @param beforeId Return the messages just before this message id; null (with afterId null) for the latest.
+     * @param afterId Return the messages just after this message id, e.g. to catch up on new ones.
+     * @param size The requested page size; clamped to 1..MAX_PAGE_SIZE.
+     */
+    @Transactional
+    public ConversationDTO getConversationById(Long conversationId, Long userId, Long beforeId, Long afterId, int size) {
+        if (beforeId != null && afterId != null) {
+            throw new InvalidPaginationException("Pass either before or after, not both.");
+        }
         Conversation conversation = conversationRepository.findById(conversationId)
                 .orElseThrow(() -> new EntityNotFoundException("Conversation not found"));
 
@@ -95,10 +133,39 @@ public class MessageService {
             throw new UnauthorizedException("User is not authorized to view this conversation.");
         }
 
-        // When a user views a conversation, mark all messages sent by others as "read"
-        messageRepository.markMessagesAsReadInConversation(conversationId, userId);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells whether the window could go further
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        if (afterId != null) {
+            List<Message> rows = messageRepository.findByConversationIdAndIdGreaterThanOrderByIdAsc(conversationId, afterId, limit);
+            boolean hasNewer = rows.size() > pageSize;
+            List<Message> window = hasNewer ? rows.subList(0, pageSize) : rows;
+            // The window starts right after afterId, so anything up to it is older
+            boolean hasOlder = messageRepository.existsByConversationIdAndIdLessThanEqual(conversationId, afterId);
+            markRead(conversationId, userId, window);
+            return new ConversationDTO(conversationId, window, hasOlder, hasNewer, encryptionService);
+        }
+        List<Message> rows = messageRepository.findByConversationIdAndIdLessThanOrderByIdDesc(
+                conversationId, beforeId != null ? beforeId : Long.MAX_VALUE, limit);
+        boolean hasOlder = rows.size() > pageSize;
+        List<Message> window = new ArrayList<>(hasOlder ? rows.subList(0, pageSize) : rows);
+        Collections.reverse(window);
+        // The window ends right before beforeId, so anything from it on is newer
+        boolean hasNewer = beforeId != null
+                && messageRepository.existsByConversationIdAndIdGreaterThanEqual(conversationId, beforeId);
+        markRead(conversationId, userId, window);
+        return new ConversationDTO(conversationId, window, hasOlder, hasNewer, encryptionService);
+    }
 
-        return new ConversationDTO(conversation, encryptionService);
+    // When a user views a conversation, everything up to the newest message they were sent becomes "read"
+    private void markRead(Long conversationId, Long userId, List<Message> window) {
+        if (window.isEmpty()) {
+            return;
+        }
+        int read = inboxService.onConversationRead(conversationId, userId, window.get(window.size() - 1).getId());
+        if (read > 0) {
+            eventPublisher.publishEvent(new MessagesReadEvent(conversationId, userId, read));
+        }
     }
 
     /**
@@ -108,26 +175,6 @@ public class MessageService {
      */
     @Transactional(readOnly = true)
     public long getUnreadMessageCount(Long userId) {
-        return messageRepository.countUnreadMessagesForUser(userId);
-    }
-
-    /**
-     * Marks all messages in a conversation as read for the given user.
-     * It iterates through messages and sets isRead to true if the message was
-     * sent by someone else.
-     * @param conversation The conversation object.
-     * @param userId The ID of the user viewing the conversation.
-     */
-    private void markMessagesAsRead(Conversation conversation, Long userId) {
-        List<Message> messagesToUpdate = conversation.getMessages().stream()
-                .filter(message -> !message.isRead() && !message.getSender().getId().equals(userId))
-                .collect(Collectors.toList());
-
-        if (!messagesToUpdate.isEmpty()) {
-            for (Message message : messagesToUpdate) {
-                message.setRead(true);
-            }
-            messageRepository.saveAll(messagesToUpdate);
-        }
+        return inboxService.getUnreadCount(userId);
     }
 }
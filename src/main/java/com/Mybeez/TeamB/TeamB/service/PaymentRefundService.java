@@ -0,0 +1,36 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.Refund;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.RefundCreateParams;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Gives a checkout payment back in full through Stripe, for payments that arrive when their seats can no
+ * longer be booked.
+ */
+@Service
+@Slf4j
+public class PaymentRefundService {
+
+    /**
+     * Refunds a payment. Refunding the same payment again returns the first refund rather than a second one.
+     * @param paymentIntentId The payment_intent of the completed checkout session.
+     * @throws IllegalStateException When Stripe could not be reached or refused the refund; safe to retry.
+     */
+    public void refund(String paymentIntentId) {
+        try {
+            Refund refund = Refund.create(
+                    RefundCreateParams.builder()
+                            .setPaymentIntent(paymentIntentId)
+                            .setReason(RefundCreateParams.Reason.REQUESTED_BY_CUSTOMER)
+                            .build(),
+                    RequestOptions.builder().setIdempotencyKey("refund-" + paymentIntentId).build());
+            log.warn("Refunded payment {} (refund {})", paymentIntentId, refund.getId());
+        } catch (StripeException e) {
+            throw new IllegalStateException("Refunding payment " + paymentIntentId + " failed", e);
+        }
+    }
+}
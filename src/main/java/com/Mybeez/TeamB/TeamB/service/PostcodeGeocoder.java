@@ -0,0 +1,117 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.model.Location;
+import com.Mybeez.TeamB.TeamB.payload.GeoPoint;
+import com.Mybeez.TeamB.TeamB.repository.LocationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Turns postcodes into coordinates using the bundled postcode-centroids.csv, so no external geocoding
+ * API is called. A full postcode is looked up first, then its outward code (e.g. CF10 for "CF10 4GA").
+ */
+@Service
+@Slf4j
+public class PostcodeGeocoder {
+
+    static final String CENTROIDS_FILE = "postcode-centroids.csv";
+
+    // The inward code of a UK postcode is always one digit followed by two letters
+    private static final int INWARD_CODE_LENGTH = 3;
+
+    private final LocationRepository locationRepository;
+
+    private Map<String, GeoPoint> centroids = Map.of();
+
+    public PostcodeGeocoder(LocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    @PostConstruct
+    public void loadCentroids() {
+        Map<String, GeoPoint> loaded = new HashMap<>();
+        ClassPathResource resource = new ClassPathResource(CENTROIDS_FILE);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",");
+                if (columns.length != 3) {
+                    log.warn("Skipping malformed postcode centroid row: {}", line);
+                    continue;
+                }
+                loaded.put(normalize(columns[0]),
+                        new GeoPoint(Double.parseDouble(columns[1].trim()), Double.parseDouble(columns[2].trim())));
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.error("Could not load {}; locations will not be geocoded", CENTROIDS_FILE, e);
+        }
+        this.centroids = Map.copyOf(loaded);
+        log.info("Loaded {} postcode centroids", centroids.size());
+    }
+
+    /**
+     * @return The centroid of the postcode, or of its district when the full postcode is not in the table.
+     */
+    public Optional<GeoPoint> locate(String postcode) {
+        if (postcode == null || postcode.isBlank()) {
+            return Optional.empty();
+        }
+        String key = normalize(postcode);
+        GeoPoint point = centroids.get(key);
+        if (point == null && key.length() > INWARD_CODE_LENGTH) {
+            point = centroids.get(key.substring(0, key.length() - INWARD_CODE_LENGTH));
+        }
+        return Optional.ofNullable(point);
+    }
+
+    /**
+     * Sets the coordinates of a location from its postcode, clearing them when the postcode is unknown.
+     * @return true if the location could be geocoded.
+     */
+    public boolean geocode(Location location) {
+        Optional<GeoPoint> point = locate(location.getPostcode());
+        location.setLatitude(point.map(GeoPoint::latitude).orElse(null));
+        location.setLongitude(point.map(GeoPoint::longitude).orElse(null));
+        return point.isPresent();
+    }
+
+    /**
+     * Fills in coordinates for locations saved without them (e.g. rows from data.sql).
+     * Runs before the other startup listeners so the geo index sees the coordinates.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void backfillMissingCoordinates() {
+        List<Location> missing = locationRepository.findByLatitudeIsNullAndPostcodeIsNotNull();
+        long geocoded = missing.stream().filter(this::geocode).count();
+        if (!missing.isEmpty()) {
+            log.info("Geocoded {} of {} locations without coordinates", geocoded, missing.size());
+        }
+    }
+
+    private static String normalize(String postcode) {
+        return postcode.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+    }
+}
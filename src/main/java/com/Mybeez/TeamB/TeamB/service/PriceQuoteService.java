@@ -0,0 +1,223 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.payload.CouponDTO;
+import com.Mybeez.TeamB.TeamB.payload.PriceQuote;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The one place prices are worked out. A quote prices a slot for a party, with an optional coupon,
+ * and is signed and kept for a short TTL under its id. Asking again for the same slot, party size and
+ * coupon within the TTL returns the same quote without touching the database, so repeated clicks in
+ * checkout do not look the slot and the coupon up again.
+ * Quotes of an experience are dropped when the experience (and so its prices) changes.
+ */
+@Service
+public class PriceQuoteService {
+
+    static final String CURRENCY = "gbp";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private record RequestKey(Long availabilityId, int guests, String couponCode) {
+    }
+
+    private final AvailabilityRepository availabilityRepository;
+    private final CouponService couponService;
+    private final Duration ttl;
+    private final SecretKeySpec signingKey;
+
+    // Both LRU; guarded by quotesById
+    private final Map<String, PriceQuote> quotesById;
+    private final Map<RequestKey, String> quoteIdsByRequest;
+
+    public PriceQuoteService(
+            AvailabilityRepository availabilityRepository,
+            CouponService couponService,
+            @Value("${pricing.quote.ttl-seconds:600}") long ttlSeconds,
+            @Value("${pricing.quote.max-entries:1024}") int maxEntries,
+            @Value("${pricing.quote.signing-key:}") String signingKeyBase64) {
+        this.availabilityRepository = availabilityRepository;
+        this.couponService = couponService;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.signingKey = new SecretKeySpec(signingKey(signingKeyBase64), HMAC_ALGORITHM);
+        this.quotesById = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PriceQuote> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.quoteIdsByRequest = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RequestKey, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param couponCode Optional; blank means none.
+     * @return A live quote for the request, cached or new.
+     * @throws com.Mybeez.TeamB.TeamB.exception.InvalidCouponException When the coupon is unknown, inactive or expired.
+     */
+    @Transactional(readOnly = true)
+    public PriceQuote quote(Long availabilityId, int guests, String couponCode) {
+        if (guests < 1) {
+            throw new BookingException("At least one guest is required.");
+        }
+        String code = couponCode == null || couponCode.isBlank() ? null : couponCode.trim();
+        RequestKey key = new RequestKey(availabilityId, guests, code);
+        synchronized (quotesById) {
+            String quoteId = quoteIdsByRequest.get(key);
+            PriceQuote cached = quoteId != null ? quotesById.get(quoteId) : null;
+            if (cached != null && isLive(cached)) {
+                return cached;
+            }
+        }
+
+        Availability availability = availabilityRepository.findById(availabilityId.intValue())
+                .orElseThrow(() -> new EntityNotFoundException("Availability slot not found"));
+        BigDecimal subtotal = basePrice(availability, guests);
+        BigDecimal discountPercentage = null;
+        BigDecimal total = subtotal;
+        if (code != null) {
+            CouponDTO coupon = couponService.validateCoupon(code);
+            discountPercentage = coupon.getDiscountPercentage();
+            BigDecimal discountMultiplier = BigDecimal.ONE.subtract(discountPercentage.divide(new BigDecimal("100")));
+            total = subtotal.multiply(discountMultiplier).setScale(2, RoundingMode.HALF_UP);
+        }
+
+        PriceQuote unsigned = new PriceQuote(UUID.randomUUID().toString(), availabilityId,
+                availability.getExperience().getId(), guests, code, subtotal, discountPercentage, total,
+                CURRENCY, Instant.now().plus(ttl), null);
+        PriceQuote quote = withSignature(unsigned, sign(unsigned));
+        synchronized (quotesById) {
+            quotesById.put(quote.quoteId(), quote);
+            quoteIdsByRequest.put(key, quote.quoteId());
+        }
+        return quote;
+    }
+
+    /**
+     * @return The quote if it is still cached, unexpired and correctly signed.
+     */
+    public Optional<PriceQuote> find(String quoteId) {
+        PriceQuote quote;
+        synchronized (quotesById) {
+            quote = quotesById.get(quoteId);
+        }
+        return Optional.ofNullable(quote).filter(this::verify);
+    }
+
+    /**
+     * @return true if the quote has not expired and its signature matches its fields.
+     */
+    public boolean verify(PriceQuote quote) {
+        if (quote.signature() == null || !isLive(quote)) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                sign(quote).getBytes(StandardCharsets.US_ASCII),
+                quote.signature().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * The price of a slot before any coupon: the private price for a private slot (capacity 1),
+     * the per-person group price times the guests otherwise.
+     * @throws BookingException When the experience has no price for that kind of slot.
+     */
+    public static BigDecimal basePrice(Availability availability, int guests) {
+        boolean privateSlot = availability.getCapacity() == 1;
+        BigDecimal price = listPrice(availability.getExperience(), privateSlot);
+        if (price == null) {
+            throw new BookingException("This time slot has no price set.");
+        }
+        return privateSlot ? price : price.multiply(new BigDecimal(guests));
+    }
+
+    /**
+     * The price listed for an experience's slots, which basePrice charges: for the whole slot when private,
+     * per person otherwise. Null when the experience has not set one.
+     */
+    public static BigDecimal listPrice(Experience experience, boolean privateSlot) {
+        return privateSlot ? experience.getPrivatePrice() : experience.getGroupPricePerPerson();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExperienceChanged(ExperienceChangedEvent event) {
+        synchronized (quotesById) {
+            quotesById.values().removeIf(quote -> quote.experienceId().equals(event.experienceId()));
+            quoteIdsByRequest.values().removeIf(quoteId -> !quotesById.containsKey(quoteId));
+        }
+    }
+
+    public int size() {
+        synchronized (quotesById) {
+            return quotesById.size();
+        }
+    }
+
+    private static boolean isLive(PriceQuote quote) {
+        return quote.expiresAt().isAfter(Instant.now());
+    }
+
+    private String sign(PriceQuote quote) {
+        String fields = String.join("|",
+                quote.quoteId(),
+                String.valueOf(quote.availabilityId()),
+                String.valueOf(quote.experienceId()),
+                String.valueOf(quote.guests()),
+                String.valueOf(quote.couponCode()),
+                quote.subtotal().toPlainString(),
+                quote.discountPercentage() != null ? quote.discountPercentage().toPlainString() : "",
+                quote.total().toPlainString(),
+                quote.currency(),
+                String.valueOf(quote.expiresAt().toEpochMilli()));
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(fields.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign price quotes", e);
+        }
+    }
+
+    private static PriceQuote withSignature(PriceQuote quote, String signature) {
+        return new PriceQuote(quote.quoteId(), quote.availabilityId(), quote.experienceId(), quote.guests(),
+                quote.couponCode(), quote.subtotal(), quote.discountPercentage(), quote.total(), quote.currency(),
+                quote.expiresAt(), signature);
+    }
+
+    // Without a configured key, quotes are signed with a random one and only verify in this process
+    private static byte[] signingKey(String base64) {
+        if (base64 == null || base64.isBlank()) {
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            return key;
+        }
+        return Base64.getDecoder().decode(base64);
+    }
+}
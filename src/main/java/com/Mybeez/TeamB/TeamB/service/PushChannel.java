@@ -0,0 +1,21 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import java.io.IOException;
+
+/**
+ * One client connection that MessagePushService writes events to: an SSE stream in production, or any
+ * in-process recorder in tests. MessagePushService never calls send from two threads at once.
+ */
+public interface PushChannel {
+
+    /**
+     * Writes one event to the client; may block while the client reads slowly.
+     * @throws IOException When the client has gone away.
+     */
+    void send(String eventName, Object data) throws IOException;
+
+    /**
+     * Ends the connection; the client is expected to reconnect and catch up over the REST endpoints.
+     */
+    void close();
+}
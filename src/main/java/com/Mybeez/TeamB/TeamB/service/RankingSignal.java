@@ -0,0 +1,26 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * One input to the relevance ranking of the experience listing. Every RankingSignal bean is picked up
+ * by ExperienceRanker, so a new signal only needs to be a component.
+ * Signals must answer from precomputed, in-memory data: they run on every ranked request.
+ */
+public interface RankingSignal {
+
+    /**
+     * How much this signal counts towards the final score; 0 switches it off.
+     */
+    double weight();
+
+    /**
+     * @param filter The listing filter, e.g. for the keyword.
+     * @param experienceIds The experiences that passed the filter.
+     * @return A score between 0 and 1 per experience; experiences left out score 0.
+     */
+    Map<Long, Double> score(ExperienceFilter filter, Collection<Long> experienceIds);
+}
@@ -0,0 +1,52 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bayesian average of the approved review ratings, out of 5.
+ * Every experience starts with priorCount imaginary reviews at the site-wide mean, so a single
+ * five-star review does not outrank fifty four-and-a-half-star ones.
+ */
+@Component
+public class RatingSignal implements RankingSignal {
+
+    private static final double MAX_RATING = 5.0;
+
+    private final ExperienceRankingSignals signals;
+    private final double weight;
+    private final double priorCount;
+
+    public RatingSignal(
+            ExperienceRankingSignals signals,
+            @Value("${ranking.weight.rating:0.25}") double weight,
+            @Value("${ranking.rating.prior-count:5}") double priorCount) {
+        this.signals = signals;
+        this.weight = weight;
+        this.priorCount = priorCount;
+    }
+
+    @Override
+    public double weight() {
+        return weight;
+    }
+
+    @Override
+    public Map<Long, Double> score(ExperienceFilter filter, Collection<Long> experienceIds) {
+        double mean = signals.meanRating();
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long id : experienceIds) {
+            int count = signals.ratingCount(id);
+            if (priorCount + count > 0) {
+                double smoothed = (priorCount * mean + signals.ratingSum(id)) / (priorCount + count);
+                scores.put(id, smoothed / MAX_RATING);
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,78 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries a reservation whose transaction failed for a transient reason: a deadlock, a lock wait timeout
+ * or another TransientDataAccessException from the database. Each attempt must run in its own transaction,
+ * since the database has already rolled back the failed one.
+ * Waits between attempts grow exponentially from the initial backoff up to the max backoff, with random
+ * jitter so that colliding requests do not collide again. A full slot is not transient and is never retried.
+ */
+@Component
+@Slf4j
+public class ReservationRetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public ReservationRetryPolicy(
+            @Value("${booking.reservation.max-attempts:5}") int maxAttempts,
+            @Value("${booking.reservation.initial-backoff-ms:10}") long initialBackoffMillis,
+            @Value("${booking.reservation.max-backoff-ms:200}") long maxBackoffMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * @param attempt Runs one attempt, including its transaction.
+     * @return The result of the first attempt that succeeds.
+     * @throws TransientDataAccessException The last failure, once maxAttempts attempts have failed.
+     */
+    public <T> T execute(Supplier<T> attempt) {
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (TransientDataAccessException e) {
+                if (attemptNumber >= maxAttempts) {
+                    log.warn("Reservation failed after {} attempts", attemptNumber, e);
+                    throw e;
+                }
+                log.debug("Reservation attempt {} failed, retrying: {}", attemptNumber, e.getMessage());
+                if (!sleep(backoffMillis(attemptNumber))) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The wait after the given failed attempt: between half and all of initial * 2^(attempt - 1), capped at max.
+     */
+    long backoffMillis(int attemptNumber) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attemptNumber - 1, 20));
+        if (ceiling <= 0) {
+            return 0;
+        }
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    // false when interrupted, in which case the caller gives up
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,25 +1,48 @@
 package com.Mybeez.TeamB.TeamB.service;
 
+import com.Mybeez.TeamB.TeamB.model.Experience;
 import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
-import java.util.stream.Collectors;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class SearchService {
 
     private final ExperienceRepository experienceRepository;
+    private final ExperienceSearchIndex searchIndex;
+    private final ExperienceDTOAssembler dtoAssembler;
 
-    public SearchService(ExperienceRepository experienceRepository) {
+    public SearchService(ExperienceRepository experienceRepository,
+                         ExperienceSearchIndex searchIndex,
+                         ExperienceDTOAssembler dtoAssembler) {
         this.experienceRepository = experienceRepository;
+        this.searchIndex = searchIndex;
+        this.dtoAssembler = dtoAssembler;
     }
 
-    public List<ExperienceDTO> searchExperiences(String keyword) { // ✅ Change return type
-        return experienceRepository.searchByKeyword(keyword.toLowerCase())
-                .stream()
-                .map(ExperienceDTO::new) // Convert to DTO
+    @Transactional(readOnly = true)
+    public List<ExperienceDTO> searchExperiences(String keyword) {
+        Set<Long> ids = searchIndex.search(keyword);
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Experience> byId = experienceRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Experience::getId, Function.identity()));
+
+        // Keep the index's order rather than whatever order the IN query returned
+        List<Experience> ordered = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return dtoAssembler.toDtos(ordered);
     }
 }
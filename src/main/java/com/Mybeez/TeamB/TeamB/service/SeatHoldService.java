@@ -0,0 +1,237 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.SeatHoldCreatedEvent;
+import com.Mybeez.TeamB.TeamB.event.SeatHoldEndedEvent;
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Booking;
+import com.Mybeez.TeamB.TeamB.model.SeatHold;
+import com.Mybeez.TeamB.TeamB.model.SeatHoldStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
+import com.Mybeez.TeamB.TeamB.repository.SeatHoldRepository;
+import com.Mybeez.TeamB.TeamB.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds seats on a slot for the length of a Stripe checkout, so that a user only pays for seats that are
+ * still there. A hold takes spots from the slot's held_guests counter under the same guard as a booking,
+ * and is converted into the booking when the payment webhook arrives.
+ * Every hold is put on an in-memory DelayQueue when it is created. A single worker thread takes each one
+ * off when its TTL runs out and expires it if it is still ACTIVE, so nothing polls the database.
+ * The queue is refilled from the ACTIVE holds at startup.
+ */
+@Service
+@Slf4j
+public class SeatHoldService {
+
+    // How long to wait before trying again when expiring a hold failed
+    static final Duration EXPIRY_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private record PendingExpiry(Long holdId, long dueMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueMillis, ((PendingExpiry) other).dueMillis);
+        }
+    }
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final Duration ttl;
+
+    private final DelayQueue<PendingExpiry> expiries = new DelayQueue<>();
+    private final ExecutorService expirer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "seat-hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SeatHoldService(
+            SeatHoldRepository seatHoldRepository,
+            AvailabilityRepository availabilityRepository,
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${booking.hold.ttl-seconds:2400}") long ttlSeconds) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * Sets seats aside for a checkout and schedules their release.
+     * @param totalPrice The quoted price of the checkout; null to price the booking when it is made.
+     * @throws BookingException When the slot does not have that many spots left.
+     */
+    @Transactional
+    public SeatHold hold(Long userId, Long availabilityId, int guests, BigDecimal totalPrice) {
+        if (guests < 1) {
+            throw new BookingException("At least one guest is required.");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        Availability availability = availabilityRepository.findById(availabilityId.intValue())
+                .orElseThrow(() -> new EntityNotFoundException("Availability slot not found"));
+        if (availabilityRepository.holdSpots(availabilityId, guests) == 0) {
+            throw new BookingException("Not enough spots available for this time slot.");
+        }
+
+        SeatHold hold = seatHoldRepository.save(SeatHold.builder()
+                .user(user)
+                .availability(availability)
+                .numberOfGuests(guests)
+                .totalPrice(totalPrice)
+                .status(SeatHoldStatus.ACTIVE)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build());
+        // If this transaction rolls back, the expiry finds no hold and does nothing
+        schedule(hold.getId(), hold.getExpiresAt());
+        eventPublisher.publishEvent(new SeatHoldCreatedEvent(hold.getId(), availabilityId, availability.getExperience().getId()));
+        return hold;
+    }
+
+    /**
+     * Loads a hold and locks it for the rest of the caller's transaction.
+     */
+    @Transactional
+    public SeatHold lock(Long holdId) {
+        return seatHoldRepository.findByIdForUpdate(holdId)
+                .orElseThrow(() -> new EntityNotFoundException("Seat hold not found"));
+    }
+
+    /**
+     * Marks a locked ACTIVE hold as converted into the booking and moves its guests from held to booked.
+     */
+    @Transactional
+    public void convert(SeatHold hold, Booking booking) {
+        if (hold.getStatus() != SeatHoldStatus.ACTIVE) {
+            throw new IllegalStateException("Seat hold " + hold.getId() + " is " + hold.getStatus());
+        }
+        hold.setStatus(SeatHoldStatus.CONVERTED);
+        hold.setBooking(booking);
+        availabilityRepository.convertHeldSpots(hold.getAvailability().getId(), hold.getNumberOfGuests());
+    }
+
+    /**
+     * Gives a hold's seats back straight away, e.g. when its checkout session was abandoned.
+     * @return false if the hold had already ended.
+     */
+    @Transactional
+    public boolean release(Long holdId) {
+        return end(holdId, SeatHoldStatus.RELEASED);
+    }
+
+    /**
+     * Gives a hold's seats back if its TTL has run out and it is still ACTIVE.
+     * @return true if the hold was expired by this call.
+     */
+    @Transactional
+    public boolean expire(Long holdId) {
+        SeatHold hold = seatHoldRepository.findByIdForUpdate(holdId).orElse(null);
+        if (hold == null || hold.getStatus() != SeatHoldStatus.ACTIVE) {
+            return false;
+        }
+        if (hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            // Taken off the queue early, e.g. after a clock change; wait for the real expiry
+            schedule(holdId, hold.getExpiresAt());
+            return false;
+        }
+        return end(holdId, SeatHoldStatus.EXPIRED);
+    }
+
+    /**
+     * Queues the ACTIVE holds left over from before a restart (overdue ones expire straight away)
+     * and starts the expiry worker.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Object[]> active = transaction.execute(status -> seatHoldRepository.findExpiriesByStatus(SeatHoldStatus.ACTIVE));
+        if (active != null) {
+            active.forEach(row -> schedule((Long) row[0], (LocalDateTime) row[1]));
+            log.info("Seat hold expiry started with {} active holds", active.size());
+        }
+        expirer.execute(this::runExpiries);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expirer.shutdownNow();
+    }
+
+    /**
+     * @return The number of holds waiting for their expiry.
+     */
+    public int pendingExpiries() {
+        return expiries.size();
+    }
+
+    private void schedule(Long holdId, LocalDateTime expiresAt) {
+        expiries.add(new PendingExpiry(holdId, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+    }
+
+    private void runExpiries() {
+        while (!Thread.currentThread().isInterrupted()) {
+            PendingExpiry next;
+            try {
+                next = expiries.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                transaction.executeWithoutResult(status -> expire(next.holdId()));
+            } catch (RuntimeException e) {
+                // Keep the seats counted as held rather than lose track of them; try again shortly
+                log.error("Failed to expire seat hold {}", next.holdId(), e);
+                expiries.add(new PendingExpiry(next.holdId(), System.currentTimeMillis() + EXPIRY_RETRY_DELAY.toMillis()));
+            }
+        }
+    }
+
+    private boolean end(Long holdId, SeatHoldStatus status) {
+        SeatHold hold = seatHoldRepository.findByIdForUpdate(holdId).orElse(null);
+        if (hold == null || hold.getStatus() != SeatHoldStatus.ACTIVE) {
+            return false;
+        }
+        hold.setStatus(status);
+        availabilityRepository.releaseHeldSpots(hold.getAvailability().getId(), hold.getNumberOfGuests());
+        Availability availability = hold.getAvailability();
+        eventPublisher.publishEvent(new SeatHoldEndedEvent(
+                holdId, availability.getId(), availability.getExperience().getId(), status));
+        log.debug("Seat hold {} {}", holdId, status);
+        return true;
+    }
+}
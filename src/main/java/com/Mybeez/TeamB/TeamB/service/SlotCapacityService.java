@@ -0,0 +1,98 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.model.Booking;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Keeps the booked_guests counter on each Availability in step with its CONFIRMED bookings, so spots
+ * left is capacity - bookedGuests and nobody has to sum the bookings table.
+ * Spots are taken with a guarded UPDATE that only succeeds while they still fit, which makes the counter
+ * the reservation point for a slot: concurrent bookings queue briefly on the slot's row lock instead of
+ * every booking locking the slot up front, and none of them can overbook it.
+ * A reconciliation job compares the counters with the bookings table (and held_guests with the active
+ * seat holds) at startup and every night, logs any drift and corrects it.
+ */
+@Service
+@Slf4j
+public class SlotCapacityService {
+
+    private final AvailabilityRepository availabilityRepository;
+
+    public SlotCapacityService(AvailabilityRepository availabilityRepository) {
+        this.availabilityRepository = availabilityRepository;
+    }
+
+    /**
+     * Applies a booking status change to its slot's counter.
+     * Runs in the caller's transaction so the booking and the counter are committed together.
+     * @param booking The booking, already carrying its new status.
+     * @param previousStatus The status the booking had before the change; null for a new booking.
+     * @throws BookingException When the booking becomes CONFIRMED but its slot no longer has room for it.
+     */
+    @Transactional
+    public void onBookingStatusChanged(Booking booking, BookingStatus previousStatus) {
+        boolean wasCounted = previousStatus == BookingStatus.CONFIRMED;
+        boolean isCounted = booking.getStatus() == BookingStatus.CONFIRMED;
+        if (wasCounted == isCounted) {
+            return;
+        }
+        Long availabilityId = booking.getAvailability().getId();
+        int guests = booking.getNumberOfGuests();
+        if (isCounted) {
+            reserve(availabilityId, guests);
+        } else {
+            availabilityRepository.adjustBookedGuests(availabilityId, -guests);
+        }
+    }
+
+    /**
+     * Takes spots on a slot, or fails without changing anything.
+     * The slot's row stays locked until the caller's transaction ends, so keep the rest of it short.
+     * @throws BookingException When the slot does not have that many spots left.
+     */
+    @Transactional
+    public void reserve(Long availabilityId, int guests) {
+        if (availabilityRepository.reserveSpots(availabilityId, guests) == 0) {
+            throw new BookingException("Not enough spots available for this time slot.");
+        }
+    }
+
+    /**
+     * Recomputes every counter that disagrees with the bookings table.
+     * The mismatches are only read to find and log them; each counter is then recounted in its own UPDATE,
+     * so bookings and holds that commit after the read are still counted.
+     * Runs before the other startup listeners so the availability index reads corrected counters.
+     * @return The number of slots that were corrected.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Scheduled(cron = "0 45 2 * * *")
+    @Transactional
+    public int reconcile() {
+        List<Object[]> mismatches = availabilityRepository.findBookedGuestsMismatches();
+        for (Object[] row : mismatches) {
+            Long availabilityId = (Long) row[0];
+            log.warn("Slot {} had booked_guests {} but {} confirmed guests; corrected", availabilityId, row[1], row[2]);
+            availabilityRepository.recountBookedGuests(availabilityId);
+        }
+        List<Object[]> heldMismatches = availabilityRepository.findHeldGuestsMismatches();
+        for (Object[] row : heldMismatches) {
+            Long availabilityId = (Long) row[0];
+            log.warn("Slot {} had held_guests {} but {} guests in active holds; corrected", availabilityId, row[1], row[2]);
+            availabilityRepository.recountHeldGuests(availabilityId);
+        }
+        return mismatches.size() + heldMismatches.size();
+    }
+}
@@ -0,0 +1,29 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * A PushChannel over a Server-Sent Events response. Each event is written as a named SSE event with a
+ * JSON data line.
+ */
+public class SsePushChannel implements PushChannel {
+
+    private final SseEmitter emitter;
+
+    public SsePushChannel(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void send(String eventName, Object data) throws IOException {
+        emitter.send(SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
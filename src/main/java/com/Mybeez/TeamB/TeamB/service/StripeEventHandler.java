@@ -0,0 +1,111 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.payload.BookingRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Acts on a stored Stripe webhook event. Called by StripeWebhookProcessor, off the request thread,
+ * with a payload whose signature was checked when it arrived.
+ */
+@Service
+@Slf4j
+public class StripeEventHandler {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final BookingService bookingService;
+    private final SeatHoldService seatHoldService;
+    private final PaymentRefundService refundService;
+
+    public StripeEventHandler(BookingService bookingService, SeatHoldService seatHoldService,
+                              PaymentRefundService refundService) {
+        this.bookingService = bookingService;
+        this.seatHoldService = seatHoldService;
+        this.refundService = refundService;
+    }
+
+    /**
+     * @param type The Stripe event type; types this handler does not know are ignored.
+     * @param payload The raw event JSON.
+     * @throws IllegalArgumentException When the payload is not an event this handler can read.
+     */
+    public void handle(String type, String payload) {
+        switch (type) {
+            case "checkout.session.completed" -> {
+                JsonNode session = session(payload);
+                try {
+                    fulfillOrder(session);
+                } catch (BookingException e) {
+                    // Paid for seats that are gone, e.g. the hold ran out and the slot filled up meanwhile
+                    refundUnfulfilled(session, e);
+                }
+            }
+            // The user abandoned the checkout; give the held seats back without waiting for the hold to expire
+            case "checkout.session.expired" -> {
+                String holdId = metadata(session(payload)).get("holdId");
+                if (holdId != null) {
+                    seatHoldService.release(Long.parseLong(holdId));
+                }
+            }
+            default -> log.debug("Ignoring Stripe event of type {}", type);
+        }
+    }
+
+    // The stored payload is read as plain JSON: only a few fields of the checkout session are needed
+    private static JsonNode session(String payload) {
+        try {
+            return JSON.readTree(payload).path("data").path("object");
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable Stripe event", e);
+        }
+    }
+
+    private static Map<String, String> metadata(JsonNode session) {
+        JsonNode metadata = session.path("metadata");
+        if (!metadata.isObject()) {
+            throw new IllegalArgumentException("Stripe event does not carry checkout session metadata");
+        }
+        Map<String, String> values = new HashMap<>();
+        metadata.properties().forEach(field -> values.put(field.getKey(), field.getValue().asText()));
+        return values;
+    }
+
+    private void refundUnfulfilled(JsonNode session, BookingException reason) {
+        String paymentIntent = session.path("payment_intent").asText(null);
+        if (paymentIntent == null) {
+            // Nothing to refund automatically; left in the dead-letter table for someone to look at
+            throw reason;
+        }
+        log.error("Checkout session {} was paid but could not be booked ({}); refunding payment {}",
+                session.path("id").asText(), reason.getMessage(), paymentIntent);
+        refundService.refund(paymentIntent);
+    }
+
+    private void fulfillOrder(JsonNode session) {
+        // Metadata we stored when creating the session
+        Map<String, String> metadata = metadata(session);
+        String holdId = metadata.get("holdId");
+
+        // Sessions created since seat holds were introduced carry the hold that set their seats aside
+        if (holdId != null) {
+            bookingService.createBookingFromHold(Long.parseLong(holdId));
+            log.info("Booking created from seat hold {} for user {}", holdId, metadata.get("userId"));
+            return;
+        }
+
+        BookingRequest bookingRequest = new BookingRequest();
+        bookingRequest.setAvailabilityId(Integer.parseInt(metadata.get("availabilityId")));
+        bookingRequest.setNumberOfGuests(Integer.parseInt(metadata.get("guestCount")));
+        // Keyed on the session, so handling the same event again does not book twice
+        bookingService.createBookingForCheckout(bookingRequest, Long.parseLong(metadata.get("userId")), session.path("id").asText());
+        log.info("Booking created for user {} for availability {}", metadata.get("userId"), metadata.get("availabilityId"));
+    }
+}
@@ -0,0 +1,215 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.model.StripeWebhookDeadLetter;
+import com.Mybeez.TeamB.TeamB.model.StripeWebhookEvent;
+import com.Mybeez.TeamB.TeamB.model.WebhookEventStatus;
+import com.Mybeez.TeamB.TeamB.repository.StripeWebhookDeadLetterRepository;
+import com.Mybeez.TeamB.TeamB.repository.StripeWebhookEventRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Takes Stripe webhook events off the request thread. An event is stored under its unique Stripe id and
+ * acknowledged straight away; a redelivery of the same id is acknowledged without being stored again.
+ * Stored events are handled by StripeEventHandler on a fixed pool of workers with a bounded queue.
+ * A failed event is retried with exponential backoff. It is moved to the dead-letter table after
+ * max-attempts tries, or at once when the failure cannot go away by itself (a full slot, a missing row,
+ * an unreadable payload).
+ * Events that did not fit in the queue, or were waiting when the app stopped, are picked up by a sweep
+ * that runs at startup and then every sweep-interval-ms.
+ */
+@Service
+@Slf4j
+public class StripeWebhookProcessor {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final StripeWebhookEventRepository eventRepository;
+    private final StripeWebhookDeadLetterRepository deadLetterRepository;
+    private final StripeEventHandler handler;
+    private final TransactionTemplate transaction;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stripe-webhook-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Events queued or being handled, so the sweep and the retry timer never submit one twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public StripeWebhookProcessor(
+            StripeWebhookEventRepository eventRepository,
+            StripeWebhookDeadLetterRepository deadLetterRepository,
+            StripeEventHandler handler,
+            PlatformTransactionManager transactionManager,
+            @Value("${stripe.webhook.workers:4}") int workerCount,
+            @Value("${stripe.webhook.queue-capacity:100}") int queueCapacity,
+            @Value("${stripe.webhook.max-attempts:6}") int maxAttempts,
+            @Value("${stripe.webhook.initial-backoff-ms:2000}") long initialBackoffMillis,
+            @Value("${stripe.webhook.max-backoff-ms:300000}") long maxBackoffMillis) {
+        this.eventRepository = eventRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.handler = handler;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "stripe-webhook-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Stores a verified event and queues it for processing.
+     * @return false if an event with this id was already received, in which case nothing is done.
+     */
+    public boolean receive(String eventId, String type, String payload) {
+        if (eventRepository.existsByEventId(eventId)) {
+            return false;
+        }
+        StripeWebhookEvent event;
+        try {
+            event = eventRepository.save(StripeWebhookEvent.builder()
+                    .eventId(eventId)
+                    .type(type)
+                    .payload(payload)
+                    .status(WebhookEventStatus.RECEIVED)
+                    .nextAttemptAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // The same event delivered twice at once; the other delivery stored it
+            return false;
+        }
+        submit(event.getId());
+        return true;
+    }
+
+    /**
+     * Queues every stored event whose attempt is due.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${stripe.webhook.sweep-interval-ms:60000}", initialDelayString = "${stripe.webhook.sweep-interval-ms:60000}")
+    public void resubmitDue() {
+        eventRepository.findIdsDueBy(WebhookEventStatus.RECEIVED, LocalDateTime.now()).forEach(this::submit);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryTimer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void submit(Long id) {
+        if (!inFlight.add(id)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    process(id);
+                } finally {
+                    inFlight.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id);
+            log.warn("Stripe webhook queue is full; event {} is left for the next sweep", id);
+        }
+    }
+
+    private void process(Long id) {
+        StripeWebhookEvent event = eventRepository.findById(id).orElse(null);
+        if (event == null || event.getStatus() != WebhookEventStatus.RECEIVED
+                || event.getNextAttemptAt().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        try {
+            // Not in a transaction of ours: the booking services run and retry their own
+            handler.handle(event.getType(), event.getPayload());
+        } catch (RuntimeException e) {
+            failed(event, e);
+            return;
+        }
+        event.setAttempts(event.getAttempts() + 1);
+        event.setStatus(WebhookEventStatus.PROCESSED);
+        event.setProcessedAt(LocalDateTime.now());
+        eventRepository.save(event);
+    }
+
+    private void failed(StripeWebhookEvent event, RuntimeException error) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(error.toString()));
+
+        if (attempts >= maxAttempts || !isRetryable(error)) {
+            log.error("Stripe event {} ({}) failed {} times; moved to the dead-letter table",
+                    event.getEventId(), event.getType(), attempts, error);
+            transaction.executeWithoutResult(status -> {
+                event.setStatus(WebhookEventStatus.DEAD);
+                eventRepository.save(event);
+                deadLetterRepository.save(StripeWebhookDeadLetter.builder()
+                        .eventId(event.getEventId())
+                        .type(event.getType())
+                        .payload(event.getPayload())
+                        .attempts(attempts)
+                        .lastError(event.getLastError())
+                        .build());
+            });
+            return;
+        }
+
+        long delay = backoffMillis(attempts);
+        event.setNextAttemptAt(LocalDateTime.now().plus(delay, ChronoUnit.MILLIS));
+        eventRepository.save(event);
+        log.warn("Stripe event {} failed (attempt {}), retrying in {} ms: {}", event.getEventId(), attempts, delay, error.toString());
+        Long id = event.getId();
+        retryTimer.schedule(() -> submit(id), delay, TimeUnit.MILLISECONDS);
+    }
+
+    // initial * 2^(attempts - 1), capped at max
+    private long backoffMillis(int attempts) {
+        return Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempts - 1, 20));
+    }
+
+    // Failures that the same input would hit again
+    private static boolean isRetryable(RuntimeException error) {
+        return !(error instanceof BookingException
+                || error instanceof EntityNotFoundException
+                || error instanceof IllegalArgumentException);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
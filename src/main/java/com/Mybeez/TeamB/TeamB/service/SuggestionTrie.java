@@ -0,0 +1,184 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.payload.Suggestion;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie for typeahead suggestions.
+ * Every node stores the best MAX_RESULTS suggestions below it, so a lookup costs one step per typed
+ * character and never walks the subtree. Suggestions are numbered by rank (heaviest first) before
+ * insertion, which makes each node's list simply the first distinct numbers that pass through it.
+ * Each suggestion is reachable from the start of every (non stop) word, so "yo" finds "Sunset Yoga".
+ */
+public final class SuggestionTrie {
+
+    public static final int MAX_RESULTS = 10;
+
+    // Deeper prefixes are matched on their first MAX_DEPTH characters and then checked against the text
+    static final int MAX_DEPTH = 24;
+
+    /**
+     * A suggestion with its popularity weight.
+     */
+    public record Entry(String text, Suggestion.Type type, Long experienceId, long weight) {
+    }
+
+    private static final class Node {
+        private char[] labels;
+        private Node[] children;
+        private int[] top;
+    }
+
+    // Only used while building
+    private static final class MutableNode {
+        private final Map<Character, MutableNode> children = new TreeMap<>();
+        private final int[] top = new int[MAX_RESULTS];
+        private int size;
+
+        void offer(int rank) {
+            // Ranks arrive in ascending order, so the first MAX_RESULTS distinct ones are the best
+            if (size < MAX_RESULTS && (size == 0 || top[size - 1] != rank)) {
+                top[size++] = rank;
+            }
+        }
+
+        Node freeze() {
+            Node node = new Node();
+            node.top = Arrays.copyOf(top, size);
+            node.labels = new char[children.size()];
+            node.children = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, MutableNode> child : children.entrySet()) {
+                node.labels[i] = child.getKey();
+                node.children[i] = child.getValue().freeze();
+                i++;
+            }
+            return node;
+        }
+    }
+
+    public static final SuggestionTrie EMPTY = build(List.of());
+
+    private final Entry[] entries;
+    private final String[] keys;
+    private final Node root;
+
+    private SuggestionTrie(Entry[] entries, String[] keys, Node root) {
+        this.entries = entries;
+        this.keys = keys;
+        this.root = root;
+    }
+
+    /**
+     * @param entries The suggestions; entries whose text normalises to nothing are skipped.
+     */
+    public static SuggestionTrie build(Collection<Entry> entries) {
+        Entry[] ranked = entries.stream()
+                .filter(e -> !normalize(e.text()).isEmpty())
+                .sorted(Comparator.comparingLong(Entry::weight).reversed()
+                        .thenComparing(Entry::text, String.CASE_INSENSITIVE_ORDER)
+                        .thenComparing(Entry::type))
+                .toArray(Entry[]::new);
+        String[] keys = new String[ranked.length];
+
+        MutableNode root = new MutableNode();
+        for (int rank = 0; rank < ranked.length; rank++) {
+            String key = normalize(ranked[rank].text());
+            keys[rank] = key;
+            for (int start = 0; start < key.length(); start = nextWordStart(key, start)) {
+                if (start > 0 && TextAnalyzer.isStopWord(wordAt(key, start))) {
+                    continue;
+                }
+                MutableNode node = root;
+                node.offer(rank);
+                int end = Math.min(key.length(), start + MAX_DEPTH);
+                for (int i = start; i < end; i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new MutableNode());
+                    node.offer(rank);
+                }
+            }
+        }
+        return new SuggestionTrie(ranked, keys, root.freeze());
+    }
+
+    /**
+     * @param prefix What the user has typed so far.
+     * @param limit The maximum number of suggestions, at most MAX_RESULTS.
+     * @return The heaviest suggestions with a word starting with the prefix, heaviest first.
+     */
+    public List<Entry> lookup(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Node node = root;
+        int depth = Math.min(key.length(), MAX_DEPTH);
+        for (int i = 0; i < depth && node != null; i++) {
+            int child = Arrays.binarySearch(node.labels, key.charAt(i));
+            node = child >= 0 ? node.children[child] : null;
+        }
+        if (node == null) {
+            return List.of();
+        }
+        List<Entry> results = new ArrayList<>(Math.min(limit, node.top.length));
+        for (int rank : node.top) {
+            if (key.length() > MAX_DEPTH && !hasWordStartingWith(keys[rank], key)) {
+                continue;
+            }
+            results.add(entries[rank]);
+            if (results.size() == Math.min(limit, MAX_RESULTS)) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Lower-cases, strips accents and collapses everything that is not a letter or digit into single spaces,
+     * so "Café  Crawl!" and "cafe crawl" share a key.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String plain = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(plain.length());
+        for (int i = 0; i < plain.length(); i++) {
+            char c = plain.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && key.length() > 0 && key.charAt(key.length() - 1) != ' ') {
+                key.append(' ');
+            }
+        }
+        int end = key.length();
+        return end > 0 && key.charAt(end - 1) == ' ' ? key.substring(0, end - 1) : key.toString();
+    }
+
+    private static int nextWordStart(String key, int from) {
+        int space = key.indexOf(' ', from);
+        return space < 0 ? key.length() : space + 1;
+    }
+
+    private static String wordAt(String key, int start) {
+        int space = key.indexOf(' ', start);
+        return space < 0 ? key.substring(start) : key.substring(start, space);
+    }
+
+    private static boolean hasWordStartingWith(String key, String prefix) {
+        return key.startsWith(prefix) || key.contains(" " + prefix);
+    }
+}
@@ -0,0 +1,98 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into normalised search terms.
+ * Text is lower-cased, split on anything that is not a letter or digit, stop words are dropped
+ * and a light suffix stemmer is applied so that "hike", "hikes" and "hiking" share one term.
+ * The same analysis is used for indexing and for queries, so the stems only need to be consistent,
+ * not dictionary words.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into",
+            "is", "it", "of", "on", "or", "our", "the", "to", "we", "with", "you", "your");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * @param word A lower-case word.
+     */
+    public static boolean isStopWord(String word) {
+        return STOP_WORDS.contains(word);
+    }
+
+    /**
+     * Splits text into stemmed terms, keeping duplicates and their original order.
+     * @param text Any free text, may be null.
+     * @return The list of terms (empty if the text has no indexable words).
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 3 || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String w = word;
+
+        // Plurals
+        if (w.endsWith("ies") && w.length() > 4) {
+            w = w.substring(0, w.length() - 3) + "y";
+        } else if (w.endsWith("sses") || w.endsWith("shes") || w.endsWith("ches")
+                || w.endsWith("xes") || w.endsWith("zes")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us") && !w.endsWith("is")) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        // Verb endings
+        if (w.endsWith("ing") && w.length() >= 6) {
+            w = undouble(w.substring(0, w.length() - 3));
+        } else if (w.endsWith("ed") && w.length() >= 5) {
+            w = undouble(w.substring(0, w.length() - 2));
+        }
+
+        // A trailing 'e' is dropped so "bake" and "baking" meet at "bak"
+        if (w.endsWith("e") && w.length() > 3) {
+            w = w.substring(0, w.length() - 1);
+        }
+        return w;
+    }
+
+    private static String undouble(String w) {
+        int n = w.length();
+        if (n >= 2 && w.charAt(n - 1) == w.charAt(n - 2)) {
+            char c = w.charAt(n - 1);
+            if (c != 'l' && c != 's' && c != 'z') {
+                return w.substring(0, n - 1);
+            }
+        }
+        return w;
+    }
+}
@@ -0,0 +1,42 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * BM25 score of the keyword against the experience text, scaled so the best match scores 1.
+ * Scores nothing when the listing has no keyword.
+ */
+@Component
+public class TextRelevanceSignal implements RankingSignal {
+
+    private final ExperienceSearchIndex searchIndex;
+    private final double weight;
+
+    public TextRelevanceSignal(ExperienceSearchIndex searchIndex, @Value("${ranking.weight.text:0.6}") double weight) {
+        this.searchIndex = searchIndex;
+        this.weight = weight;
+    }
+
+    @Override
+    public double weight() {
+        return weight;
+    }
+
+    @Override
+    public Map<Long, Double> score(ExperienceFilter filter, Collection<Long> experienceIds) {
+        if (!filter.hasKeyword()) {
+            return Map.of();
+        }
+        Map<Long, Double> scores = searchIndex.bm25(filter.keyword(), experienceIds);
+        double best = scores.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        if (best > 0) {
+            scores.replaceAll((id, score) -> score / best);
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,87 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.WaitlistPromotedEvent;
+import com.Mybeez.TeamB.TeamB.model.SeatHold;
+import com.Mybeez.TeamB.TeamB.model.SeatHoldStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.model.WaitlistEntry;
+import com.Mybeez.TeamB.TeamB.repository.WaitlistEntryRepository;
+import com.stripe.exception.StripeException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Tells a user their waitlist entry was promoted. Once the promotion has committed, a Stripe checkout is
+ * opened for the seats held for them, stored on the entry so the app can show it too, and emailed to them.
+ * Nothing is retried: if the checkout cannot be opened, the hold simply expires and the next entry is promoted.
+ */
+@Service
+@Slf4j
+public class WaitlistNotifier {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("EEEE d MMMM yyyy");
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final CheckoutSessionService checkoutSessionService;
+    private final JavaMailSender mailSender;
+
+    public WaitlistNotifier(
+            WaitlistEntryRepository waitlistRepository,
+            CheckoutSessionService checkoutSessionService,
+            JavaMailSender mailSender) {
+        this.waitlistRepository = waitlistRepository;
+        this.checkoutSessionService = checkoutSessionService;
+        this.mailSender = mailSender;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onWaitlistPromoted(WaitlistPromotedEvent event) {
+        WaitlistEntry entry = waitlistRepository.findById(event.entryId()).orElse(null);
+        if (entry == null || entry.getSeatHold() == null || entry.getSeatHold().getStatus() != SeatHoldStatus.ACTIVE) {
+            return;
+        }
+        SeatHold hold = entry.getSeatHold();
+        String experience = hold.getAvailability().getExperience().getTitle();
+        try {
+            entry.setCheckoutUrl(checkoutSessionService.create(hold, experience, null).getUrl());
+        } catch (StripeException e) {
+            log.error("Could not open a checkout for waitlist entry {} (seat hold {})", entry.getId(), hold.getId(), e);
+            return;
+        }
+
+        try {
+            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "utf-8");
+            helper.setText(buildHtmlEmail(entry.getUser(), experience, hold, entry.getCheckoutUrl()), true);
+            helper.setTo(entry.getUser().getEmail());
+            helper.setSubject("A spot opened up on " + experience);
+            mailSender.send(mimeMessage);
+        } catch (Exception e) {
+            // The checkout link is still on the entry for the app to show
+            log.warn("Failed to email the checkout link for waitlist entry {}: {}", entry.getId(), e.getMessage());
+        }
+    }
+
+    private static String buildHtmlEmail(User user, String experience, SeatHold hold, String checkoutUrl) {
+        String name = user.getFirstName() != null ? user.getFirstName() : "there";
+        return "<p>Hi " + HtmlUtils.htmlEscape(name) + ",</p>"
+                + "<p>Good news: a spot opened up on <strong>" + HtmlUtils.htmlEscape(experience) + "</strong> on "
+                + hold.getAvailability().getDate().format(DATE) + ", and we are holding "
+                + hold.getNumberOfGuests() + (hold.getNumberOfGuests() == 1 ? " place" : " places") + " for you.</p>"
+                + "<p><a href=\"" + HtmlUtils.htmlEscape(checkoutUrl) + "\">Pay now to confirm your booking</a></p>"
+                + "<p>The checkout is open until "
+                + hold.getExpiresAt().minus(CheckoutSessionService.PAYMENT_GRACE).toLocalTime().withSecond(0).withNano(0)
+                + "; after that the places go to the next person on the waitlist.</p>"
+                + "<p>The Mybeez team</p>";
+    }
+}
@@ -0,0 +1,277 @@
+package com.Mybeez.TeamB.TeamB.service;
+
+import com.Mybeez.TeamB.TeamB.event.BookingChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.SeatHoldEndedEvent;
+import com.Mybeez.TeamB.TeamB.event.WaitlistPromotedEvent;
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.exception.SlotNotFullException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.SeatHold;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.model.WaitlistEntry;
+import com.Mybeez.TeamB.TeamB.model.WaitlistStatus;
+import com.Mybeez.TeamB.TeamB.payload.BookingRequest;
+import com.Mybeez.TeamB.TeamB.payload.WaitlistEntryDTO;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
+import com.Mybeez.TeamB.TeamB.repository.UserRepository;
+import com.Mybeez.TeamB.TeamB.repository.WaitlistEntryRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-slot FIFO waitlist. When spots come free on a slot (a CONFIRMED booking is cancelled or rejected,
+ * or a seat hold expires or is released) the oldest WAITING entries are promoted one by one for as long as
+ * the slot has room for them. The queue is strict: an entry that does not fit yet is not overtaken by
+ * smaller ones behind it.
+ * Promoting an entry holds its seats through SeatHoldService at the slot's list price, and WaitlistNotifier
+ * sends the user a checkout link for the hold. Paying turns the hold into the booking like any other
+ * checkout; a hold left unpaid expires and the seats go to the next entry.
+ * Promotion runs off the request thread on a small pool. Requests for the same slot are coalesced without
+ * a lock: while a slot is being promoted, further requests only mark it to be looked at once more, so a
+ * burst of cancellations on one slot costs one pass per burst, and different slots never wait on each other.
+ */
+@Service
+@Slf4j
+public class WaitlistService {
+
+    private final WaitlistEntryRepository waitlistRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final UserRepository userRepository;
+    private final SeatHoldService seatHoldService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReservationRetryPolicy retryPolicy;
+    private final TransactionTemplate transaction;
+    private final ExecutorService promoters;
+
+    // Slots with a promotion pass queued or running, mapped to whether another pass was requested meanwhile
+    private final ConcurrentHashMap<Long, Boolean> promoting = new ConcurrentHashMap<>();
+
+    public WaitlistService(
+            WaitlistEntryRepository waitlistRepository,
+            AvailabilityRepository availabilityRepository,
+            UserRepository userRepository,
+            SeatHoldService seatHoldService,
+            ApplicationEventPublisher eventPublisher,
+            ReservationRetryPolicy retryPolicy,
+            PlatformTransactionManager transactionManager,
+            @Value("${booking.waitlist.promoters:4}") int promoterThreads) {
+        this.waitlistRepository = waitlistRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.userRepository = userRepository;
+        this.seatHoldService = seatHoldService;
+        this.eventPublisher = eventPublisher;
+        this.retryPolicy = retryPolicy;
+        this.transaction = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.promoters = Executors.newFixedThreadPool(promoterThreads, runnable -> {
+            Thread thread = new Thread(runnable, "waitlist-promoter-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the user for a full slot.
+     * @throws SlotNotFullException When the slot still has room for the party, so it can be booked instead.
+     * @throws BookingException When the user is already waiting for the slot, the slot has passed, or the
+     * party is larger than the slot could ever take.
+     */
+    public WaitlistEntryDTO join(BookingRequest request, Long userId) {
+        return transaction.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new EntityNotFoundException("User not found"));
+            Availability availability = availabilityRepository.findById(request.getAvailabilityId())
+                    .orElseThrow(() -> new EntityNotFoundException("Availability slot not found"));
+            int guests = request.getNumberOfGuests();
+            if (availability.getDate().isBefore(LocalDate.now())) {
+                throw new BookingException("This time slot has already taken place.");
+            }
+            if (guests > availability.getCapacity()) {
+                throw new BookingException("This time slot can take at most " + availability.getCapacity() + " guests.");
+            }
+            if (availability.getCapacity() - availability.getBookedGuests() - availability.getHeldGuests() >= guests) {
+                throw new SlotNotFullException("This time slot still has room for your party, so it can be booked now.");
+            }
+            if (waitlistRepository.existsByUser_IdAndAvailability_IdAndStatus(
+                    userId, availability.getId(), WaitlistStatus.WAITING)) {
+                throw new BookingException("You are already on the waitlist for this time slot.");
+            }
+            return toDTO(waitlistRepository.save(WaitlistEntry.builder()
+                    .user(user)
+                    .availability(availability)
+                    .numberOfGuests(guests)
+                    .status(WaitlistStatus.WAITING)
+                    .build()));
+        });
+    }
+
+    /**
+     * Takes the user off a slot's waitlist. Entries that were queued behind it may fit now, so the slot
+     * is looked at again.
+     */
+    public void leave(Long entryId, Long userId) {
+        Long availabilityId = transaction.execute(status -> {
+            WaitlistEntry entry = findOwnEntry(entryId, userId);
+            if (entry.getStatus() != WaitlistStatus.WAITING) {
+                throw new BookingException("This waitlist entry is already " + entry.getStatus() + ".");
+            }
+            entry.setStatus(WaitlistStatus.CANCELLED);
+            return entry.getAvailability().getId();
+        });
+        requestPromotion(availabilityId);
+    }
+
+    @Transactional(readOnly = true)
+    public WaitlistEntryDTO getEntry(Long entryId, Long userId) {
+        return toDTO(findOwnEntry(entryId, userId));
+    }
+
+    /**
+     * Spots come free when a CONFIRMED booking leaves that status.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.previousStatus() == BookingStatus.CONFIRMED && event.status() != BookingStatus.CONFIRMED) {
+            requestPromotion(event.availabilityId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatHoldEnded(SeatHoldEndedEvent event) {
+        requestPromotion(event.availabilityId());
+    }
+
+    /**
+     * Looks at every slot that still has people waiting, in case spots came free while the app was down.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Long> slots = transaction.execute(status ->
+                waitlistRepository.findAvailabilityIdsByStatus(WaitlistStatus.WAITING));
+        if (slots != null) {
+            slots.forEach(this::requestPromotion);
+            log.info("Waitlist promotion started for {} slots", slots.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        promoters.shutdownNow();
+    }
+
+    /**
+     * Asks for a promotion pass on a slot. Returns at once; if a pass for the slot is already queued or
+     * running, it is told to go round once more instead of a second pass being started.
+     */
+    public void requestPromotion(Long availabilityId) {
+        // Only the caller that puts the slot into the map starts a pass
+        if (!promoting.merge(availabilityId, Boolean.FALSE, (queued, ignored) -> Boolean.TRUE)) {
+            promoters.execute(() -> promote(availabilityId));
+        }
+    }
+
+    /**
+     * @return true while a promotion pass for the slot is queued or running.
+     */
+    public boolean isPromoting(Long availabilityId) {
+        return promoting.containsKey(availabilityId);
+    }
+
+    private void promote(Long availabilityId) {
+        do {
+            try {
+                while (Boolean.TRUE.equals(retryPolicy.execute(
+                        () -> transaction.execute(status -> promoteHead(availabilityId))))) {
+                    // Keep going while entries fit
+                }
+            } catch (BookingException e) {
+                // The head does not fit yet; its attempt was rolled back and the next freed spot starts a new pass
+                log.debug("Waitlist of slot {} waits for more room: {}", availabilityId, e.getMessage());
+            } catch (RuntimeException e) {
+                // The next freed spot on this slot starts a new pass
+                log.error("Failed to promote the waitlist of slot {}", availabilityId, e);
+            }
+            // A request that came in during the pass leaves TRUE behind: clear it and go round again.
+            // Otherwise the slot leaves the map and the next request starts a new pass.
+        } while (promoting.computeIfPresent(availabilityId, (id, again) -> again ? Boolean.FALSE : null) != null);
+    }
+
+    /**
+     * Holds seats for the oldest WAITING entry of a slot.
+     * @return true if the entry was dealt with and the next one should be tried; false if nobody is waiting.
+     * @throws BookingException When the slot has no room for the entry yet.
+     */
+    private boolean promoteHead(Long availabilityId) {
+        List<WaitlistEntry> head = waitlistRepository.findHeadForUpdate(
+                availabilityId, WaitlistStatus.WAITING, PageRequest.of(0, 1));
+        if (head.isEmpty()) {
+            return false;
+        }
+        WaitlistEntry entry = head.get(0);
+        Availability availability = entry.getAvailability();
+        int guests = entry.getNumberOfGuests();
+
+        BigDecimal price;
+        try {
+            price = PriceQuoteService.basePrice(availability, guests);
+        } catch (BookingException e) {
+            // Cannot be booked at all any more; do not let it hold up the queue
+            entry.setStatus(WaitlistStatus.CANCELLED);
+            log.warn("Dropped waitlist entry {}: {}", entry.getId(), e.getMessage());
+            return true;
+        }
+        SeatHold hold = seatHoldService.hold(entry.getUser().getId(), availabilityId, guests, price);
+        entry.setStatus(WaitlistStatus.PROMOTED);
+        entry.setSeatHold(hold);
+        entry.setPromotedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(new WaitlistPromotedEvent(entry.getId(), hold.getId()));
+        log.debug("Waitlist entry {} promoted with seat hold {}", entry.getId(), hold.getId());
+        return true;
+    }
+
+    private WaitlistEntry findOwnEntry(Long entryId, Long userId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new EntityNotFoundException("Waitlist entry not found"));
+        if (!entry.getUser().getId().equals(userId)) {
+            throw new AccessDeniedException("This is not your waitlist entry.");
+        }
+        return entry;
+    }
+
+    private WaitlistEntryDTO toDTO(WaitlistEntry entry) {
+        Long availabilityId = entry.getAvailability().getId();
+        long position = entry.getStatus() == WaitlistStatus.WAITING
+                ? waitlistRepository.countWaitingAhead(availabilityId, entry.getId()) + 1
+                : 0;
+        return new WaitlistEntryDTO(
+                entry.getId(),
+                availabilityId,
+                entry.getNumberOfGuests(),
+                entry.getStatus(),
+                position,
+                entry.getSeatHold() != null ? entry.getSeatHold().getId() : null,
+                entry.getCheckoutUrl());
+    }
+}
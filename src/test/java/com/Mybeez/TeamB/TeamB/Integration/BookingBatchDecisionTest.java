@@ -0,0 +1,177 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Booking;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.BookingDecisionOutcome;
+import com.Mybeez.TeamB.TeamB.payload.BookingDecisionResult;
+import com.Mybeez.TeamB.TeamB.service.BookingManagementService;
+import com.Mybeez.TeamB.TeamB.service.ReservationRetryPolicy;
+import com.Mybeez.TeamB.TeamB.service.SlotCapacityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs bulk approve and reject on H2: the ownership query, the bulk status UPDATE and the per-slot capacity checks.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@Import({BookingManagementService.class, SlotCapacityService.class, ReservationRetryPolicy.class})
+class BookingBatchDecisionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingManagementService bookingManagementService;
+
+    private User host;
+    private User guest;
+    private Availability slot;
+    private Availability otherHostsSlot;
+
+    @BeforeEach
+    void setUp() {
+        host = persistUser("host@example.com");
+        User otherHost = persistUser("other-host@example.com");
+        guest = persistUser("guest@example.com");
+
+        ExperienceCategory category = new ExperienceCategory();
+        category.setName("Outdoors");
+        entityManager.persist(category);
+
+        slot = persistSlot(persistExperience("Gower Hike", host, category), 5);
+        otherHostsSlot = persistSlot(persistExperience("Sea Kayaking", otherHost, category), 5);
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        return entityManager.persist(user);
+    }
+
+    private Experience persistExperience(String title, User owner, ExperienceCategory category) {
+        return entityManager.persist(Experience.builder()
+                .title(title)
+                .status(ExperienceStatus.APPROVED)
+                .host(owner)
+                .category(category)
+                .build());
+    }
+
+    private Availability persistSlot(Experience experience, int capacity) {
+        return entityManager.persist(Availability.builder()
+                .experience(experience)
+                .date(LocalDate.now().plusDays(3))
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(12, 0))
+                .capacity(capacity)
+                .build());
+    }
+
+    private Booking book(Availability availability, int guests, BookingStatus status) {
+        return entityManager.persist(Booking.builder()
+                .user(guest)
+                .availability(availability)
+                .numberOfGuests(guests)
+                .totalPrice(BigDecimal.TEN)
+                .status(status)
+                .build());
+    }
+
+    private BookingStatus statusOf(Booking booking) {
+        return entityManager.find(Booking.class, booking.getId()).getStatus();
+    }
+
+    private int bookedGuests(Availability availability) {
+        return entityManager.find(Availability.class, availability.getId()).getBookedGuests();
+    }
+
+    @Test
+    void approveBookings_reportsAnOutcomePerId_inRequestOrder() {
+        Booking mine = book(slot, 2, BookingStatus.PENDING);
+        Booking notMine = book(otherHostsSlot, 2, BookingStatus.PENDING);
+        Booking alreadyConfirmed = book(slot, 1, BookingStatus.CONFIRMED);
+        entityManager.flush();
+
+        List<BookingDecisionResult> results = bookingManagementService.approveBookings(
+                List.of(notMine.getId(), 9999L, mine.getId(), alreadyConfirmed.getId(), mine.getId()), host);
+
+        assertThat(results).containsExactly(
+                new BookingDecisionResult(notMine.getId(), BookingDecisionOutcome.NOT_YOUR_BOOKING),
+                new BookingDecisionResult(9999L, BookingDecisionOutcome.NOT_FOUND),
+                new BookingDecisionResult(mine.getId(), BookingDecisionOutcome.APPROVED),
+                new BookingDecisionResult(alreadyConfirmed.getId(), BookingDecisionOutcome.NOT_PENDING));
+        entityManager.clear();
+        assertThat(statusOf(mine)).isEqualTo(BookingStatus.CONFIRMED);
+        assertThat(statusOf(notMine)).isEqualTo(BookingStatus.PENDING);
+        assertThat(bookedGuests(slot)).isEqualTo(2);
+        assertThat(bookedGuests(otherHostsSlot)).isZero();
+    }
+
+    @Test
+    void approveBookings_stopsAtTheSlotsCapacity() {
+        Booking first = book(slot, 2, BookingStatus.PENDING);
+        Booking second = book(slot, 2, BookingStatus.PENDING);
+        Booking third = book(slot, 2, BookingStatus.PENDING);
+        Booking small = book(slot, 1, BookingStatus.PENDING);
+        entityManager.flush();
+
+        List<BookingDecisionResult> results = bookingManagementService.approveBookings(
+                List.of(first.getId(), second.getId(), third.getId(), small.getId()), host);
+
+        assertThat(results).extracting(BookingDecisionResult::outcome).containsExactly(
+                BookingDecisionOutcome.APPROVED,
+                BookingDecisionOutcome.APPROVED,
+                BookingDecisionOutcome.NO_CAPACITY,
+                BookingDecisionOutcome.APPROVED);
+        entityManager.clear();
+        assertThat(statusOf(third)).isEqualTo(BookingStatus.PENDING);
+        assertThat(bookedGuests(slot)).isEqualTo(5);
+    }
+
+    @Test
+    void rejectBookings_cancelsWithoutTouchingCapacity() {
+        Booking first = book(slot, 2, BookingStatus.PENDING);
+        Booking second = book(slot, 3, BookingStatus.PENDING);
+        entityManager.flush();
+
+        List<BookingDecisionResult> results = bookingManagementService.rejectBookings(
+                List.of(first.getId(), second.getId()), host);
+
+        assertThat(results).extracting(BookingDecisionResult::outcome)
+                .containsOnly(BookingDecisionOutcome.REJECTED);
+        entityManager.clear();
+        assertThat(statusOf(first)).isEqualTo(BookingStatus.CANCELLED);
+        assertThat(statusOf(second)).isEqualTo(BookingStatus.CANCELLED);
+        assertThat(bookedGuests(slot)).isZero();
+    }
+
+    @Test
+    void tooManyIds_areRefused() {
+        List<Long> ids = LongStream.rangeClosed(1, BookingManagementService.MAX_BATCH_SIZE + 1).boxed().toList();
+
+        assertThatThrownBy(() -> bookingManagementService.approveBookings(ids, host))
+                .isInstanceOf(BookingException.class);
+    }
+}
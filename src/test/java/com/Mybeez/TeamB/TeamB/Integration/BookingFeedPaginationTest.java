@@ -0,0 +1,173 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.exception.InvalidPaginationException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Booking;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.Image;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.BookingFilter;
+import com.Mybeez.TeamB.TeamB.payload.BookingPageResponse;
+import com.Mybeez.TeamB.TeamB.payload.BookingSummary;
+import com.Mybeez.TeamB.TeamB.service.BookingService;
+import com.Mybeez.TeamB.TeamB.service.ReservationRetryPolicy;
+import com.Mybeez.TeamB.TeamB.service.SeatHoldService;
+import com.Mybeez.TeamB.TeamB.service.SlotCapacityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Walks the bookings feed page by page on H2 to check the projection, the filters and the keyset predicates.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@Import({BookingService.class, SeatHoldService.class, SlotCapacityService.class, ReservationRetryPolicy.class})
+class BookingFeedPaginationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private User guest;
+    private User otherGuest;
+    private Experience hike;
+
+    @BeforeEach
+    void setUp() {
+        User host = new User();
+        host.setEmail("host@example.com");
+        host.setPasswordHash("hash");
+        host.setFirstName("Rhian");
+        entityManager.persist(host);
+
+        guest = new User();
+        guest.setEmail("guest@example.com");
+        guest.setPasswordHash("hash");
+        entityManager.persist(guest);
+
+        otherGuest = new User();
+        otherGuest.setEmail("other@example.com");
+        otherGuest.setPasswordHash("hash");
+        entityManager.persist(otherGuest);
+
+        ExperienceCategory category = new ExperienceCategory();
+        category.setName("Outdoors");
+        entityManager.persist(category);
+
+        hike = entityManager.persist(Experience.builder()
+                .title("Gower Hike")
+                .status(ExperienceStatus.APPROVED)
+                .host(host)
+                .category(category)
+                .build());
+        for (String url : List.of("https://img/first.jpg", "https://img/second.jpg")) {
+            Image image = new Image();
+            image.setUrl(url);
+            image.setPublicId(url);
+            image.setExperience(hike);
+            entityManager.persist(image);
+        }
+    }
+
+    private Booking book(User user, int daysFromToday, int hour, BookingStatus status) {
+        Availability slot = entityManager.persist(Availability.builder()
+                .experience(hike)
+                .date(LocalDate.now().plusDays(daysFromToday))
+                .startTime(LocalTime.of(hour, 0))
+                .endTime(LocalTime.of(hour + 1, 0))
+                .capacity(10)
+                .build());
+        return entityManager.persist(Booking.builder()
+                .user(user)
+                .availability(slot)
+                .numberOfGuests(2)
+                .totalPrice(new BigDecimal("40.00"))
+                .status(status)
+                .build());
+    }
+
+    private List<Long> walk(BookingFilter filter, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookingPageResponse page = bookingService.getBookingsPage(guest.getId(), filter, cursor, size);
+            assertThat(page.items().size()).isLessThanOrEqualTo(size);
+            page.items().forEach(item -> ids.add(item.bookingId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    @Test
+    void upcoming_isSoonestFirst_acrossPages() {
+        Booking later = book(guest, 5, 9, BookingStatus.CONFIRMED);
+        Booking sameDayEarly = book(guest, 2, 9, BookingStatus.PENDING);
+        Booking sameDayLate = book(guest, 2, 14, BookingStatus.CONFIRMED);
+        Booking today = book(guest, 0, 18, BookingStatus.CONFIRMED);
+        book(guest, 3, 10, BookingStatus.CANCELLED);
+        book(guest, -1, 10, BookingStatus.CONFIRMED);
+        book(otherGuest, 1, 10, BookingStatus.CONFIRMED);
+
+        assertThat(walk(BookingFilter.UPCOMING, 2))
+                .containsExactly(today.getId(), sameDayEarly.getId(), sameDayLate.getId(), later.getId());
+    }
+
+    @Test
+    void pastAndCancelled_areMostRecentFirst() {
+        Booking yesterday = book(guest, -1, 10, BookingStatus.CONFIRMED);
+        Booking lastMonth = book(guest, -30, 10, BookingStatus.CONFIRMED);
+        Booking lastWeek = book(guest, -7, 10, BookingStatus.PENDING);
+        Booking cancelledSoon = book(guest, 4, 10, BookingStatus.CANCELLED);
+        Booking cancelledBefore = book(guest, -2, 10, BookingStatus.CANCELLED);
+        book(guest, 1, 10, BookingStatus.CONFIRMED);
+
+        assertThat(walk(BookingFilter.PAST, 1)).containsExactly(yesterday.getId(), lastWeek.getId(), lastMonth.getId());
+        assertThat(walk(BookingFilter.CANCELLED, 1)).containsExactly(cancelledSoon.getId(), cancelledBefore.getId());
+    }
+
+    @Test
+    void items_carryTheColumnsTheProfilePageShows() {
+        Booking booking = book(guest, 3, 10, BookingStatus.CONFIRMED);
+
+        BookingSummary item = bookingService.getBookingsPage(guest.getId(), BookingFilter.UPCOMING, null, 20).items().get(0);
+
+        assertThat(item.bookingId()).isEqualTo(booking.getId());
+        assertThat(item.experienceTitle()).isEqualTo("Gower Hike");
+        assertThat(item.hostFirstName()).isEqualTo("Rhian");
+        assertThat(item.imageUrl()).isEqualTo("https://img/first.jpg");
+        assertThat(item.startTime()).isEqualTo(LocalTime.of(10, 0));
+        assertThat(item.numberOfGuests()).isEqualTo(2);
+        assertThat(item.status()).isEqualTo(BookingStatus.CONFIRMED);
+    }
+
+    @Test
+    void aCursorFromAnotherFilter_isRejected() {
+        book(guest, 1, 10, BookingStatus.CONFIRMED);
+        book(guest, 2, 10, BookingStatus.CONFIRMED);
+        String cursor = bookingService.getBookingsPage(guest.getId(), BookingFilter.UPCOMING, null, 1).nextCursor();
+
+        assertThatThrownBy(() -> bookingService.getBookingsPage(guest.getId(), BookingFilter.PAST, cursor, 1))
+                .isInstanceOf(InvalidPaginationException.class);
+        assertThatThrownBy(() -> bookingService.getBookingsPage(guest.getId(), BookingFilter.UPCOMING, "not-a-cursor", 1))
+                .isInstanceOf(InvalidPaginationException.class);
+    }
+}
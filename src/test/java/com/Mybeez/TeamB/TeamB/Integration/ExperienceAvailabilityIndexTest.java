@@ -0,0 +1,153 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Booking;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.service.ExperienceAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Builds the availability index from real slots and bookings on H2.
+ * The event listeners run refresh in a new transaction, which would not see this test's rows, so refresh is called directly.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@Import(ExperienceAvailabilityIndex.class)
+class ExperienceAvailabilityIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExperienceAvailabilityIndex availabilityIndex;
+
+    private User host;
+    private ExperienceCategory category;
+    private Experience hike;
+    private Experience pottery;
+    private Availability hikeSlot;
+
+    @BeforeEach
+    void setUp() {
+        host = new User();
+        host.setEmail("host@example.com");
+        host.setPasswordHash("hash");
+        entityManager.persist(host);
+
+        category = new ExperienceCategory();
+        category.setName("Outdoors");
+        entityManager.persist(category);
+
+        hike = experience("Gower Hike", ExperienceStatus.APPROVED);
+        pottery = experience("Pottery", ExperienceStatus.APPROVED);
+        Experience pending = experience("Pending", ExperienceStatus.PENDING);
+
+        hikeSlot = slot(hike, TODAY.plusDays(3), 8);
+        slot(hike, TODAY.plusDays(3), 2);
+        slot(pottery, TODAY.plusDays(10), 4);
+        slot(pottery, TODAY.minusDays(1), 20); // in the past
+        slot(pending, TODAY.plusDays(3), 10);
+        book(hikeSlot, 5, BookingStatus.CONFIRMED);
+        book(hikeSlot, 3, BookingStatus.PENDING); // does not take spots yet
+        entityManager.flush();
+
+        availabilityIndex.rebuild();
+    }
+
+    private Experience experience(String title, ExperienceStatus status) {
+        return entityManager.persist(Experience.builder().title(title).status(status).host(host).category(category).build());
+    }
+
+    private Availability slot(Experience experience, LocalDate date, int capacity) {
+        return entityManager.persist(Availability.builder()
+                .experience(experience)
+                .date(date)
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(12, 0))
+                .capacity(capacity)
+                .build());
+    }
+
+    // Keeps the slot's booked_guests counter in step, as SlotCapacityService would
+    private void book(Availability slot, int guests, BookingStatus status) {
+        if (status == BookingStatus.CONFIRMED) {
+            slot.setBookedGuests(slot.getBookedGuests() + guests);
+        }
+        entityManager.persist(Booking.builder()
+                .user(host)
+                .availability(slot)
+                .numberOfGuests(guests)
+                .totalPrice(BigDecimal.TEN)
+                .status(status)
+                .build());
+    }
+
+    @Test
+    void availableBetween_usesTheBestSlotOfEachDay_minusConfirmedGuests() {
+        assertThat(availabilityIndex.maxFreeSpots(hike.getId(), TODAY.plusDays(3))).isEqualTo(3);
+
+        assertThat(availabilityIndex.availableBetween(TODAY, TODAY.plusDays(30), 3))
+                .containsExactlyInAnyOrder(hike.getId(), pottery.getId());
+        assertThat(availabilityIndex.availableBetween(TODAY, TODAY.plusDays(30), 4)).containsExactly(pottery.getId());
+        assertThat(availabilityIndex.availableBetween(TODAY.plusDays(3), TODAY.plusDays(3), 2)).containsExactly(hike.getId());
+    }
+
+    @Test
+    void availableBetween_ignoresPastSlotsAndUnapprovedExperiences() {
+        assertThat(availabilityIndex.availableBetween(TODAY.minusDays(1), TODAY.minusDays(1), 1)).isEmpty();
+        assertThat(availabilityIndex.availableBetween(TODAY, TODAY.plusDays(5), 5)).isEmpty();
+    }
+
+    @Test
+    void refresh_dropsAnExperienceOnceItHasNoRoomForTheParty() {
+        book(hikeSlot, 3, BookingStatus.CONFIRMED);
+        entityManager.flush();
+
+        availabilityIndex.refresh(hike.getId());
+
+        assertThat(availabilityIndex.maxFreeSpots(hike.getId(), TODAY.plusDays(3))).isEqualTo(2);
+        assertThat(availabilityIndex.availableBetween(TODAY, TODAY.plusDays(30), 3)).containsExactly(pottery.getId());
+    }
+
+    @Test
+    void refresh_countsSeatsHeldForACheckoutAsTaken() {
+        hikeSlot.setHeldGuests(2);
+        entityManager.flush();
+
+        availabilityIndex.refresh(hike.getId());
+
+        assertThat(availabilityIndex.maxFreeSpots(hike.getId(), TODAY.plusDays(3))).isEqualTo(2);
+        assertThat(availabilityIndex.availableBetween(TODAY, TODAY.plusDays(30), 3)).containsExactly(pottery.getId());
+    }
+
+    @Test
+    void refresh_picksUpNewSlots_andDropsRejectedExperiences() {
+        slot(hike, TODAY.plusDays(20), 12);
+        pottery.setStatus(ExperienceStatus.REJECTED);
+        entityManager.flush();
+
+        availabilityIndex.refresh(hike.getId());
+        availabilityIndex.refresh(pottery.getId());
+
+        assertThat(availabilityIndex.availableBetween(TODAY.plusDays(15), TODAY.plusDays(25), 10)).containsExactly(hike.getId());
+        assertThat(availabilityIndex.availableBetween(TODAY, TODAY.plusDays(30), 1)).containsExactly(hike.getId());
+    }
+}
@@ -0,0 +1,148 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.Image;
+import com.Mybeez.TeamB.TeamB.model.Location;
+import com.Mybeez.TeamB.TeamB.model.Review;
+import com.Mybeez.TeamB.TeamB.model.ReviewStatus;
+import com.Mybeez.TeamB.TeamB.model.SessionType;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceDTOAssembler;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that mapping a page of experiences costs a fixed number of SQL statements, whatever the page size.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@Import(ExperienceDTOAssembler.class)
+class ExperienceDTOAssemblerQueryCountTest {
+
+    // The page itself, then category/location, host, session types, tags, images and reviews
+    private static final long EXPECTED_STATEMENTS = 7;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ExperienceRepository experienceRepository;
+
+    @Autowired
+    private ExperienceDTOAssembler assembler;
+
+    private Statistics statistics;
+    private int hostCounter;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void persistExperiences(int count) {
+        ExperienceCategory category = new ExperienceCategory();
+        category.setName("Outdoors");
+        entityManager.persist(category);
+
+        for (int i = 0; i < count; i++) {
+            User host = new User();
+            host.setEmail("host" + (hostCounter++) + "@example.com");
+            host.setPasswordHash("hash");
+            host.setFirstName("Host " + i);
+            entityManager.persist(host);
+
+            Location location = new Location();
+            location.setAddress(i + " High Street");
+            location.setCity("Cardiff");
+
+            Experience experience = Experience.builder()
+                    .title("Experience " + i)
+                    .status(ExperienceStatus.APPROVED)
+                    .groupPricePerPerson(new BigDecimal("20.00"))
+                    .host(host)
+                    .category(category)
+                    .location(location)
+                    .sessionTypes(Set.of(SessionType.GROUP))
+                    .tags(Set.of("tag" + i))
+                    .ratingSum(4)
+                    .ratingCount(1)
+                    .fourStarCount(1)
+                    .build();
+            experience.addImage(Image.builder().url("https://img/" + i + ".jpg").publicId("img" + i).build());
+            Review approved = new Review();
+            approved.setReviewerName("Reviewer " + i);
+            approved.setRating(4);
+            approved.setStatus(ReviewStatus.APPROVED);
+            experience.addReview(approved);
+            Review pending = new Review();
+            pending.setReviewerName("Pending " + i);
+            pending.setRating(1);
+            experience.addReview(pending);
+            entityManager.persist(experience);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long statementsToMapPage() {
+        statistics.clear();
+        List<Experience> page = experienceRepository.findAll();
+        List<ExperienceDTO> dtos = assembler.toDtos(page);
+        assertThat(dtos).hasSize(page.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void toDtos_usesConstantNumberOfQueries_regardlessOfPageSize() {
+        persistExperiences(2);
+        long small = statementsToMapPage();
+
+        entityManager.clear();
+        persistExperiences(8);
+        long large = statementsToMapPage();
+
+        assertThat(small).isEqualTo(EXPECTED_STATEMENTS);
+        assertThat(large).isEqualTo(EXPECTED_STATEMENTS);
+    }
+
+    @Test
+    void toDtos_mapsEveryAssociation() {
+        persistExperiences(1);
+
+        ExperienceDTO dto = assembler.toDtos(experienceRepository.findAll()).get(0);
+
+        assertThat(dto.getHost().getFirstName()).isEqualTo("Host 0");
+        assertThat(dto.getCategory()).isEqualTo("Outdoors");
+        assertThat(dto.getLocation()).isEqualTo("0 High Street");
+        assertThat(dto.getSessionTypes()).containsExactly("GROUP");
+        assertThat(dto.getTags()).containsExactly("tag0");
+        assertThat(dto.getImages()).containsExactly("https://img/0.jpg");
+        assertThat(dto.getReviews()).extracting("reviewerName").containsExactly("Reviewer 0");
+        assertThat(dto.getRating()).isEqualTo(4.0);
+        assertThat(dto.getRatingCount()).isEqualTo(1);
+    }
+}
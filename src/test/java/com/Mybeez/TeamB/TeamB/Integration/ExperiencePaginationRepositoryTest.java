@@ -0,0 +1,105 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceCursor;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceSort;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the keyset pagination specification against H2 to check the generated ORDER BY / seek predicate.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+class ExperiencePaginationRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExperienceRepository experienceRepository;
+
+    private User host;
+    private ExperienceCategory category;
+
+    @BeforeEach
+    void setUp() {
+        host = new User();
+        host.setEmail("host@example.com");
+        host.setPasswordHash("hash");
+        entityManager.persist(host);
+
+        category = new ExperienceCategory();
+        category.setName("Outdoors");
+        entityManager.persist(category);
+    }
+
+    private Experience persist(String title, String price, ExperienceStatus status) {
+        Experience e = Experience.builder()
+                .title(title)
+                .status(status)
+                .groupPricePerPerson(new BigDecimal(price))
+                .host(host)
+                .category(category)
+                .build();
+        return entityManager.persist(e);
+    }
+
+    private List<Experience> page(ExperienceSort sort, ExperienceCursor after, int limit) {
+        return experienceRepository.findBy(
+                ExperienceSpecifications.hasStatus(ExperienceStatus.APPROVED)
+                        .and(ExperienceSpecifications.orderedAfter(sort, after)),
+                q -> q.limit(limit).all());
+    }
+
+    @Test
+    void orderedAfter_walksEveryRowExactlyOnce_withTiedSortKeys() {
+        persist("A", "30.00", ExperienceStatus.APPROVED);
+        persist("B", "10.00", ExperienceStatus.APPROVED);
+        persist("C", "20.00", ExperienceStatus.APPROVED);
+        persist("D", "20.00", ExperienceStatus.APPROVED);
+        persist("E", "20.00", ExperienceStatus.APPROVED);
+        persist("Hidden", "5.00", ExperienceStatus.PENDING);
+        entityManager.flush();
+
+        List<String> seen = new ArrayList<>();
+        ExperienceCursor cursor = null;
+        List<Experience> rows;
+        do {
+            rows = page(ExperienceSort.PRICE_ASC, cursor, 2);
+            rows.forEach(e -> seen.add(e.getTitle()));
+            if (!rows.isEmpty()) {
+                cursor = ExperienceCursor.after(ExperienceSort.PRICE_ASC, rows.get(rows.size() - 1));
+            }
+        } while (rows.size() == 2);
+
+        assertThat(seen).containsExactly("B", "C", "D", "E", "A");
+    }
+
+    @Test
+    void orderedAfter_supportsDescendingOrder() {
+        persist("Cheap", "10.00", ExperienceStatus.APPROVED);
+        Experience mid = persist("Mid", "20.00", ExperienceStatus.APPROVED);
+        persist("Dear", "30.00", ExperienceStatus.APPROVED);
+        entityManager.flush();
+
+        List<Experience> rows = page(ExperienceSort.PRICE_DESC, ExperienceCursor.after(ExperienceSort.PRICE_DESC, mid), 10);
+
+        assertThat(rows).extracting(Experience::getTitle).containsExactly("Cheap");
+    }
+}
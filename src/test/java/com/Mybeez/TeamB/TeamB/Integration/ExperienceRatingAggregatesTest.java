@@ -0,0 +1,163 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.Review;
+import com.Mybeez.TeamB.TeamB.model.ReviewStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.RatingSummary;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.repository.ReviewRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceRatingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the rating aggregate UPDATE statements against H2.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@Import(ExperienceRatingService.class)
+class ExperienceRatingAggregatesTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ExperienceRepository experienceRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ExperienceRatingService ratingService;
+
+    private Experience experience;
+
+    @BeforeEach
+    void setUp() {
+        User host = new User();
+        host.setEmail("host@example.com");
+        host.setPasswordHash("hash");
+        entityManager.persist(host);
+
+        ExperienceCategory category = new ExperienceCategory();
+        category.setName("Outdoors");
+        entityManager.persist(category);
+
+        experience = entityManager.persist(Experience.builder()
+                .title("Gower Hike")
+                .status(ExperienceStatus.APPROVED)
+                .rating(4.5) // seeded placeholder, ignored until a review is approved
+                .host(host)
+                .category(category)
+                .build());
+    }
+
+    private Review review(int stars) {
+        Review review = new Review();
+        review.setReviewerName("Reviewer");
+        review.setRating(stars);
+        experience.addReview(review);
+        return entityManager.persist(review);
+    }
+
+    private void moderate(Review review, ReviewStatus newStatus) {
+        ReviewStatus previous = review.getStatus();
+        review.setStatus(newStatus);
+        ratingService.onReviewStatusChanged(review, previous);
+    }
+
+    private RatingSummary summary() {
+        return experienceRepository.findRatingSummaryById(experience.getId()).orElseThrow();
+    }
+
+    @Test
+    void approvingAndRejecting_updatesSumCountHistogramAndAverage() {
+        Review five = review(5);
+        Review two = review(2);
+        Review alsoFive = review(5);
+
+        moderate(five, ReviewStatus.APPROVED);
+        moderate(two, ReviewStatus.APPROVED);
+        moderate(alsoFive, ReviewStatus.APPROVED);
+        moderate(two, ReviewStatus.REJECTED);
+
+        RatingSummary summary = summary();
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.sum()).isEqualTo(10);
+        assertThat(summary.histogram()).containsEntry(5, 2).containsEntry(2, 0);
+
+        entityManager.clear();
+        Experience reloaded = experienceRepository.findById(experience.getId()).orElseThrow();
+        assertThat(reloaded.getRating()).isEqualTo(5.0);
+        assertThat(reloaded.getAverageRating()).isEqualTo(5.0);
+    }
+
+    @Test
+    void rejectingPendingReview_leavesAggregatesUntouched() {
+        moderate(review(1), ReviewStatus.REJECTED);
+
+        assertThat(summary()).isEqualTo(RatingSummary.EMPTY);
+    }
+
+    @Test
+    void rejectingLastApprovedReview_clearsAverage() {
+        Review four = review(4);
+        moderate(four, ReviewStatus.APPROVED);
+        moderate(four, ReviewStatus.REJECTED);
+
+        entityManager.clear();
+        Experience reloaded = experienceRepository.findById(experience.getId()).orElseThrow();
+        assertThat(reloaded.getRatingCount()).isZero();
+        assertThat(reloaded.getRating()).isNull();
+    }
+
+    @Test
+    void approvingTwice_countsTheReviewOnce() {
+        Review four = review(4);
+
+        assertThat(ratingService.moderate(four.getId(), ReviewStatus.APPROVED)).isPresent();
+        assertThat(ratingService.moderate(four.getId(), ReviewStatus.APPROVED)).isPresent();
+
+        assertThat(summary().count()).isEqualTo(1);
+        assertThat(summary().sum()).isEqualTo(4);
+    }
+
+    @Test
+    void moderatingAReviewAnotherModeratorAlreadyMoved_leavesTheAggregatesAlone() {
+        Review four = review(4);
+        entityManager.flush();
+        // Another moderator approves it after this one has loaded it as PENDING
+        reviewRepository.updateStatus(four.getId(), ReviewStatus.PENDING, ReviewStatus.APPROVED);
+
+        ratingService.moderate(four.getId(), ReviewStatus.APPROVED);
+
+        assertThat(summary()).isEqualTo(RatingSummary.EMPTY);
+    }
+
+    @Test
+    void moderatingAMissingReview_returnsEmpty() {
+        assertThat(ratingService.moderate(404L, ReviewStatus.APPROVED)).isEmpty();
+    }
+
+    @Test
+    void findTopRatedByReviews_ignoresExperiencesWithoutApprovedReviews() {
+        assertThat(experienceRepository.findTopRatedByReviews(PageRequest.of(0, 3))).isEmpty();
+
+        moderate(review(3), ReviewStatus.APPROVED);
+
+        assertThat(experienceRepository.findTopRatedByReviews(PageRequest.of(0, 3)))
+                .extracting(Experience::getId)
+                .containsExactly(experience.getId());
+    }
+}
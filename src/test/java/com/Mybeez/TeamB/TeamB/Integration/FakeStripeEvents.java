@@ -0,0 +1,56 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.stripe.Stripe;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds Stripe webhook event payloads locally, shaped like the ones Stripe sends for our checkout sessions,
+ * so the webhook pipeline can be exercised without Stripe.
+ */
+public final class FakeStripeEvents {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private FakeStripeEvents() {
+    }
+
+    /**
+     * A fake event as it would be stored by the webhook: its id, type and raw JSON.
+     */
+    public record FakeEvent(String id, String type, String payload) {
+    }
+
+    public static FakeEvent checkoutCompleted(Map<String, String> metadata) {
+        return checkoutEvent("checkout.session.completed", metadata);
+    }
+
+    public static FakeEvent checkoutExpired(Map<String, String> metadata) {
+        return checkoutEvent("checkout.session.expired", metadata);
+    }
+
+    public static FakeEvent checkoutEvent(String type, Map<String, String> metadata) {
+        long n = SEQUENCE.incrementAndGet();
+        String eventId = "evt_test_" + n;
+
+        ObjectNode event = JSON.createObjectNode();
+        event.put("id", eventId);
+        event.put("object", "event");
+        event.put("api_version", Stripe.API_VERSION);
+        event.put("created", System.currentTimeMillis() / 1000);
+        event.put("type", type);
+        ObjectNode session = event.putObject("data").putObject("object");
+        session.put("id", "cs_test_" + n);
+        session.put("object", "checkout.session");
+        session.put("mode", "payment");
+        session.put("payment_status", "paid");
+        session.put("payment_intent", "pi_test_" + n);
+        ObjectNode metadataJson = session.putObject("metadata");
+        metadata.forEach(metadataJson::put);
+        return new FakeEvent(eventId, type, event.toString());
+    }
+}
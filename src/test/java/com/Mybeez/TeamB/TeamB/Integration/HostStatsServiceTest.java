@@ -0,0 +1,270 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.event.BookingChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.MessageSentEvent;
+import com.Mybeez.TeamB.TeamB.event.MessagesReadEvent;
+import com.Mybeez.TeamB.TeamB.event.ReviewChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Booking;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.Conversation;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.HostStats;
+import com.Mybeez.TeamB.TeamB.model.InboxEntry;
+import com.Mybeez.TeamB.TeamB.model.Message;
+import com.Mybeez.TeamB.TeamB.model.Review;
+import com.Mybeez.TeamB.TeamB.model.ReviewStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.ReviewDTO;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
+import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
+import com.Mybeez.TeamB.TeamB.repository.ConversationRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceCategoryRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.repository.HostStatsRepository;
+import com.Mybeez.TeamB.TeamB.repository.InboxEntryRepository;
+import com.Mybeez.TeamB.TeamB.repository.MessageRepository;
+import com.Mybeez.TeamB.TeamB.repository.ReviewRepository;
+import com.Mybeez.TeamB.TeamB.repository.UserRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceRatingService;
+import com.Mybeez.TeamB.TeamB.service.HostStatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks on H2 that the host_stats row kept up by events ends up the same as one rebuilt from the source tables.
+ * The listeners are called directly, as they would be after each commit.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@Import({HostStatsService.class, ExperienceRatingService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HostStatsServiceTest {
+
+    @Autowired private HostStatsService hostStatsService;
+    @Autowired private ExperienceRatingService ratingService;
+    @Autowired private HostStatsRepository hostStatsRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ExperienceCategoryRepository categoryRepository;
+    @Autowired private ExperienceRepository experienceRepository;
+    @Autowired private AvailabilityRepository availabilityRepository;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private ReviewRepository reviewRepository;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private InboxEntryRepository inboxEntryRepository;
+
+    private User host;
+    private User guest;
+    private Experience hike;
+    private Experience kayak;
+    private Availability upcomingSlot;
+    private Availability pastSlot;
+    private Availability kayakSlot;
+    private Conversation conversation;
+
+    @BeforeEach
+    void setUp() {
+        host = userRepository.save(user("host@example.com"));
+        guest = userRepository.save(user("guest@example.com"));
+
+        ExperienceCategory category = new ExperienceCategory();
+        category.setName("Outdoors");
+        category = categoryRepository.save(category);
+
+        hike = experienceRepository.save(experience("Gower Hike", category));
+        kayak = experienceRepository.save(experience("Sea Kayaking", category));
+        upcomingSlot = availabilityRepository.save(slot(hike, LocalDate.now().plusDays(3)));
+        pastSlot = availabilityRepository.save(slot(hike, LocalDate.now().minusDays(3)));
+        kayakSlot = availabilityRepository.save(slot(kayak, LocalDate.now().plusDays(5)));
+
+        conversation = new Conversation();
+        conversation.setParticipants(new HashSet<>(Set.of(host, guest)));
+        conversation = conversationRepository.save(conversation);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hostStatsRepository.deleteAll();
+        inboxEntryRepository.deleteAll();
+        messageRepository.deleteAll();
+        conversationRepository.deleteAll();
+        reviewRepository.deleteAll();
+        bookingRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        experienceRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        return user;
+    }
+
+    private Experience experience(String title, ExperienceCategory category) {
+        return Experience.builder()
+                .title(title)
+                .status(ExperienceStatus.APPROVED)
+                .host(host)
+                .category(category)
+                .build();
+    }
+
+    private static Availability slot(Experience experience, LocalDate date) {
+        return Availability.builder()
+                .experience(experience)
+                .date(date)
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(12, 0))
+                .capacity(10)
+                .build();
+    }
+
+    private Booking book(Availability slot, BookingStatus status, String price) {
+        Booking booking = bookingRepository.save(Booking.builder()
+                .user(guest)
+                .availability(slot)
+                .numberOfGuests(2)
+                .totalPrice(new BigDecimal(price))
+                .status(status)
+                .build());
+        hostStatsService.onBookingChanged(new BookingChangedEvent(
+                booking.getId(), slot.getId(), slot.getExperience().getId(), null, status));
+        return booking;
+    }
+
+    private void changeStatus(Booking booking, BookingStatus status) {
+        BookingStatus previous = booking.getStatus();
+        booking.setStatus(status);
+        bookingRepository.save(booking);
+        hostStatsService.onBookingChanged(new BookingChangedEvent(
+                booking.getId(), booking.getAvailability().getId(), null, previous, status));
+    }
+
+    private Review review(Experience experience, int rating) {
+        Review review = new Review();
+        review.setExperience(experience);
+        review.setReviewerName("Guest");
+        review.setReviewText("Lovely");
+        review.setRating(rating);
+        review.setStatus(ReviewStatus.PENDING);
+        review = reviewRepository.save(review);
+        hostStatsService.onReviewChanged(new ReviewChangedEvent(review.getId(), experience.getId(), null, ReviewStatus.PENDING));
+        return review;
+    }
+
+    // Goes through the rating service, whose ReviewChangedEvent reaches the listener after its commit
+    private void approve(Review review) {
+        review.setStatus(ReviewStatus.APPROVED);
+        reviewRepository.save(review);
+        ratingService.onReviewStatusChanged(review, ReviewStatus.PENDING);
+    }
+
+    private Message message(User from, User to) {
+        Message message = messageRepository.save(Message.builder()
+                .conversation(conversation)
+                .sender(from)
+                .content("v1:iv:ciphertext")
+                .build());
+        hostStatsService.onMessageSent(new MessageSentEvent(message.getId(), conversation.getId(), from.getId(), to.getId()));
+        return message;
+    }
+
+    @Test
+    void rebuild_readsTheSourceTables() {
+        bookingRepository.save(Booking.builder().user(guest).availability(upcomingSlot).numberOfGuests(2)
+                .totalPrice(new BigDecimal("40.00")).status(BookingStatus.CONFIRMED).build());
+        bookingRepository.save(Booking.builder().user(guest).availability(kayakSlot).numberOfGuests(1)
+                .totalPrice(new BigDecimal("30.00")).status(BookingStatus.PENDING).build());
+        bookingRepository.save(Booking.builder().user(guest).availability(pastSlot).numberOfGuests(1)
+                .totalPrice(new BigDecimal("25.00")).status(BookingStatus.CONFIRMED).build());
+        bookingRepository.save(Booking.builder().user(guest).availability(upcomingSlot).numberOfGuests(1)
+                .totalPrice(new BigDecimal("99.00")).status(BookingStatus.CANCELLED).build());
+        messageRepository.save(Message.builder().conversation(conversation).sender(guest).content("x").build());
+
+        HostStats stats = hostStatsService.rebuild(host.getId());
+
+        assertThat(stats.getUpcomingBookings()).isEqualTo(2);
+        assertThat(stats.getPendingRequests()).isEqualTo(1);
+        assertThat(hostStatsService.monthEarnings(stats)).isEqualByComparingTo("65.00");
+        assertThat(stats.getMostPopularTitle()).isEqualTo("Gower Hike");
+        assertThat(stats.getMostPopularBookings()).isEqualTo(3);
+        assertThat(stats.getUnreadMessages()).isEqualTo(1);
+    }
+
+    @Test
+    void events_keepTheRowEqualToARebuild() {
+        HostStats initial = hostStatsService.get(host.getId());
+        assertThat(initial.getUpcomingBookings()).isZero();
+        assertThat(initial.getMostPopularTitle()).isNull();
+
+        Booking pending = book(upcomingSlot, BookingStatus.PENDING, "40.00");
+        book(kayakSlot, BookingStatus.CONFIRMED, "30.00");
+        book(kayakSlot, BookingStatus.CONFIRMED, "30.00");
+        book(pastSlot, BookingStatus.CONFIRMED, "25.00");
+        changeStatus(pending, BookingStatus.CONFIRMED);
+        Booking cancelled = book(upcomingSlot, BookingStatus.CONFIRMED, "20.00");
+        changeStatus(cancelled, BookingStatus.CANCELLED);
+
+        approve(review(hike, 5));
+        review(kayak, 2);
+        approve(review(kayak, 4));
+
+        message(guest, host);
+        message(guest, host);
+        Message lastRead = message(host, guest);
+        // The host opens the conversation: their read watermark moves up to the last message
+        inboxEntryRepository.save(InboxEntry.builder().user(host).conversation(conversation).otherParticipant(guest)
+                .lastMessageId(lastRead.getId()).lastMessageContent(lastRead.getContent())
+                .lastMessageAt(lastRead.getTimestamp()).lastReadMessageId(lastRead.getId()).build());
+        hostStatsService.onMessagesRead(new MessagesReadEvent(conversation.getId(), host.getId(), 2));
+        message(guest, host);
+
+        HostStats incremental = hostStatsRepository.findById(host.getId()).orElseThrow();
+        List<ReviewDTO> incrementalReviews = hostStatsService.recentReviews(incremental);
+        HostStats rebuilt = hostStatsService.rebuild(host.getId());
+
+        assertThat(incremental.getUpcomingBookings()).isEqualTo(rebuilt.getUpcomingBookings()).isEqualTo(3);
+        assertThat(incremental.getPendingRequests()).isEqualTo(rebuilt.getPendingRequests()).isZero();
+        assertThat(incremental.getMonthEarnings()).isEqualByComparingTo(rebuilt.getMonthEarnings()).isEqualByComparingTo("125.00");
+        assertThat(incremental.getRatingSum()).isEqualTo(rebuilt.getRatingSum()).isEqualTo(9);
+        assertThat(incremental.getRatingCount()).isEqualTo(rebuilt.getRatingCount()).isEqualTo(2);
+        assertThat(incremental.getMostPopularExperienceId()).isEqualTo(rebuilt.getMostPopularExperienceId()).isEqualTo(hike.getId());
+        assertThat(incremental.getMostPopularBookings()).isEqualTo(rebuilt.getMostPopularBookings()).isEqualTo(3);
+        assertThat(incremental.getUnreadMessages()).isEqualTo(rebuilt.getUnreadMessages()).isEqualTo(1);
+        assertThat(incrementalReviews).extracting(ReviewDTO::getRating).containsExactly(4, 2, 5);
+        assertThat(hostStatsService.recentReviews(rebuilt)).extracting(ReviewDTO::getId)
+                .containsExactlyElementsOf(incrementalReviews.stream().map(ReviewDTO::getId).toList());
+    }
+
+    @Test
+    void messagesToAGuest_doNotCreateARow() {
+        hostStatsService.get(host.getId());
+
+        message(host, guest);
+
+        assertThat(hostStatsRepository.findById(guest.getId())).isEmpty();
+        assertThat(hostStatsRepository.findById(host.getId()).orElseThrow().getUnreadMessages()).isZero();
+    }
+}
@@ -0,0 +1,216 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.exception.InvalidPaginationException;
+import com.Mybeez.TeamB.TeamB.model.InboxEntry;
+import com.Mybeez.TeamB.TeamB.model.Message;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.ConversationDTO;
+import com.Mybeez.TeamB.TeamB.payload.InboxPageResponse;
+import com.Mybeez.TeamB.TeamB.payload.MessageRequest;
+import com.Mybeez.TeamB.TeamB.repository.ConversationRepository;
+import com.Mybeez.TeamB.TeamB.repository.InboxEntryRepository;
+import com.Mybeez.TeamB.TeamB.repository.MessageRepository;
+import com.Mybeez.TeamB.TeamB.repository.UserRepository;
+import com.Mybeez.TeamB.TeamB.service.ContentValidationService;
+import com.Mybeez.TeamB.TeamB.service.EncryptionService;
+import com.Mybeez.TeamB.TeamB.service.InboxService;
+import com.Mybeez.TeamB.TeamB.service.MessageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Sends and reads messages on H2 with committed transactions and checks the inbox rows they leave behind.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "message.encryption.key=rPR9NEzwmbIcHXds3EMy2j6jWIL0+/195aieKoTUVn4="})
+@ActiveProfiles("test")
+@Import({MessageService.class, InboxService.class, EncryptionService.class, ContentValidationService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InboxServiceTest {
+
+    @Autowired private MessageService messageService;
+    @Autowired private InboxService inboxService;
+    @Autowired private InboxEntryRepository inboxRepository;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private User guest;
+    private User host;
+
+    @BeforeEach
+    void setUp() {
+        guest = saveUser("guest@example.com", "Gwen");
+        host = saveUser("host@example.com", "Huw");
+    }
+
+    @AfterEach
+    void tearDown() {
+        inboxRepository.deleteAll();
+        messageRepository.deleteAll();
+        conversationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private User saveUser(String email, String firstName) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setFirstName(firstName);
+        return userRepository.save(user);
+    }
+
+    private Message send(User from, User to, String content) {
+        MessageRequest request = new MessageRequest();
+        request.setRecipientId(to.getId());
+        request.setContent(content);
+        return messageService.sendMessage(request, from.getId());
+    }
+
+    @Test
+    void sendingAndReading_keepBothInboxesInStep() {
+        send(guest, host, "Is the hike dog friendly?");
+        Message last = send(guest, host, "And is there parking?");
+
+        ConversationDTO hostView = inboxService.getConversations(host.getId()).get(0);
+        assertThat(hostView.getId()).isEqualTo(last.getConversation().getId());
+        assertThat(hostView.getLastMessage()).isEqualTo("And is there parking?");
+        assertThat(hostView.getOtherParticipant().getFirstName()).isEqualTo("Gwen");
+        assertThat(hostView.getUnreadCount()).isEqualTo(2);
+        assertThat(inboxService.getConversations(guest.getId()).get(0).getUnreadCount()).isZero();
+
+        messageService.getConversationById(hostView.getId(), host.getId());
+        send(host, guest, "Yes to both!");
+
+        assertThat(inboxService.getConversations(host.getId()).get(0).isHasUnreadMessages()).isFalse();
+        ConversationDTO guestView = inboxService.getConversations(guest.getId()).get(0);
+        assertThat(guestView.getLastMessage()).isEqualTo("Yes to both!");
+        assertThat(guestView.getUnreadCount()).isEqualTo(1);
+        // The snippet is stored the way the message is: encrypted
+        assertThat(inboxRepository.findAll()).allSatisfy(entry ->
+                assertThat(entry.getLastMessageContent()).startsWith("v1:").doesNotContain("Yes to both"));
+    }
+
+    @Test
+    void reading_movesTheWatermark_andLaterMessagesCountFromIt() {
+        send(guest, host, "Hello");
+        Message read = send(guest, host, "Anyone there?");
+
+        messageService.getConversationById(read.getConversation().getId(), host.getId());
+
+        assertThat(inboxRepository.findAll())
+                .filteredOn(entry -> entry.getOtherParticipant().getId().equals(guest.getId()))
+                .singleElement()
+                .extracting(InboxEntry::getLastReadMessageId).isEqualTo(read.getId());
+        assertThat(messageService.getUnreadMessageCount(host.getId())).isZero();
+
+        send(guest, host, "Hello?");
+
+        assertThat(messageService.getUnreadMessageCount(host.getId())).isEqualTo(1);
+        // The rebuild query compares ids against the same watermark
+        assertThat(messageRepository.countUnreadMessagesForUser(host.getId())).isEqualTo(1);
+        assertThat(messageRepository.countUnreadMessagesForUser(guest.getId())).isZero();
+    }
+
+    @Test
+    void aMessageCommittingBelowTheWatermark_stillCountsAsUnread() {
+        send(guest, host, "Hello");
+        Message read = send(guest, host, "Anyone there?");
+        Long conversationId = read.getConversation().getId();
+
+        // Reading older history marks only what was received as read
+        messageService.getConversationById(conversationId, host.getId(), read.getId(), null, 20);
+        assertThat(messageService.getUnreadMessageCount(host.getId())).isEqualTo(1);
+
+        messageService.getConversationById(conversationId, host.getId());
+        assertThat(messageService.getUnreadMessageCount(host.getId())).isZero();
+
+        // A message whose id was handed out before the read but which is only recorded after it
+        inboxService.onMessageSent(read.getConversation(), Message.builder()
+                .id(read.getId() - 1)
+                .content(read.getContent())
+                .timestamp(read.getTimestamp())
+                .build(), guest, host);
+
+        assertThat(messageService.getUnreadMessageCount(host.getId())).isEqualTo(1);
+        messageService.getConversationById(conversationId, host.getId());
+        assertThat(messageService.getUnreadMessageCount(host.getId())).isZero();
+    }
+
+    @Test
+    void pages_areMostRecentConversationFirst() {
+        List<User> others = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User other = saveUser("other" + i + "@example.com", "Other" + i);
+            others.add(other);
+            send(other, guest, "Hello " + i);
+        }
+        // Activity in the oldest conversation moves it to the top
+        send(guest, others.get(0), "Hello again");
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            InboxPageResponse page = inboxService.getPage(guest.getId(), cursor, 2);
+            assertThat(page.items().size()).isLessThanOrEqualTo(2);
+            page.items().forEach(item -> seen.add(item.getLastMessage()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly("Hello again", "Hello 4", "Hello 3", "Hello 2", "Hello 1");
+        assertThatThrownBy(() -> inboxService.getPage(guest.getId(), "not-a-cursor", 2))
+                .isInstanceOf(InvalidPaginationException.class);
+    }
+
+    @Test
+    void creatingARowThatAnotherSendCreatedFirst_recordsTheMessageOnIt() {
+        Message first = send(guest, host, "Hello");
+        Message second = send(guest, host, "Still there?");
+
+        // What the losing send of two concurrent first messages runs once the winner's row is in place
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                inboxRepository.insertOrRecordMessage(first.getConversation().getId(), host.getId(), guest.getId(),
+                        second.getId() + 1, second.getContent(), second.getTimestamp(), 9, 1));
+
+        assertThat(inboxRepository.findAll()).hasSize(2)
+                .filteredOn(entry -> entry.getOtherParticipant().getId().equals(guest.getId()))
+                .singleElement()
+                .satisfies(entry -> {
+                    assertThat(entry.getLastMessageId()).isEqualTo(second.getId() + 1);
+                    assertThat(entry.getUnreadCount()).isEqualTo(3);
+                });
+    }
+
+    @Test
+    void backfill_rebuildsMissingRowsFromTheMessages() {
+        send(guest, host, "First");
+        send(host, guest, "Second");
+        send(host, guest, "Third");
+        inboxRepository.deleteAll();
+
+        assertThat(inboxService.backfill()).isEqualTo(2);
+
+        ConversationDTO guestView = inboxService.getConversations(guest.getId()).get(0);
+        assertThat(guestView.getLastMessage()).isEqualTo("Third");
+        assertThat(guestView.getUnreadCount()).isEqualTo(2);
+        assertThat(inboxService.getConversations(host.getId()).get(0).getUnreadCount()).isEqualTo(1);
+        assertThat(inboxService.backfill()).isZero();
+    }
+}
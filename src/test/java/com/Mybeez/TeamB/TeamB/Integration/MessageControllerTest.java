@@ -38,6 +38,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -158,7 +159,8 @@ class MessageControllerTest {
         // Create the DTO using its actual constructor
         ConversationDTO convoDTO = new ConversationDTO(mockConversation, encryptionService);
 
-        when(messageService.getConversationById(eq(202L), any(Long.class))).thenReturn(convoDTO);
+        when(messageService.getConversationById(eq(202L), any(Long.class), isNull(), isNull(), eq(MessageService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(convoDTO);
 
         // Act, Assert
         mockMvc.perform(get("/api/messages/conversations/{id}", 202L)
@@ -167,6 +169,24 @@ class MessageControllerTest {
                 .andExpect(jsonPath("$.id", is(202)));
     }
 
+    @Test
+    @WithMockUser
+    void getConversationMessages_passesThePagingParameters() throws Exception {
+        // Arrange
+        User currentUser = new User();
+        currentUser.setId(1L);
+
+        // Act
+        mockMvc.perform(get("/api/messages/conversations/{id}", 202L)
+                        .param("before", "500")
+                        .param("size", "20")
+                        .with(user(currentUser)))
+                .andExpect(status().isOk());
+
+        // Assert
+        verify(messageService).getConversationById(202L, 1L, 500L, null, 20);
+    }
+
     @Test
     void getConversationMessages_whenNotAuthenticated_shouldReturnUnauthorized() throws Exception {
         // Act, Assert
@@ -0,0 +1,104 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.exception.InvalidPaginationException;
+import com.Mybeez.TeamB.TeamB.model.Message;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.ConversationDTO;
+import com.Mybeez.TeamB.TeamB.payload.MessageDTO;
+import com.Mybeez.TeamB.TeamB.payload.MessageRequest;
+import com.Mybeez.TeamB.TeamB.service.ContentValidationService;
+import com.Mybeez.TeamB.TeamB.service.EncryptionService;
+import com.Mybeez.TeamB.TeamB.service.InboxService;
+import com.Mybeez.TeamB.TeamB.service.MessageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Walks a conversation's history window by window on H2, backwards with before and forwards with after.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "message.encryption.key=rPR9NEzwmbIcHXds3EMy2j6jWIL0+/195aieKoTUVn4="})
+@ActiveProfiles("test")
+@Import({MessageService.class, InboxService.class, EncryptionService.class, ContentValidationService.class})
+class MessageHistoryPaginationTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private MessageService messageService;
+
+    private User guest;
+    private User host;
+    private Long conversationId;
+    private final List<Long> sent = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        guest = persistUser("guest@example.com");
+        host = persistUser("host@example.com");
+        for (int i = 1; i <= 7; i++) {
+            MessageRequest request = new MessageRequest();
+            request.setRecipientId(i % 2 == 0 ? guest.getId() : host.getId());
+            request.setContent("Message " + i);
+            Message message = messageService.sendMessage(request, i % 2 == 0 ? host.getId() : guest.getId());
+            sent.add(message.getId());
+            conversationId = message.getConversation().getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private User persistUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        return entityManager.persist(user);
+    }
+
+    private static List<String> contents(ConversationDTO window) {
+        return window.getMessages().stream().map(MessageDTO::getContent).toList();
+    }
+
+    @Test
+    void before_walksBackToTheFirstMessage() {
+        ConversationDTO latest = messageService.getConversationById(conversationId, guest.getId(), null, null, 3);
+        assertThat(contents(latest)).containsExactly("Message 5", "Message 6", "Message 7");
+        assertThat(latest.getHasOlderMessages()).isTrue();
+        assertThat(latest.getHasNewerMessages()).isFalse();
+
+        ConversationDTO older = messageService.getConversationById(
+                conversationId, guest.getId(), latest.getMessages().get(0).getId(), null, 3);
+        assertThat(contents(older)).containsExactly("Message 2", "Message 3", "Message 4");
+        assertThat(older.getHasNewerMessages()).isTrue();
+
+        ConversationDTO oldest = messageService.getConversationById(
+                conversationId, guest.getId(), older.getMessages().get(0).getId(), null, 3);
+        assertThat(contents(oldest)).containsExactly("Message 1");
+        assertThat(oldest.getHasOlderMessages()).isFalse();
+    }
+
+    @Test
+    void after_catchesUpOnNewerMessages() {
+        ConversationDTO newer = messageService.getConversationById(conversationId, host.getId(), null, sent.get(2), 2);
+
+        assertThat(contents(newer)).containsExactly("Message 4", "Message 5");
+        assertThat(newer.getHasNewerMessages()).isTrue();
+        assertThat(newer.getHasOlderMessages()).isTrue();
+
+        ConversationDTO fromTheStart = messageService.getConversationById(conversationId, host.getId(), null, 0L, 10);
+        assertThat(fromTheStart.getHasOlderMessages()).isFalse();
+        assertThat(fromTheStart.getHasNewerMessages()).isFalse();
+        assertThatThrownBy(() -> messageService.getConversationById(conversationId, host.getId(), sent.get(4), sent.get(2), 2))
+                .isInstanceOf(InvalidPaginationException.class);
+    }
+}
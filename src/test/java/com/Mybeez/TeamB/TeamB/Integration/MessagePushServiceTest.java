@@ -0,0 +1,231 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.model.Message;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.MessagePushEvent;
+import com.Mybeez.TeamB.TeamB.payload.MessageRequest;
+import com.Mybeez.TeamB.TeamB.payload.UnreadCountEvent;
+import com.Mybeez.TeamB.TeamB.repository.ConversationRepository;
+import com.Mybeez.TeamB.TeamB.repository.InboxEntryRepository;
+import com.Mybeez.TeamB.TeamB.repository.MessageRepository;
+import com.Mybeez.TeamB.TeamB.repository.UserRepository;
+import com.Mybeez.TeamB.TeamB.service.ContentValidationService;
+import com.Mybeez.TeamB.TeamB.service.EncryptionService;
+import com.Mybeez.TeamB.TeamB.service.InboxService;
+import com.Mybeez.TeamB.TeamB.service.MessagePushService;
+import com.Mybeez.TeamB.TeamB.service.MessageService;
+import com.Mybeez.TeamB.TeamB.service.PushChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Connects in-process channels to the push registry and sends and reads messages on H2 with committed
+ * transactions, so the after-commit listeners run as they do in production.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "message.encryption.key=rPR9NEzwmbIcHXds3EMy2j6jWIL0+/195aieKoTUVn4=",
+        "messages.push.queue-capacity=4",
+        "messages.push.max-connections-per-user=2"})
+@ActiveProfiles("test")
+@Import({MessageService.class, InboxService.class, MessagePushService.class, EncryptionService.class,
+        ContentValidationService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MessagePushServiceTest {
+
+    /**
+     * Records what was pushed; can be made to block or fail on send.
+     */
+    private static class RecordingChannel implements PushChannel {
+        final List<String> names = new CopyOnWriteArrayList<>();
+        final List<Object> payloads = new CopyOnWriteArrayList<>();
+        final CountDownLatch unblock;
+        final boolean failing;
+        volatile boolean closed;
+
+        RecordingChannel(CountDownLatch unblock, boolean failing) {
+            this.unblock = unblock;
+            this.failing = failing;
+        }
+
+        RecordingChannel() {
+            this(new CountDownLatch(0), false);
+        }
+
+        @Override
+        public void send(String eventName, Object data) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            names.add(eventName);
+            payloads.add(data);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        <T> List<T> payloadsOf(Class<T> type) {
+            return payloads.stream().filter(type::isInstance).map(type::cast).toList();
+        }
+    }
+
+    @Autowired private MessageService messageService;
+    @Autowired private MessagePushService messagePushService;
+    @Autowired private InboxEntryRepository inboxRepository;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private UserRepository userRepository;
+
+    private User guest;
+    private User host;
+    private final List<MessagePushService.Connection> connections = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        guest = saveUser("guest@example.com");
+        host = saveUser("host@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        connections.forEach(MessagePushService.Connection::close);
+        inboxRepository.deleteAll();
+        messageRepository.deleteAll();
+        conversationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        return userRepository.save(user);
+    }
+
+    private Message send(User from, User to, String content) {
+        MessageRequest request = new MessageRequest();
+        request.setRecipientId(to.getId());
+        request.setContent(content);
+        return messageService.sendMessage(request, from.getId());
+    }
+
+    private MessagePushService.Connection connect(User user, RecordingChannel channel) {
+        MessagePushService.Connection connection = messagePushService.register(user.getId(), channel);
+        connections.add(connection);
+        return connection;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        LocalDateTime deadline = LocalDateTime.now().plusSeconds(10);
+        while (!condition.getAsBoolean() && LocalDateTime.now().isBefore(deadline)) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @Test
+    void sendingAMessage_pushesItToBothParticipants_andTheRecipientsUnreadCount() throws InterruptedException {
+        RecordingChannel hostTab = new RecordingChannel();
+        RecordingChannel guestTab = new RecordingChannel();
+        connect(host, hostTab);
+        connect(guest, guestTab);
+        // The current unread count comes first
+        await(() -> hostTab.names.size() == 1 && guestTab.names.size() == 1);
+
+        Message sent = send(guest, host, "Is the hike dog friendly?");
+        await(() -> hostTab.names.size() == 3 && guestTab.names.size() == 2);
+
+        assertThat(hostTab.names).containsExactly(
+                MessagePushService.UNREAD_COUNT_EVENT, MessagePushService.MESSAGE_EVENT, MessagePushService.UNREAD_COUNT_EVENT);
+        MessagePushEvent pushed = hostTab.payloadsOf(MessagePushEvent.class).get(0);
+        assertThat(pushed.conversationId()).isEqualTo(sent.getConversation().getId());
+        assertThat(pushed.message().getContent()).isEqualTo("Is the hike dog friendly?");
+        assertThat(hostTab.payloadsOf(UnreadCountEvent.class)).extracting(UnreadCountEvent::unreadCount).containsExactly(0L, 1L);
+        assertThat(guestTab.payloadsOf(MessagePushEvent.class)).singleElement()
+                .satisfies(event -> assertThat(event.message().getId()).isEqualTo(sent.getId()));
+    }
+
+    @Test
+    void readingAConversation_pushesTheReadersNewUnreadCount() throws InterruptedException {
+        Message sent = send(guest, host, "Hello");
+        RecordingChannel hostTab = new RecordingChannel();
+        connect(host, hostTab);
+        await(() -> hostTab.names.size() == 1);
+
+        messageService.getConversationById(sent.getConversation().getId(), host.getId());
+        await(() -> hostTab.names.size() == 2);
+
+        assertThat(hostTab.payloadsOf(UnreadCountEvent.class)).extracting(UnreadCountEvent::unreadCount).containsExactly(1L, 0L);
+    }
+
+    @Test
+    void aClientThatFallsBehind_isDisconnected_withoutHoldingUpTheOthers() throws InterruptedException {
+        CountDownLatch stuck = new CountDownLatch(1);
+        RecordingChannel slowTab = new RecordingChannel(stuck, false);
+        RecordingChannel fastTab = new RecordingChannel();
+        MessagePushService.Connection slow = connect(host, slowTab);
+        connect(host, fastTab);
+
+        await(() -> fastTab.names.size() == 1);
+
+        // The slow client is stuck writing its first event, so its queue fills up while the fast one keeps up
+        for (int i = 0; i < 10; i++) {
+            messagePushService.sendHeartbeats();
+            int received = i + 2;
+            await(() -> fastTab.names.size() == received);
+        }
+        assertThat(slow.isOpen()).isFalse();
+        stuck.countDown();
+
+        assertThat(slowTab.closed).isTrue();
+        assertThat(messagePushService.connectionCount(host.getId())).isEqualTo(1);
+        assertThat(fastTab.names.subList(1, 11)).containsOnly(MessagePushService.HEARTBEAT_EVENT);
+    }
+
+    @Test
+    void heartbeats_closeConnectionsWhoseClientHasGone() throws InterruptedException {
+        RecordingChannel gone = new RecordingChannel(new CountDownLatch(0), true);
+        MessagePushService.Connection connection = connect(guest, gone);
+
+        messagePushService.sendHeartbeats();
+        await(() -> !connection.isOpen());
+
+        assertThat(messagePushService.isConnected(guest.getId())).isFalse();
+    }
+
+    @Test
+    void theOldestConnectionMakesRoom_whenAUserOpensTooMany() {
+        RecordingChannel first = new RecordingChannel();
+        MessagePushService.Connection oldest = connect(guest, first);
+        connect(guest, new RecordingChannel());
+        connect(guest, new RecordingChannel());
+
+        assertThat(oldest.isOpen()).isFalse();
+        assertThat(first.closed).isTrue();
+        assertThat(messagePushService.connectionCount(guest.getId())).isEqualTo(2);
+    }
+}
@@ -0,0 +1,197 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Booking;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.SeatHold;
+import com.Mybeez.TeamB.TeamB.model.SeatHoldStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.BookingRequest;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
+import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceCategoryRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.repository.SeatHoldRepository;
+import com.Mybeez.TeamB.TeamB.repository.UserRepository;
+import com.Mybeez.TeamB.TeamB.service.BookingService;
+import com.Mybeez.TeamB.TeamB.service.ReservationRetryPolicy;
+import com.Mybeez.TeamB.TeamB.service.SeatHoldService;
+import com.Mybeez.TeamB.TeamB.service.SlotCapacityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Holds, converts and expires seats on H2 with committed transactions, as the checkout and the webhook do.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@Import({SeatHoldService.class, BookingService.class, SlotCapacityService.class, ReservationRetryPolicy.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatHoldServiceTest {
+
+    @Autowired private SeatHoldService seatHoldService;
+    @Autowired private BookingService bookingService;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+    @Autowired private SeatHoldRepository seatHoldRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ExperienceCategoryRepository categoryRepository;
+    @Autowired private ExperienceRepository experienceRepository;
+    @Autowired private AvailabilityRepository availabilityRepository;
+    @Autowired private BookingRepository bookingRepository;
+
+    private User guest;
+    private Availability slot;
+
+    @BeforeEach
+    void setUp() {
+        guest = new User();
+        guest.setEmail("guest@example.com");
+        guest.setPasswordHash("hash");
+        guest = userRepository.save(guest);
+
+        ExperienceCategory category = new ExperienceCategory();
+        category.setName("Outdoors");
+        category = categoryRepository.save(category);
+
+        Experience hike = experienceRepository.save(Experience.builder()
+                .title("Gower Hike")
+                .status(ExperienceStatus.APPROVED)
+                .host(guest)
+                .category(category)
+                .groupPricePerPerson(new BigDecimal("25.00"))
+                .build());
+        slot = availabilityRepository.save(Availability.builder()
+                .experience(hike)
+                .date(LocalDate.now().plusDays(3))
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(12, 0))
+                .capacity(4)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        seatHoldRepository.deleteAll();
+        bookingRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        experienceRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Availability reloadSlot() {
+        return availabilityRepository.findById(slot.getId().intValue()).orElseThrow();
+    }
+
+    private BookingRequest request(int guests) {
+        BookingRequest request = new BookingRequest();
+        request.setAvailabilityId(slot.getId().intValue());
+        request.setNumberOfGuests(guests);
+        return request;
+    }
+
+    @Test
+    void heldSeats_areNotOfferedToOtherCheckoutsOrBookings() {
+        seatHoldService.hold(guest.getId(), slot.getId(), 3, null);
+
+        assertThatThrownBy(() -> seatHoldService.hold(guest.getId(), slot.getId(), 2, null)).isInstanceOf(BookingException.class);
+        assertThatThrownBy(() -> bookingService.createBooking(request(2), guest.getId())).isInstanceOf(BookingException.class);
+        bookingService.createBooking(request(1), guest.getId());
+
+        assertThat(reloadSlot().getHeldGuests()).isEqualTo(3);
+        assertThat(reloadSlot().getBookedGuests()).isEqualTo(1);
+    }
+
+    @Test
+    void createBookingFromHold_movesTheSeatsFromHeldToBooked_once() {
+        // 3 x 25.00 with a 20% coupon, as quoted at checkout
+        SeatHold hold = seatHoldService.hold(guest.getId(), slot.getId(), 3, new BigDecimal("60.00"));
+
+        Booking booking = bookingService.createBookingFromHold(hold.getId());
+        Booking again = bookingService.createBookingFromHold(hold.getId());
+
+        assertThat(again.getId()).isEqualTo(booking.getId());
+        assertThat(bookingRepository.count()).isEqualTo(1);
+        assertThat(booking.getTotalPrice()).isEqualByComparingTo("60.00");
+        assertThat(seatHoldRepository.findById(hold.getId()).orElseThrow().getStatus()).isEqualTo(SeatHoldStatus.CONVERTED);
+        assertThat(reloadSlot().getHeldGuests()).isZero();
+        assertThat(reloadSlot().getBookedGuests()).isEqualTo(3);
+    }
+
+    @Test
+    void createBookingFromHold_booksAfresh_whenTheHoldWasReleasedBeforeThePaymentArrived() {
+        SeatHold hold = seatHoldService.hold(guest.getId(), slot.getId(), 3, null);
+        assertThat(seatHoldService.release(hold.getId())).isTrue();
+        assertThat(seatHoldService.release(hold.getId())).isFalse();
+        assertThat(reloadSlot().getHeldGuests()).isZero();
+
+        Booking booking = bookingService.createBookingFromHold(hold.getId());
+
+        assertThat(booking.getTotalPrice()).isEqualByComparingTo("75.00");
+        assertThat(reloadSlot().getBookedGuests()).isEqualTo(3);
+        assertThat(seatHoldRepository.findById(hold.getId()).orElseThrow().getStatus()).isEqualTo(SeatHoldStatus.RELEASED);
+    }
+
+    @Test
+    void createBookingFromHold_keepsTheChargedPrice_whenTheHoldExpiredBeforeThePaymentArrived() {
+        // 3 x 25.00 with a 20% coupon, as quoted at checkout
+        SeatHold hold = seatHoldService.hold(guest.getId(), slot.getId(), 3, new BigDecimal("60.00"));
+        SeatHold stored = seatHoldRepository.findById(hold.getId()).orElseThrow();
+        stored.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        seatHoldRepository.save(stored);
+        assertThat(seatHoldService.expire(hold.getId())).isTrue();
+
+        Booking booking = bookingService.createBookingFromHold(hold.getId());
+
+        assertThat(booking.getTotalPrice()).isEqualByComparingTo("60.00");
+        assertThat(reloadSlot().getBookedGuests()).isEqualTo(3);
+        assertThat(seatHoldRepository.findById(hold.getId()).orElseThrow().getStatus()).isEqualTo(SeatHoldStatus.EXPIRED);
+    }
+
+    @Test
+    void expiryQueue_givesTheSeatsBackOnceTheTtlRunsOut() throws InterruptedException {
+        SeatHoldService shortHolds = new SeatHoldService(
+                seatHoldRepository, availabilityRepository, userRepository, eventPublisher, transactionManager, 1);
+        try {
+            shortHolds.start();
+            // Not a Spring proxy, so the hold's transaction is opened here
+            SeatHold hold = new TransactionTemplate(transactionManager)
+                    .execute(status -> shortHolds.hold(guest.getId(), slot.getId(), 4, null));
+            assertThat(shortHolds.pendingExpiries()).isEqualTo(1);
+            assertThat(reloadSlot().getHeldGuests()).isEqualTo(4);
+
+            LocalDateTime deadline = LocalDateTime.now().plusSeconds(10);
+            while (reloadSlot().getHeldGuests() > 0 && LocalDateTime.now().isBefore(deadline)) {
+                Thread.sleep(50);
+            }
+
+            assertThat(reloadSlot().getHeldGuests()).isZero();
+            assertThat(seatHoldRepository.findById(hold.getId()).orElseThrow().getStatus()).isEqualTo(SeatHoldStatus.EXPIRED);
+            assertThat(shortHolds.pendingExpiries()).isZero();
+        } finally {
+            shortHolds.shutdown();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.payload.BookingRequest;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
+import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceCategoryRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.repository.UserRepository;
+import com.Mybeez.TeamB.TeamB.service.BookingService;
+import com.Mybeez.TeamB.TeamB.service.ReservationRetryPolicy;
+import com.Mybeez.TeamB.TeamB.service.SeatHoldService;
+import com.Mybeez.TeamB.TeamB.service.SlotCapacityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires hundreds of concurrent bookings at one slot through BookingService, each in its own committed
+ * transaction on H2, and checks that the slot is filled exactly to capacity and never past it.
+ * The test itself runs outside a transaction so the worker threads see its fixtures.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@Import({BookingService.class, SlotCapacityService.class, SeatHoldService.class, ReservationRetryPolicy.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatReservationStressTest {
+
+    private static final int CAPACITY = 50;
+    private static final int REQUESTS = 400;
+    private static final int THREADS = 32;
+
+    @Autowired private BookingService bookingService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ExperienceCategoryRepository categoryRepository;
+    @Autowired private ExperienceRepository experienceRepository;
+    @Autowired private AvailabilityRepository availabilityRepository;
+    @Autowired private BookingRepository bookingRepository;
+
+    private User guest;
+    private Availability slot;
+
+    @BeforeEach
+    void setUp() {
+        guest = new User();
+        guest.setEmail("guest@example.com");
+        guest.setPasswordHash("hash");
+        guest = userRepository.save(guest);
+
+        ExperienceCategory category = new ExperienceCategory();
+        category.setName("Outdoors");
+        category = categoryRepository.save(category);
+
+        Experience hike = experienceRepository.save(Experience.builder()
+                .title("Gower Hike")
+                .status(ExperienceStatus.APPROVED)
+                .host(guest)
+                .category(category)
+                .groupPricePerPerson(new BigDecimal("25.00"))
+                .build());
+        slot = availabilityRepository.save(Availability.builder()
+                .experience(hike)
+                .date(LocalDate.now().plusDays(3))
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(12, 0))
+                .capacity(CAPACITY)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        experienceRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentBookings_fillTheSlotExactly_andNeverOverbookIt() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            int guests = 1 + i % 3;
+            results.add(pool.submit(() -> {
+                BookingRequest request = new BookingRequest();
+                request.setAvailabilityId(slot.getId().intValue());
+                request.setNumberOfGuests(guests);
+                start.await();
+                try {
+                    bookingService.createBooking(request, guest.getId());
+                    return guests;
+                } catch (BookingException e) {
+                    return 0;
+                }
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        int bookedBySuccesses = 0;
+        for (Future<Integer> result : results) {
+            bookedBySuccesses += result.get();
+        }
+        int confirmedGuests = bookingRepository.findAll().stream()
+                .filter(b -> b.getStatus() == BookingStatus.CONFIRMED)
+                .mapToInt(b -> b.getNumberOfGuests())
+                .sum();
+        int counter = availabilityRepository.findById(slot.getId().intValue()).orElseThrow().getBookedGuests();
+
+        assertThat(confirmedGuests).isEqualTo(bookedBySuccesses).isEqualTo(counter);
+        // Far more guests ask than fit, with parties of one among them, so the slot ends up exactly full
+        assertThat(counter).isEqualTo(CAPACITY);
+    }
+}
@@ -0,0 +1,139 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Booking;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.service.SlotCapacityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the booked_guests counter UPDATE statements and the reconciliation query against H2.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@Import(SlotCapacityService.class)
+class SlotCapacityServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private SlotCapacityService slotCapacityService;
+
+    private User guest;
+    private Availability slot;
+
+    @BeforeEach
+    void setUp() {
+        guest = new User();
+        guest.setEmail("guest@example.com");
+        guest.setPasswordHash("hash");
+        entityManager.persist(guest);
+
+        ExperienceCategory category = new ExperienceCategory();
+        category.setName("Outdoors");
+        entityManager.persist(category);
+
+        Experience hike = entityManager.persist(Experience.builder()
+                .title("Gower Hike")
+                .status(ExperienceStatus.APPROVED)
+                .host(guest)
+                .category(category)
+                .build());
+        slot = entityManager.persist(Availability.builder()
+                .experience(hike)
+                .date(LocalDate.now().plusDays(3))
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(12, 0))
+                .capacity(10)
+                .build());
+    }
+
+    private Booking book(int guests, BookingStatus status) {
+        return entityManager.persist(Booking.builder()
+                .user(guest)
+                .availability(slot)
+                .numberOfGuests(guests)
+                .totalPrice(BigDecimal.TEN)
+                .status(status)
+                .build());
+    }
+
+    private void changeStatus(Booking booking, BookingStatus status) {
+        BookingStatus previous = booking.getStatus();
+        booking.setStatus(status);
+        slotCapacityService.onBookingStatusChanged(booking, previous);
+    }
+
+    private int bookedGuests() {
+        entityManager.clear();
+        return entityManager.find(Availability.class, slot.getId()).getBookedGuests();
+    }
+
+    @Test
+    void onBookingStatusChanged_countsOnlyConfirmedGuests() {
+        Booking confirmed = book(3, BookingStatus.CONFIRMED);
+        slotCapacityService.onBookingStatusChanged(confirmed, null);
+        Booking pending = book(2, BookingStatus.PENDING);
+        slotCapacityService.onBookingStatusChanged(pending, null);
+        assertThat(bookedGuests()).isEqualTo(3);
+
+        changeStatus(pending, BookingStatus.CONFIRMED);
+        assertThat(bookedGuests()).isEqualTo(5);
+
+        changeStatus(confirmed, BookingStatus.CANCELLED);
+        assertThat(bookedGuests()).isEqualTo(2);
+    }
+
+    @Test
+    void onBookingStatusChanged_refusesToConfirmPastCapacity_andLeavesTheCounterAlone() {
+        slotCapacityService.onBookingStatusChanged(book(8, BookingStatus.CONFIRMED), null);
+        Booking pending = book(3, BookingStatus.PENDING);
+
+        assertThatThrownBy(() -> changeStatus(pending, BookingStatus.CONFIRMED))
+                .isInstanceOf(BookingException.class);
+        assertThat(bookedGuests()).isEqualTo(8);
+
+        slotCapacityService.reserve(slot.getId(), 2);
+        assertThat(bookedGuests()).isEqualTo(10);
+    }
+
+    @Test
+    void reconcile_correctsCountersThatDriftedFromTheBookings() {
+        book(4, BookingStatus.CONFIRMED);
+        book(1, BookingStatus.CANCELLED);
+        entityManager.flush();
+
+        assertThat(slotCapacityService.reconcile()).isEqualTo(1);
+        assertThat(bookedGuests()).isEqualTo(4);
+        assertThat(slotCapacityService.reconcile()).isZero();
+    }
+
+    @Test
+    void reconcile_recountsHeldGuestsFromTheActiveHolds() {
+        slot.setHeldGuests(3);
+        entityManager.flush();
+
+        assertThat(slotCapacityService.reconcile()).isEqualTo(1);
+        entityManager.clear();
+        assertThat(entityManager.find(Availability.class, slot.getId()).getHeldGuests()).isZero();
+    }
+}
@@ -0,0 +1,145 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.Integration.FakeStripeEvents.FakeEvent;
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.model.StripeWebhookDeadLetter;
+import com.Mybeez.TeamB.TeamB.model.StripeWebhookEvent;
+import com.Mybeez.TeamB.TeamB.model.WebhookEventStatus;
+import com.Mybeez.TeamB.TeamB.repository.StripeWebhookDeadLetterRepository;
+import com.Mybeez.TeamB.TeamB.repository.StripeWebhookEventRepository;
+import com.Mybeez.TeamB.TeamB.service.StripeEventHandler;
+import com.Mybeez.TeamB.TeamB.service.StripeWebhookProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Feeds locally generated Stripe events through the webhook pipeline on H2, with the handler mocked,
+ * and waits for the background workers to settle each one.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "stripe.webhook.max-attempts=3",
+        "stripe.webhook.initial-backoff-ms=20",
+        "stripe.webhook.max-backoff-ms=50"
+})
+@ActiveProfiles("test")
+@Import(StripeWebhookProcessor.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StripeWebhookProcessorTest {
+
+    @Autowired private StripeWebhookProcessor processor;
+    @Autowired private StripeWebhookEventRepository eventRepository;
+    @Autowired private StripeWebhookDeadLetterRepository deadLetterRepository;
+
+    @MockBean
+    private StripeEventHandler handler;
+
+    @AfterEach
+    void tearDown() {
+        deadLetterRepository.deleteAll();
+        eventRepository.deleteAll();
+    }
+
+    private StripeWebhookEvent stored(FakeEvent event) {
+        return eventRepository.findAll().stream()
+                .filter(e -> e.getEventId().equals(event.id()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        LocalDateTime deadline = LocalDateTime.now().plusSeconds(10);
+        while (!condition.getAsBoolean() && LocalDateTime.now().isBefore(deadline)) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @Test
+    void redeliveredEvents_areStoredAndHandledOnce() throws InterruptedException {
+        FakeEvent event = FakeStripeEvents.checkoutCompleted(Map.of("holdId", "1"));
+
+        assertThat(processor.receive(event.id(), event.type(), event.payload())).isTrue();
+        assertThat(processor.receive(event.id(), event.type(), event.payload())).isFalse();
+        await(() -> stored(event).getStatus() == WebhookEventStatus.PROCESSED);
+
+        assertThat(eventRepository.count()).isEqualTo(1);
+        assertThat(stored(event).getAttempts()).isEqualTo(1);
+        verify(handler, times(1)).handle(event.type(), event.payload());
+    }
+
+    @Test
+    void aFailingEvent_isRetriedWithBackoff_untilItSucceeds() throws InterruptedException {
+        FakeEvent event = FakeStripeEvents.checkoutCompleted(Map.of("holdId", "2"));
+        doThrow(new IllegalStateException("database unavailable"))
+                .doNothing()
+                .when(handler).handle(anyString(), anyString());
+
+        processor.receive(event.id(), event.type(), event.payload());
+        await(() -> stored(event).getStatus() == WebhookEventStatus.PROCESSED);
+
+        assertThat(stored(event).getAttempts()).isEqualTo(2);
+        assertThat(stored(event).getLastError()).contains("database unavailable");
+        assertThat(deadLetterRepository.count()).isZero();
+    }
+
+    @Test
+    void anEventThatKeepsFailing_endsInTheDeadLetterTable() throws InterruptedException {
+        FakeEvent event = FakeStripeEvents.checkoutCompleted(Map.of("holdId", "3"));
+        doThrow(new IllegalStateException("database unavailable")).when(handler).handle(anyString(), anyString());
+
+        processor.receive(event.id(), event.type(), event.payload());
+        await(() -> stored(event).getStatus() == WebhookEventStatus.DEAD);
+
+        verify(handler, times(3)).handle(event.type(), event.payload());
+        List<StripeWebhookDeadLetter> deadLetters = deadLetterRepository.findAll();
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0).getEventId()).isEqualTo(event.id());
+        assertThat(deadLetters.get(0).getAttempts()).isEqualTo(3);
+        assertThat(deadLetters.get(0).getPayload()).isEqualTo(event.payload());
+    }
+
+    @Test
+    void aFullSlot_isDeadLetteredWithoutRetrying() throws InterruptedException {
+        FakeEvent event = FakeStripeEvents.checkoutCompleted(Map.of("holdId", "4"));
+        doThrow(new BookingException("Not enough spots available for this time slot."))
+                .when(handler).handle(anyString(), anyString());
+
+        processor.receive(event.id(), event.type(), event.payload());
+        await(() -> stored(event).getStatus() == WebhookEventStatus.DEAD);
+
+        verify(handler, times(1)).handle(event.type(), event.payload());
+        assertThat(deadLetterRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void manyEventsAtOnce_areAllProcessed() throws InterruptedException {
+        doNothing().when(handler).handle(anyString(), anyString());
+        for (int i = 0; i < 50; i++) {
+            FakeEvent event = FakeStripeEvents.checkoutExpired(Map.of("holdId", String.valueOf(100 + i)));
+            processor.receive(event.id(), event.type(), event.payload());
+        }
+
+        await(() -> eventRepository.findAll().stream().allMatch(e -> e.getStatus() == WebhookEventStatus.PROCESSED));
+        assertThat(eventRepository.count()).isEqualTo(50);
+    }
+}
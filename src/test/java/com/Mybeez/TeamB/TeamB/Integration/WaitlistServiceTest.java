@@ -0,0 +1,256 @@
+package com.Mybeez.TeamB.TeamB.Integration;
+
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.exception.SlotNotFullException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Booking;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.SeatHold;
+import com.Mybeez.TeamB.TeamB.model.SeatHoldStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.model.WaitlistStatus;
+import com.Mybeez.TeamB.TeamB.payload.BookingRequest;
+import com.Mybeez.TeamB.TeamB.payload.WaitlistEntryDTO;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
+import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceCategoryRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.repository.SeatHoldRepository;
+import com.Mybeez.TeamB.TeamB.repository.UserRepository;
+import com.Mybeez.TeamB.TeamB.repository.WaitlistEntryRepository;
+import com.Mybeez.TeamB.TeamB.service.BookingManagementService;
+import com.Mybeez.TeamB.TeamB.service.BookingService;
+import com.Mybeez.TeamB.TeamB.service.ReservationRetryPolicy;
+import com.Mybeez.TeamB.TeamB.service.SeatHoldService;
+import com.Mybeez.TeamB.TeamB.service.SlotCapacityService;
+import com.Mybeez.TeamB.TeamB.service.WaitlistService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Promotes waitlisted users on H2 with committed transactions, driven by the same events the booking
+ * management and seat hold code publish. A promoted entry holds seats rather than booking them.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ActiveProfiles("test")
+@Import({WaitlistService.class, BookingService.class, BookingManagementService.class, SeatHoldService.class,
+        SlotCapacityService.class, ReservationRetryPolicy.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WaitlistServiceTest {
+
+    @Autowired private WaitlistService waitlistService;
+    @Autowired private BookingService bookingService;
+    @Autowired private BookingManagementService bookingManagementService;
+    @Autowired private SeatHoldService seatHoldService;
+    @Autowired private WaitlistEntryRepository waitlistRepository;
+    @Autowired private SeatHoldRepository seatHoldRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ExperienceCategoryRepository categoryRepository;
+    @Autowired private ExperienceRepository experienceRepository;
+    @Autowired private AvailabilityRepository availabilityRepository;
+    @Autowired private BookingRepository bookingRepository;
+
+    private User host;
+    private User first;
+    private User second;
+    private User third;
+    private Availability slot;
+
+    @BeforeEach
+    void setUp() {
+        host = saveUser("host@example.com");
+        first = saveUser("first@example.com");
+        second = saveUser("second@example.com");
+        third = saveUser("third@example.com");
+
+        ExperienceCategory category = new ExperienceCategory();
+        category.setName("Outdoors");
+        category = categoryRepository.save(category);
+
+        Experience hike = experienceRepository.save(Experience.builder()
+                .title("Gower Hike")
+                .status(ExperienceStatus.APPROVED)
+                .host(host)
+                .category(category)
+                .groupPricePerPerson(new BigDecimal("25.00"))
+                .build());
+        slot = availabilityRepository.save(Availability.builder()
+                .experience(hike)
+                .date(LocalDate.now().plusDays(3))
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(12, 0))
+                .capacity(4)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        await(() -> !waitlistService.isPromoting(slot.getId()));
+        waitlistRepository.deleteAll();
+        seatHoldRepository.deleteAll();
+        bookingRepository.deleteAll();
+        availabilityRepository.deleteAll();
+        experienceRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private User saveUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        return userRepository.save(user);
+    }
+
+    private BookingRequest request(int guests) {
+        BookingRequest request = new BookingRequest();
+        request.setAvailabilityId(slot.getId().intValue());
+        request.setNumberOfGuests(guests);
+        return request;
+    }
+
+    private WaitlistStatus statusOf(WaitlistEntryDTO entry) {
+        return waitlistRepository.findById(entry.id()).orElseThrow().getStatus();
+    }
+
+    private int heldGuests() {
+        return availabilityRepository.findById(slot.getId().intValue()).orElseThrow().getHeldGuests();
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        await(() -> !waitlistService.isPromoting(slot.getId()));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        LocalDateTime deadline = LocalDateTime.now().plusSeconds(10);
+        while (!condition.getAsBoolean() && LocalDateTime.now().isBefore(deadline)) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @Test
+    void rejectingABooking_promotesTheWaitlistInOrder() throws InterruptedException {
+        Booking full = bookingService.createBooking(request(4), host.getId());
+        WaitlistEntryDTO pair = waitlistService.join(request(2), first.getId());
+        WaitlistEntryDTO trio = waitlistService.join(request(3), second.getId());
+        WaitlistEntryDTO single = waitlistService.join(request(1), third.getId());
+        assertThat(waitlistService.getEntry(single.id(), third.getId()).position()).isEqualTo(3);
+
+        bookingManagementService.rejectBooking(full.getId(), host);
+        awaitIdle();
+
+        // The trio fits after the pair, and the single waits behind it rather than jumping the queue
+        assertThat(statusOf(pair)).isEqualTo(WaitlistStatus.PROMOTED);
+        assertThat(statusOf(trio)).isEqualTo(WaitlistStatus.WAITING);
+        assertThat(statusOf(single)).isEqualTo(WaitlistStatus.WAITING);
+        assertThat(waitlistService.getEntry(single.id(), third.getId()).position()).isEqualTo(2);
+        assertThat(heldGuests()).isEqualTo(2);
+
+        waitlistService.leave(trio.id(), second.getId());
+        awaitIdle();
+
+        assertThat(statusOf(single)).isEqualTo(WaitlistStatus.PROMOTED);
+        assertThat(heldGuests()).isEqualTo(3);
+        // Nothing is booked until the user pays for the seats held for them
+        assertThat(bookingRepository.findByUserIdOrderByCreatedAtDesc(third.getId())).isEmpty();
+        Long holdId = waitlistService.getEntry(single.id(), third.getId()).seatHoldId();
+        assertThat(seatHoldRepository.findById(holdId)).get().satisfies(hold -> {
+            assertThat(hold.getStatus()).isEqualTo(SeatHoldStatus.ACTIVE);
+            assertThat(hold.getNumberOfGuests()).isEqualTo(1);
+            assertThat(hold.getTotalPrice()).isEqualByComparingTo("25.00");
+        });
+    }
+
+    @Test
+    void releasingASeatHold_promotesTheWaitlist() throws InterruptedException {
+        SeatHold hold = seatHoldService.hold(host.getId(), slot.getId(), 4, null);
+        WaitlistEntryDTO entry = waitlistService.join(request(2), first.getId());
+        assertThat(statusOf(entry)).isEqualTo(WaitlistStatus.WAITING);
+
+        seatHoldService.release(hold.getId());
+        awaitIdle();
+
+        assertThat(statusOf(entry)).isEqualTo(WaitlistStatus.PROMOTED);
+        assertThat(heldGuests()).isEqualTo(2);
+    }
+
+    @Test
+    void joining_isRefusedTwiceForTheSameSlot_andForPartiesLargerThanTheSlot() {
+        bookingService.createBooking(request(4), host.getId());
+        waitlistService.join(request(1), first.getId());
+
+        assertThatThrownBy(() -> waitlistService.join(request(2), first.getId())).isInstanceOf(BookingException.class);
+        assertThatThrownBy(() -> waitlistService.join(request(5), second.getId())).isInstanceOf(BookingException.class);
+    }
+
+    @Test
+    void joining_isRefusedWhileTheSlotStillHasRoom() {
+        bookingService.createBooking(request(2), host.getId());
+        seatHoldService.hold(host.getId(), slot.getId(), 1, null);
+
+        assertThatThrownBy(() -> waitlistService.join(request(1), first.getId())).isInstanceOf(SlotNotFullException.class);
+        // Held seats count as taken, so a pair has to wait
+        assertThat(waitlistService.join(request(2), first.getId()).status()).isEqualTo(WaitlistStatus.WAITING);
+    }
+
+    @Test
+    void aBurstOfPromotionRequests_neverOverbooksTheSlot() throws InterruptedException {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            bookings.add(bookingService.createBooking(request(1), host.getId()));
+        }
+        List<WaitlistEntryDTO> entries = List.of(
+                waitlistService.join(request(1), first.getId()),
+                waitlistService.join(request(1), second.getId()),
+                waitlistService.join(request(1), third.getId()));
+
+        // Cancel two bookings and fire promotion requests at the slot from many threads at once
+        bookings.subList(0, 2).forEach(booking -> bookingManagementService.rejectBooking(booking.getId(), host));
+        ExecutorService burst = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 50; i++) {
+            burst.execute(() -> {
+                try {
+                    start.await();
+                    waitlistService.requestPromotion(slot.getId());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        burst.shutdown();
+        assertThat(burst.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        awaitIdle();
+
+        assertThat(entries).extracting(this::statusOf)
+                .containsExactly(WaitlistStatus.PROMOTED, WaitlistStatus.PROMOTED, WaitlistStatus.WAITING);
+        assertThat(heldGuests()).isEqualTo(2);
+        assertThat(seatHoldRepository.findAll()).hasSize(2);
+    }
+}
@@ -8,19 +8,30 @@ import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
 import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
 import com.Mybeez.TeamB.TeamB.repository.UserRepository;
 import com.Mybeez.TeamB.TeamB.service.BookingService;
+import com.Mybeez.TeamB.TeamB.service.ReservationRetryPolicy;
+import com.Mybeez.TeamB.TeamB.service.SlotCapacityService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -33,6 +44,14 @@ class BookingServiceTest {
     private AvailabilityRepository availabilityRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private SlotCapacityService slotCapacityService;
+    @Spy
+    private ReservationRetryPolicy reservationRetryPolicy = new ReservationRetryPolicy(3, 0, 0);
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
 
     @InjectMocks
     private BookingService bookingService;
@@ -75,7 +94,6 @@ class BookingServiceTest {
         // Tell mock repositories what to return when they are called
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(availabilityRepository.findById(101)).thenReturn(Optional.of(groupSlot));
-        when(bookingRepository.findTotalBookedGuestsForAvailabilityIds(any())).thenReturn(List.of());
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Call the method we want to test
@@ -96,7 +114,6 @@ class BookingServiceTest {
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(availabilityRepository.findById(102)).thenReturn(Optional.of(privateSlot));
-        when(bookingRepository.findTotalBookedGuestsForAvailabilityIds(any())).thenReturn(List.of());
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
 
@@ -116,12 +133,10 @@ class BookingServiceTest {
         request.setNumberOfGuests(5); // Requesting 5 spots
 
         // Simulate that 8 spots are already booked
-        List<Object[]> bookedResults = new java.util.ArrayList<>();
-        bookedResults.add(new Object[]{101, 8L});
+        groupSlot.setBookedGuests(8);
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(availabilityRepository.findById(101)).thenReturn(Optional.of(groupSlot));
-        when(bookingRepository.findTotalBookedGuestsForAvailabilityIds(any())).thenReturn(bookedResults);
 
         // Check that the correct exception is thrown
         BookingException exception = assertThrows(BookingException.class, () -> {
@@ -130,4 +145,87 @@ class BookingServiceTest {
 
         assertEquals("Not enough spots available for this time slot.", exception.getMessage());
     }
+
+    @Test
+    void createBooking_addsTheGuestsToTheSlotCounter() {
+        BookingRequest request = new BookingRequest();
+        request.setAvailabilityId(101);
+        request.setNumberOfGuests(2);
+        groupSlot.setBookedGuests(8);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(availabilityRepository.findById(101)).thenReturn(Optional.of(groupSlot));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Booking result = bookingService.createBooking(request, 1L);
+
+        verify(slotCapacityService).onBookingStatusChanged(result, null);
+    }
+
+    @Test
+    void createBooking_retriesAnAttemptThatLostALockRace() {
+        BookingRequest request = new BookingRequest();
+        request.setAvailabilityId(101);
+        request.setNumberOfGuests(2);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(availabilityRepository.findById(101)).thenReturn(Optional.of(groupSlot));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new CannotAcquireLockException("deadlock"))
+                .doNothing()
+                .when(slotCapacityService).onBookingStatusChanged(any(Booking.class), Mockito.isNull());
+
+        Booking result = bookingService.createBooking(request, 1L);
+
+        assertEquals(2, result.getNumberOfGuests());
+        verify(slotCapacityService, times(2)).onBookingStatusChanged(any(Booking.class), Mockito.isNull());
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_doesNotRetryOrSave_whenTheSlotFillsUpFirst() {
+        BookingRequest request = new BookingRequest();
+        request.setAvailabilityId(101);
+        request.setNumberOfGuests(2);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(availabilityRepository.findById(101)).thenReturn(Optional.of(groupSlot));
+        doThrow(new BookingException("Not enough spots available for this time slot."))
+                .when(slotCapacityService).onBookingStatusChanged(any(Booking.class), Mockito.isNull());
+
+        assertThrows(BookingException.class, () -> bookingService.createBooking(request, 1L));
+
+        verify(slotCapacityService, times(1)).onBookingStatusChanged(any(Booking.class), Mockito.isNull());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBookingForCheckout_returnsTheExistingBooking_whenTheSessionWasAlreadyBooked() {
+        BookingRequest request = new BookingRequest();
+        request.setAvailabilityId(101);
+        request.setNumberOfGuests(3);
+        Booking existing = Booking.builder().id(9L).checkoutSessionId("cs_test_1").build();
+        when(bookingRepository.findByCheckoutSessionId("cs_test_1")).thenReturn(Optional.of(existing));
+
+        Booking result = bookingService.createBookingForCheckout(request, 1L, "cs_test_1");
+
+        assertSame(existing, result);
+        verify(slotCapacityService, never()).onBookingStatusChanged(any(), any());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createBookingForCheckout_recordsTheSession_onTheNewBooking() {
+        BookingRequest request = new BookingRequest();
+        request.setAvailabilityId(101);
+        request.setNumberOfGuests(3);
+        when(bookingRepository.findByCheckoutSessionId("cs_test_2")).thenReturn(Optional.empty());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(availabilityRepository.findById(101)).thenReturn(Optional.of(groupSlot));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Booking result = bookingService.createBookingForCheckout(request, 1L, "cs_test_2");
+
+        assertEquals("cs_test_2", result.getCheckoutSessionId());
+    }
 }
@@ -0,0 +1,123 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.service.EncryptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of decrypting a 500-message conversation: one message at a time the way EncryptionService used
+ * to (a Cipher lookup and a String.split per message), then through the batch API, sequentially and in
+ * parallel. Warm-up and measurement iterations are timed separately, as a JMH run would, and the results
+ * are printed in conversations per second. Each variant's output is checked once before it is timed, and
+ * the timed loop only feeds its results to a sink so the JIT cannot drop the work.
+ * Excluded from the test task; run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class EncryptionServiceBenchmark {
+
+    private static final String TEST_KEY = "rPR9NEzwmbIcHXds3EMy2j6jWIL0+/195aieKoTUVn4=";
+    private static final int MESSAGES = 500;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 1_000_000_000L;
+
+    private EncryptionService encryptionService;
+    private SecretKey secretKey;
+    private List<String> conversation;
+    private List<String> expected;
+
+    // Every timed result is folded into this, in the manner of a JMH Blackhole
+    private volatile int sink;
+
+    @BeforeEach
+    void setUp() {
+        encryptionService = new EncryptionService();
+        ReflectionTestUtils.setField(encryptionService, "secretKeyBase64", TEST_KEY);
+        encryptionService.init();
+        secretKey = new SecretKeySpec(Base64.getDecoder().decode(TEST_KEY), "AES");
+
+        expected = IntStream.range(0, MESSAGES)
+                .mapToObj(i -> "Message " + i + ": is the hike dog friendly, and is there parking nearby?")
+                .toList();
+        conversation = expected.stream().map(encryptionService::encrypt).toList();
+    }
+
+    @Test
+    void decryptConversation() {
+        double before = measure("one by one, Cipher per message", () -> {
+            List<String> plain = new ArrayList<>(MESSAGES);
+            for (String message : conversation) {
+                plain.add(decryptWithNewCipher(message));
+            }
+            return plain;
+        });
+
+        ReflectionTestUtils.setField(encryptionService, "parallelThreshold", 0);
+        double batch = measure("batch, sequential", () -> encryptionService.decrypt(conversation));
+
+        ReflectionTestUtils.setField(encryptionService, "parallelThreshold", 1);
+        double parallel = measure("batch, parallel", () -> encryptionService.decrypt(conversation));
+
+        System.out.printf("Speed-up: sequential batch x%.2f, parallel batch x%.2f%n", batch / before, parallel / before);
+    }
+
+    private double measure(String name, Supplier<List<String>> operation) {
+        assertEquals(expected, operation.get());
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(operation);
+        }
+        double total = 0;
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            total += iteration(operation);
+        }
+        double score = total / MEASUREMENT_ITERATIONS;
+        System.out.printf("%-32s %10.1f conversations/s (%d messages each)%n", name, score, MESSAGES);
+        return score;
+    }
+
+    // Runs the operation for one iteration's time and returns operations per second
+    private double iteration(Supplier<List<String>> operation) {
+        long start = System.nanoTime();
+        long elapsed;
+        int operations = 0;
+        do {
+            consume(operation.get());
+            operations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        return operations * 1e9 / elapsed;
+    }
+
+    private void consume(List<String> result) {
+        sink ^= System.identityHashCode(result) ^ System.identityHashCode(result.get(result.size() - 1));
+    }
+
+    // The per-message path EncryptionService.decrypt took before the batch API
+    private String decryptWithNewCipher(String encrypted) {
+        try {
+            String[] parts = encrypted.split(":", 3);
+            byte[] iv = Base64.getDecoder().decode(parts[1]);
+            byte[] cipherText = Base64.getDecoder().decode(parts[2]);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(128, iv));
+            return new String(cipher.doFinal(cipherText), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -6,6 +6,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class EncryptionServiceTest {
@@ -58,4 +62,40 @@ class EncryptionServiceTest {
             encryptionService.decrypt(wrongVersionText);
         }, "Should throw EncryptionException for an unsupported version");
     }
-}
\ No newline at end of file
+
+    @Test
+    void decryptBatch_shouldReturnPlaintextsInOrder() {
+        // Arrange
+        List<String> encrypted = Arrays.asList(
+                encryptionService.encrypt("first"), null, encryptionService.encrypt("third, with ünïcødé"));
+
+        // Act
+        List<String> decrypted = encryptionService.decrypt(encrypted);
+
+        // Assert
+        assertEquals(Arrays.asList("first", null, "third, with ünïcødé"), decrypted);
+    }
+
+    @Test
+    void decryptBatch_inParallel_shouldMatchOneByOne() {
+        // Arrange
+        ReflectionTestUtils.setField(encryptionService, "parallelThreshold", 8);
+        List<String> plain = IntStream.range(0, 200).mapToObj(i -> "Message " + i).toList();
+        List<String> encrypted = plain.stream().map(encryptionService::encrypt).toList();
+
+        // Act, Assert
+        assertEquals(plain, encryptionService.decrypt(encrypted));
+    }
+
+    @Test
+    void decryptBatch_withTamperedCiphertext_shouldThrowEncryptionException() {
+        // Arrange
+        String valid = encryptionService.encrypt("hello");
+        String tampered = valid.substring(0, valid.length() - 4) + (valid.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        // Act, Assert
+        assertThrows(EncryptionException.class, () -> encryptionService.decrypt(List.of(valid, tampered)),
+                "Should throw EncryptionException when any element fails authentication");
+        assertEquals("hello", encryptionService.decrypt(valid), "The thread's cipher should still work afterwards");
+    }
+}
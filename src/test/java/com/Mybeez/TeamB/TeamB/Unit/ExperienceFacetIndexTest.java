@@ -0,0 +1,165 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.Location;
+import com.Mybeez.TeamB.TeamB.model.SessionType;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFacets;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import com.Mybeez.TeamB.TeamB.payload.FacetValue;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceFacetIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExperienceFacetIndexTest {
+
+    private static final ExperienceFilter NO_FILTER = new ExperienceFilter(null, null, null, null, null, null, null, null);
+
+    @Mock
+    private ExperienceRepository experienceRepository;
+
+    @InjectMocks
+    private ExperienceFacetIndex facetIndex;
+
+    private ExperienceCategory wellness;
+    private ExperienceCategory outdoors;
+    private Experience yoga;
+
+    private static ExperienceCategory category(Long id, String name) {
+        ExperienceCategory c = new ExperienceCategory();
+        c.setId(id);
+        c.setName(name);
+        return c;
+    }
+
+    private static Experience exp(Long id, ExperienceCategory category, String city, String price, int minutes, SessionType... types) {
+        Location location = new Location();
+        location.setCity(city);
+        Experience e = new Experience();
+        e.setId(id);
+        e.setCategory(category);
+        e.setLocation(location);
+        e.setGroupPricePerPerson(new BigDecimal(price));
+        e.setDurationInMinutes(minutes);
+        e.setSessionTypes(Set.of(types));
+        e.setStatus(ExperienceStatus.APPROVED);
+        return e;
+    }
+
+    private static int countOf(List<FacetValue> values, String value) {
+        return values.stream().filter(v -> v.value().equals(value)).mapToInt(FacetValue::count).findFirst().orElse(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        wellness = category(1L, "Fitness & Wellness");
+        outdoors = category(2L, "Nature & Outdoors");
+        yoga = exp(1L, wellness, "Cardiff", "15.00", 60, SessionType.GROUP);
+        facetIndex.index(yoga);
+        facetIndex.index(exp(2L, outdoors, "Swansea", "35.00", 180, SessionType.GROUP, SessionType.PRIVATE));
+        facetIndex.index(exp(3L, outdoors, "Cardiff", "75.00", 240, SessionType.PRIVATE));
+    }
+
+    @Test
+    void count_withoutFilters_countsEveryApprovedExperience() {
+        ExperienceFacets facets = facetIndex.count(NO_FILTER, null);
+
+        assertThat(facets.total()).isEqualTo(3);
+        assertThat(facets.categories()).extracting(FacetValue::value, FacetValue::label, FacetValue::count)
+                .containsExactly(tuple("2", "Nature & Outdoors", 2), tuple("1", "Fitness & Wellness", 1));
+        assertThat(facets.cities()).extracting(FacetValue::label, FacetValue::count)
+                .containsExactly(tuple("Cardiff", 2), tuple("Swansea", 1));
+        assertThat(countOf(facets.sessionTypes(), "GROUP")).isEqualTo(2);
+        assertThat(countOf(facets.sessionTypes(), "PRIVATE")).isEqualTo(2);
+        assertThat(facets.priceRanges()).extracting(FacetValue::count).containsExactly(1, 1, 1, 0);
+        assertThat(facets.durations()).extracting(FacetValue::count).containsExactly(0, 1, 1, 1);
+    }
+
+    @Test
+    void count_ignoresAFacetsOwnFilter_whenCountingThatFacet() {
+        ExperienceFilter cardiffOutdoors = new ExperienceFilter(null, 2L, "cardiff", null, null, null, null, null);
+
+        ExperienceFacets facets = facetIndex.count(cardiffOutdoors, null);
+
+        assertThat(facets.total()).isEqualTo(1);
+        // Categories are counted in Cardiff only, cities within the outdoors category only
+        assertThat(countOf(facets.categories(), "1")).isEqualTo(1);
+        assertThat(countOf(facets.categories(), "2")).isEqualTo(1);
+        assertThat(facets.cities()).extracting(FacetValue::label, FacetValue::count)
+                .containsExactly(tuple("Cardiff", 1), tuple("Swansea", 1));
+        assertThat(countOf(facets.sessionTypes(), "GROUP")).isZero();
+    }
+
+    @Test
+    void count_appliesRangeFilters_andKeywordMatches() {
+        ExperienceFilter filter = new ExperienceFilter("hike", null, null, null, 100, null, null, 50);
+
+        ExperienceFacets facets = facetIndex.count(filter, Set.of(1L, 2L));
+
+        assertThat(facets.total()).isEqualTo(1);
+        assertThat(facets.priceRanges()).extracting(FacetValue::count).containsExactly(0, 1, 0, 0);
+        assertThat(facets.durations()).extracting(FacetValue::count).containsExactly(0, 1, 1, 0);
+    }
+
+    @Test
+    void count_matchesNothing_forUnknownSessionType() {
+        ExperienceFacets facets = facetIndex.count(new ExperienceFilter(null, null, null, "online", null, null, null, null), null);
+
+        assertThat(facets.total()).isZero();
+        assertThat(countOf(facets.sessionTypes(), "GROUP")).isEqualTo(2);
+    }
+
+    @Test
+    void index_movesExperienceBetweenValues_andDropsItWhenRejected() {
+        yoga.setLocation(new Location());
+        yoga.getLocation().setCity("Swansea");
+        facetIndex.index(yoga);
+        assertThat(facetIndex.count(NO_FILTER, null).cities()).extracting(FacetValue::label, FacetValue::count)
+                .containsExactly(tuple("Swansea", 2), tuple("Cardiff", 1));
+
+        yoga.setStatus(ExperienceStatus.REJECTED);
+        facetIndex.index(yoga);
+        ExperienceFacets facets = facetIndex.count(NO_FILTER, null);
+        assertThat(facets.total()).isEqualTo(2);
+        assertThat(facets.categories()).extracting(FacetValue::value).containsExactly("2");
+    }
+
+    @Test
+    void onExperienceChanged_removesDeletedExperience() {
+        when(experienceRepository.findById(3L)).thenReturn(Optional.empty());
+
+        facetIndex.onExperienceChanged(new ExperienceChangedEvent(3L));
+
+        assertThat(facetIndex.count(NO_FILTER, null).total()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuild_replacesIndexWithApprovedExperiences() {
+        when(experienceRepository.findForFacetingByStatus(ExperienceStatus.APPROVED))
+                .thenReturn(List.of(exp(9L, wellness, "Bristol", "120.00", 30, SessionType.PRIVATE)));
+
+        facetIndex.rebuild();
+
+        ExperienceFacets facets = facetIndex.count(NO_FILTER, null);
+        assertThat(facets.total()).isEqualTo(1);
+        assertThat(facets.cities()).extracting(FacetValue::label).containsExactly("Bristol");
+        assertThat(facets.priceRanges()).extracting(FacetValue::count).containsExactly(0, 0, 0, 1);
+    }
+}
@@ -0,0 +1,138 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.model.Location;
+import com.Mybeez.TeamB.TeamB.payload.GeoPoint;
+import com.Mybeez.TeamB.TeamB.payload.GeoRadius;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceGeoIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExperienceGeoIndexTest {
+
+    // Cardiff Bay, Cardiff Castle, Gower, central London
+    private static final double[][] PLACES = {
+            {51.4753, -3.1757}, {51.4816, -3.1791}, {51.5895, -4.0928}, {51.5085, -0.1257}};
+
+    @Mock
+    private ExperienceRepository experienceRepository;
+
+    @InjectMocks
+    private ExperienceGeoIndex geoIndex;
+
+    private static Experience exp(Long id, Double latitude, Double longitude) {
+        Location location = new Location();
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        Experience e = new Experience();
+        e.setId(id);
+        e.setLocation(location);
+        e.setStatus(ExperienceStatus.APPROVED);
+        return e;
+    }
+
+    private List<Long> idsWithin(double latitude, double longitude, double radiusKm) {
+        return geoIndex.within(GeoRadius.of(latitude, longitude, radiusKm)).stream()
+                .map(ExperienceGeoIndex.Hit::experienceId)
+                .toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PLACES.length; i++) {
+            geoIndex.index(exp(i + 1L, PLACES[i][0], PLACES[i][1]));
+        }
+    }
+
+    @Test
+    void within_returnsExperiencesInsideTheRadius_nearestFirst() {
+        List<ExperienceGeoIndex.Hit> hits = geoIndex.within(GeoRadius.of(51.4816, -3.1791, 80.0));
+
+        assertThat(hits).extracting(ExperienceGeoIndex.Hit::experienceId).containsExactly(2L, 1L, 3L);
+        assertThat(hits.get(0).distanceKm()).isCloseTo(0.0, within(0.001));
+        assertThat(hits.get(1).distanceKm()).isCloseTo(0.75, within(0.05));
+        assertThat(hits.get(2).distanceKm()).isCloseTo(64.4, within(1.0));
+    }
+
+    @Test
+    void within_excludesPointsOnlyInsideTheBoundingBox() {
+        // Gower is ~64 km away: inside the 65 km box corners but outside a 60 km circle
+        assertThat(idsWithin(51.4816, -3.1791, 60.0)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void within_matchesABruteForceScan() {
+        Random random = new Random(42);
+        for (long id = 100; id < 2100; id++) {
+            geoIndex.index(exp(id, 50 + random.nextDouble() * 5, -6 + random.nextDouble() * 7));
+        }
+        double latitude = 52.3;
+        double longitude = -2.5;
+        double radiusKm = 35;
+
+        List<ExperienceGeoIndex.Hit> hits = geoIndex.within(GeoRadius.of(latitude, longitude, radiusKm));
+
+        Random replay = new Random(42);
+        long expected = 0;
+        for (int i = 0; i < 2000; i++) {
+            double lat = 50 + replay.nextDouble() * 5;
+            double lon = -6 + replay.nextDouble() * 7;
+            if (new GeoPoint(latitude, longitude).distanceKmTo(lat, lon) <= radiusKm) {
+                expected++;
+            }
+        }
+        assertThat(hits).hasSize((int) expected);
+        assertThat(hits).isSortedAccordingTo(Comparator.comparingDouble(ExperienceGeoIndex.Hit::distanceKm));
+    }
+
+    @Test
+    void index_movesExperience_andDropsItWithoutCoordinatesOrApproval() {
+        geoIndex.index(exp(1L, PLACES[3][0], PLACES[3][1]));
+        assertThat(idsWithin(51.4816, -3.1791, 5.0)).containsExactly(2L);
+        assertThat(idsWithin(51.5085, -0.1257, 5.0)).containsExactly(1L, 4L);
+
+        geoIndex.index(exp(4L, null, null));
+        Experience rejected = exp(1L, PLACES[3][0], PLACES[3][1]);
+        rejected.setStatus(ExperienceStatus.REJECTED);
+        geoIndex.index(rejected);
+
+        assertThat(idsWithin(51.5085, -0.1257, 5.0)).isEmpty();
+    }
+
+    @Test
+    void onExperienceChanged_removesDeletedExperience() {
+        when(experienceRepository.findById(2L)).thenReturn(Optional.empty());
+
+        geoIndex.onExperienceChanged(new ExperienceChangedEvent(2L));
+
+        assertThat(idsWithin(51.4816, -3.1791, 5.0)).containsExactly(1L);
+    }
+
+    @Test
+    void rebuild_replacesIndexWithCoordinatesFromTheDatabase() {
+        when(experienceRepository.findCoordinatesByStatus(ExperienceStatus.APPROVED))
+                .thenReturn(List.<Object[]>of(new Object[]{9L, 31.6295, -7.9811}));
+
+        geoIndex.rebuild();
+
+        assertThat(idsWithin(51.4816, -3.1791, 500.0)).isEmpty();
+        assertThat(idsWithin(31.63, -7.98, 1.0)).containsExactly(9L);
+    }
+}
@@ -0,0 +1,113 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.RankingSignalsChangedEvent;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import com.Mybeez.TeamB.TeamB.service.ExperienceQueryCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExperienceQueryCacheTest {
+
+    private final ExperienceQueryCache cache = new ExperienceQueryCache(2, Duration.ofHours(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static ExperienceFilter category(long categoryId) {
+        return new ExperienceFilter(null, categoryId, null, null, null, null, null, null);
+    }
+
+    private List<ExperienceDTO> load() {
+        loads.incrementAndGet();
+        return new ArrayList<>(List.of(new ExperienceDTO()));
+    }
+
+    @Test
+    void canonical_treatsEquivalentFiltersAsTheSameKey() {
+        ExperienceFilter typed = new ExperienceFilter("  Sunset   YOGA ", 3L, " Cardiff", "group ", null, 90, 10, null);
+        ExperienceFilter plain = new ExperienceFilter("sunset yoga", 3L, "cardiff", "GROUP", null, 90, 10, null);
+
+        assertThat(typed.canonical()).isEqualTo(plain.canonical());
+        assertThat(new ExperienceFilter(" ", null, "", null, null, null, null, null).canonical())
+                .isEqualTo(new ExperienceFilter(null, null, null, null, null, null, null, null));
+    }
+
+    @Test
+    void get_loadsOnce_andReturnsAnUnmodifiableList() {
+        List<ExperienceDTO> first = cache.get(category(1), this::load);
+        List<ExperienceDTO> second = cache.get(category(1), this::load);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThatThrownBy(() -> second.add(new ExperienceDTO())).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void get_evictsTheLeastRecentlyUsedEntry() {
+        cache.get(category(1), this::load);
+        cache.get(category(2), this::load);
+        cache.get(category(1), this::load);
+        cache.get(category(3), this::load);
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get(category(1), this::load);
+        assertThat(loads).hasValue(3);
+        cache.get(category(2), this::load);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void get_doesNotKeepAResultLoadedWhileTheCatalogueChanged() {
+        cache.get(category(1), () -> {
+            cache.onExperienceChanged(new ExperienceChangedEvent(7L));
+            return load();
+        });
+        cache.get(category(1), this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void onRankingSignalsChanged_invalidatesEverything_afterARebuild() {
+        long version = cache.version();
+        cache.get(category(1), this::load);
+
+        cache.onRankingSignalsChanged(new RankingSignalsChangedEvent(null));
+        cache.get(category(1), this::load);
+
+        assertThat(cache.version()).isEqualTo(version + 1);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void onRankingSignalsChanged_keepsServingResults_untilTheyAreBookingStalenessOld() {
+        cache.get(category(1), this::load);
+
+        cache.onRankingSignalsChanged(new RankingSignalsChangedEvent(5L));
+        cache.get(category(1), this::load);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void onRankingSignalsChanged_reloadsResultsOlderThanBookingStaleness() {
+        ExperienceQueryCache noStaleness = new ExperienceQueryCache(2, Duration.ZERO);
+        noStaleness.get(category(1), this::load);
+        noStaleness.get(category(1), this::load);
+        assertThat(loads).hasValue(1);
+
+        noStaleness.onRankingSignalsChanged(new RankingSignalsChangedEvent(5L));
+        noStaleness.get(category(1), this::load);
+        noStaleness.get(category(1), this::load);
+
+        // Only the result loaded before the change is reloaded
+        assertThat(loads).hasValue(2);
+    }
+}
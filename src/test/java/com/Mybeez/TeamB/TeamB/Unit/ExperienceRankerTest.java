@@ -0,0 +1,109 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import com.Mybeez.TeamB.TeamB.service.BookingPopularitySignal;
+import com.Mybeez.TeamB.TeamB.service.ExperienceRanker;
+import com.Mybeez.TeamB.TeamB.service.ExperienceRankingSignals;
+import com.Mybeez.TeamB.TeamB.service.ExperienceSearchIndex;
+import com.Mybeez.TeamB.TeamB.service.RatingSignal;
+import com.Mybeez.TeamB.TeamB.service.TextRelevanceSignal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExperienceRankerTest {
+
+    private static final ExperienceFilter NO_FILTER = new ExperienceFilter(null, null, null, null, null, null, null, null);
+    private static final ExperienceFilter YOGA = new ExperienceFilter("yoga", null, null, null, null, null, null, null);
+
+    @Mock
+    private ExperienceSearchIndex searchIndex;
+
+    @Mock
+    private ExperienceRankingSignals signals;
+
+    private void stubRatings(double mean, Map<Long, long[]> sumAndCount) {
+        lenient().when(signals.meanRating()).thenReturn(mean);
+        lenient().when(signals.ratingSum(anyLong())).thenAnswer(inv -> sumAndCount.getOrDefault(inv.<Long>getArgument(0), new long[2])[0]);
+        lenient().when(signals.ratingCount(anyLong())).thenAnswer(inv -> (int) sumAndCount.getOrDefault(inv.<Long>getArgument(0), new long[2])[1]);
+    }
+
+    private void stubBookings(Map<Long, Long> bookings) {
+        lenient().when(signals.recentBookings(anyLong())).thenAnswer(inv -> bookings.getOrDefault(inv.<Long>getArgument(0), 0L));
+    }
+
+    @Test
+    void ratingSignal_shrinksFewReviewsTowardsTheMean() {
+        // 1: a single 5-star review; 2: fifty reviews averaging 4.6
+        Map<Long, long[]> ratings = new HashMap<>();
+        ratings.put(1L, new long[]{5, 1});
+        ratings.put(2L, new long[]{230, 50});
+        stubRatings(4.0, ratings);
+
+        Map<Long, Double> scores = new RatingSignal(signals, 1.0, 5).score(NO_FILTER, List.of(1L, 2L, 3L));
+
+        assertThat(scores.get(1L)).isCloseTo((5 * 4.0 + 5) / 6 / 5, within(1e-9));
+        assertThat(scores.get(2L)).isGreaterThan(scores.get(1L));
+        // No reviews at all scores the mean
+        assertThat(scores.get(3L)).isCloseTo(0.8, within(1e-9));
+    }
+
+    @Test
+    void bookingSignal_isLogScaled_withTheMostBookedAtOne() {
+        stubBookings(Map.of(1L, 100L, 2L, 10L));
+
+        Map<Long, Double> scores = new BookingPopularitySignal(signals, 1.0).score(NO_FILTER, List.of(1L, 2L, 3L));
+
+        assertThat(scores.get(1L)).isEqualTo(1.0);
+        assertThat(scores.get(2L)).isCloseTo(Math.log1p(10) / Math.log1p(100), within(1e-9));
+        assertThat(scores).doesNotContainKey(3L);
+    }
+
+    @Test
+    void textSignal_isNormalisedToTheBestMatch_andSilentWithoutKeyword() {
+        when(searchIndex.bm25("yoga", List.of(1L, 2L))).thenReturn(new HashMap<>(Map.of(1L, 2.0, 2L, 0.5)));
+        TextRelevanceSignal signal = new TextRelevanceSignal(searchIndex, 1.0);
+
+        assertThat(signal.score(YOGA, List.of(1L, 2L))).containsEntry(1L, 1.0).containsEntry(2L, 0.25);
+        assertThat(signal.score(NO_FILTER, List.of(1L, 2L))).isEmpty();
+    }
+
+    @Test
+    void rank_combinesWeightedSignals_bestFirst_tiesById() {
+        when(searchIndex.bm25("yoga", List.of(1L, 2L, 3L, 4L)))
+                .thenReturn(new HashMap<>(Map.of(1L, 1.0, 2L, 1.0, 3L, 0.2, 4L, 1.0)));
+        stubRatings(0.0, Map.of());
+        stubBookings(Map.of(4L, 20L));
+        ExperienceRanker ranker = new ExperienceRanker(List.of(
+                new TextRelevanceSignal(searchIndex, 0.6),
+                new RatingSignal(signals, 0.25, 5),
+                new BookingPopularitySignal(signals, 0.15)));
+
+        List<ExperienceRanker.Ranked> ranked = ranker.rank(YOGA, List.of(1L, 2L, 3L, 4L));
+
+        assertThat(ranked).extracting(ExperienceRanker.Ranked::experienceId).containsExactly(4L, 1L, 2L, 3L);
+        assertThat(ranked.get(0).score()).isCloseTo(0.75, within(1e-9));
+    }
+
+    @Test
+    void rank_skipsSignalsWithZeroWeight() {
+        ExperienceRanker ranker = new ExperienceRanker(List.of(new BookingPopularitySignal(signals, 0.0)));
+
+        assertThat(ranker.rank(NO_FILTER, List.of(2L, 1L))).extracting(ExperienceRanker.Ranked::experienceId)
+                .containsExactly(1L, 2L);
+        verifyNoInteractions(signals);
+    }
+}
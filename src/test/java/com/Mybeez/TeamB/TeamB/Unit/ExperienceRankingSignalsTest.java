@@ -0,0 +1,108 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.event.BookingChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.ExperienceRatingChangedEvent;
+import com.Mybeez.TeamB.TeamB.event.RankingSignalsChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.BookingStatus;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.payload.RatingSummary;
+import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceRankingSignals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExperienceRankingSignalsTest {
+
+    @Mock
+    private ExperienceRepository experienceRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ExperienceRankingSignals signals;
+
+    @BeforeEach
+    void setUp() {
+        when(experienceRepository.findRatingAggregatesByStatus(ExperienceStatus.APPROVED)).thenReturn(List.of(
+                new Object[]{1L, 9L, 2}, new Object[]{2L, 3L, 1}, new Object[]{3L, 0L, 0}));
+        when(bookingRepository.countConfirmedBookingsPerExperienceSince(any(LocalDateTime.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 4L}));
+        signals.rebuild();
+    }
+
+    @Test
+    void rebuild_loadsRatingsAndRecentBookings() {
+        assertThat(signals.meanRating()).isEqualTo(4.0);
+        assertThat(signals.ratingSum(1L)).isEqualTo(9L);
+        assertThat(signals.ratingCount(1L)).isEqualTo(2);
+        assertThat(signals.ratingCount(3L)).isZero();
+        assertThat(signals.recentBookings(1L)).isEqualTo(4L);
+        assertThat(signals.recentBookings(2L)).isZero();
+        verify(eventPublisher).publishEvent(new RankingSignalsChangedEvent(null));
+    }
+
+    @Test
+    void onExperienceRatingChanged_replacesOneExperience_andKeepsTheMeanInStep() {
+        when(experienceRepository.findRatingSummaryById(2L)).thenReturn(Optional.of(new RatingSummary(8, 2, 0, 0, 1, 0, 1)));
+
+        signals.onExperienceRatingChanged(new ExperienceRatingChangedEvent(2L));
+
+        assertThat(signals.ratingCount(2L)).isEqualTo(2);
+        assertThat(signals.meanRating()).isEqualTo(17.0 / 4);
+    }
+
+    @Test
+    void onBookingChanged_recountsTheExperience_whenConfirmedBookingsChange() {
+        when(bookingRepository.countConfirmedBookingsForExperienceSince(eq(2L), any(LocalDateTime.class))).thenReturn(1L);
+        when(bookingRepository.countConfirmedBookingsForExperienceSince(eq(1L), any(LocalDateTime.class))).thenReturn(0L);
+
+        signals.onBookingChanged(new BookingChangedEvent(10L, 20L, 2L, null, BookingStatus.CONFIRMED));
+        signals.onBookingChanged(new BookingChangedEvent(11L, 21L, 1L, BookingStatus.CONFIRMED, BookingStatus.CANCELLED));
+
+        assertThat(signals.recentBookings(2L)).isEqualTo(1L);
+        assertThat(signals.recentBookings(1L)).isZero();
+        verify(eventPublisher).publishEvent(new RankingSignalsChangedEvent(2L));
+        verify(eventPublisher).publishEvent(new RankingSignalsChangedEvent(1L));
+    }
+
+    @Test
+    void onBookingChanged_publishesNothing_whenTheRecountIsUnchanged() {
+        when(bookingRepository.countConfirmedBookingsForExperienceSince(eq(1L), any(LocalDateTime.class))).thenReturn(4L);
+
+        signals.onBookingChanged(new BookingChangedEvent(11L, 21L, 1L, BookingStatus.CONFIRMED, BookingStatus.CANCELLED));
+
+        assertThat(signals.recentBookings(1L)).isEqualTo(4L);
+        verify(eventPublisher, never()).publishEvent(new RankingSignalsChangedEvent(1L));
+    }
+
+    @Test
+    void onBookingChanged_ignoresChangesThatNeverTouchConfirmed() {
+        signals.onBookingChanged(new BookingChangedEvent(10L, 20L, 2L, BookingStatus.PENDING, BookingStatus.CANCELLED));
+
+        verify(bookingRepository).countConfirmedBookingsPerExperienceSince(any(LocalDateTime.class));
+        verifyNoMoreInteractions(bookingRepository);
+    }
+}
@@ -0,0 +1,150 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.ExperienceCategory;
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExperienceSearchIndexTest {
+
+    @Mock
+    private ExperienceRepository experienceRepository;
+
+    @InjectMocks
+    private ExperienceSearchIndex searchIndex;
+
+    private Experience yoga;
+    private Experience hike;
+
+    private static Experience exp(Long id, String title, String description, String category, Set<String> tags) {
+        ExperienceCategory c = new ExperienceCategory();
+        c.setName(category);
+        Experience e = new Experience();
+        e.setId(id);
+        e.setTitle(title);
+        e.setDescription(description);
+        e.setCategory(c);
+        e.setTags(tags);
+        e.setStatus(ExperienceStatus.APPROVED);
+        return e;
+    }
+
+    @BeforeEach
+    void setUp() {
+        yoga = exp(1L, "Sunset Yoga by the Sea", "A calming session overlooking the waves.", "Fitness & Wellness", Set.of("outdoors"));
+        hike = exp(2L, "Gower Coastline Hike", "A challenging hike along the coast.", "Nature & Outdoors", Set.of("walking"));
+        searchIndex.index(yoga);
+        searchIndex.index(hike);
+    }
+
+    @Test
+    void search_matchesTitleDescriptionTagsAndCategory() {
+        assertThat(searchIndex.search("yoga")).containsExactly(1L);
+        assertThat(searchIndex.search("waves")).containsExactly(1L);
+        assertThat(searchIndex.search("walking")).containsExactly(2L);
+        assertThat(searchIndex.search("outdoors")).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void search_isCaseInsensitiveAndStemmed() {
+        assertThat(searchIndex.search("HIKING")).containsExactly(2L);
+        assertThat(searchIndex.search("sessions")).containsExactly(1L);
+    }
+
+    @Test
+    void search_requiresAllWords_andTreatsLastWordAsPrefix() {
+        assertThat(searchIndex.search("sunset yo")).containsExactly(1L);
+        assertThat(searchIndex.search("sunset hike")).isEmpty();
+        assertThat(searchIndex.search("coast")).containsExactly(2L);
+    }
+
+    @Test
+    void search_placesNoConstraint_forStopWordsOrPunctuationOnly() {
+        assertThat(searchIndex.search("the and of")).isNull();
+        assertThat(searchIndex.search("a, the")).isNull();
+        assertThat(searchIndex.search("!!")).isNull();
+    }
+
+    @Test
+    void index_removesExperience_whenNoLongerApproved() {
+        yoga.setStatus(ExperienceStatus.REJECTED);
+        searchIndex.index(yoga);
+
+        assertThat(searchIndex.search("yoga")).isEmpty();
+        assertThat(searchIndex.search("outdoors")).containsExactly(2L);
+    }
+
+    @Test
+    void index_dropsStaleTerms_whenExperienceIsEdited() {
+        yoga.setTitle("Sunrise Pilates");
+        searchIndex.index(yoga);
+
+        assertThat(searchIndex.search("yoga")).isEmpty();
+        assertThat(searchIndex.search("pilates")).containsExactly(1L);
+    }
+
+    @Test
+    void bm25_scoresTitleMatchesAboveDescriptionMatches() {
+        searchIndex.index(exp(3L, "Pottery Workshop", "Learn to glaze your own mug.", "Arts", Set.of()));
+        searchIndex.index(exp(4L, "Glazing Workshop", "Finish the mugs from our pottery class.", "Arts", Set.of()));
+
+        Map<Long, Double> scores = searchIndex.bm25("pottery", List.of(1L, 3L, 4L));
+
+        assertThat(scores.get(3L)).isGreaterThan(scores.get(4L));
+        assertThat(scores.get(4L)).isPositive();
+        assertThat(scores.get(1L)).isZero();
+    }
+
+    @Test
+    void bm25_weighsRareWordsMoreThanCommonOnes_andExpandsTheLastWord() {
+        // "coast" appears in one experience, "outdoors" in both
+        Map<Long, Double> scores = searchIndex.bm25("outdoors coa", List.of(1L, 2L));
+
+        assertThat(scores.get(2L)).isGreaterThan(scores.get(1L));
+        assertThat(scores.get(1L)).isPositive();
+    }
+
+    @Test
+    void bm25_forgetsRemovedExperiences() {
+        searchIndex.remove(2L);
+
+        assertThat(searchIndex.bm25("hike", List.of(1L, 2L))).containsOnlyKeys(1L).containsEntry(1L, 0.0);
+    }
+
+    @Test
+    void onExperienceChanged_removesDeletedExperience() {
+        when(experienceRepository.findById(2L)).thenReturn(Optional.empty());
+
+        searchIndex.onExperienceChanged(new ExperienceChangedEvent(2L));
+
+        assertThat(searchIndex.search("hike")).isEmpty();
+    }
+
+    @Test
+    void rebuild_replacesIndexWithApprovedExperiences() {
+        Experience cooking = exp(3L, "Moroccan Cooking", "Tagines and mint tea.", "Food & Drink", Set.of());
+        when(experienceRepository.findForIndexingByStatus(ExperienceStatus.APPROVED)).thenReturn(List.of(cooking));
+
+        searchIndex.rebuild();
+
+        assertThat(searchIndex.search("yoga")).isEmpty();
+        assertThat(searchIndex.search("tagine")).containsExactly(3L);
+    }
+}
@@ -9,20 +9,24 @@ import com.Mybeez.TeamB.TeamB.payload.LocationRequest;
 import com.Mybeez.TeamB.TeamB.repository.ExperienceCategoryRepository;
 import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
 import com.Mybeez.TeamB.TeamB.repository.LocationRepository;
-import com.Mybeez.TeamB.TeamB.repository.ReviewRepository;
 import com.Mybeez.TeamB.TeamB.repository.UserRepository;
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.service.ExperienceDTOAssembler;
+import com.Mybeez.TeamB.TeamB.service.ExperienceSearchIndex;
 import com.Mybeez.TeamB.TeamB.service.ExperienceService;
+import com.Mybeez.TeamB.TeamB.service.FeaturedExperiencesCache;
+import com.Mybeez.TeamB.TeamB.service.PostcodeGeocoder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import org.springframework.data.domain.PageRequest;
 
 import java.util.Collections;
 import java.util.List;
@@ -30,6 +34,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,17 +47,32 @@ class ExperienceServiceTest {
     // FIX: Add mocks for all dependencies required by the ExperienceService constructor
     @Mock
     private UserRepository userRepository;
-    @Mock
-    private ReviewRepository reviewRepository;
 
     @Mock
     private ExperienceCategoryRepository experienceCategoryRepository;
     @Mock
     private LocationRepository locationRepository;
+    @Mock
+    private ExperienceSearchIndex searchIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ExperienceDTOAssembler dtoAssembler;
+    @Mock
+    private FeaturedExperiencesCache featuredExperiencesCache;
+    @Mock
+    private PostcodeGeocoder postcodeGeocoder;
 
     @InjectMocks
     private ExperienceService experienceService;
 
+    @BeforeEach
+    void stubAssembler() {
+        // The batched loading is covered by ExperienceDTOAssemblerQueryCountTest; here it just maps entity by entity
+        lenient().when(dtoAssembler.toDtos(anyList())).thenAnswer(inv ->
+                inv.<List<Experience>>getArgument(0).stream().map(ExperienceDTO::new).toList());
+    }
+
     private User host;
     private Experience experience;
     private ExperienceCategory category;
@@ -151,6 +171,7 @@ class ExperienceServiceTest {
         assertEquals("Test Experience", result.getTitle()); // This will now pass.
         assertEquals(host, result.getHost());
         verify(experienceRepository, times(1)).save(any(Experience.class));
+        verify(eventPublisher).publishEvent(any(ExperienceChangedEvent.class));
     }
 
     // --- Test Cases for updateExperienceForHost ---
@@ -180,6 +201,7 @@ class ExperienceServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("Updated Title", result.getTitle());
+        verify(postcodeGeocoder).geocode(any(Location.class));
     }
 
     @Test
@@ -223,45 +245,14 @@ class ExperienceServiceTest {
     }
 
     @Test
-    void getFeaturedExperiences_ShouldUseReviewRatings_WhenReviewsExist() {
-        // Arrange
-        List<Long> topRatedIds = List.of(3L, 1L, 2L);
-        when(reviewRepository.findTopRatedExperienceIds(any(PageRequest.class))).thenReturn(topRatedIds);
+    void getFeaturedExperiences_ShouldServeCachedSnapshot() {
+        ExperienceDTO featured = new ExperienceDTO();
+        featured.setId(3L);
+        when(featuredExperiencesCache.getFeatured()).thenReturn(List.of(featured));
 
-        Experience exp1 = Experience.builder().id(1L).title("Experience 1").build();
-        Experience exp2 = Experience.builder().id(2L).title("Experience 2").build();
-        Experience exp3 = Experience.builder().id(3L).title("Experience 3").build();
-        when(experienceRepository.findAllById(topRatedIds)).thenReturn(List.of(exp1, exp2, exp3));
-
-        // Act
         List<ExperienceDTO> result = experienceService.getFeaturedExperiences();
 
-        // Assert
-        assertThat(result).hasSize(3);
-        assertThat(result.get(0).getId()).isEqualTo(3L);
-        assertThat(result.get(1).getId()).isEqualTo(1L);
-        assertThat(result.get(2).getId()).isEqualTo(2L);
-
-        verify(reviewRepository, times(1)).findTopRatedExperienceIds(any(PageRequest.class));
-        verify(experienceRepository, never()).findByOrderByRatingDesc(any(PageRequest.class));
-    }
-
-    @Test
-    void getFeaturedExperiences_ShouldUseFallback_WhenNoReviewsExist() {
-        // Arrange
-        when(reviewRepository.findTopRatedExperienceIds(any(PageRequest.class))).thenReturn(Collections.emptyList());
-
-        Experience expFallback = Experience.builder().id(10L).title("Fallback Experience").rating(5.0).build();
-        when(experienceRepository.findByOrderByRatingDesc(any(PageRequest.class))).thenReturn(List.of(expFallback));
-
-        // Act
-        List<ExperienceDTO> result = experienceService.getFeaturedExperiences();
-
-        // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getId()).isEqualTo(10L);
-
-        verify(reviewRepository, times(1)).findTopRatedExperienceIds(any(PageRequest.class));
-        verify(experienceRepository, times(1)).findByOrderByRatingDesc(any(PageRequest.class));
+        assertThat(result).containsExactly(featured);
+        verifyNoInteractions(experienceRepository);
     }
-}
\ No newline at end of file
+}
@@ -3,29 +3,54 @@ package com.Mybeez.TeamB.TeamB.Unit;
 import com.Mybeez.TeamB.TeamB.model.Experience;
 import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
 import com.Mybeez.TeamB.TeamB.model.Location;
+import com.Mybeez.TeamB.TeamB.exception.InvalidPaginationException;
+import com.Mybeez.TeamB.TeamB.exception.InvalidSearchParameterException;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceCursor;
 import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFacets;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceFilter;
+import com.Mybeez.TeamB.TeamB.payload.ExperiencePageResponse;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceSort;
+import com.Mybeez.TeamB.TeamB.payload.GeoRadius;
 import com.Mybeez.TeamB.TeamB.repository.ExperienceCategoryRepository;
 import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
 import com.Mybeez.TeamB.TeamB.repository.LocationRepository;
 import com.Mybeez.TeamB.TeamB.repository.UserRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceAvailabilityIndex;
+import com.Mybeez.TeamB.TeamB.service.ExperienceDTOAssembler;
+import com.Mybeez.TeamB.TeamB.service.ExperienceFacetIndex;
+import com.Mybeez.TeamB.TeamB.service.ExperienceGeoIndex;
+import com.Mybeez.TeamB.TeamB.service.ExperienceQueryCache;
+import com.Mybeez.TeamB.TeamB.service.ExperienceRanker;
+import com.Mybeez.TeamB.TeamB.service.ExperienceSearchIndex;
 import com.Mybeez.TeamB.TeamB.service.ExperienceService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
- * Unit tests for ExperienceService.filterExperiences(...).
+ * Unit tests for ExperienceService.filterExperiences(...) and its paginated variant.
  * Pure Mockito (no Spring context).
  */
 @ExtendWith(MockitoExtension.class)
@@ -35,10 +60,26 @@ class ExperienceServiceUnitTest {
     @Mock private UserRepository userRepository; // required by ctor, not used here
     @Mock private ExperienceCategoryRepository experienceCategoryRepository; // required by ctor, not used here
     @Mock private LocationRepository locationRepository; // required by ctor, not used here
+    @Mock private ExperienceSearchIndex searchIndex;
+    @Mock private ExperienceDTOAssembler dtoAssembler;
+    @Mock private ExperienceFacetIndex facetIndex;
+    @Mock private ExperienceGeoIndex geoIndex;
+    @Mock private ExperienceRanker ranker;
+    @Mock private ExperienceAvailabilityIndex availabilityIndex;
+    @Spy private ExperienceQueryCache queryCache = new ExperienceQueryCache(16, Duration.ofMinutes(1));
+
+    private static final ExperienceFilter NO_FILTER = new ExperienceFilter(null, null, null, null, null, null, null, null);
 
     @InjectMocks
     private ExperienceService experienceService;
 
+    @BeforeEach
+    void stubAssembler() {
+        // The batched loading is covered by ExperienceDTOAssemblerQueryCountTest; here it just maps entity by entity
+        lenient().when(dtoAssembler.toDtos(anyList())).thenAnswer(inv ->
+                inv.<List<Experience>>getArgument(0).stream().map(ExperienceDTO::new).toList());
+    }
+
     // Minimal Experience builder that matches your model
     private static Experience exp(Long id, String title, String city) {
         Experience e = new Experience();
@@ -75,6 +116,7 @@ class ExperienceServiceUnitTest {
         var e1 = exp(101L, "Sunset Yoga", "Cardiff");
         var e2 = exp(102L, "Morning Yoga", "Cardiff");
 
+        when(searchIndex.search(keyword)).thenReturn(Set.of(101L, 102L));
         when(experienceRepository.findAll(any(Specification.class)))
                 .thenReturn(List.of(e1, e2));
 
@@ -86,10 +128,38 @@ class ExperienceServiceUnitTest {
 
         // Assert
         assertThat(results).hasSize(2);
+        verify(searchIndex).search(keyword);
         verify(experienceRepository, times(1)).findAll(any(Specification.class));
         verifyNoMoreInteractions(experienceRepository);
     }
 
+    @Test
+    void filterExperiences_skipsDatabase_whenKeywordHasNoIndexMatches() {
+        when(searchIndex.search("underwater")).thenReturn(Set.of());
+
+        List<ExperienceDTO> results = experienceService.filterExperiences(
+                "underwater", null, null, null,
+                null, null, null, null
+        );
+
+        assertThat(results).isEmpty();
+        verifyNoInteractions(experienceRepository);
+    }
+
+    @Test
+    void filterExperiences_ignoresAKeywordWithNoSearchableWords() {
+        when(searchIndex.search("the")).thenReturn(null);
+        when(experienceRepository.findAll(any(Specification.class)))
+                .thenReturn(List.of(exp(101L, "Sunset Yoga", "Cardiff")));
+
+        List<ExperienceDTO> results = experienceService.filterExperiences(
+                "the", null, null, null,
+                null, null, null, null
+        );
+
+        assertThat(results).extracting(ExperienceDTO::getId).containsExactly(101L);
+    }
+
     @Test
     void filterExperiences_returnsEmptyList_whenRepositoryFindsNothing() {
         when(experienceRepository.findAll(any(Specification.class)))
@@ -104,4 +174,177 @@ class ExperienceServiceUnitTest {
         verify(experienceRepository).findAll(any(Specification.class));
         verifyNoMoreInteractions(experienceRepository);
     }
+
+    @Test
+    void filterExperiences_servesRepeatedSearchesFromTheCache_untilTheCatalogueChanges() {
+        when(searchIndex.search("yoga")).thenReturn(Set.of(101L));
+        when(experienceRepository.findAll(any(Specification.class)))
+                .thenReturn(List.of(exp(101L, "Sunset Yoga", "Cardiff")));
+
+        experienceService.filterExperiences("yoga", null, "Cardiff", "group", null, null, null, null);
+        List<ExperienceDTO> cached = experienceService.filterExperiences(
+                " YOGA ", null, "cardiff", " Group", null, null, null, null);
+
+        assertThat(cached).extracting(ExperienceDTO::getId).containsExactly(101L);
+        verify(experienceRepository, times(1)).findAll(any(Specification.class));
+
+        queryCache.invalidate();
+        experienceService.filterExperiences("yoga", null, "Cardiff", "group", null, null, null, null);
+
+        verify(experienceRepository, times(2)).findAll(any(Specification.class));
+    }
+
+    @Test
+    void filterExperiencesPage_fetchesOneExtraRow_andReturnsCursorForNextPage() {
+        var e1 = exp(1L, "Sunset Yoga", "Cardiff");
+        var e2 = exp(2L, "Gower Hike", "Swansea");
+        var e3 = exp(3L, "Pottery", "Cardiff");
+        doReturn(List.of(e1, e2, e3)).when(experienceRepository).findBy(any(Specification.class), any());
+
+        ExperiencePageResponse page = experienceService.filterExperiences(
+                NO_FILTER, null,
+                ExperienceSort.PRICE_ASC, null, 2);
+
+        assertThat(page.items()).extracting(ExperienceDTO::getId).containsExactly(1L, 2L);
+        ExperienceCursor next = ExperienceCursor.decode(page.nextCursor(), ExperienceSort.PRICE_ASC);
+        assertThat(next.id()).isEqualTo(2L);
+        assertThat(next.typedKey()).isEqualTo(new BigDecimal("25.00"));
+        verify(experienceRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void filterExperiencesPage_hasNoCursor_onLastPage() {
+        doReturn(List.of(exp(1L, "Sunset Yoga", "Cardiff"))).when(experienceRepository).findBy(any(Specification.class), any());
+
+        ExperiencePageResponse page = experienceService.filterExperiences(
+                NO_FILTER, null,
+                ExperienceSort.NEWEST, null, 20);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void filterExperiencesPage_rejectsCursorFromAnotherSortOrder() {
+        String ratingCursor = new ExperienceCursor(ExperienceSort.RATING, "4.5", 7L).encode();
+
+        assertThatThrownBy(() -> experienceService.filterExperiences(
+                NO_FILTER, null,
+                ExperienceSort.NEWEST, ratingCursor, 20))
+                .isInstanceOf(InvalidPaginationException.class);
+        verifyNoInteractions(experienceRepository);
+    }
+
+    @Test
+    void filterExperiencesPage_returnsFacets_evenWhenKeywordMatchesNothing() {
+        ExperienceFacets facets = new ExperienceFacets(0, List.of(), List.of(), List.of(), List.of(), List.of());
+        when(searchIndex.search("underwater")).thenReturn(Set.of());
+        when(facetIndex.count(any(ExperienceFilter.class), eq(Set.of()))).thenReturn(facets);
+
+        ExperiencePageResponse page = experienceService.filterExperiences(
+                new ExperienceFilter("underwater", 3L, null, null, null, null, null, null), null,
+                ExperienceSort.NEWEST, null, 20);
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.facets()).isSameAs(facets);
+        verify(facetIndex).count(new ExperienceFilter("underwater", 3L, null, null, null, null, null, null), Set.of());
+        verifyNoInteractions(experienceRepository);
+    }
+
+    @Test
+    void filterExperiencesPage_rejectsDistanceSort_withoutAPoint() {
+        assertThatThrownBy(() -> experienceService.filterExperiences(NO_FILTER, null, ExperienceSort.DISTANCE, null, 20))
+                .isInstanceOf(InvalidSearchParameterException.class);
+    }
+
+    @Test
+    void filterExperiencesPage_walksNearestFirst_skippingHitsThatFailTheFilters() {
+        GeoRadius near = GeoRadius.of(51.48, -3.18, 50.0);
+        when(geoIndex.within(near)).thenReturn(List.of(
+                new ExperienceGeoIndex.Hit(3L, 0.5),
+                new ExperienceGeoIndex.Hit(1L, 1.2),
+                new ExperienceGeoIndex.Hit(2L, 4.0),
+                new ExperienceGeoIndex.Hit(4L, 9.0)));
+        BitSet matching = new BitSet();
+        matching.set(1);
+        matching.set(2);
+        matching.set(4);
+        when(facetIndex.matching(NO_FILTER, Set.of(1L, 2L, 3L, 4L))).thenReturn(matching);
+        when(experienceRepository.findAll(any(Specification.class)))
+                .thenReturn(List.of(exp(2L, "Pottery", "Cardiff"), exp(1L, "Sunset Yoga", "Cardiff")));
+
+        ExperiencePageResponse page = experienceService.filterExperiences(NO_FILTER, near, ExperienceSort.DISTANCE, null, 2);
+
+        assertThat(page.items()).extracting(ExperienceDTO::getId, ExperienceDTO::getDistanceKm)
+                .containsExactly(tuple(1L, 1.2), tuple(2L, 4.0));
+        ExperienceCursor next = ExperienceCursor.decode(page.nextCursor(), ExperienceSort.DISTANCE);
+        assertThat(next.id()).isEqualTo(2L);
+        assertThat(next.typedKey()).isEqualTo(4.0);
+
+        when(experienceRepository.findAll(any(Specification.class))).thenReturn(List.of(exp(4L, "Hike", "Swansea")));
+        ExperiencePageResponse second = experienceService.filterExperiences(
+                NO_FILTER, near, ExperienceSort.DISTANCE, page.nextCursor(), 2);
+
+        assertThat(second.items()).extracting(ExperienceDTO::getId).containsExactly(4L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void filterExperiencesPage_relevance_pagesThroughTheRankedMatches() {
+        ExperienceFilter yoga = new ExperienceFilter("yoga", null, null, null, null, null, null, null);
+        when(searchIndex.search("yoga")).thenReturn(Set.of(1L, 2L, 3L));
+        BitSet matching = new BitSet();
+        matching.set(1, 4);
+        when(facetIndex.matching(yoga, Set.of(1L, 2L, 3L))).thenReturn(matching);
+        when(ranker.rank(yoga, List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new ExperienceRanker.Ranked(3L, 0.9),
+                new ExperienceRanker.Ranked(1L, 0.4),
+                new ExperienceRanker.Ranked(2L, 0.4)));
+        when(experienceRepository.findAll(any(Specification.class)))
+                .thenReturn(List.of(exp(1L, "Yoga", "Cardiff"), exp(3L, "Sunset Yoga", "Cardiff")));
+
+        ExperiencePageResponse page = experienceService.filterExperiences(yoga, null, ExperienceSort.RELEVANCE, null, 2);
+
+        assertThat(page.items()).extracting(ExperienceDTO::getId).containsExactly(3L, 1L);
+        ExperienceCursor next = ExperienceCursor.decode(page.nextCursor(), ExperienceSort.RELEVANCE);
+        assertThat(next.id()).isEqualTo(1L);
+        assertThat(next.typedKey()).isEqualTo(0.4);
+
+        when(experienceRepository.findAll(any(Specification.class))).thenReturn(List.of(exp(2L, "Yoga Flow", "Cardiff")));
+        ExperiencePageResponse second = experienceService.filterExperiences(
+                yoga, null, ExperienceSort.RELEVANCE, page.nextCursor(), 2);
+
+        assertThat(second.items()).extracting(ExperienceDTO::getId).containsExactly(2L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void filterExperiencesPage_keepsOnlyExperiencesWithRoomInTheDateRange() {
+        LocalDate from = LocalDate.now().plusDays(7);
+        ExperienceFilter window = new ExperienceFilter(
+                "yoga", null, null, null, null, null, null, null, from, from.plusDays(2), 4);
+        when(searchIndex.search("yoga")).thenReturn(Set.of(1L, 2L));
+        when(availabilityIndex.availableBetween(from, from.plusDays(2), 4)).thenReturn(Set.of(2L, 3L));
+        doReturn(List.of(exp(2L, "Yoga", "Cardiff"))).when(experienceRepository).findBy(any(Specification.class), any());
+
+        ExperiencePageResponse page = experienceService.filterExperiences(window, null, ExperienceSort.NEWEST, null, 20);
+
+        assertThat(page.items()).extracting(ExperienceDTO::getId).containsExactly(2L);
+        verify(facetIndex).count(window, Set.of(2L));
+    }
+
+    @Test
+    void filterExperiencesPage_rejectsAnInvalidAvailabilityWindow() {
+        LocalDate day = LocalDate.now().plusDays(7);
+
+        assertThatThrownBy(() -> experienceService.filterExperiences(
+                new ExperienceFilter(null, null, null, null, null, null, null, null, day, day.minusDays(1), null),
+                null, ExperienceSort.NEWEST, null, 20))
+                .isInstanceOf(InvalidSearchParameterException.class);
+        assertThatThrownBy(() -> experienceService.filterExperiences(
+                new ExperienceFilter(null, null, null, null, null, null, null, null, day, null, 0),
+                null, ExperienceSort.NEWEST, null, 20))
+                .isInstanceOf(InvalidSearchParameterException.class);
+        verifyNoInteractions(availabilityIndex, experienceRepository);
+    }
 }
@@ -0,0 +1,90 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.model.ExperienceStatus;
+import com.Mybeez.TeamB.TeamB.payload.Suggestion;
+import com.Mybeez.TeamB.TeamB.repository.BookingRepository;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceSuggestionIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExperienceSuggestionIndexTest {
+
+    @Mock
+    private ExperienceRepository experienceRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ExperienceSuggestionIndex suggestionIndex;
+
+    private final List<Object[]> sources = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // [experienceId, title, ratingCount, categoryName, city]
+        sources.add(new Object[]{1L, "Sunset Yoga by the Sea", 4, "Fitness & Wellness", "Cardiff"});
+        sources.add(new Object[]{2L, "Gower Coastline Hike", 0, "Nature & Outdoors", "Swansea"});
+        sources.add(new Object[]{3L, "Castle Photography Walk", 1, "Arts", "cardiff "});
+        lenient().when(experienceRepository.findSuggestionSourcesByStatus(ExperienceStatus.APPROVED)).thenReturn(sources);
+        lenient().when(experienceRepository.findTagsByStatus(ExperienceStatus.APPROVED))
+                .thenReturn(List.of(new Object[]{1L, "outdoors"}, new Object[]{2L, "Outdoors"}));
+        lenient().when(bookingRepository.countConfirmedBookingsPerExperience())
+                .thenReturn(List.<Object[]>of(new Object[]{2L, 10L}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        suggestionIndex.shutdown();
+    }
+
+    @Test
+    void suggest_weighsByReviewsAndBookings_andMergesSpellings() {
+        suggestionIndex.rebuild();
+
+        // Gower: 1 + 0 reviews + 10 bookings = 11; Sunset: 1 + 4 = 5; Castle: 1 + 1 = 2
+        assertThat(suggestionIndex.suggest("c", 10)).extracting(Suggestion::text)
+                .containsExactly("Gower Coastline Hike", "Cardiff", "Castle Photography Walk");
+        // Tags are weighted by the experiences carrying them, case-insensitively
+        assertThat(suggestionIndex.suggest("out", 10)).containsExactly(
+                new Suggestion("outdoors", Suggestion.Type.TAG, null),
+                new Suggestion("Nature & Outdoors", Suggestion.Type.CATEGORY, null));
+        assertThat(suggestionIndex.suggest("sunset", 10)).containsExactly(
+                new Suggestion("Sunset Yoga by the Sea", Suggestion.Type.TITLE, 1L));
+    }
+
+    @Test
+    void suggest_isEmpty_beforeTheFirstBuild() {
+        assertThat(suggestionIndex.suggest("yoga", 10)).isEmpty();
+        verifyNoInteractions(experienceRepository);
+    }
+
+    @Test
+    void scheduleRebuild_swapsInTheNewTrieInTheBackground() throws InterruptedException {
+        suggestionIndex.rebuild();
+        sources.add(new Object[]{4L, "Kayak Tour", 0, "Nature & Outdoors", "Swansea"});
+
+        suggestionIndex.scheduleRebuild();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (suggestionIndex.suggest("kayak", 10).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(suggestionIndex.suggest("kayak", 10)).extracting(Suggestion::experienceId).containsExactly(4L);
+    }
+}
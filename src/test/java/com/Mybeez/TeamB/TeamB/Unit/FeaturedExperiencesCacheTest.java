@@ -0,0 +1,118 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceRatingChangedEvent;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.payload.ExperienceDTO;
+import com.Mybeez.TeamB.TeamB.repository.ExperienceRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceDTOAssembler;
+import com.Mybeez.TeamB.TeamB.service.FeaturedExperiencesCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeaturedExperiencesCacheTest {
+
+    @Mock
+    private ExperienceRepository experienceRepository;
+    @Mock
+    private ExperienceDTOAssembler dtoAssembler;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private FeaturedExperiencesCache cache;
+
+    @BeforeEach
+    void stubAssembler() {
+        lenient().when(dtoAssembler.toDtos(anyList())).thenAnswer(inv ->
+                inv.<List<Experience>>getArgument(0).stream().map(ExperienceDTO::new).toList());
+    }
+
+    @Test
+    void getFeatured_usesRatingAggregates_whenReviewsExist() {
+        Experience exp3 = Experience.builder().id(3L).title("Experience 3").ratingSum(10).ratingCount(2).rating(5.0).build();
+        Experience exp1 = Experience.builder().id(1L).title("Experience 1").ratingSum(9).ratingCount(2).rating(4.5).build();
+        when(experienceRepository.findTopRatedByReviews(any(PageRequest.class))).thenReturn(List.of(exp3, exp1));
+
+        List<ExperienceDTO> result = cache.getFeatured();
+
+        assertThat(result).extracting(ExperienceDTO::getId).containsExactly(3L, 1L);
+        verify(experienceRepository, never()).findByOrderByRatingDesc(any(PageRequest.class));
+    }
+
+    @Test
+    void getFeatured_fallsBackToSeededRating_whenNoReviewsExist() {
+        when(experienceRepository.findTopRatedByReviews(any(PageRequest.class))).thenReturn(Collections.emptyList());
+        Experience fallback = Experience.builder().id(10L).title("Fallback Experience").rating(5.0).build();
+        when(experienceRepository.findByOrderByRatingDesc(any(PageRequest.class))).thenReturn(List.of(fallback));
+
+        List<ExperienceDTO> result = cache.getFeatured();
+
+        assertThat(result).extracting(ExperienceDTO::getId).containsExactly(10L);
+    }
+
+    @Test
+    void getFeatured_servesSnapshot_untilRatingsChange() {
+        Experience exp1 = Experience.builder().id(1L).title("Experience 1").ratingSum(4).ratingCount(1).rating(4.0).build();
+        Experience exp2 = Experience.builder().id(2L).title("Experience 2").ratingSum(5).ratingCount(1).rating(5.0).build();
+        when(experienceRepository.findTopRatedByReviews(any(PageRequest.class)))
+                .thenReturn(List.of(exp1))
+                .thenReturn(List.of(exp2, exp1));
+
+        cache.refresh();
+        cache.getFeatured();
+        cache.getFeatured();
+        assertThat(cache.getFeatured()).extracting(ExperienceDTO::getId).containsExactly(1L);
+        verify(experienceRepository, times(1)).findTopRatedByReviews(any(PageRequest.class));
+
+        cache.onExperienceRatingChanged(new ExperienceRatingChangedEvent(2L));
+
+        assertThat(cache.getFeatured()).extracting(ExperienceDTO::getId).containsExactly(2L, 1L);
+        verify(experienceRepository, times(2)).findTopRatedByReviews(any(PageRequest.class));
+    }
+
+    @Test
+    void refresh_coalescesRequestsArrivingDuringARebuild() throws Exception {
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch releaseRebuild = new CountDownLatch(1);
+        Experience exp = Experience.builder().id(1L).title("Experience 1").ratingSum(4).ratingCount(1).rating(4.0).build();
+        when(experienceRepository.findTopRatedByReviews(any(PageRequest.class)))
+                .thenAnswer(inv -> {
+                    rebuildStarted.countDown();
+                    releaseRebuild.await(5, TimeUnit.SECONDS);
+                    return List.of(exp);
+                })
+                .thenReturn(List.of(exp));
+
+        Thread rebuilder = new Thread(cache::refresh);
+        rebuilder.start();
+        assertThat(rebuildStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // These return straight away and only mark the snapshot stale
+        for (int i = 0; i < 10; i++) {
+            cache.refresh();
+        }
+        releaseRebuild.countDown();
+        rebuilder.join(5000);
+
+        // The running rebuild plus exactly one more for all the requests that arrived meanwhile
+        verify(experienceRepository, times(2)).findTopRatedByReviews(any(PageRequest.class));
+        assertThat(cache.getFeatured()).extracting(ExperienceDTO::getId).containsExactly(1L);
+    }
+}
@@ -3,6 +3,7 @@ package com.Mybeez.TeamB.TeamB.Unit;
 import com.Mybeez.TeamB.TeamB.exception.InvalidMessageContentException;
 import com.Mybeez.TeamB.TeamB.exception.UnauthorizedException;
 import com.Mybeez.TeamB.TeamB.model.Conversation;
+import com.Mybeez.TeamB.TeamB.model.InboxEntry;
 import com.Mybeez.TeamB.TeamB.model.Message;
 import com.Mybeez.TeamB.TeamB.model.User;
 import com.Mybeez.TeamB.TeamB.payload.ConversationDTO;
@@ -12,6 +13,7 @@ import com.Mybeez.TeamB.TeamB.repository.MessageRepository;
 import com.Mybeez.TeamB.TeamB.repository.UserRepository;
 import com.Mybeez.TeamB.TeamB.service.ContentValidationService;
 import com.Mybeez.TeamB.TeamB.service.EncryptionService;
+import com.Mybeez.TeamB.TeamB.service.InboxService;
 import com.Mybeez.TeamB.TeamB.service.MessageService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +23,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -46,6 +49,10 @@ class MessageServiceTest {
 
     @Mock private EncryptionService encryptionService;
 
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @Mock private InboxService inboxService;
+
     @InjectMocks
     private MessageService messageService;
 
@@ -66,6 +73,7 @@ class MessageServiceTest {
         when(conversationRepository.findConversationBetweenUsers(senderId, recipientId)).thenReturn(Optional.empty());
         // When a new conversation is saved, return it
         when(conversationRepository.save(any(Conversation.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(messageRepository.save(any(Message.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
         messageService.sendMessage(request, senderId);
@@ -95,6 +103,7 @@ class MessageServiceTest {
         when(userRepository.findById(recipientId)).thenReturn(Optional.of(recipient));
         // Simulate that a conversation ALREADY exists
         when(conversationRepository.findConversationBetweenUsers(senderId, recipientId)).thenReturn(Optional.of(existingConversation));
+        when(messageRepository.save(any(Message.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
         messageService.sendMessage(request, senderId);
@@ -118,30 +127,28 @@ class MessageServiceTest {
         user3 = User.builder().id(3L).firstName("Charlie").build();
     }
 
+    private InboxEntry inboxEntry(Long conversationId, User otherParticipant, String encryptedLastMessage, int unreadCount) {
+        return InboxEntry.builder()
+                .conversation(Conversation.builder().id(conversationId).build())
+                .user(user1)
+                .otherParticipant(otherParticipant)
+                .lastMessageId(conversationId)
+                .lastMessageContent(encryptedLastMessage)
+                .lastMessageAt(LocalDateTime.now())
+                .unreadCount(unreadCount)
+                .build();
+    }
+
     @Test
     void getConversationsForUser_shouldReturnCorrectDTOs() {
         // ARRANGE
-        // The Message entities should contain the placeholder ENCRYPTED strings
-        Message lastMessage1 = Message.builder().content("encrypted_hello_beth").build();
-        Conversation convo1 = Conversation.builder()
-                .id(101L)
-                .participants(new HashSet<>(Set.of(user1, user2)))
-                .messages(List.of(lastMessage1))
-                .build();
-
-        Message lastMessage2 = Message.builder().content("encrypted_hi_charlie").build();
-        Conversation convo2 = Conversation.builder()
-                .id(102L)
-                .participants(new HashSet<>(Set.of(user1, user3)))
-                .messages(List.of(lastMessage2))
-                .build();
-
-        List<Conversation> user1Conversations = Arrays.asList(convo1, convo2);
-        when(conversationRepository.findByParticipantIdOrderByUpdatedAtDesc(user1.getId())).thenReturn(user1Conversations);
-
-        // Mock the decryption call for each message
+        // The inbox rows hold the last messages as placeholder ENCRYPTED strings
         when(encryptionService.decrypt("encrypted_hello_beth")).thenReturn("Hello Beth");
         when(encryptionService.decrypt("encrypted_hi_charlie")).thenReturn("Hi Charlie");
+        List<ConversationDTO> inbox = List.of(
+                new ConversationDTO(inboxEntry(101L, user2, "encrypted_hello_beth", 0), encryptionService),
+                new ConversationDTO(inboxEntry(102L, user3, "encrypted_hi_charlie", 0), encryptionService));
+        when(inboxService.getConversations(user1.getId())).thenReturn(inbox);
 
         // ACT
         List<ConversationDTO> resultDTOs = messageService.getConversationsForUser(user1.getId());
@@ -152,6 +159,8 @@ class MessageServiceTest {
         assertEquals("Hello Beth", dto1.getLastMessage()); // Assert against decrypted text
         assertEquals(user2.getId(), dto1.getOtherParticipant().getId());
         assertEquals(user2.getFirstName(), dto1.getOtherParticipant().getFirstName());
+        // The conversation list no longer walks the conversations and their messages
+        verifyNoInteractions(conversationRepository, messageRepository);
     }
 
     @Test
@@ -160,16 +169,17 @@ class MessageServiceTest {
         Conversation conversation = Conversation.builder()
                 .id(200L)
                 .participants(new HashSet<>(Set.of(user1, user2)))
-                .messages(List.of(
-                        Message.builder().sender(user1).content("encrypted_msg_1").timestamp(LocalDateTime.now()).build(),
-                        Message.builder().sender(user2).content("encrypted_msg_2").timestamp(LocalDateTime.now()).build()
-                ))
                 .build();
         when(conversationRepository.findById(200L)).thenReturn(Optional.of(conversation));
+        // The latest page comes back newest first
+        when(messageRepository.findByConversationIdAndIdLessThanOrderByIdDesc(eq(200L), eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of(
+                        Message.builder().id(2L).sender(user2).content("encrypted_msg_2").timestamp(LocalDateTime.now()).build(),
+                        Message.builder().id(1L).sender(user1).content("encrypted_msg_1").timestamp(LocalDateTime.now()).build()));
 
-        // Mock the decryption call for each message
-        when(encryptionService.decrypt("encrypted_msg_1")).thenReturn("Test message 1");
-        when(encryptionService.decrypt("encrypted_msg_2")).thenReturn("Test message 2");
+        // Mock the decryption of the window, decrypted as one batch oldest first
+        when(encryptionService.decrypt(List.of("encrypted_msg_1", "encrypted_msg_2")))
+                .thenReturn(List.of("Test message 1", "Test message 2"));
 
         // ACT
         ConversationDTO result = messageService.getConversationById(200L, user1.getId());
@@ -177,7 +187,37 @@ class MessageServiceTest {
         // ASSERT
         assertNotNull(result);
         assertEquals(2, result.getMessages().size());
-        assertEquals("Test message 1", result.getMessages().get(0).getContent()); // Assert against decrypted text
+        assertEquals("Test message 1", result.getMessages().get(0).getContent()); // Assert against decrypted text, oldest first
+        assertFalse(result.getHasOlderMessages());
+        assertFalse(result.getHasNewerMessages());
+    }
+
+    @Test
+    void getConversationById_shouldOnlyDecryptTheRequestedWindow() {
+        // ARRANGE
+        Conversation conversation = Conversation.builder()
+                .id(200L)
+                .participants(new HashSet<>(Set.of(user1, user2)))
+                .build();
+        when(conversationRepository.findById(200L)).thenReturn(Optional.of(conversation));
+        // Asked for one message before id 10; the repository returns one extra to show there are older ones
+        when(messageRepository.findByConversationIdAndIdLessThanOrderByIdDesc(eq(200L), eq(10L), any()))
+                .thenReturn(List.of(
+                        Message.builder().id(9L).sender(user2).content("encrypted_msg_9").build(),
+                        Message.builder().id(8L).sender(user1).content("encrypted_msg_8").build()));
+        when(encryptionService.decrypt(List.of("encrypted_msg_9"))).thenReturn(List.of("Test message 9"));
+        when(messageRepository.existsByConversationIdAndIdGreaterThanEqual(200L, 10L)).thenReturn(true);
+
+        // ACT
+        ConversationDTO result = messageService.getConversationById(200L, user1.getId(), 10L, null, 1);
+
+        // ASSERT
+        assertEquals(1, result.getMessages().size());
+        assertEquals(9L, result.getMessages().get(0).getId());
+        assertTrue(result.getHasOlderMessages());
+        assertTrue(result.getHasNewerMessages());
+        verify(encryptionService).decrypt(List.of("encrypted_msg_9"));
+        verify(encryptionService, never()).decrypt("encrypted_msg_8");
     }
 
     @Test
@@ -217,17 +257,11 @@ class MessageServiceTest {
     void getConversationsForUser_shouldCorrectlySetHasUnreadMessagesFlag() {
         // ARRANGE
         // Convo 1 has unread messages, Convo 2 does not
-        Conversation convoWithUnread = Conversation.builder().id(101L).participants(new HashSet<>(Set.of(user1, user2))).messages(List.of(Message.builder().content("unread").build())).build();
-        Conversation convoWithoutUnread = Conversation.builder().id(102L).participants(new HashSet<>(Set.of(user1, user3))).messages(List.of(Message.builder().content("read").build())).build();
-        List<Conversation> conversations = Arrays.asList(convoWithUnread, convoWithoutUnread);
-
-        when(conversationRepository.findByParticipantIdOrderByUpdatedAtDesc(user1.getId())).thenReturn(conversations);
-
-        // Mock the repository check for each conversation
-        when(messageRepository.existsByConversationIdAndSenderIdNotAndIsReadFalse(101L, user1.getId())).thenReturn(true);
-        when(messageRepository.existsByConversationIdAndSenderIdNotAndIsReadFalse(102L, user1.getId())).thenReturn(false);
-        // Mock decrypt even for this test, as the DTO constructor requires it
         when(encryptionService.decrypt(anyString())).thenReturn("some decrypted message");
+        List<ConversationDTO> inbox = List.of(
+                new ConversationDTO(inboxEntry(101L, user2, "unread", 3), encryptionService),
+                new ConversationDTO(inboxEntry(102L, user3, "read", 0), encryptionService));
+        when(inboxService.getConversations(user1.getId())).thenReturn(inbox);
 
         // ACT
         List<ConversationDTO> resultDTOs = messageService.getConversationsForUser(user1.getId());
@@ -237,6 +271,7 @@ class MessageServiceTest {
 
         ConversationDTO unreadDto = resultDTOs.stream().filter(dto -> dto.getId().equals(101L)).findFirst().orElseThrow();
         assertTrue(unreadDto.isHasUnreadMessages(), "Conversation 101 should be marked as unread");
+        assertEquals(3, unreadDto.getUnreadCount());
 
         ConversationDTO readDto = resultDTOs.stream().filter(dto -> dto.getId().equals(102L)).findFirst().orElseThrow();
         assertFalse(readDto.isHasUnreadMessages(), "Conversation 102 should be marked as read");
@@ -244,7 +279,7 @@ class MessageServiceTest {
 
 
     // Verifies the important side-effect that when a user gets messages for a
-    // conversation, the messages are marked as read in the database
+    // conversation, the conversation is marked as read for them
     @Test
     void getConversationById_shouldMarkMessagesAsRead() {
         // ARRANGE
@@ -253,29 +288,35 @@ class MessageServiceTest {
         Conversation conversation = Conversation.builder().id(conversationId).participants(new HashSet<>(Set.of(user1, user2))).messages(new ArrayList<>()).build();
 
         when(conversationRepository.findById(conversationId)).thenReturn(Optional.of(conversation));
+        when(messageRepository.findByConversationIdAndIdLessThanOrderByIdDesc(eq(conversationId), eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of(
+                        Message.builder().id(12L).sender(user2).content("encrypted_msg_12").build(),
+                        Message.builder().id(11L).sender(user2).content("encrypted_msg_11").build()));
+        when(encryptionService.decrypt(List.of("encrypted_msg_11", "encrypted_msg_12")))
+                .thenReturn(List.of("Test message 11", "Test message 12"));
 
         // ACT
         messageService.getConversationById(conversationId, currentUserId);
 
         // ASSERT
-        // Verify that the repository method to mark messages as read was called exactly once with the correct parameters
-        verify(messageRepository, times(1)).markMessagesAsReadInConversation(conversationId, currentUserId);
+        // Verify that the user's read watermark was moved exactly once, up to the newest message they received
+        verify(inboxService, times(1)).onConversationRead(conversationId, currentUserId, 12L);
     }
 
 
-    // A test to ensure the unread count method is wired correctly to the repository
+    // A test to ensure the unread count method is wired correctly to the inbox
     @Test
-    void getUnreadMessageCount_shouldReturnCountFromRepository() {
+    void getUnreadMessageCount_shouldReturnCountFromInbox() {
         // ARRANGE
         Long currentUserId = user1.getId();
         long expectedCount = 5L;
-        when(messageRepository.countUnreadMessagesForUser(currentUserId)).thenReturn(expectedCount);
+        when(inboxService.getUnreadCount(currentUserId)).thenReturn(expectedCount);
 
         // ACT
         long actualCount = messageService.getUnreadMessageCount(currentUserId);
 
         // ASSERT
-        assertEquals(expectedCount, actualCount, "The count from the service should match the count from the repository");
+        assertEquals(expectedCount, actualCount, "The count from the service should match the count from the inbox");
     }
 
 
@@ -320,6 +361,7 @@ class MessageServiceTest {
         when(userRepository.findById(2L)).thenReturn(Optional.of(recipient));
         when(conversationRepository.findConversationBetweenUsers(anyLong(), anyLong())).thenReturn(Optional.empty());
         when(conversationRepository.save(any(Conversation.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(messageRepository.save(any(Message.class))).thenAnswer(inv -> inv.getArgument(0));
         when(contentValidationService.isContentInvalid(anyString())).thenReturn(false);
         when(encryptionService.encrypt(plainTextMessage)).thenReturn(encryptedMessage);
 
@@ -334,5 +376,7 @@ class MessageServiceTest {
 
         assertEquals(encryptedMessage, savedMessage.getContent());
         assertNotEquals(plainTextMessage, savedMessage.getContent());
+        // Both inboxes get the encrypted message, never the plain text
+        verify(inboxService).onMessageSent(any(Conversation.class), eq(savedMessage), eq(sender), eq(recipient));
     }
 }
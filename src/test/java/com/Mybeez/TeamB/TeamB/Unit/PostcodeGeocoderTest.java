@@ -0,0 +1,76 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.model.Location;
+import com.Mybeez.TeamB.TeamB.payload.GeoPoint;
+import com.Mybeez.TeamB.TeamB.repository.LocationRepository;
+import com.Mybeez.TeamB.TeamB.service.PostcodeGeocoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostcodeGeocoderTest {
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @InjectMocks
+    private PostcodeGeocoder geocoder;
+
+    private static Location location(String postcode) {
+        Location location = new Location();
+        location.setPostcode(postcode);
+        return location;
+    }
+
+    @BeforeEach
+    void setUp() {
+        geocoder.loadCentroids();
+    }
+
+    @Test
+    void locate_fallsBackToTheOutwardCode_ignoringCaseAndSpaces() {
+        GeoPoint district = geocoder.locate("CF10").orElseThrow();
+
+        assertThat(geocoder.locate("CF10 4GA")).contains(district);
+        assertThat(geocoder.locate(" cf104ga ")).contains(district);
+    }
+
+    @Test
+    void locate_returnsEmpty_forUnknownOrBlankPostcodes() {
+        assertThat(geocoder.locate("ZZ99 9ZZ")).isEmpty();
+        assertThat(geocoder.locate("  ")).isEmpty();
+        assertThat(geocoder.locate(null)).isEmpty();
+    }
+
+    @Test
+    void geocode_clearsStaleCoordinates_whenPostcodeIsUnknown() {
+        Location moved = location("ZZ99 9ZZ");
+        moved.setLatitude(51.0);
+        moved.setLongitude(-3.0);
+
+        assertThat(geocoder.geocode(moved)).isFalse();
+        assertThat(moved.getLatitude()).isNull();
+        assertThat(moved.getLongitude()).isNull();
+    }
+
+    @Test
+    void backfillMissingCoordinates_geocodesLocationsFromTheTable() {
+        Location bay = location("CF10 4GA");
+        Location gower = location("SA3 1DE");
+        when(locationRepository.findByLatitudeIsNullAndPostcodeIsNotNull()).thenReturn(List.of(bay, gower));
+
+        geocoder.backfillMissingCoordinates();
+
+        assertThat(bay.getLatitude()).isNotNull();
+        assertThat(gower.getLongitude()).isLessThan(bay.getLongitude());
+    }
+}
@@ -0,0 +1,136 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.event.ExperienceChangedEvent;
+import com.Mybeez.TeamB.TeamB.exception.InvalidCouponException;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Coupon;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.payload.CouponDTO;
+import com.Mybeez.TeamB.TeamB.payload.PriceQuote;
+import com.Mybeez.TeamB.TeamB.repository.AvailabilityRepository;
+import com.Mybeez.TeamB.TeamB.service.CouponService;
+import com.Mybeez.TeamB.TeamB.service.PriceQuoteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PriceQuoteServiceTest {
+
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+    @Mock
+    private CouponService couponService;
+
+    private PriceQuoteService priceQuoteService;
+
+    @BeforeEach
+    void setUp() {
+        priceQuoteService = new PriceQuoteService(availabilityRepository, couponService, 600, 100, "");
+
+        Experience experience = Experience.builder()
+                .id(1L)
+                .groupPricePerPerson(new BigDecimal("25.00"))
+                .privatePrice(new BigDecimal("120.00"))
+                .build();
+        Availability groupSlot = Availability.builder().id(101L).capacity(10).experience(experience).build();
+        Availability privateSlot = Availability.builder().id(102L).capacity(1).experience(experience).build();
+        lenient().when(availabilityRepository.findById(101)).thenReturn(Optional.of(groupSlot));
+        lenient().when(availabilityRepository.findById(102)).thenReturn(Optional.of(privateSlot));
+    }
+
+    private static CouponDTO coupon(String code, String percentage) {
+        Coupon coupon = new Coupon();
+        coupon.setCode(code);
+        coupon.setDiscountPercentage(new BigDecimal(percentage));
+        return new CouponDTO(coupon);
+    }
+
+    @Test
+    void quote_pricesGroupSlotsPerGuest_andPrivateSlotsFlat() {
+        assertThat(priceQuoteService.quote(101L, 3, null).total()).isEqualByComparingTo("75.00");
+        assertThat(priceQuoteService.quote(102L, 2, null).total()).isEqualByComparingTo("120.00");
+    }
+
+    @Test
+    void listPrice_isWhatAQuoteCharges() {
+        Experience experience = Experience.builder()
+                .groupPricePerPerson(new BigDecimal("25.00"))
+                .privatePrice(new BigDecimal("120.00"))
+                .build();
+
+        assertThat(PriceQuoteService.listPrice(experience, false).multiply(new BigDecimal(3)))
+                .isEqualByComparingTo(priceQuoteService.quote(101L, 3, null).total());
+        assertThat(PriceQuoteService.listPrice(experience, true))
+                .isEqualByComparingTo(priceQuoteService.quote(102L, 2, null).total());
+    }
+
+    @Test
+    void quote_appliesTheCoupon() {
+        when(couponService.validateCoupon("SUMMER20")).thenReturn(coupon("SUMMER20", "20"));
+
+        PriceQuote quote = priceQuoteService.quote(101L, 3, " SUMMER20 ");
+
+        assertThat(quote.subtotal()).isEqualByComparingTo("75.00");
+        assertThat(quote.total()).isEqualByComparingTo("60.00");
+        assertThat(quote.couponCode()).isEqualTo("SUMMER20");
+    }
+
+    @Test
+    void quote_rejectsAnInvalidCoupon() {
+        when(couponService.validateCoupon("OLD")).thenThrow(new InvalidCouponException("This coupon has expired."));
+
+        assertThatThrownBy(() -> priceQuoteService.quote(101L, 3, "OLD")).isInstanceOf(InvalidCouponException.class);
+    }
+
+    @Test
+    void repeatedRequests_areServedFromTheCache() {
+        when(couponService.validateCoupon("SUMMER20")).thenReturn(coupon("SUMMER20", "20"));
+
+        PriceQuote first = priceQuoteService.quote(101L, 3, "SUMMER20");
+        PriceQuote second = priceQuoteService.quote(101L, 3, "SUMMER20");
+
+        assertThat(second).isSameAs(first);
+        assertThat(priceQuoteService.find(first.quoteId())).contains(first);
+        verify(availabilityRepository, times(1)).findById(101);
+        verify(couponService, times(1)).validateCoupon("SUMMER20");
+    }
+
+    @Test
+    void verify_rejectsAlteredAndExpiredQuotes() {
+        PriceQuote quote = priceQuoteService.quote(101L, 3, null);
+        PriceQuote cheaper = new PriceQuote(quote.quoteId(), quote.availabilityId(), quote.experienceId(), quote.guests(),
+                quote.couponCode(), quote.subtotal(), quote.discountPercentage(), new BigDecimal("1.00"),
+                quote.currency(), quote.expiresAt(), quote.signature());
+
+        assertThat(priceQuoteService.verify(quote)).isTrue();
+        assertThat(priceQuoteService.verify(cheaper)).isFalse();
+
+        PriceQuoteService expiring = new PriceQuoteService(availabilityRepository, couponService, 0, 100, "");
+        PriceQuote expired = expiring.quote(101L, 3, null);
+        assertThat(expiring.verify(expired)).isFalse();
+        assertThat(expiring.find(expired.quoteId())).isEmpty();
+    }
+
+    @Test
+    void onExperienceChanged_dropsThatExperiencesQuotes() {
+        PriceQuote quote = priceQuoteService.quote(101L, 3, null);
+
+        priceQuoteService.onExperienceChanged(new ExperienceChangedEvent(1L));
+
+        assertThat(priceQuoteService.find(quote.quoteId())).isEmpty();
+        assertThat(priceQuoteService.quote(101L, 3, null).quoteId()).isNotEqualTo(quote.quoteId());
+    }
+}
@@ -5,6 +5,7 @@ import com.Mybeez.TeamB.TeamB.model.Experience;
 import com.Mybeez.TeamB.TeamB.model.Review;
 import com.Mybeez.TeamB.TeamB.model.ReviewStatus;
 import com.Mybeez.TeamB.TeamB.repository.ReviewRepository;
+import com.Mybeez.TeamB.TeamB.service.ExperienceRatingService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -22,16 +23,19 @@ class ReviewManagementControllerUnitTest {
     @Mock
     ReviewRepository reviewRepository;
 
+    @Mock
+    ExperienceRatingService ratingService;
+
     @InjectMocks
     ReviewManagementController controller;
 
-    private Review pendingReview(Long id) {
+    private Review review(Long id, ReviewStatus status) {
         Review r = new Review();
         r.setId(id);
         r.setReviewerName("Bob");
         r.setRating(4);
         r.setReviewText("Pretty good!");
-        r.setStatus(ReviewStatus.PENDING);
+        r.setStatus(status);
         Experience e = new Experience();
         e.setId(10L);
         r.setExperience(e);
@@ -39,10 +43,10 @@ class ReviewManagementControllerUnitTest {
     }
 
     @Test
-    void approveReview_setsStatusApproved_andSaves() {
+    void approveReview_moderatesToApproved() {
         // Given
-        Review r = pendingReview(5L);
-        when(reviewRepository.findById(5L)).thenReturn(Optional.of(r));
+        when(ratingService.moderate(5L, ReviewStatus.APPROVED))
+                .thenReturn(Optional.of(review(5L, ReviewStatus.APPROVED)));
 
         // When
         ResponseEntity<String> resp = controller.approveReview(5L);
@@ -50,18 +54,15 @@ class ReviewManagementControllerUnitTest {
         // Then
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
         assertThat(resp.getBody()).isEqualTo("Review approved");
-        assertThat(r.getStatus()).isEqualTo(ReviewStatus.APPROVED);
-
-        ArgumentCaptor<Review> captor = ArgumentCaptor.forClass(Review.class);
-        verify(reviewRepository).save(captor.capture());
-        assertThat(captor.getValue().getStatus()).isEqualTo(ReviewStatus.APPROVED);
+        verify(ratingService).moderate(5L, ReviewStatus.APPROVED);
+        verifyNoInteractions(reviewRepository);
     }
 
     @Test
-    void rejectReview_setsStatusRejected_andSaves() {
+    void rejectReview_moderatesToRejected() {
         // Given
-        Review r = pendingReview(6L);
-        when(reviewRepository.findById(6L)).thenReturn(Optional.of(r));
+        when(ratingService.moderate(6L, ReviewStatus.REJECTED))
+                .thenReturn(Optional.of(review(6L, ReviewStatus.REJECTED)));
 
         // When
         ResponseEntity<String> resp = controller.rejectReview(6L);
@@ -69,30 +70,25 @@ class ReviewManagementControllerUnitTest {
         // Then
         assertThat(resp.getStatusCode().is2xxSuccessful()).isTrue();
         assertThat(resp.getBody()).isEqualTo("Review rejected");
-        assertThat(r.getStatus()).isEqualTo(ReviewStatus.REJECTED);
-
-        ArgumentCaptor<Review> captor = ArgumentCaptor.forClass(Review.class);
-        verify(reviewRepository).save(captor.capture());
-        assertThat(captor.getValue().getStatus()).isEqualTo(ReviewStatus.REJECTED);
+        verify(ratingService).moderate(6L, ReviewStatus.REJECTED);
+        verifyNoInteractions(reviewRepository);
     }
 
     @Test
     void approveReview_returns404_whenMissing() {
-        when(reviewRepository.findById(99L)).thenReturn(Optional.empty());
+        when(ratingService.moderate(99L, ReviewStatus.APPROVED)).thenReturn(Optional.empty());
 
         ResponseEntity<String> resp = controller.approveReview(99L);
 
         assertThat(resp.getStatusCodeValue()).isEqualTo(404);
-        verify(reviewRepository, never()).save(any());
     }
 
     @Test
     void rejectReview_returns404_whenMissing() {
-        when(reviewRepository.findById(98L)).thenReturn(Optional.empty());
+        when(ratingService.moderate(98L, ReviewStatus.REJECTED)).thenReturn(Optional.empty());
 
         ResponseEntity<String> resp = controller.rejectReview(98L);
 
         assertThat(resp.getStatusCodeValue()).isEqualTo(404);
-        verify(reviewRepository, never()).save(any());
     }
 }
@@ -0,0 +1,93 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.Integration.FakeStripeEvents;
+import com.Mybeez.TeamB.TeamB.Integration.FakeStripeEvents.FakeEvent;
+import com.Mybeez.TeamB.TeamB.exception.BookingException;
+import com.Mybeez.TeamB.TeamB.payload.BookingRequest;
+import com.Mybeez.TeamB.TeamB.service.BookingService;
+import com.Mybeez.TeamB.TeamB.service.PaymentRefundService;
+import com.Mybeez.TeamB.TeamB.service.SeatHoldService;
+import com.Mybeez.TeamB.TeamB.service.StripeEventHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StripeEventHandlerTest {
+
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private SeatHoldService seatHoldService;
+    @Mock
+    private PaymentRefundService refundService;
+
+    @InjectMocks
+    private StripeEventHandler handler;
+
+    @Test
+    void completedCheckout_withAHold_convertsTheHold() {
+        FakeEvent event = FakeStripeEvents.checkoutCompleted(
+                Map.of("userId", "7", "availabilityId", "101", "guestCount", "2", "holdId", "55"));
+
+        handler.handle(event.type(), event.payload());
+
+        verify(bookingService).createBookingFromHold(55L);
+    }
+
+    @Test
+    void completedCheckout_withoutAHold_booksFromTheMetadata() {
+        FakeEvent event = FakeStripeEvents.checkoutCompleted(
+                Map.of("userId", "7", "availabilityId", "101", "guestCount", "2"));
+
+        handler.handle(event.type(), event.payload());
+
+        ArgumentCaptor<BookingRequest> request = ArgumentCaptor.forClass(BookingRequest.class);
+        verify(bookingService).createBookingForCheckout(request.capture(), eq(7L), startsWith("cs_test_"));
+        assertThat(request.getValue().getAvailabilityId()).isEqualTo(101);
+        assertThat(request.getValue().getNumberOfGuests()).isEqualTo(2);
+    }
+
+    @Test
+    void completedCheckout_thatCanNoLongerBeBooked_isRefunded() {
+        FakeEvent event = FakeStripeEvents.checkoutCompleted(
+                Map.of("userId", "7", "availabilityId", "101", "guestCount", "2", "holdId", "55"));
+        when(bookingService.createBookingFromHold(55L))
+                .thenThrow(new BookingException("Not enough spots available for this time slot."));
+
+        handler.handle(event.type(), event.payload());
+
+        verify(refundService).refund(startsWith("pi_test_"));
+    }
+
+    @Test
+    void expiredCheckout_releasesTheHold() {
+        FakeEvent event = FakeStripeEvents.checkoutExpired(Map.of("holdId", "55"));
+
+        handler.handle(event.type(), event.payload());
+
+        verify(seatHoldService).release(55L);
+    }
+
+    @Test
+    void unknownTypesAreIgnored_andUnreadablePayloadsRejected() {
+        handler.handle("customer.created", "{}");
+        verifyNoInteractions(bookingService, seatHoldService, refundService);
+
+        assertThatThrownBy(() -> handler.handle("checkout.session.completed", "{\"id\":\"evt_1\",\"object\":\"event\"}"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
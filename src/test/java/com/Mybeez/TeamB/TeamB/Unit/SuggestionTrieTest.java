@@ -0,0 +1,77 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.payload.Suggestion;
+import com.Mybeez.TeamB.TeamB.service.SuggestionTrie;
+import com.Mybeez.TeamB.TeamB.service.SuggestionTrie.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+    private static final SuggestionTrie TRIE = SuggestionTrie.build(List.of(
+            new Entry("Sunset Yoga by the Sea", Suggestion.Type.TITLE, 1L, 5),
+            new Entry("Yoga", Suggestion.Type.TAG, null, 9),
+            new Entry("Fitness & Wellness", Suggestion.Type.CATEGORY, null, 7),
+            new Entry("Cardiff", Suggestion.Type.CITY, null, 12),
+            new Entry("Café Crawl", Suggestion.Type.TITLE, 2L, 3),
+            new Entry("Street Photography Masterclass", Suggestion.Type.TITLE, 3L, 4)));
+
+    private static List<String> texts(List<Entry> entries) {
+        return entries.stream().map(Entry::text).toList();
+    }
+
+    @Test
+    void lookup_matchesTheStartOfAnyWord_heaviestFirst() {
+        assertThat(texts(TRIE.lookup("yo", 10))).containsExactly("Yoga", "Sunset Yoga by the Sea");
+        assertThat(texts(TRIE.lookup("sea", 10))).containsExactly("Sunset Yoga by the Sea");
+        assertThat(texts(TRIE.lookup("ca", 10))).containsExactly("Cardiff", "Café Crawl");
+    }
+
+    @Test
+    void lookup_ignoresCaseAccentsAndPunctuation() {
+        assertThat(texts(TRIE.lookup("CAFE", 10))).containsExactly("Café Crawl");
+        assertThat(texts(TRIE.lookup("fitness  wel", 10))).containsExactly("Fitness & Wellness");
+    }
+
+    @Test
+    void lookup_doesNotStartMatchesAtStopWords() {
+        assertThat(TRIE.lookup("the", 10)).isEmpty();
+        assertThat(TRIE.lookup("by", 10)).isEmpty();
+    }
+
+    @Test
+    void lookup_returnsNothing_forBlankOrUnknownPrefixes() {
+        assertThat(TRIE.lookup("  ", 10)).isEmpty();
+        assertThat(TRIE.lookup("zebra", 10)).isEmpty();
+        assertThat(SuggestionTrie.EMPTY.lookup("yoga", 10)).isEmpty();
+    }
+
+    @Test
+    void lookup_appliesLimit_andNeverRepeatsASuggestion() {
+        List<Entry> many = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            many.add(new Entry("Walk walk " + i, Suggestion.Type.TITLE, (long) i, i));
+        }
+        SuggestionTrie trie = SuggestionTrie.build(many);
+
+        List<Entry> top = trie.lookup("walk", 20);
+
+        assertThat(top).hasSize(SuggestionTrie.MAX_RESULTS);
+        assertThat(top).extracting(Entry::experienceId).doesNotHaveDuplicates().startsWith(29L, 28L, 27L);
+        assertThat(trie.lookup("walk", 3)).hasSize(3);
+    }
+
+    @Test
+    void lookup_checksPrefixesLongerThanTheTrieDepth() {
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+                new Entry("Photography walk around the old docks", Suggestion.Type.TITLE, 1L, 2),
+                new Entry("Photography walk around the old market", Suggestion.Type.TITLE, 2L, 1)));
+
+        assertThat(trie.lookup("photography walk around the old m", 10))
+                .extracting(Entry::experienceId).containsExactly(2L);
+    }
+}
@@ -0,0 +1,131 @@
+package com.Mybeez.TeamB.TeamB.Unit;
+
+import com.Mybeez.TeamB.TeamB.event.WaitlistPromotedEvent;
+import com.Mybeez.TeamB.TeamB.model.Availability;
+import com.Mybeez.TeamB.TeamB.model.Experience;
+import com.Mybeez.TeamB.TeamB.model.SeatHold;
+import com.Mybeez.TeamB.TeamB.model.SeatHoldStatus;
+import com.Mybeez.TeamB.TeamB.model.User;
+import com.Mybeez.TeamB.TeamB.model.WaitlistEntry;
+import com.Mybeez.TeamB.TeamB.model.WaitlistStatus;
+import com.Mybeez.TeamB.TeamB.repository.WaitlistEntryRepository;
+import com.Mybeez.TeamB.TeamB.service.CheckoutSessionService;
+import com.Mybeez.TeamB.TeamB.service.WaitlistNotifier;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.model.checkout.Session;
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistNotifierTest {
+
+    @Mock
+    private WaitlistEntryRepository waitlistRepository;
+    @Mock
+    private CheckoutSessionService checkoutSessionService;
+    @Mock
+    private JavaMailSender mailSender;
+
+    @InjectMocks
+    private WaitlistNotifier notifier;
+
+    private WaitlistEntry entry;
+    private SeatHold hold;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("first@example.com");
+        user.setFirstName("Ffion");
+        Availability slot = Availability.builder()
+                .experience(Experience.builder().title("Gower Hike").build())
+                .date(LocalDate.now().plusDays(3))
+                .build();
+        hold = SeatHold.builder()
+                .id(55L)
+                .user(user)
+                .availability(slot)
+                .numberOfGuests(2)
+                .totalPrice(new BigDecimal("50.00"))
+                .status(SeatHoldStatus.ACTIVE)
+                .expiresAt(LocalDateTime.now().plusMinutes(40))
+                .build();
+        entry = WaitlistEntry.builder()
+                .id(9L)
+                .user(user)
+                .availability(slot)
+                .numberOfGuests(2)
+                .status(WaitlistStatus.PROMOTED)
+                .seatHold(hold)
+                .build();
+        when(waitlistRepository.findById(9L)).thenReturn(Optional.of(entry));
+    }
+
+    @Test
+    void promotion_opensACheckoutForTheHold_andEmailsTheLink() throws Exception {
+        Session session = mock(Session.class);
+        when(session.getUrl()).thenReturn("https://checkout.stripe.com/c/pay/cs_test_1");
+        when(checkoutSessionService.create(eq(hold), eq("Gower Hike"), isNull())).thenReturn(session);
+        when(mailSender.createMimeMessage()).thenReturn(new MimeMessage((jakarta.mail.Session) null));
+
+        notifier.onWaitlistPromoted(new WaitlistPromotedEvent(9L, 55L));
+
+        assertThat(entry.getCheckoutUrl()).isEqualTo("https://checkout.stripe.com/c/pay/cs_test_1");
+        ArgumentCaptor<MimeMessage> sent = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailSender).send(sent.capture());
+        assertThat(sent.getValue().getRecipients(Message.RecipientType.TO)[0].toString()).isEqualTo("first@example.com");
+        assertThat((String) sent.getValue().getContent()).contains("https://checkout.stripe.com/c/pay/cs_test_1");
+    }
+
+    @Test
+    void email_escapesTheNameTitleAndLink() throws Exception {
+        entry.getUser().setFirstName("<b>Ffion</b>");
+        hold.getAvailability().getExperience().setTitle("Gower & \"Rhossili\" Hike");
+        Session session = mock(Session.class);
+        when(session.getUrl()).thenReturn("https://checkout.stripe.com/c/pay/cs_test_1?a=1&b=\"2\"");
+        when(checkoutSessionService.create(any(), any(), any())).thenReturn(session);
+        when(mailSender.createMimeMessage()).thenReturn(new MimeMessage((jakarta.mail.Session) null));
+
+        notifier.onWaitlistPromoted(new WaitlistPromotedEvent(9L, 55L));
+
+        ArgumentCaptor<MimeMessage> sent = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailSender).send(sent.capture());
+        assertThat((String) sent.getValue().getContent())
+                .contains("Hi &lt;b&gt;Ffion&lt;/b&gt;,")
+                .contains("<strong>Gower &amp; &quot;Rhossili&quot; Hike</strong>")
+                .contains("href=\"https://checkout.stripe.com/c/pay/cs_test_1?a=1&amp;b=&quot;2&quot;\"");
+    }
+
+    @Test
+    void noEmail_whenTheCheckoutCannotBeOpened() throws Exception {
+        when(checkoutSessionService.create(any(), any(), any()))
+                .thenThrow(new ApiConnectionException("Stripe is unreachable"));
+
+        notifier.onWaitlistPromoted(new WaitlistPromotedEvent(9L, 55L));
+
+        assertThat(entry.getCheckoutUrl()).isNull();
+        verify(mailSender, never()).send(any(MimeMessage.class));
+    }
+}